@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetLabelName;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares a single {@link SpreadsheetServerAggregateScan} between SUM, AVERAGE, COUNT, COUNTA, COUNTBLANK, MAX and MIN
+ * calls with the same parameters, such as <code>=SUM(A:A)/COUNT(A:A)</code>, so the range is loaded and scanned once.
+ * <br>
+ * Each {@link SpreadsheetServerRecalculation} owns a fusion, so scans are only shared within one recalculation and
+ * are dropped when it is closed. Only parameters with references are kept, and at most {@link #MAX_SCANS} with the
+ * least recently used removed first. Scans of parameters referencing a saved or deleted cell, or any label because it
+ * may name the cell, are removed by {@link #cellChanged(SpreadsheetCellReference)}. The
+ * {@link SpreadsheetExpressionEvaluationContext} is only used to load cells and is never kept.
+ */
+final class SpreadsheetServerAggregateFusion {
+
+    /**
+     * The maximum number of scans kept.
+     */
+    final static int MAX_SCANS = 64;
+
+    private static boolean hasReference(final List<?> parameters) {
+        boolean reference = false;
+
+        for (final Object parameter : parameters) {
+            reference = parameter instanceof SpreadsheetExpressionReference ||
+                    (parameter instanceof List && hasReference((List<?>) parameter));
+            if (reference) {
+                break;
+            }
+        }
+
+        return reference;
+    }
+
+    /**
+     * Scans the given parameters without sharing.
+     */
+    static SpreadsheetServerAggregateScan scan(final List<Object> parameters,
+                                               final SpreadsheetServerRecalculation recalculation,
+                                               final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                parameters,
+                recalculation,
+                context
+        );
+        try {
+            return SpreadsheetServerAggregateScan.with(
+                    range,
+                    recalculation.parallelThreshold(),
+                    context
+            );
+        } finally {
+            range.release();
+        }
+    }
+
+    SpreadsheetServerAggregateFusion() {
+        super();
+    }
+
+    SpreadsheetServerAggregateScan get(final List<Object> parameters,
+                                       final SpreadsheetServerRecalculation recalculation,
+                                       final SpreadsheetExpressionEvaluationContext context) {
+        return hasReference(parameters) ?
+                this.getReferences(
+                        parameters,
+                        recalculation,
+                        context
+                ) :
+                scan(
+                        parameters,
+                        recalculation,
+                        context
+                );
+    }
+
+    private SpreadsheetServerAggregateScan getReferences(final List<Object> parameters,
+                                                         final SpreadsheetServerRecalculation recalculation,
+                                                         final SpreadsheetExpressionEvaluationContext context) {
+        final List<Object> key = Lists.array();
+        key.addAll(parameters);
+
+        SpreadsheetServerAggregateScan scan;
+        final long changes;
+        synchronized (this) {
+            scan = this.scans.get(key);
+            changes = this.changes;
+        }
+
+        if (null == scan) {
+            scan = scan(
+                    key,
+                    recalculation,
+                    context
+            );
+
+            synchronized (this) {
+                if (changes == this.changes) {
+                    this.scans.put(
+                            key,
+                            scan
+                    );
+                }
+            }
+        }
+
+        return scan;
+    }
+
+    /**
+     * Removes all scans.
+     */
+    synchronized void clear() {
+        this.scans.clear();
+        this.changes++;
+    }
+
+    /**
+     * Removes the scans whose parameters reference the given cell, which was saved or deleted.
+     */
+    synchronized void cellChanged(final SpreadsheetCellReference cell) {
+        final Iterator<List<Object>> parameters = this.scans.keySet()
+                .iterator();
+        while (parameters.hasNext()) {
+            if (references(parameters.next(), cell)) {
+                parameters.remove();
+            }
+        }
+        this.changes++;
+    }
+
+    private static boolean references(final List<?> parameters,
+                                      final SpreadsheetCellReference cell) {
+        boolean references = false;
+
+        for (final Object parameter : parameters) {
+            references = parameter instanceof SpreadsheetLabelName ||
+                    (parameter instanceof SpreadsheetExpressionReference && ((SpreadsheetExpressionReference) parameter).testCell(cell)) ||
+                    (parameter instanceof List && references((List<?>) parameter, cell));
+            if (references) {
+                break;
+            }
+        }
+
+        return references;
+    }
+
+    /**
+     * Incremented whenever a cell changes or the scans are cleared, so scans computed before are not kept.
+     */
+    private long changes;
+
+    private final Map<List<Object>, SpreadsheetServerAggregateScan> scans = new LinkedHashMap<List<Object>, SpreadsheetServerAggregateScan>(
+            16,
+            0.75f,
+            true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<List<Object>, SpreadsheetServerAggregateScan> eldest) {
+            return this.size() > MAX_SCANS;
+        }
+    };
+
+    @Override
+    public synchronized String toString() {
+        return this.scans.keySet()
+                .toString();
+    }
+}
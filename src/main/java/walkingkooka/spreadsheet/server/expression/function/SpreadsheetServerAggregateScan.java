@@ -0,0 +1,380 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+/**
+ * The results of SUM, AVERAGE, COUNT, COUNTA, COUNTBLANK, MAX and MIN computed together in a single pass over the
+ * {@link SpreadsheetServerColumn} of a {@link SpreadsheetServerSparseRange}. A value that cannot be converted to a
+ * number only fails SUM, AVERAGE, MAX and MIN, the failure is kept and thrown when the sum, max or min is read, leaving
+ * the counts available.
+ */
+final class SpreadsheetServerAggregateScan {
+
+    static SpreadsheetServerAggregateScan with(final SpreadsheetServerSparseRange range,
+                                               final int parallelThreshold,
+                                               final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerColumn column = range.column();
+        final int size = column.size();
+
+        // values that are not numbers are converted on this thread, the context is never given to the chunks
+        ExpressionNumber[] converted = null;
+        RuntimeException failure = null;
+
+        if (column.count(SpreadsheetServerColumn.DATE_TIME) + column.count(SpreadsheetServerColumn.OTHER) > 0) {
+            converted = new ExpressionNumber[size];
+
+            for (int i = 0; i < size; i++) {
+                final byte tag = column.tag(i);
+                if (SpreadsheetServerColumn.DATE_TIME == tag || SpreadsheetServerColumn.OTHER == tag) {
+                    try {
+                        converted[i] = context.convertOrFail(
+                                column.value(i),
+                                ExpressionNumber.class
+                        );
+                    } catch (final RuntimeException cause) {
+                        failure = cause;
+                        break;
+                    }
+                }
+            }
+        }
+
+        ExpressionNumber sum = null;
+        ExpressionNumber max = null;
+        ExpressionNumber min = null;
+        if (null == failure) {
+            final ExpressionNumber[] numbers = converted;
+            final ExpressionNumberContext numberContext = SpreadsheetServerChunkedReduction.context(context);
+
+            final Partial partial = SpreadsheetServerChunkedReduction.reduce(
+                    size,
+                    parallelThreshold,
+                    () -> new Partial(
+                            column,
+                            numbers,
+                            numberContext
+                    ),
+                    Partial::accept,
+                    Partial::merge
+            );
+
+            final ExpressionNumberKind kind = numberContext.expressionNumberKind();
+            sum = partial.sum.result();
+            max = partial.max(kind);
+            min = partial.min(kind);
+        }
+
+        return new SpreadsheetServerAggregateScan(
+                column.count(),
+                size,
+                range.missing(),
+                sum,
+                max,
+                min,
+                failure
+        );
+    }
+
+    private SpreadsheetServerAggregateScan(final long count,
+                                           final long countA,
+                                           final long missing,
+                                           final ExpressionNumber sum,
+                                           final ExpressionNumber max,
+                                           final ExpressionNumber min,
+                                           final RuntimeException failure) {
+        this.count = count;
+        this.countA = countA;
+        this.missing = missing;
+        this.sum = sum;
+        this.max = max;
+        this.min = min;
+        this.failure = failure;
+    }
+
+    /**
+     * The number of numbers, dates, date-times and times.
+     */
+    long count() {
+        return this.count;
+    }
+
+    private final long count;
+
+    /**
+     * The number of values.
+     */
+    long countA() {
+        return this.countA;
+    }
+
+    private final long countA;
+
+    /**
+     * The number of missing cells, null values and missing cell errors.
+     */
+    long missing() {
+        return this.missing;
+    }
+
+    private final long missing;
+
+    /**
+     * The sum of all values after converting each to a {@link ExpressionNumber}, throwing the conversion failure of
+     * the first value that is not a number.
+     */
+    ExpressionNumber sum() {
+        this.failIfNotNumbers();
+        return this.sum;
+    }
+
+    private final ExpressionNumber sum;
+
+    /**
+     * The largest value after converting each to a {@link ExpressionNumber}, or zero when there are no values.
+     */
+    ExpressionNumber max() {
+        this.failIfNotNumbers();
+        return this.max;
+    }
+
+    private final ExpressionNumber max;
+
+    /**
+     * The smallest value after converting each to a {@link ExpressionNumber}, or zero when there are no values.
+     */
+    ExpressionNumber min() {
+        this.failIfNotNumbers();
+        return this.min;
+    }
+
+    private final ExpressionNumber min;
+
+    /**
+     * Throws the conversion failure of the first value that is not a number.
+     */
+    private void failIfNotNumbers() {
+        final RuntimeException failure = this.failure;
+        if (null != failure) {
+            throw failure;
+        }
+    }
+
+    private final RuntimeException failure;
+
+    @Override
+    public String toString() {
+        return "count: " + this.count +
+                " countA: " + this.countA +
+                " missing: " + this.missing +
+                (null != this.failure ?
+                        " sum: " + this.failure.getMessage() :
+                        " sum: " + this.sum + " max: " + this.max + " min: " + this.min);
+    }
+
+    /**
+     * The partial sum, max and min of one chunk of values. Whole numbers and double fractions are read from the
+     * {@link SpreadsheetServerColumn} without unboxing and their max and min are kept as primitives, all other values
+     * were converted before reducing.
+     */
+    private static final class Partial {
+
+        Partial(final SpreadsheetServerColumn column,
+                final ExpressionNumber[] converted,
+                final ExpressionNumberContext context) {
+            this.column = column;
+            this.converted = converted;
+            this.doubleKind = ExpressionNumberKind.DOUBLE == context.expressionNumberKind();
+            this.sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        }
+
+        void accept(final int index) {
+            final SpreadsheetServerColumn column = this.column;
+
+            switch (column.tag(index)) {
+                case SpreadsheetServerColumn.LONG:
+                    this.acceptLong(column.longValue(index));
+                    break;
+                case SpreadsheetServerColumn.DOUBLE:
+                    if (this.doubleKind) {
+                        this.acceptDouble(column.doubleValue(index));
+                    } else {
+                        this.acceptNumber((ExpressionNumber) column.value(index));
+                    }
+                    break;
+                case SpreadsheetServerColumn.NUMBER:
+                    this.acceptNumber((ExpressionNumber) column.value(index));
+                    break;
+                default:
+                    this.acceptNumber(this.converted[index]);
+                    break;
+            }
+        }
+
+        private void acceptLong(final long value) {
+            this.sum.accept(value);
+
+            if (this.longs) {
+                this.longMax = Math.max(this.longMax, value);
+                this.longMin = Math.min(this.longMin, value);
+            } else {
+                this.longs = true;
+                this.longMax = value;
+                this.longMin = value;
+            }
+        }
+
+        private void acceptDouble(final double value) {
+            this.sum.accept(value);
+
+            if (this.doubles) {
+                this.doubleMax = Math.max(this.doubleMax, value);
+                this.doubleMin = Math.min(this.doubleMin, value);
+            } else {
+                this.doubles = true;
+                this.doubleMax = value;
+                this.doubleMin = value;
+            }
+        }
+
+        private void acceptNumber(final ExpressionNumber value) {
+            this.sum.accept(value);
+
+            this.numberMax = max(this.numberMax, value);
+            this.numberMin = min(this.numberMin, value);
+        }
+
+        /**
+         * Partials are merged in chunk order.
+         */
+        void merge(final Partial other) {
+            this.sum.merge(other.sum);
+
+            if (other.longs) {
+                if (this.longs) {
+                    this.longMax = Math.max(this.longMax, other.longMax);
+                    this.longMin = Math.min(this.longMin, other.longMin);
+                } else {
+                    this.longs = true;
+                    this.longMax = other.longMax;
+                    this.longMin = other.longMin;
+                }
+            }
+
+            if (other.doubles) {
+                if (this.doubles) {
+                    this.doubleMax = Math.max(this.doubleMax, other.doubleMax);
+                    this.doubleMin = Math.min(this.doubleMin, other.doubleMin);
+                } else {
+                    this.doubles = true;
+                    this.doubleMax = other.doubleMax;
+                    this.doubleMin = other.doubleMin;
+                }
+            }
+
+            this.numberMax = max(this.numberMax, other.numberMax);
+            this.numberMin = min(this.numberMin, other.numberMin);
+        }
+
+        /**
+         * Returns the largest of all values or zero when there are none.
+         */
+        ExpressionNumber max(final ExpressionNumberKind kind) {
+            ExpressionNumber max = this.numberMax;
+            if (this.longs) {
+                max = max(max, kind.create(this.longMax));
+            }
+            if (this.doubles) {
+                max = max(max, kind.create(this.doubleMax));
+            }
+            return null != max ?
+                    max :
+                    kind.zero();
+        }
+
+        /**
+         * Returns the smallest of all values or zero when there are none.
+         */
+        ExpressionNumber min(final ExpressionNumberKind kind) {
+            ExpressionNumber min = this.numberMin;
+            if (this.longs) {
+                min = min(min, kind.create(this.longMin));
+            }
+            if (this.doubles) {
+                min = min(min, kind.create(this.doubleMin));
+            }
+            return null != min ?
+                    min :
+                    kind.zero();
+        }
+
+        private static ExpressionNumber max(final ExpressionNumber max,
+                                            final ExpressionNumber number) {
+            return null == max || (null != number && number.compareTo(max) > 0) ?
+                    number :
+                    max;
+        }
+
+        private static ExpressionNumber min(final ExpressionNumber min,
+                                            final ExpressionNumber number) {
+            return null == min || (null != number && number.compareTo(min) < 0) ?
+                    number :
+                    min;
+        }
+
+        private final SpreadsheetServerColumn column;
+
+        /**
+         * The converted value of each date, time and other value, null when all values are numbers.
+         */
+        private final ExpressionNumber[] converted;
+
+        private final boolean doubleKind;
+
+        private final SpreadsheetServerExpressionNumberAccumulator sum;
+
+        /**
+         * True when at least one whole number was read from the column.
+         */
+        private boolean longs;
+
+        private long longMax;
+
+        private long longMin;
+
+        /**
+         * True when at least one double fraction was read from the column.
+         */
+        private boolean doubles;
+
+        private double doubleMax;
+
+        private double doubleMin;
+
+        /**
+         * The max and min of all other numbers, null when there are none.
+         */
+        private ExpressionNumber numberMax;
+
+        private ExpressionNumber numberMin;
+    }
+}
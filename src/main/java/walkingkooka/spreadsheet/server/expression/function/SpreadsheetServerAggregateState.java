@@ -0,0 +1,587 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.ToStringBuilder;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
+import walkingkooka.tree.json.marshall.JsonNodeContext;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContext;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The partial state of the aggregate functions SUM, COUNT, COUNTA, COUNTBLANK, AVERAGE, MIN, MAX and PRODUCT for some
+ * of the values of a range. Each shard of a sheet computes a state for its own cells, the states are marshalled
+ * and sent to a coordinator, which merges them and then reads the result of any of the aggregate functions.
+ * <br>
+ * The *IF functions use the same state, each shard computing its state from only the values matching the criteria
+ * using {@link #computeIf(List, Object, SpreadsheetExpressionEvaluationContext)}.
+ * <br>
+ * A value that cannot be converted to a number is left out of SUM, PRODUCT, MIN and MAX and its failure message is
+ * kept, reading any of those or AVERAGE then fails, while the counts remain available.
+ * <br>
+ * Whole number sums and products are merged exactly, {@link BigDecimal} sums that round may differ in the
+ * last digit from evaluating all the values on one node, because the rounding happens in a different order.
+ */
+public final class SpreadsheetServerAggregateState {
+
+    /**
+     * Computes the state for the given parameters, which may include references, in the same way the aggregate
+     * functions of this module do.
+     */
+    public static SpreadsheetServerAggregateState compute(final List<Object> parameters,
+                                                          final SpreadsheetExpressionEvaluationContext context) {
+        Objects.requireNonNull(parameters, "parameters");
+        Objects.requireNonNull(context, "context");
+
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                parameters,
+                context
+        );
+        try {
+            return with(
+                    range,
+                    context
+            );
+        } finally {
+            range.release();
+        }
+    }
+
+    /**
+     * Computes the state of the values of the given parameters that match the criteria, in the same way as the *IF
+     * functions. Missing cells are only counted when the criteria matches blank cells.
+     */
+    public static SpreadsheetServerAggregateState computeIf(final List<Object> parameters,
+                                                            final Object criteria,
+                                                            final SpreadsheetExpressionEvaluationContext context) {
+        Objects.requireNonNull(parameters, "parameters");
+        Objects.requireNonNull(context, "context");
+
+        final SpreadsheetServerCriteria compiled = SpreadsheetServerCriteria.parse(
+                criteria instanceof SpreadsheetExpressionReference ?
+                        SpreadsheetServerSparseRange.cellValue(
+                                (SpreadsheetExpressionReference) criteria,
+                                context
+                        ) :
+                        criteria,
+                context.expressionNumberKind()
+        );
+
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                parameters,
+                context
+        );
+        try {
+            final List<Object> matches = Lists.array();
+            for (final Object value : range.values()) {
+                if (compiled.test(value)) {
+                    matches.add(value);
+                }
+            }
+
+            final SpreadsheetServerSparseRange matched = SpreadsheetServerSparseRange.with(
+                    matches,
+                    compiled.matchesBlank() ?
+                            range.missing() :
+                            0
+            );
+            try {
+                return with(
+                        matched,
+                        context
+                );
+            } finally {
+                matched.release();
+            }
+        } finally {
+            range.release();
+        }
+    }
+
+    static SpreadsheetServerAggregateState with(final SpreadsheetServerSparseRange range,
+                                                final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerColumn column = range.column();
+
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        final SpreadsheetServerExpressionNumberAccumulator product = SpreadsheetServerExpressionNumberAccumulator.product(context);
+        ExpressionNumber min = null;
+        ExpressionNumber max = null;
+        String failure = null;
+        long numbers = 0;
+
+        final int size = column.size();
+        for (int i = 0; i < size; i++) {
+            final ExpressionNumber number;
+
+            switch (column.tag(i)) {
+                case SpreadsheetServerColumn.LONG:
+                    final long whole = column.longValue(i);
+                    sum.accept(whole);
+                    product.accept(whole);
+                    number = (ExpressionNumber) column.value(i);
+                    break;
+                case SpreadsheetServerColumn.DOUBLE:
+                case SpreadsheetServerColumn.NUMBER:
+                    number = (ExpressionNumber) column.value(i);
+                    sum.accept(number);
+                    product.accept(number);
+                    break;
+                default:
+                    try {
+                        number = context.convertOrFail(
+                                column.value(i),
+                                ExpressionNumber.class
+                        );
+                    } catch (final RuntimeException cause) {
+                        if (null == failure) {
+                            failure = message(cause);
+                        }
+                        continue;
+                    }
+                    sum.accept(number);
+                    product.accept(number);
+                    break;
+            }
+
+            min = min(min, number);
+            max = max(max, number);
+            numbers++;
+        }
+
+        return new SpreadsheetServerAggregateState(
+                context.expressionNumberKind(),
+                column.count(),
+                size,
+                range.missing(),
+                sum.result(),
+                0 == numbers ? null : product.result(),
+                min,
+                max,
+                failure
+        );
+    }
+
+    private static String message(final RuntimeException cause) {
+        final String message = cause.getMessage();
+        return null != message ?
+                message :
+                cause.toString();
+    }
+
+    /**
+     * Creates a state without any values or missing cells.
+     */
+    public static SpreadsheetServerAggregateState empty(final ExpressionNumberKind kind) {
+        Objects.requireNonNull(kind, "kind");
+
+        return new SpreadsheetServerAggregateState(
+                kind,
+                0,
+                0,
+                0,
+                kind.zero(),
+                null,
+                null,
+                null,
+                null
+        );
+    }
+
+    private SpreadsheetServerAggregateState(final ExpressionNumberKind kind,
+                                            final long count,
+                                            final long countA,
+                                            final long missing,
+                                            final ExpressionNumber sum,
+                                            final ExpressionNumber product,
+                                            final ExpressionNumber min,
+                                            final ExpressionNumber max,
+                                            final String failure) {
+        this.kind = kind;
+        this.count = count;
+        this.countA = countA;
+        this.missing = missing;
+        this.sum = sum;
+        this.product = product;
+        this.min = min;
+        this.max = max;
+        this.failure = failure;
+    }
+
+    /**
+     * Merges this state with the state of another shard. States of the same range should be merged in shard order,
+     * giving the same result on every coordinator.
+     */
+    public SpreadsheetServerAggregateState merge(final SpreadsheetServerAggregateState other,
+                                                 final ExpressionNumberContext context) {
+        Objects.requireNonNull(other, "other");
+        Objects.requireNonNull(context, "context");
+
+        if (this.kind != other.kind) {
+            throw new IllegalArgumentException("Different kind " + this.kind + " and " + other.kind);
+        }
+
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        sum.accept(this.sum);
+        sum.accept(other.sum);
+
+        final ExpressionNumber product;
+        if (null == this.product || null == other.product) {
+            product = null == this.product ?
+                    other.product :
+                    this.product;
+        } else {
+            final SpreadsheetServerExpressionNumberAccumulator accumulator = SpreadsheetServerExpressionNumberAccumulator.product(context);
+            accumulator.accept(this.product);
+            accumulator.accept(other.product);
+            product = accumulator.result();
+        }
+
+        return new SpreadsheetServerAggregateState(
+                this.kind,
+                this.count + other.count,
+                this.countA + other.countA,
+                this.missing + other.missing,
+                sum.result(),
+                product,
+                null == other.min ? this.min : min(this.min, other.min),
+                null == other.max ? this.max : max(this.max, other.max),
+                null != this.failure ? this.failure : other.failure
+        );
+    }
+
+    private static ExpressionNumber min(final ExpressionNumber min,
+                                        final ExpressionNumber number) {
+        return null == min || number.compareTo(min) < 0 ?
+                number :
+                min;
+    }
+
+    private static ExpressionNumber max(final ExpressionNumber max,
+                                        final ExpressionNumber number) {
+        return null == max || number.compareTo(max) > 0 ?
+                number :
+                max;
+    }
+
+    // results..........................................................................................................
+
+    /**
+     * The result of SUM.
+     */
+    public ExpressionNumber sum() {
+        this.failIfNotNumbers();
+        return this.sum;
+    }
+
+    /**
+     * The result of COUNT, the number of numbers, dates, date-times and times.
+     */
+    public ExpressionNumber count() {
+        return this.kind.create(this.count);
+    }
+
+    /**
+     * The result of COUNTA, the number of values.
+     */
+    public ExpressionNumber countA() {
+        return this.kind.create(this.countA);
+    }
+
+    /**
+     * The result of COUNTBLANK, the number of missing cells.
+     */
+    public ExpressionNumber countBlank() {
+        return this.kind.create(this.missing);
+    }
+
+    /**
+     * The result of AVERAGE, the sum divided by the number of values and missing cells.
+     */
+    public ExpressionNumber average(final ExpressionNumberContext context) {
+        Objects.requireNonNull(context, "context");
+        this.failIfNotNumbers();
+
+        final long count = this.countA + this.missing;
+        if (0 == count) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        return this.sum.divide(
+                this.kind.create(count),
+                context
+        );
+    }
+
+    /**
+     * The result of PRODUCT, which is zero when there are no values.
+     */
+    public ExpressionNumber product() {
+        this.failIfNotNumbers();
+        return this.zeroIfNull(this.product);
+    }
+
+    /**
+     * The result of MIN, which is zero when there are no values.
+     */
+    public ExpressionNumber min() {
+        this.failIfNotNumbers();
+        return this.zeroIfNull(this.min);
+    }
+
+    /**
+     * The result of MAX, which is zero when there are no values.
+     */
+    public ExpressionNumber max() {
+        this.failIfNotNumbers();
+        return this.zeroIfNull(this.max);
+    }
+
+    /**
+     * Throws the failure message of the first value that could not be converted to a number.
+     */
+    private void failIfNotNumbers() {
+        final String failure = this.failure;
+        if (null != failure) {
+            throw new IllegalArgumentException(failure);
+        }
+    }
+
+    private ExpressionNumber zeroIfNull(final ExpressionNumber number) {
+        return null != number ?
+                number :
+                this.kind.zero();
+    }
+
+    private final ExpressionNumberKind kind;
+
+    private final long count;
+
+    private final long countA;
+
+    private final long missing;
+
+    private final ExpressionNumber sum;
+
+    /**
+     * The product of all values, null when there are no values.
+     */
+    private final ExpressionNumber product;
+
+    /**
+     * The smallest value, null when there are no values.
+     */
+    private final ExpressionNumber min;
+
+    /**
+     * The largest value, null when there are no values.
+     */
+    private final ExpressionNumber max;
+
+    /**
+     * The message of the first value that could not be converted to a number, null when all values are numbers.
+     */
+    private final String failure;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                this.kind,
+                this.count,
+                this.countA,
+                this.missing,
+                this.sum,
+                this.product,
+                this.min,
+                this.max,
+                this.failure
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof SpreadsheetServerAggregateState &&
+                        this.equals0((SpreadsheetServerAggregateState) other);
+    }
+
+    private boolean equals0(final SpreadsheetServerAggregateState other) {
+        return this.kind == other.kind &&
+                this.count == other.count &&
+                this.countA == other.countA &&
+                this.missing == other.missing &&
+                this.sum.equals(other.sum) &&
+                Objects.equals(this.product, other.product) &&
+                Objects.equals(this.min, other.min) &&
+                Objects.equals(this.max, other.max) &&
+                Objects.equals(this.failure, other.failure);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.empty()
+                .label("count").value(this.count)
+                .label("countA").value(this.countA)
+                .label("missing").value(this.missing)
+                .label("sum").value(this.sum)
+                .label("product").value(this.product)
+                .label("min").value(this.min)
+                .label("max").value(this.max)
+                .label("failure").value(this.failure)
+                .build();
+    }
+
+    // json.............................................................................................................
+
+    /**
+     * Numbers are marshalled as text, using {@link Double#toString(double)} or {@link BigDecimal#toString()}
+     * which both read back exactly.
+     */
+    static SpreadsheetServerAggregateState unmarshall(final JsonNode node,
+                                                      final JsonNodeUnmarshallContext context) {
+        final JsonObject object = node.objectOrFail();
+        final ExpressionNumberKind kind = ExpressionNumberKind.valueOf(
+                object.getOrFail(KIND_PROPERTY)
+                        .stringOrFail()
+        );
+
+        return new SpreadsheetServerAggregateState(
+                kind,
+                unmarshallLong(object, COUNT_PROPERTY),
+                unmarshallLong(object, COUNT_A_PROPERTY),
+                unmarshallLong(object, MISSING_PROPERTY),
+                unmarshallNumber(object, SUM_PROPERTY, kind),
+                unmarshallNumber(object, PRODUCT_PROPERTY, kind),
+                unmarshallNumber(object, MIN_PROPERTY, kind),
+                unmarshallNumber(object, MAX_PROPERTY, kind),
+                object.get(FAILURE_PROPERTY)
+                        .map(JsonNode::stringOrFail)
+                        .orElse(null)
+        );
+    }
+
+    private static long unmarshallLong(final JsonObject object,
+                                       final JsonPropertyName property) {
+        return Long.parseLong(
+                object.getOrFail(property)
+                        .stringOrFail()
+        );
+    }
+
+    private static ExpressionNumber unmarshallNumber(final JsonObject object,
+                                                     final JsonPropertyName property,
+                                                     final ExpressionNumberKind kind) {
+        final Optional<JsonNode> node = object.get(property);
+
+        ExpressionNumber number = null;
+        if (node.isPresent()) {
+            final String text = node.get()
+                    .stringOrFail();
+            number = ExpressionNumberKind.DOUBLE == kind ?
+                    kind.create(Double.parseDouble(text)) :
+                    kind.create(new BigDecimal(text));
+        }
+
+        return number;
+    }
+
+    JsonNode marshall(final JsonNodeMarshallContext context) {
+        JsonObject object = JsonNode.object()
+                .set(KIND_PROPERTY, JsonNode.string(this.kind.name()))
+                .set(COUNT_PROPERTY, marshallLong(this.count))
+                .set(COUNT_A_PROPERTY, marshallLong(this.countA))
+                .set(MISSING_PROPERTY, marshallLong(this.missing))
+                .set(SUM_PROPERTY, marshallNumber(this.sum));
+
+        if (null != this.product) {
+            object = object.set(PRODUCT_PROPERTY, marshallNumber(this.product));
+        }
+        if (null != this.min) {
+            object = object.set(MIN_PROPERTY, marshallNumber(this.min));
+        }
+        if (null != this.max) {
+            object = object.set(MAX_PROPERTY, marshallNumber(this.max));
+        }
+        if (null != this.failure) {
+            object = object.set(FAILURE_PROPERTY, JsonNode.string(this.failure));
+        }
+
+        return object;
+    }
+
+    /**
+     * Longs are marshalled as text, because a JSON number is a double.
+     */
+    private static JsonNode marshallLong(final long value) {
+        return JsonNode.string(
+                String.valueOf(value)
+        );
+    }
+
+    private static JsonNode marshallNumber(final ExpressionNumber number) {
+        return JsonNode.string(
+                number.isDouble() ?
+                        Double.toString(number.doubleValue()) :
+                        number.bigDecimal().toString()
+        );
+    }
+
+    private final static String KIND_PROPERTY_STRING = "kind";
+    private final static String COUNT_PROPERTY_STRING = "count";
+    private final static String COUNT_A_PROPERTY_STRING = "countA";
+    private final static String MISSING_PROPERTY_STRING = "missing";
+    private final static String SUM_PROPERTY_STRING = "sum";
+    private final static String PRODUCT_PROPERTY_STRING = "product";
+    private final static String MIN_PROPERTY_STRING = "min";
+    private final static String MAX_PROPERTY_STRING = "max";
+    private final static String FAILURE_PROPERTY_STRING = "failure";
+
+    // @VisibleForTesting
+    final static JsonPropertyName KIND_PROPERTY = JsonPropertyName.with(KIND_PROPERTY_STRING);
+    final static JsonPropertyName COUNT_PROPERTY = JsonPropertyName.with(COUNT_PROPERTY_STRING);
+    final static JsonPropertyName COUNT_A_PROPERTY = JsonPropertyName.with(COUNT_A_PROPERTY_STRING);
+    final static JsonPropertyName MISSING_PROPERTY = JsonPropertyName.with(MISSING_PROPERTY_STRING);
+    final static JsonPropertyName SUM_PROPERTY = JsonPropertyName.with(SUM_PROPERTY_STRING);
+    final static JsonPropertyName PRODUCT_PROPERTY = JsonPropertyName.with(PRODUCT_PROPERTY_STRING);
+    final static JsonPropertyName MIN_PROPERTY = JsonPropertyName.with(MIN_PROPERTY_STRING);
+    final static JsonPropertyName MAX_PROPERTY = JsonPropertyName.with(MAX_PROPERTY_STRING);
+    final static JsonPropertyName FAILURE_PROPERTY = JsonPropertyName.with(FAILURE_PROPERTY_STRING);
+
+    static {
+        JsonNodeContext.register(
+                JsonNodeContext.computeTypeName(SpreadsheetServerAggregateState.class),
+                SpreadsheetServerAggregateState::unmarshall,
+                SpreadsheetServerAggregateState::marshall,
+                SpreadsheetServerAggregateState.class
+        );
+    }
+}
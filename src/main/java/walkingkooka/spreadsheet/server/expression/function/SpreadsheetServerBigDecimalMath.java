@@ -0,0 +1,450 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@link BigDecimal} transcendental functions computed to the precision of a {@link MathContext}, never going through
+ * a double. Each function works with extra guard digits, reduces its argument so the series converges quickly and
+ * rounds the result to the given {@link MathContext}. The constants ln(2) and ln(10) are cached by precision.
+ * Methods return null when the argument is outside the domain of the function, leaving error reporting to the caller.
+ */
+final class SpreadsheetServerBigDecimalMath {
+
+    /**
+     * Extra digits used by all intermediate calculations.
+     */
+    private final static int GUARD_DIGITS = 6;
+
+    /**
+     * The number of times the reduced argument to exp is halved, and the result squared.
+     */
+    private final static int EXP_SQUARINGS = 4;
+
+    /**
+     * The largest absolute argument accepted by {@link #exp(BigDecimal, MathContext)}.
+     */
+    final static BigDecimal EXP_MAX = BigDecimal.valueOf(100000);
+
+    /**
+     * The maximum number of cached constants for each of ln(2) and ln(10).
+     */
+    private final static int CONSTANTS_MAX_SIZE = 16;
+
+    private final static BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final static BigDecimal ONE_AND_HALF = new BigDecimal("1.5");
+
+    private final static BigDecimal HALF = new BigDecimal("0.5");
+
+    /**
+     * Returns e raised to the given power or null if the argument is too large.
+     */
+    static BigDecimal exp(final BigDecimal x,
+                          final MathContext context) {
+        BigDecimal result = null;
+
+        if (isSupported(context) && x.abs().compareTo(EXP_MAX) <= 0) {
+            if (0 == x.signum()) {
+                result = BigDecimal.ONE;
+            } else {
+                // x = k * ln(2) + r where |r| <= ln(2) / 2
+                final int k = x.divide(
+                        ln2(new MathContext(GUARD_DIGITS)),
+                        new MathContext(GUARD_DIGITS)
+                ).setScale(0, RoundingMode.HALF_EVEN)
+                        .intValue();
+                final MathContext working = working(
+                        context,
+                        digits(k) + EXP_SQUARINGS
+                );
+
+                final BigDecimal r = x.subtract(
+                        ln2(new MathContext(working.getPrecision() + digits(k)))
+                                .multiply(BigDecimal.valueOf(k)),
+                        working
+                ).divide(
+                        BigDecimal.valueOf(1 << EXP_SQUARINGS),
+                        working
+                );
+
+                BigDecimal exp = expSeries(
+                        r,
+                        working
+                );
+                for (int i = 0; i < EXP_SQUARINGS; i++) {
+                    exp = exp.multiply(
+                            exp,
+                            working
+                    );
+                }
+
+                // 2^k is exact
+                final BigDecimal twoPowK = new BigDecimal(
+                        BigInteger.ONE.shiftLeft(Math.abs(k))
+                );
+                result = k >= 0 ?
+                        exp.multiply(
+                                twoPowK,
+                                working
+                        ) :
+                        exp.divide(
+                                twoPowK,
+                                working
+                        );
+            }
+
+            result = round(
+                    result,
+                    context
+            );
+        }
+
+        return result;
+    }
+
+    /**
+     * Taylor series for small arguments, 1 + x + x^2/2! + x^3/3! ...
+     */
+    private static BigDecimal expSeries(final BigDecimal x,
+                                        final MathContext context) {
+        BigDecimal sum = BigDecimal.ONE.add(x, context);
+        BigDecimal term = x;
+
+        for (int n = 2; ; n++) {
+            term = term.multiply(x, context)
+                    .divide(BigDecimal.valueOf(n), context);
+            if (isNegligible(term, sum)) {
+                break;
+            }
+            sum = sum.add(term, context);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns the natural logarithm or null if the argument is not positive.
+     */
+    static BigDecimal ln(final BigDecimal x,
+                         final MathContext context) {
+        return isSupported(context) && x.signum() > 0 ?
+                round(
+                        ln0(
+                                x,
+                                working(context, 0)
+                        ),
+                        context
+                ) :
+                null;
+    }
+
+    private static BigDecimal ln0(final BigDecimal x,
+                                  final MathContext working) {
+        final BigDecimal ln;
+
+        if (x.compareTo(HALF) >= 0 && x.compareTo(TWO) < 0) {
+            // values near 1 are never reduced, to avoid cancellation
+            ln = lnSeries(x, working);
+        } else {
+            // x = a * 10^e where 1 <= a < 10
+            final int e = x.precision() - x.scale() - 1;
+            BigDecimal a = x.movePointLeft(e);
+
+            // a = a' * 2^j where 0.75 <= a' < 1.5
+            int j = 0;
+            while (a.compareTo(ONE_AND_HALF) >= 0) {
+                a = a.divide(TWO);
+                j++;
+            }
+
+            final MathContext constants = new MathContext(working.getPrecision() + digits(e));
+            ln = ln10(constants).multiply(BigDecimal.valueOf(e))
+                    .add(ln2(constants).multiply(BigDecimal.valueOf(j)))
+                    .add(lnSeries(a, working), working);
+        }
+
+        return ln;
+    }
+
+    /**
+     * ln(x) = 2 * atanh((x - 1) / (x + 1)), which converges quickly for x near 1.
+     */
+    private static BigDecimal lnSeries(final BigDecimal x,
+                                       final MathContext context) {
+        return atanh(
+                x.subtract(BigDecimal.ONE)
+                        .divide(
+                                x.add(BigDecimal.ONE),
+                                context
+                        ),
+                context
+        ).multiply(TWO);
+    }
+
+    /**
+     * atanh(z) = z + z^3/3 + z^5/5 ...
+     */
+    private static BigDecimal atanh(final BigDecimal z,
+                                    final MathContext context) {
+        BigDecimal sum = z;
+
+        if (0 != z.signum()) {
+            final BigDecimal z2 = z.multiply(z, context);
+            BigDecimal power = z;
+
+            for (int n = 3; ; n += 2) {
+                power = power.multiply(z2, context);
+                final BigDecimal term = power.divide(BigDecimal.valueOf(n), context);
+                if (isNegligible(term, sum)) {
+                    break;
+                }
+                sum = sum.add(term, context);
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns the base 10 logarithm or null if the argument is not positive. Powers of ten return an exact integer.
+     */
+    static BigDecimal log10(final BigDecimal x,
+                            final MathContext context) {
+        BigDecimal result = null;
+
+        if (isSupported(context) && x.signum() > 0) {
+            final BigDecimal stripped = x.stripTrailingZeros();
+
+            if (BigDecimal.ONE.equals(stripped.movePointRight(stripped.scale()))) {
+                result = BigDecimal.valueOf(-stripped.scale());
+            } else {
+                final MathContext working = working(context, 0);
+                result = round(
+                        ln0(x, working)
+                                .divide(
+                                        ln10(working),
+                                        working
+                                ),
+                        context
+                );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the logarithm in the given base or null if the argument or base is not positive or the base is one.
+     */
+    static BigDecimal log(final BigDecimal x,
+                          final BigDecimal base,
+                          final MathContext context) {
+        BigDecimal result = null;
+
+        if (isSupported(context) && x.signum() > 0 && base.signum() > 0 && 0 != base.compareTo(BigDecimal.ONE)) {
+            final MathContext working = working(context, 0);
+            result = round(
+                    ln0(x, working)
+                            .divide(
+                                    ln0(base, working),
+                                    working
+                            ),
+                    context
+            );
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the square root or null if the argument is negative, using Newton's method starting from the double
+     * square root.
+     */
+    static BigDecimal sqrt(final BigDecimal x,
+                           final MathContext context) {
+        BigDecimal result = null;
+
+        if (isSupported(context) && x.signum() >= 0) {
+            if (0 == x.signum()) {
+                result = BigDecimal.ZERO;
+            } else {
+                final MathContext working = working(context, 0);
+
+                final double estimate = Math.sqrt(x.doubleValue());
+                BigDecimal y = estimate > 0 && estimate < Double.POSITIVE_INFINITY ?
+                        new BigDecimal(estimate) :
+                        BigDecimal.ONE.scaleByPowerOfTen((x.precision() - x.scale()) / 2);
+
+                // each iteration doubles the correct digits, the limit stops oscillation in the last digit
+                for (int i = 0; i < 64; i++) {
+                    final BigDecimal next = y.add(x.divide(y, working))
+                            .divide(TWO, working);
+                    if (0 == next.compareTo(y)) {
+                        break;
+                    }
+                    y = next;
+                }
+
+                result = round(
+                        y,
+                        context
+                );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns ln(2) to the given precision, computed as 2 * atanh(1/3).
+     */
+    static BigDecimal ln2(final MathContext context) {
+        return constant(
+                LN2,
+                context,
+                SpreadsheetServerBigDecimalMath::computeLn2
+        );
+    }
+
+    private static BigDecimal computeLn2(final MathContext context) {
+        return atanh(
+                BigDecimal.ONE.divide(BigDecimal.valueOf(3), context),
+                context
+        ).multiply(TWO);
+    }
+
+    private final static Map<Integer, BigDecimal> LN2 = new HashMap<>();
+
+    /**
+     * Returns ln(10) to the given precision, computed as 3 * ln(2) + 2 * atanh(1/9).
+     */
+    static BigDecimal ln10(final MathContext context) {
+        return constant(
+                LN10,
+                context,
+                SpreadsheetServerBigDecimalMath::computeLn10
+        );
+    }
+
+    private static BigDecimal computeLn10(final MathContext context) {
+        return ln2(context)
+                .multiply(BigDecimal.valueOf(3))
+                .add(
+                        atanh(
+                                BigDecimal.ONE.divide(BigDecimal.valueOf(9), context),
+                                context
+                        ).multiply(TWO),
+                        context
+                );
+    }
+
+    private final static Map<Integer, BigDecimal> LN10 = new HashMap<>();
+
+    private static BigDecimal constant(final Map<Integer, BigDecimal> cache,
+                                       final MathContext context,
+                                       final Function<MathContext, BigDecimal> compute) {
+        final int precision = context.getPrecision();
+
+        BigDecimal constant;
+        synchronized (cache) {
+            constant = cache.get(precision);
+        }
+
+        if (null == constant) {
+            // computed with guard digits so the cached value is correctly rounded
+            constant = compute.apply(new MathContext(precision + GUARD_DIGITS))
+                    .round(new MathContext(precision, RoundingMode.HALF_EVEN));
+
+            synchronized (cache) {
+                if (cache.size() >= CONSTANTS_MAX_SIZE) {
+                    cache.clear();
+                }
+                cache.put(
+                        precision,
+                        constant
+                );
+            }
+        }
+
+        return constant;
+    }
+
+    /**
+     * An unlimited {@link MathContext} is not supported because the series never terminate.
+     */
+    private static boolean isSupported(final MathContext context) {
+        return context.getPrecision() > 0;
+    }
+
+    private static MathContext working(final MathContext context,
+                                       final int extra) {
+        return new MathContext(
+                context.getPrecision() + GUARD_DIGITS + extra,
+                RoundingMode.HALF_EVEN
+        );
+    }
+
+    /**
+     * A term is negligible once it is smaller than the last digit of the sum.
+     */
+    private static boolean isNegligible(final BigDecimal term,
+                                        final BigDecimal sum) {
+        return 0 == term.signum() ||
+                term.abs().compareTo(sum.ulp()) < 0;
+    }
+
+    /**
+     * Rounds the result and removes any trailing zeros after the decimal point, so exact results such as 2 do not gain
+     * a scale, while integers such as 10 keep a scale of zero.
+     */
+    private static BigDecimal round(final BigDecimal value,
+                                    final MathContext context) {
+        BigDecimal rounded = value.round(context);
+
+        if (rounded.scale() > 0) {
+            rounded = rounded.stripTrailingZeros();
+            if (rounded.scale() < 0) {
+                rounded = rounded.setScale(0);
+            }
+        }
+
+        return rounded;
+    }
+
+    /**
+     * The number of decimal digits in the given integer.
+     */
+    private static int digits(final int value) {
+        return String.valueOf(Math.abs((long) value)).length();
+    }
+
+    /**
+     * Stop creation
+     */
+    private SpreadsheetServerBigDecimalMath() {
+        throw new UnsupportedOperationException();
+    }
+}
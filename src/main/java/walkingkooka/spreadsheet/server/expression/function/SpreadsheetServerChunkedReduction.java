@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberContexts;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reduces the values of very large ranges by splitting them into fixed size chunks, reducing the chunks using a
+ * parallel stream and then merging the partial results in chunk order. Because the chunk boundaries and the merge
+ * order never depend on the number of threads, results that round such as {@link java.math.BigDecimal} sums are
+ * always the same. Under GWT and J2CL parallel streams run sequentially, giving the same result.
+ * <br>
+ * The accumulator and merge functions run on the threads of the common fork join pool, they are only given their own
+ * partial result and must never call a {@link walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext}
+ * or its converters, which are not required to be thread safe. Values needing a conversion must be converted on the
+ * calling thread before reducing, and number arithmetic must use the context returned by
+ * {@link #context(ExpressionNumberContext)}.
+ * <br>
+ * Values that round, such as {@link java.math.BigDecimal} and double fractions, are added in a different order when
+ * reduced in chunks, so a range just below the threshold may differ in the last digit from the same range just above
+ * it. Whole numbers summed by {@link SpreadsheetServerExpressionNumberAccumulator} are exact either way.
+ */
+final class SpreadsheetServerChunkedReduction {
+
+    /**
+     * By default lists with fewer values than this are reduced sequentially, a
+     * {@link SpreadsheetServerRecalculation#withParallelThreshold(int)} may use another threshold.
+     */
+    final static int PARALLEL_THRESHOLD = 256 * 1024;
+
+    /**
+     * The number of values reduced by each chunk.
+     */
+    final static int CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * Returns an immutable {@link ExpressionNumberContext} with the kind and {@link java.math.MathContext} of the given
+     * context, which may be shared by the accumulators of all chunks.
+     */
+    static ExpressionNumberContext context(final ExpressionNumberContext context) {
+        return ExpressionNumberContexts.basic(
+                context.expressionNumberKind(),
+                context.mathContext()
+        );
+    }
+
+    /**
+     * Reduces all the values, using chunks when there are at least threshold values.
+     */
+    static <A> A reduce(final List<?> values,
+                        final int threshold,
+                        final Supplier<A> identity,
+                        final BiConsumer<A, Object> accumulator,
+                        final BiConsumer<A, A> merge) {
+        return reduce(
+                values.size(),
+                threshold,
+                identity,
+                (partial, index) -> accumulator.accept(
+                        partial,
+                        values.get(index)
+                ),
+                merge
+        );
+    }
+
+    /**
+     * Reduces the indices from zero to count, such as the values of a {@link SpreadsheetServerColumn}, using chunks
+     * when count is at least threshold.
+     */
+    static <A> A reduce(final int count,
+                        final int threshold,
+                        final Supplier<A> identity,
+                        final ObjIntConsumer<A> accumulator,
+                        final BiConsumer<A, A> merge) {
+        final A result;
+        if (count < threshold) {
+            result = reduce(
+                    0,
+                    count,
+                    identity,
+                    accumulator
+            );
+        } else {
+            final List<A> partials = IntStream.range(0, (count + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                    .parallel()
+                    .mapToObj(
+                            (chunk) -> reduce(
+                                    chunk * CHUNK_SIZE,
+                                    Math.min(count, (chunk + 1) * CHUNK_SIZE),
+                                    identity,
+                                    accumulator
+                            )
+                    ).collect(Collectors.toList());
+
+            result = partials.get(0);
+            final int partialCount = partials.size();
+            for (int i = 1; i < partialCount; i++) {
+                merge.accept(
+                        result,
+                        partials.get(i)
+                );
+            }
+        }
+
+        return result;
+    }
+
+    private static <A> A reduce(final int from,
+                                final int to,
+                                final Supplier<A> identity,
+                                final ObjIntConsumer<A> accumulator) {
+        final A partial = identity.get();
+
+        for (int i = from; i < to; i++) {
+            accumulator.accept(
+                    partial,
+                    i
+            );
+        }
+
+        return partial;
+    }
+
+    /**
+     * Stop creation
+     */
+    private SpreadsheetServerChunkedReduction() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+
+import java.util.List;
+
+/**
+ * A typed view of the values of a {@link SpreadsheetServerSparseRange}, so numeric functions read whole numbers and
+ * doubles from primitive arrays instead of testing and unboxing each value. Each value has a tag, whole numbers are
+ * also kept in a long array and double fractions in a double array. Missing cells are never stored because the
+ * range is sparse, they remain a count on the range. The arrays of large columns come from
+ * {@link SpreadsheetServerColumnBuffers} and are returned by {@link #release()}.
+ */
+final class SpreadsheetServerColumn {
+
+    /**
+     * A whole {@link ExpressionNumber} that is also in {@link #longValue(int)}.
+     */
+    final static byte LONG = 0;
+
+    /**
+     * A double {@link ExpressionNumber} fraction that is also in {@link #doubleValue(int)}.
+     */
+    final static byte DOUBLE = 1;
+
+    /**
+     * Any other {@link ExpressionNumber}, such as a big decimal fraction.
+     */
+    final static byte NUMBER = 2;
+
+    /**
+     * A date, date-time or time, which COUNT counts and is converted to a number.
+     */
+    final static byte DATE_TIME = 3;
+
+    /**
+     * Any other value such as text.
+     */
+    final static byte OTHER = 4;
+
+    private final static int TAG_COUNT = 5;
+
+    static SpreadsheetServerColumn with(final List<Object> values) {
+        final int size = values.size();
+
+        final byte[] tags = SpreadsheetServerColumnBuffers.bytes(size);
+        final long[] longs = SpreadsheetServerColumnBuffers.longs(size);
+        final double[] doubles = SpreadsheetServerColumnBuffers.doubles(size);
+        final int[] counts = new int[TAG_COUNT];
+
+        for (int i = 0; i < size; i++) {
+            final Object value = values.get(i);
+
+            final byte tag;
+            if (value instanceof ExpressionNumber) {
+                final ExpressionNumber number = (ExpressionNumber) value;
+                final long whole = SpreadsheetServerExpressionNumbers.exactLong(number);
+                if (SpreadsheetServerExpressionNumbers.NOT_LONG != whole) {
+                    tag = LONG;
+                    longs[i] = whole;
+                } else {
+                    if (number.isDouble()) {
+                        tag = DOUBLE;
+                        doubles[i] = number.doubleValue();
+                    } else {
+                        tag = NUMBER;
+                    }
+                }
+            } else {
+                tag = SpreadsheetServerExpressionFunctionCount.isNumber(value) ?
+                        DATE_TIME :
+                        OTHER;
+            }
+
+            tags[i] = tag;
+            counts[tag]++;
+        }
+
+        return new SpreadsheetServerColumn(
+                values,
+                size,
+                tags,
+                longs,
+                doubles,
+                counts
+        );
+    }
+
+    private SpreadsheetServerColumn(final List<Object> values,
+                                    final int size,
+                                    final byte[] tags,
+                                    final long[] longs,
+                                    final double[] doubles,
+                                    final int[] counts) {
+        this.values = values;
+        this.size = size;
+        this.tags = tags;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.counts = counts;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    byte tag(final int index) {
+        return this.tags[index];
+    }
+
+    long longValue(final int index) {
+        return this.longs[index];
+    }
+
+    double doubleValue(final int index) {
+        return this.doubles[index];
+    }
+
+    /**
+     * The original value, which must be used for {@link #NUMBER}, {@link #DATE_TIME} and {@link #OTHER}.
+     */
+    Object value(final int index) {
+        return this.values.get(index);
+    }
+
+    /**
+     * The number of values with the given tag.
+     */
+    int count(final byte tag) {
+        return this.counts[tag];
+    }
+
+    /**
+     * The number of values counted by COUNT, which are all numbers, dates, date-times and times.
+     */
+    int count() {
+        return this.size - this.counts[OTHER];
+    }
+
+    /**
+     * Returns the arrays to {@link SpreadsheetServerColumnBuffers}, after which this column must never be read.
+     */
+    void release() {
+        final byte[] tags = this.tags;
+        if (null != tags) {
+            this.tags = null;
+            SpreadsheetServerColumnBuffers.release(tags);
+            SpreadsheetServerColumnBuffers.release(this.longs);
+            SpreadsheetServerColumnBuffers.release(this.doubles);
+            this.longs = null;
+            this.doubles = null;
+        }
+    }
+
+    private final List<Object> values;
+
+    private final int size;
+
+    /**
+     * The arrays may be longer than the size when they came from {@link SpreadsheetServerColumnBuffers}.
+     */
+    private byte[] tags;
+
+    private long[] longs;
+
+    private double[] doubles;
+
+    private final int[] counts;
+
+    @Override
+    public String toString() {
+        return this.values.toString();
+    }
+}
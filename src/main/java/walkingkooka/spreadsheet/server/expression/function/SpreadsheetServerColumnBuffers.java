@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of the arrays used by {@link SpreadsheetServerColumn} and {@link SpreadsheetServerOrderStatistics}, so large
+ * ranges that are scanned once reuse the arrays of earlier ranges instead of allocating new ones during a
+ * recalculation. Arrays are only pooled when they are at least {@link #MIN_LENGTH} long, their lengths are rounded up
+ * to a power of two, and at most {@link #MAX_PER_LENGTH} arrays of each type and length are kept. All the pooled
+ * arrays together never hold more than {@link #MAX_POOLED_BYTES}, a released array that does not fit is left to the
+ * garbage collector.
+ * <br>
+ * Arrays are only returned to the pool by an explicit release such as {@link SpreadsheetServerColumn#release()}, a
+ * released array must never be read again. Pooled arrays are not cleared and may hold the values of an earlier use.
+ */
+final class SpreadsheetServerColumnBuffers {
+
+    /**
+     * Shorter arrays are always allocated and never pooled.
+     */
+    final static int MIN_LENGTH = 4096;
+
+    private final static int MIN_SHIFT = 12;
+
+    /**
+     * The longest pooled array has 2^20 elements, which is 8MB for longs and doubles.
+     */
+    private final static int MAX_SHIFT = 20;
+
+    /**
+     * The maximum number of arrays of each type and length kept.
+     */
+    final static int MAX_PER_LENGTH = 4;
+
+    /**
+     * The maximum total size in bytes of all pooled arrays.
+     */
+    final static long MAX_POOLED_BYTES = 64 * 1024 * 1024;
+
+    private final static Deque<byte[]>[] BYTES = pool();
+
+    private final static Deque<long[]>[] LONGS = pool();
+
+    private final static Deque<double[]>[] DOUBLES = pool();
+
+    /**
+     * Guards all pools and {@link #pooledBytes}.
+     */
+    private final static Object LOCK = new Object();
+
+    /**
+     * The total size in bytes of all pooled arrays.
+     */
+    private static long pooledBytes;
+
+    static long pooledBytes() {
+        synchronized (LOCK) {
+            return pooledBytes;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Deque<T>[] pool() {
+        final Deque<T>[] pool = new Deque[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new ArrayDeque<>();
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the index of the pool for arrays with at least the given length, or -1 if they are not pooled.
+     */
+    static int index(final int length) {
+        int index = -1;
+
+        if (length >= MIN_LENGTH) {
+            final int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+            if (shift <= MAX_SHIFT) {
+                index = shift - MIN_SHIFT;
+            }
+        }
+
+        return index;
+    }
+
+    private static int length(final int index) {
+        return 1 << (index + MIN_SHIFT);
+    }
+
+    static byte[] bytes(final int length) {
+        final int index = index(length);
+
+        byte[] array = null;
+        if (-1 != index) {
+            array = take(
+                    BYTES[index],
+                    length(index)
+            );
+        }
+
+        return null != array ?
+                array :
+                new byte[-1 != index ? length(index) : length];
+    }
+
+    static long[] longs(final int length) {
+        final int index = index(length);
+
+        long[] array = null;
+        if (-1 != index) {
+            array = take(
+                    LONGS[index],
+                    8 * length(index)
+            );
+        }
+
+        return null != array ?
+                array :
+                new long[-1 != index ? length(index) : length];
+    }
+
+    static double[] doubles(final int length) {
+        final int index = index(length);
+
+        double[] array = null;
+        if (-1 != index) {
+            array = take(
+                    DOUBLES[index],
+                    8 * length(index)
+            );
+        }
+
+        return null != array ?
+                array :
+                new double[-1 != index ? length(index) : length];
+    }
+
+    private static <T> T take(final Deque<T> pool,
+                              final long bytes) {
+        synchronized (LOCK) {
+            final T array = pool.pollFirst();
+            if (null != array) {
+                pooledBytes -= bytes;
+            }
+            return array;
+        }
+    }
+
+    static void release(final byte[] array) {
+        give(
+                BYTES,
+                array,
+                array.length,
+                1
+        );
+    }
+
+    static void release(final long[] array) {
+        give(
+                LONGS,
+                array,
+                array.length,
+                8
+        );
+    }
+
+    static void release(final double[] array) {
+        give(
+                DOUBLES,
+                array,
+                array.length,
+                8
+        );
+    }
+
+    /**
+     * Only arrays with exactly a pooled length are kept, which are the arrays created by this pool.
+     */
+    private static <T> void give(final Deque<T>[] pools,
+                                 final T array,
+                                 final int length,
+                                 final int elementBytes) {
+        final int index = index(length);
+        if (-1 != index && length(index) == length) {
+            final Deque<T> pool = pools[index];
+            final long bytes = (long) elementBytes * length;
+
+            synchronized (LOCK) {
+                if (pool.size() < MAX_PER_LENGTH && pooledBytes + bytes <= MAX_POOLED_BYTES) {
+                    pool.addFirst(array);
+                    pooledBytes += bytes;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop creation
+     */
+    private SpreadsheetServerColumnBuffers() {
+        throw new UnsupportedOperationException();
+    }
+}
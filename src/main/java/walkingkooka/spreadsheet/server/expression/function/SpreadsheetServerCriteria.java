@@ -0,0 +1,411 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * A criteria such as <code>">10"</code>, <code>"<>apple"</code> or <code>"a*"</code> given to functions like COUNTIFS,
+ * compiled once and then tested against many cell values.
+ * <ul>
+ * <li>Numbers, booleans, dates and times match equal values, numbers also match text holding an equal number</li>
+ * <li>Text may begin with one of the operators <code>=, <>, <, <=, >, >=</code> followed by a number, TRUE, FALSE
+ * or text</li>
+ * <li>Text compares ignoring case and equality supports the wildcards <code>?</code> and <code>*</code>, which are
+ * escaped by <code>~</code></li>
+ * <li>Empty text or an empty <code>=</code> matches blank cells, an empty <code><></code> matches cells that are not
+ * blank</li>
+ * </ul>
+ * Blank cells are null or empty text.
+ */
+final class SpreadsheetServerCriteria {
+
+    private final static int EQ = 0;
+    private final static int NE = 1;
+    private final static int LT = 2;
+    private final static int LTE = 3;
+    private final static int GT = 4;
+    private final static int GTE = 5;
+
+    /**
+     * Compiles the given criteria, numbers within text are created using the given {@link ExpressionNumberKind}.
+     */
+    static SpreadsheetServerCriteria parse(final Object criteria,
+                                           final ExpressionNumberKind kind) {
+        final SpreadsheetServerCriteria parsed;
+
+        if (criteria instanceof String) {
+            parsed = parseText(
+                    (String) criteria,
+                    kind
+            );
+        } else {
+            parsed = new SpreadsheetServerCriteria(
+                    EQ,
+                    SpreadsheetServerSparseRange.isMissing(criteria) ?
+                            "" :
+                            criteria,
+                    false
+            );
+        }
+
+        return parsed;
+    }
+
+    private static SpreadsheetServerCriteria parseText(final String text,
+                                                       final ExpressionNumberKind kind) {
+        final int operator;
+        final int length;
+
+        if (text.startsWith("<=")) {
+            operator = LTE;
+            length = 2;
+        } else if (text.startsWith(">=")) {
+            operator = GTE;
+            length = 2;
+        } else if (text.startsWith("<>")) {
+            operator = NE;
+            length = 2;
+        } else if (text.startsWith("<")) {
+            operator = LT;
+            length = 1;
+        } else if (text.startsWith(">")) {
+            operator = GT;
+            length = 1;
+        } else if (text.startsWith("=")) {
+            operator = EQ;
+            length = 1;
+        } else {
+            operator = EQ;
+            length = 0;
+        }
+
+        final String operand = text.substring(length);
+
+        Object value = number(operand, kind);
+        if (null == value) {
+            value = bool(operand);
+        }
+        if (null == value) {
+            value = operand.toLowerCase();
+        }
+
+        return new SpreadsheetServerCriteria(
+                operator,
+                value,
+                value instanceof String && isWildcard((String) value)
+        );
+    }
+
+    /**
+     * Returns the number within the text or null if the text is not a number.
+     */
+    static ExpressionNumber number(final String text,
+                                   final ExpressionNumberKind kind) {
+        ExpressionNumber number = null;
+
+        if (false == text.isEmpty()) {
+            try {
+                number = kind.create(new BigDecimal(text.trim()));
+            } catch (final NumberFormatException ignore) {
+                // not a number
+            }
+        }
+
+        return number;
+    }
+
+    private static Boolean bool(final String text) {
+        return "true".equalsIgnoreCase(text) ?
+                Boolean.TRUE :
+                "false".equalsIgnoreCase(text) ?
+                        Boolean.FALSE :
+                        null;
+    }
+
+    /**
+     * Returns true if the text contains any of the wildcard or escape characters.
+     */
+    static boolean isWildcard(final String text) {
+        return text.indexOf('*') != -1 ||
+                text.indexOf('?') != -1 ||
+                text.indexOf('~') != -1;
+    }
+
+    private SpreadsheetServerCriteria(final int operator,
+                                      final Object value,
+                                      final boolean wildcard) {
+        this.operator = operator;
+        this.value = value;
+        this.wildcard = wildcard;
+        this.matchesBlank = this.test(null);
+    }
+
+    /**
+     * Tests the value of a cell, null or empty text for a blank cell.
+     */
+    boolean test(final Object cell) {
+        final Object value = this.value;
+        final boolean blank = SpreadsheetServerSparseRange.isMissing(cell) || "".equals(cell);
+
+        final boolean result;
+        if ("".equals(value)) {
+            switch (this.operator) {
+                case EQ:
+                    result = blank;
+                    break;
+                case NE:
+                    result = false == blank;
+                    break;
+                default:
+                    result = false;
+                    break;
+            }
+        } else {
+            if (blank) {
+                result = NE == this.operator;
+            } else {
+                final int compare = this.compare(cell);
+                result = Integer.MIN_VALUE == compare ?
+                        NE == this.operator :
+                        this.test(compare);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares the cell to the value of this criteria, returning {@link Integer#MIN_VALUE} when they cannot be
+     * compared, such as a number and text that is not a number.
+     */
+    private int compare(final Object cell) {
+        final Object value = this.value;
+
+        int compare = Integer.MIN_VALUE;
+
+        if (value instanceof ExpressionNumber) {
+            final ExpressionNumber number = (ExpressionNumber) value;
+
+            // text holding a number is compared as a number, like SUMIF
+            final ExpressionNumber cellNumber = cell instanceof String ?
+                    number(
+                            (String) cell,
+                            number.isDouble() ?
+                                    ExpressionNumberKind.DOUBLE :
+                                    ExpressionNumberKind.BIG_DECIMAL
+                    ) :
+                    cell instanceof ExpressionNumber ?
+                            (ExpressionNumber) cell :
+                            null;
+            if (null != cellNumber) {
+                compare = Integer.signum(
+                        cellNumber.compareTo(number)
+                );
+            }
+        } else if (value instanceof String) {
+            if (cell instanceof String) {
+                final String text = ((String) cell).toLowerCase();
+                if (this.wildcard && (EQ == this.operator || NE == this.operator)) {
+                    compare = wildcard(text, 0, (String) value, 0) ? 0 : 1;
+                } else {
+                    compare = Integer.signum(
+                            text.compareTo((String) value)
+                    );
+                }
+            }
+        } else if (null != cell && value.getClass() == cell.getClass() && value instanceof Comparable) {
+            compare = Integer.signum(
+                    compareComparable(cell, value)
+            );
+        }
+
+        return compare;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareComparable(final Object cell,
+                                         final Object value) {
+        return ((Comparable) cell).compareTo(value);
+    }
+
+    private boolean test(final int compare) {
+        final boolean result;
+
+        switch (this.operator) {
+            case EQ:
+                result = 0 == compare;
+                break;
+            case NE:
+                result = 0 != compare;
+                break;
+            case LT:
+                result = compare < 0;
+                break;
+            case LTE:
+                result = compare <= 0;
+                break;
+            case GT:
+                result = compare > 0;
+                break;
+            case GTE:
+                result = compare >= 0;
+                break;
+            default:
+                throw new IllegalStateException("Unknown operator " + this.operator);
+        }
+
+        return result;
+    }
+
+    /**
+     * Matches text against a pattern with <code>?</code> for any character, <code>*</code> for any characters and
+     * <code>~</code> escaping the next character.
+     */
+    static boolean wildcard(final String text,
+                            final int textIndex,
+                            final String pattern,
+                            final int patternIndex) {
+        int t = textIndex;
+        int p = patternIndex;
+
+        // the position after the last star, and the text position it is currently matching from
+        int star = -1;
+        int starText = -1;
+
+        final int textLength = text.length();
+        final int patternLength = pattern.length();
+
+        while (t < textLength) {
+            if (p < patternLength) {
+                final char c = pattern.charAt(p);
+                if ('*' == c) {
+                    p++;
+                    star = p;
+                    starText = t;
+                    continue;
+                }
+                if ('?' == c) {
+                    p++;
+                    t++;
+                    continue;
+                }
+
+                final boolean escaped = '~' == c && p + 1 < patternLength;
+                final char literal = escaped ?
+                        pattern.charAt(p + 1) :
+                        c;
+                if (literal == text.charAt(t)) {
+                    p += escaped ? 2 : 1;
+                    t++;
+                    continue;
+                }
+            }
+
+            // mismatch, let the last star consume one more character
+            if (-1 == star) {
+                return false;
+            }
+            starText++;
+            t = starText;
+            p = star;
+        }
+
+        while (p < patternLength && '*' == pattern.charAt(p)) {
+            p++;
+        }
+
+        return p == patternLength;
+    }
+
+    /**
+     * True when blank cells match, which means a range must be visited cell by cell instead of only visiting its
+     * present cells.
+     */
+    boolean matchesBlank() {
+        return this.matchesBlank;
+    }
+
+    private final boolean matchesBlank;
+
+    /**
+     * An estimate of how many cells match, lower is more selective. Equality is the most selective, followed by
+     * wildcards, ranges and then not equals.
+     */
+    int selectivity() {
+        final int selectivity;
+
+        switch (this.operator) {
+            case EQ:
+                selectivity = this.wildcard ? 1 : 0;
+                break;
+            case NE:
+                selectivity = 3;
+                break;
+            default:
+                selectivity = 2;
+                break;
+        }
+
+        return selectivity;
+    }
+
+    private final int operator;
+
+    private final Object value;
+
+    private final boolean wildcard;
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                this.operator,
+                this.value
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof SpreadsheetServerCriteria &&
+                        this.equals0((SpreadsheetServerCriteria) other);
+    }
+
+    private boolean equals0(final SpreadsheetServerCriteria other) {
+        return this.operator == other.operator &&
+                this.value.equals(other.value);
+    }
+
+    private final static String[] OPERATORS = {
+            "=",
+            "<>",
+            "<",
+            "<=",
+            ">",
+            ">="
+    };
+
+    @Override
+    public String toString() {
+        return OPERATORS[this.operator] + this.value;
+    }
+}
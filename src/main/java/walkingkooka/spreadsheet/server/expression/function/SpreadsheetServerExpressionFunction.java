@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionFunctionName;
+import walkingkooka.tree.expression.ExpressionPurityContext;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Optional;
+
+/**
+ * Base class for all functions implemented within this project.
+ */
+abstract class SpreadsheetServerExpressionFunction<T> implements ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> {
+
+    SpreadsheetServerExpressionFunction(final String name) {
+        super();
+        this.name = Optional.of(
+                ExpressionFunctionName.with(name)
+        );
+    }
+
+    @Override
+    public final Optional<ExpressionFunctionName> name() {
+        return this.name;
+    }
+
+    private final Optional<ExpressionFunctionName> name;
+
+    /**
+     * Returns a function sharing the caches of the given {@link SpreadsheetServerRecalculation}, functions without
+     * caches return themselves.
+     */
+    SpreadsheetServerExpressionFunction<T> setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        return this;
+    }
+
+    @Override
+    public boolean isPure(final ExpressionPurityContext context) {
+        return true;
+    }
+
+    @Override
+    public final String toString() {
+        return this.name.get()
+                .toString();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for functions such as SUM and COUNT that reduce all their parameters to a single {@link ExpressionNumber}.
+ * References are never resolved by the engine, instead they are given as a {@link SpreadsheetServerSparseRange}, and
+ * all the functions read their result from a {@link SpreadsheetServerAggregateScan} shared by the
+ * {@link SpreadsheetServerRecalculation} of the function.
+ */
+abstract class SpreadsheetServerExpressionFunctionAggregate extends SpreadsheetServerExpressionFunction<ExpressionNumber> {
+
+    SpreadsheetServerExpressionFunctionAggregate(final String name,
+                                                 final SpreadsheetServerRecalculation recalculation) {
+        super(name);
+        this.recalculation = recalculation;
+    }
+
+    @Override
+    final SpreadsheetServerExpressionFunctionAggregate setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                this.replace(recalculation);
+    }
+
+    abstract SpreadsheetServerExpressionFunctionAggregate replace(final SpreadsheetServerRecalculation recalculation);
+
+    final SpreadsheetServerRecalculation recalculation;
+
+    @Override
+    public final List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> VALUES = ExpressionFunctionParameterName.with("values")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(VALUES);
+
+    @Override
+    public final Class<ExpressionNumber> returnType() {
+        return ExpressionNumber.class;
+    }
+
+    @Override
+    public final ExpressionNumber apply(final List<Object> parameters,
+                                        final SpreadsheetExpressionEvaluationContext context) {
+        return this.applyScan(
+                this.recalculation.scan(
+                        parameters,
+                        context
+                ),
+                context
+        );
+    }
+
+    final ExpressionNumber applySparseRange(final SpreadsheetServerSparseRange range,
+                                            final SpreadsheetExpressionEvaluationContext context) {
+        return this.applyScan(
+                SpreadsheetServerAggregateScan.with(
+                        range,
+                        this.recalculation.parallelThreshold(),
+                        context
+                ),
+                context
+        );
+    }
+
+    abstract ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                                        final SpreadsheetExpressionEvaluationContext context);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Averages all values after converting each to an {@link ExpressionNumber}. Missing cells are zero and are included
+ * in the count, matching the conversion of missing cells to zero, but are never visited.
+ */
+final class SpreadsheetServerExpressionFunctionAverage extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionAverage INSTANCE = new SpreadsheetServerExpressionFunctionAverage(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionAverage(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "average",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionAverage replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionAverage(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        final long count = scan.countA() + scan.missing();
+        if (0 == count) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        return scan.sum()
+                .divide(
+                        context.expressionNumberKind()
+                                .create(count),
+                        context
+                );
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+/**
+ * Averages the numbers of the average range where all criteria match,
+ * values that are not numbers are ignored.
+ */
+final class SpreadsheetServerExpressionFunctionAverageIfs extends SpreadsheetServerExpressionFunctionIfs {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionAverageIfs INSTANCE = new SpreadsheetServerExpressionFunctionAverageIfs(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionAverageIfs(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "averageIfs",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionAverageIfs replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionAverageIfs(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyMatches(final long matches,
+                                  final SpreadsheetServerColumn values,
+                                  final int[] indices,
+                                  final int count,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+
+        final long numbers = sum(
+                values,
+                indices,
+                count,
+                sum,
+                kind
+        );
+        if (0 == numbers) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        return sum.result()
+                .divide(
+                        kind.create(numbers),
+                        context
+                );
+    }
+}
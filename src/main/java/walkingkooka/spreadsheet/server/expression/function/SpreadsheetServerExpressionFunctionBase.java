@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+
+/**
+ * Wraps BASE, converting whole numbers using primitive long division and the shared digit table.
+ * Negative or fractional numbers, numbers of 2^53 or more, or an invalid radix or min length are given to the
+ * wrapped function, which reports the error.
+ */
+final class SpreadsheetServerExpressionFunctionBase extends SpreadsheetServerExpressionFunctionWrapper<String> {
+
+    /**
+     * Numbers must be less than 2^53, the largest number accepted by BASE.
+     */
+    final static long MAX_NUMBER = 1L << 53;
+
+    /**
+     * The largest min length accepted by BASE.
+     */
+    final static int MAX_MIN_LENGTH = 255;
+
+    static SpreadsheetServerExpressionFunctionBase with(final ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBase(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionBase(final ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public String apply(final List<Object> parameters,
+                        final SpreadsheetExpressionEvaluationContext context) {
+        String text = null;
+
+        final int count = parameters.size();
+        if (2 == count || 3 == count) {
+            final long number = exactLong(
+                    parameters.get(0),
+                    MAX_NUMBER
+            );
+            final long radix = exactLong(
+                    parameters.get(1),
+                    SpreadsheetServerRadix.MAX_RADIX + 1
+            );
+            final long minLength = 3 == count ?
+                    exactLong(
+                            parameters.get(2),
+                            MAX_MIN_LENGTH + 1
+                    ) :
+                    0;
+
+            if (number >= 0 && radix >= 2 && minLength >= 0) {
+                text = format(
+                        number,
+                        (int) radix,
+                        (int) minLength
+                );
+            }
+        }
+
+        return null != text ?
+                text :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Returns the value if it is a whole number between 0 and the limit exclusive, otherwise returns -1.
+     */
+    private static long exactLong(final Object value,
+                                  final long limit) {
+        return value instanceof ExpressionNumber ?
+                SpreadsheetServerExpressionNumbers.exactLong(
+                        (ExpressionNumber) value,
+                        limit
+                ) :
+                -1;
+    }
+
+    /**
+     * Formats the digits into the end of a char array, padding with zeros to the min length.
+     */
+    static String format(final long number,
+                         final int radix,
+                         final int minLength) {
+        final char[] chars = new char[Math.max(Long.SIZE, minLength)];
+        final int end = chars.length;
+
+        int start = end;
+        long value = number;
+        do {
+            chars[--start] = SpreadsheetServerRadix.digitCharacter((int) (value % radix));
+            value = value / radix;
+        } while (value > 0);
+
+        final int padded = end - minLength;
+        while (start > padded) {
+            chars[--start] = '0';
+        }
+
+        return new String(
+                chars,
+                start,
+                end - start
+        );
+    }
+}
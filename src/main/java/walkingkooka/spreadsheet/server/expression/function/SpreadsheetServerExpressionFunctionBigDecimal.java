@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Wraps EXP, LN, LOG, LOG10 or SQRT, which when the {@link ExpressionNumberKind} is {@link ExpressionNumberKind#BIG_DECIMAL}
+ * computes the result using {@link SpreadsheetServerBigDecimalMath} to the precision of the context {@link MathContext}.
+ * The {@link ExpressionNumberKind#DOUBLE} kind and arguments outside the domain of the function, such as the square root
+ * of a negative number, are given to the wrapped function which reports the error.
+ */
+final class SpreadsheetServerExpressionFunctionBigDecimal extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    static SpreadsheetServerExpressionFunctionBigDecimal exp(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBigDecimal(
+                function,
+                (values, context) -> 1 == values.size() ?
+                        SpreadsheetServerBigDecimalMath.exp(values.get(0), context) :
+                        null
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionBigDecimal ln(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBigDecimal(
+                function,
+                (values, context) -> 1 == values.size() ?
+                        SpreadsheetServerBigDecimalMath.ln(values.get(0), context) :
+                        null
+        );
+    }
+
+    /**
+     * LOG without a base is the base 10 logarithm.
+     */
+    static SpreadsheetServerExpressionFunctionBigDecimal log(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBigDecimal(
+                function,
+                (values, context) -> {
+                    final BigDecimal result;
+
+                    switch (values.size()) {
+                        case 1:
+                            result = SpreadsheetServerBigDecimalMath.log10(values.get(0), context);
+                            break;
+                        case 2:
+                            result = SpreadsheetServerBigDecimalMath.log(values.get(0), values.get(1), context);
+                            break;
+                        default:
+                            result = null;
+                            break;
+                    }
+
+                    return result;
+                }
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionBigDecimal log10(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBigDecimal(
+                function,
+                (values, context) -> 1 == values.size() ?
+                        SpreadsheetServerBigDecimalMath.log10(values.get(0), context) :
+                        null
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionBigDecimal sqrt(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBigDecimal(
+                function,
+                (values, context) -> 1 == values.size() ?
+                        SpreadsheetServerBigDecimalMath.sqrt(values.get(0), context) :
+                        null
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionBigDecimal(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                          final BiFunction<List<BigDecimal>, MathContext, BigDecimal> kernel) {
+        super(function);
+        this.kernel = Objects.requireNonNull(kernel, "kernel");
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        BigDecimal result = null;
+
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+        if (ExpressionNumberKind.BIG_DECIMAL == kind) {
+            final List<BigDecimal> values = bigDecimals(parameters);
+            if (null != values) {
+                result = this.kernel.apply(
+                        values,
+                        context.mathContext()
+                );
+            }
+        }
+
+        return null != result ?
+                kind.create(result) :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Returns the {@link BigDecimal} value of all parameters or null if any parameter is not a {@link ExpressionNumber}.
+     */
+    private static List<BigDecimal> bigDecimals(final List<Object> parameters) {
+        List<BigDecimal> values = Lists.array();
+
+        for (final Object parameter : parameters) {
+            if (false == parameter instanceof ExpressionNumber) {
+                values = null;
+                break;
+            }
+            values.add(
+                    ((ExpressionNumber) parameter).bigDecimal()
+            );
+        }
+
+        return values;
+    }
+
+    private final BiFunction<List<BigDecimal>, MathContext, BigDecimal> kernel;
+}
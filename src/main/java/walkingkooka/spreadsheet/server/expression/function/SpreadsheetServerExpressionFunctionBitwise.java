@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Wraps BITAND, BITOR or BITXOR performing the operation on primitive longs when both operands are integers within
+ * the 48 bit range supported by Excel, only creating an {@link ExpressionNumber} for the result. All other operands
+ * including negative or fractional numbers are given to the wrapped function, which reports the error.
+ */
+final class SpreadsheetServerExpressionFunctionBitwise extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    /**
+     * Values must be less than 2^48.
+     */
+    final static long LIMIT = 1L << 48;
+
+    static SpreadsheetServerExpressionFunctionBitwise and(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBitwise(
+                function,
+                (l, r) -> l & r
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionBitwise or(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBitwise(
+                function,
+                (l, r) -> l | r
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionBitwise xor(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionBitwise(
+                function,
+                (l, r) -> l ^ r
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionBitwise(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                       final LongBinaryOperator operator) {
+        super(function);
+        this.operator = operator;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        long left = -1;
+        long right = -1;
+
+        if (2 == parameters.size()) {
+            left = bits(parameters.get(0));
+            right = bits(parameters.get(1));
+        }
+
+        return left >= 0 && right >= 0 ?
+                context.expressionNumberKind()
+                        .create(
+                                this.operator.applyAsLong(
+                                        left,
+                                        right
+                                )
+                        ) :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Returns the value if it is a 48 bit number otherwise returns -1.
+     */
+    private static long bits(final Object value) {
+        return value instanceof ExpressionNumber ?
+                SpreadsheetServerExpressionNumbers.exactLong(
+                        (ExpressionNumber) value,
+                        LIMIT
+                ) :
+                -1;
+    }
+
+    private final LongBinaryOperator operator;
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.math.MathContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps a function without parameters such as PI, which returns a constant for each {@link ExpressionNumberKind} and
+ * {@link MathContext}. Constants are cached by both, so spreadsheets with different kinds or precisions evaluated by
+ * the same server never evict each other, keeping at most {@link #MAX_CONSTANTS} of the most recently used.
+ * <br>
+ * The last constant is also kept with its kind and {@link MathContext}, so repeated calls with the same context
+ * return it without allocating or locking.
+ */
+final class SpreadsheetServerExpressionFunctionConstant extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    static SpreadsheetServerExpressionFunctionConstant with(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionConstant(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionConstant(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final ExpressionNumber constant;
+
+        if (parameters.isEmpty()) {
+            final ExpressionNumberKind kind = context.expressionNumberKind();
+            final MathContext mathContext = context.mathContext();
+
+            final Last last = this.last;
+            constant = null != last && kind == last.kind && mathContext == last.mathContext ?
+                    last.constant :
+                    this.miss(
+                            kind,
+                            mathContext,
+                            parameters,
+                            context
+                    );
+        } else {
+            constant = this.function.apply(
+                    parameters,
+                    context
+            );
+        }
+
+        return constant;
+    }
+
+    private ExpressionNumber miss(final ExpressionNumberKind kind,
+                                  final MathContext mathContext,
+                                  final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final Key key = new Key(
+                kind,
+                mathContext
+        );
+
+        final Map<Key, ExpressionNumber> constants = this.constants;
+        ExpressionNumber constant;
+        synchronized (constants) {
+            constant = constants.get(key);
+        }
+
+        if (null == constant) {
+            constant = this.function.apply(
+                    parameters,
+                    context
+            );
+            synchronized (constants) {
+                constants.put(
+                        key,
+                        constant
+                );
+            }
+        }
+
+        this.last = new Last(
+                kind,
+                mathContext,
+                constant
+        );
+        return constant;
+    }
+
+    /**
+     * The last constant returned, compared by the identity of its kind and {@link MathContext}.
+     */
+    private volatile Last last;
+
+    private final static class Last {
+
+        Last(final ExpressionNumberKind kind,
+             final MathContext mathContext,
+             final ExpressionNumber constant) {
+            this.kind = kind;
+            this.mathContext = mathContext;
+            this.constant = constant;
+        }
+
+        final ExpressionNumberKind kind;
+
+        final MathContext mathContext;
+
+        final ExpressionNumber constant;
+    }
+
+    /**
+     * The maximum number of kind and {@link MathContext} pairs kept.
+     */
+    final static int MAX_CONSTANTS = 16;
+
+    /**
+     * An access ordered map which removes the least recently used constant, guarded by itself.
+     */
+    private final Map<Key, ExpressionNumber> constants = new LinkedHashMap<Key, ExpressionNumber>(
+            MAX_CONSTANTS,
+            0.75f,
+            true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, ExpressionNumber> eldest) {
+            return this.size() > MAX_CONSTANTS;
+        }
+    };
+
+    private final static class Key {
+
+        Key(final ExpressionNumberKind kind,
+            final MathContext mathContext) {
+            this.kind = kind;
+            this.mathContext = mathContext;
+            this.hashCode = 31 * kind.hashCode() + mathContext.hashCode();
+        }
+
+        private final ExpressionNumberKind kind;
+
+        private final MathContext mathContext;
+
+        private final int hashCode;
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other ||
+                    other instanceof Key && this.equals0((Key) other);
+        }
+
+        private boolean equals0(final Key other) {
+            return this.kind == other.kind &&
+                    this.mathContext.equals(other.mathContext);
+        }
+
+        @Override
+        public String toString() {
+            return this.kind + " " + this.mathContext;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Counts the numbers, dates, date-times and times, missing cells are never visited.
+ */
+final class SpreadsheetServerExpressionFunctionCount extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionCount INSTANCE = new SpreadsheetServerExpressionFunctionCount(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionCount(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "count",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionCount replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionCount(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return context.expressionNumberKind()
+                .create(scan.count());
+    }
+
+    static boolean isNumber(final Object value) {
+        return value instanceof ExpressionNumber ||
+                value instanceof LocalDate ||
+                value instanceof LocalDateTime ||
+                value instanceof LocalTime;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Counts the missing cells or null values. The blank cells within a range are computed as the area of the range minus
+ * the cells with a value within the range, which means empty cells are never visited.
+ */
+final class SpreadsheetServerExpressionFunctionCountBlank extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionCountBlank INSTANCE = new SpreadsheetServerExpressionFunctionCountBlank(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionCountBlank(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "countBlank",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionCountBlank replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionCountBlank(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return context.expressionNumberKind()
+                .create(scan.missing());
+    }
+}
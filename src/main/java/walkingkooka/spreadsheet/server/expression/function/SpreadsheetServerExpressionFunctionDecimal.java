@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+
+/**
+ * Wraps DECIMAL, parsing text whose value fits within a long using primitive multiplication and the shared digit
+ * table. Text with an invalid digit, a value too large for a long or an invalid radix is given to the wrapped function,
+ * which either converts using {@link java.math.BigInteger} or reports the error.
+ */
+final class SpreadsheetServerExpressionFunctionDecimal extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    static SpreadsheetServerExpressionFunctionDecimal with(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionDecimal(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionDecimal(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        long value = -1;
+
+        if (2 == parameters.size()) {
+            final Object text = parameters.get(0);
+            final Object radix = parameters.get(1);
+
+            if (text instanceof String && radix instanceof ExpressionNumber) {
+                final long radixValue = SpreadsheetServerExpressionNumbers.exactLong(
+                        (ExpressionNumber) radix,
+                        SpreadsheetServerRadix.MAX_RADIX + 1
+                );
+                if (radixValue >= 2) {
+                    value = parse(
+                            (String) text,
+                            (int) radixValue
+                    );
+                }
+            }
+        }
+
+        return value >= 0 ?
+                context.expressionNumberKind()
+                        .create(value) :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Parses the text ignoring case, returning -1 if the text is empty, contains an invalid digit or the value is too
+     * large for a long.
+     */
+    static long parse(final String text,
+                      final int radix) {
+        final int length = text.length();
+        final long limit = (Long.MAX_VALUE - (radix - 1)) / radix;
+
+        long value = length > 0 ? 0 : -1;
+
+        for (int i = 0; i < length; i++) {
+            final int digit = SpreadsheetServerRadix.digit(text.charAt(i));
+            if (digit < 0 || digit >= radix || value > limit) {
+                value = -1;
+                break;
+            }
+            value = value * radix + digit;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Wraps a single parameter function such as COS, which when the {@link ExpressionNumberKind} is
+ * {@link ExpressionNumberKind#DOUBLE} reads the parameter as a double once, calls the {@link Math} method directly
+ * and creates the {@link ExpressionNumber} result. {@link Math} is used rather than {@link StrictMath}, which is not
+ * available to transpiled javascript. Results that are not finite, such as ACOS of 2, and
+ * {@link ExpressionNumberKind#BIG_DECIMAL} are given to the wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionDoubleUnary extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    static SpreadsheetServerExpressionFunctionDoubleUnary with(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                               final DoubleUnaryOperator operator) {
+        return new SpreadsheetServerExpressionFunctionDoubleUnary(
+                function,
+                Objects.requireNonNull(operator, "operator")
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionDoubleUnary(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                           final DoubleUnaryOperator operator) {
+        super(function);
+        this.operator = operator;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        ExpressionNumber result = null;
+
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+        if (ExpressionNumberKind.DOUBLE == kind && 1 == parameters.size()) {
+            final Object value = parameters.get(0);
+            if (value instanceof ExpressionNumber) {
+                final double applied = this.operator.applyAsDouble(
+                        ((ExpressionNumber) value).doubleValue()
+                );
+                if (Double.isFinite(applied)) {
+                    result = kind.create(applied);
+                }
+            }
+        }
+
+        return null != result ?
+                result :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    private final DoubleUnaryOperator operator;
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for functions such as COUNTIFS and SUMIFS that reduce the values of the cells where all criteria match.
+ * Each criteria is compiled once into a {@link SpreadsheetServerCriteria}, and the cells are visited in a single pass
+ * testing the most selective criteria first, so a cell is rejected by the first criteria that fails. When a criteria
+ * never matches blank cells only the present cells of its range are visited, otherwise every cell of the area is.
+ * Cells are always visited in order, across each row, so sums that round are always rounded the same way.
+ * <br>
+ * Text holding a number, such as <code>"400"</code>, matches number criteria and is added as a number, like SUMIF and
+ * AVERAGEIF.
+ * <br>
+ * The values of matching cells are read from the {@link SpreadsheetServerColumn} of the values range, so whole numbers
+ * and double fractions are summed without unboxing.
+ * <br>
+ * All ranges are given as references and must have the same number of rows and columns. They are loaded as a
+ * {@link SpreadsheetServerSortedRange} using the {@link SpreadsheetServerRecalculation} of the function, so ranges
+ * are shared with other functions of the same recalculation.
+ */
+abstract class SpreadsheetServerExpressionFunctionIfs extends SpreadsheetServerExpressionFunction<ExpressionNumber> {
+
+    /**
+     * When true the first parameter is the range holding the values, such as the sum range of SUMIFS.
+     */
+    SpreadsheetServerExpressionFunctionIfs(final String name,
+                                           final boolean values,
+                                           final SpreadsheetServerRecalculation recalculation) {
+        super(name);
+        this.values = values;
+        this.recalculation = recalculation;
+    }
+
+    private final boolean values;
+
+    @Override
+    final SpreadsheetServerExpressionFunctionIfs setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                this.replace(recalculation);
+    }
+
+    abstract SpreadsheetServerExpressionFunctionIfs replace(final SpreadsheetServerRecalculation recalculation);
+
+    final SpreadsheetServerRecalculation recalculation;
+
+    @Override
+    public final List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> RANGES_AND_CRITERIA = ExpressionFunctionParameterName.with("rangesAndCriteria")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(RANGES_AND_CRITERIA);
+
+    @Override
+    public final Class<ExpressionNumber> returnType() {
+        return ExpressionNumber.class;
+    }
+
+    @Override
+    public final ExpressionNumber apply(final List<Object> parameters,
+                                        final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        final int first = this.values ? 1 : 0;
+        if (count < first + 2 || 0 != (count - first) % 2) {
+            throw new IllegalArgumentException("Expected " + (this.values ? "values, " : "") + "range, criteria pairs but got " + count + " parameters");
+        }
+
+        final List<SpreadsheetServerSortedRange> ranges = Lists.array();
+        try {
+            return this.apply(
+                    parameters,
+                    first,
+                    ranges,
+                    context
+            );
+        } finally {
+            for (final SpreadsheetServerSortedRange range : ranges) {
+                range.release();
+            }
+        }
+    }
+
+    private ExpressionNumber apply(final List<Object> parameters,
+                                   final int first,
+                                   final List<SpreadsheetServerSortedRange> ranges,
+                                   final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        final List<Criterion> criteria = Lists.array();
+        SpreadsheetServerSortedRange area = null;
+
+        for (int i = first; i < count; i += 2) {
+            final SpreadsheetServerSortedRange range = this.load(
+                    parameters.get(i),
+                    ranges,
+                    context
+            );
+            if (null == area) {
+                area = range;
+            } else {
+                area.checkSameShape(range);
+            }
+
+            criteria.add(
+                    new Criterion(
+                            range,
+                            SpreadsheetServerCriteria.parse(
+                                    criteriaValue(
+                                            parameters.get(i + 1),
+                                            context
+                                    ),
+                                    context.expressionNumberKind()
+                            )
+                    )
+            );
+        }
+
+        final SpreadsheetServerSortedRange values;
+        if (this.values) {
+            values = this.load(
+                    parameters.get(0),
+                    ranges,
+                    context
+            );
+            area.checkSameShape(values);
+        } else {
+            values = null;
+        }
+
+        // stable, so criteria with the same selectivity are tested in the order given
+        criteria.sort(Comparator.comparingInt(Criterion::selectivity));
+
+        Criterion driver = null;
+        for (final Criterion criterion : criteria) {
+            if (false == criterion.criteria.matchesBlank()) {
+                driver = criterion;
+                break;
+            }
+        }
+
+        final Matches matches = new Matches(values);
+
+        if (null != driver) {
+            for (final long offset : driver.range.offsets) {
+                if (test(criteria, offset)) {
+                    matches.add(offset);
+                }
+            }
+        } else {
+            final long cells = area.area;
+            for (long offset = 0; offset < cells; offset++) {
+                if (test(criteria, offset)) {
+                    matches.add(offset);
+                }
+            }
+        }
+
+        return this.applyMatches(
+                matches.count,
+                null != values ?
+                        values.column() :
+                        null,
+                matches.indices,
+                matches.size,
+                context
+        );
+    }
+
+    private SpreadsheetServerSortedRange load(final Object reference,
+                                              final List<SpreadsheetServerSortedRange> ranges,
+                                              final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerSortedRange range = SpreadsheetServerSortedRange.load(
+                reference,
+                this.recalculation,
+                context
+        );
+        ranges.add(range);
+        return range;
+    }
+
+    /**
+     * A criteria given as a reference, uses the value of its first cell.
+     */
+    private static Object criteriaValue(final Object criteria,
+                                        final SpreadsheetExpressionEvaluationContext context) {
+        Object value = criteria;
+
+        if (criteria instanceof SpreadsheetExpressionReference) {
+            value = SpreadsheetServerSparseRange.cellValue(
+                    (SpreadsheetExpressionReference) criteria,
+                    context
+            );
+        }
+
+        return value;
+    }
+
+    private static boolean test(final List<Criterion> criteria,
+                                final long offset) {
+        boolean test = true;
+
+        for (final Criterion criterion : criteria) {
+            test = criterion.test(offset);
+            if (false == test) {
+                break;
+            }
+        }
+
+        return test;
+    }
+
+    /**
+     * Computes the result given the number of matching cells, and the indices within the {@link SpreadsheetServerColumn}
+     * of the values range of the present values of those cells. Functions without a values range are given a null
+     * column and no indices.
+     */
+    abstract ExpressionNumber applyMatches(final long matches,
+                                           final SpreadsheetServerColumn values,
+                                           final int[] indices,
+                                           final int count,
+                                           final SpreadsheetExpressionEvaluationContext context);
+
+    /**
+     * Adds the numbers of the given values to the sum, reading whole numbers and double fractions without unboxing and
+     * converting text holding a number. Values that are not numbers are ignored. Returns the count of numbers added.
+     */
+    static long sum(final SpreadsheetServerColumn values,
+                    final int[] indices,
+                    final int count,
+                    final SpreadsheetServerExpressionNumberAccumulator sum,
+                    final ExpressionNumberKind kind) {
+        final boolean doubleKind = ExpressionNumberKind.DOUBLE == kind;
+        long numbers = 0;
+
+        for (int i = 0; i < count; i++) {
+            final int index = indices[i];
+
+            switch (values.tag(index)) {
+                case SpreadsheetServerColumn.LONG:
+                    sum.accept(values.longValue(index));
+                    numbers++;
+                    break;
+                case SpreadsheetServerColumn.DOUBLE:
+                    if (doubleKind) {
+                        sum.accept(values.doubleValue(index));
+                    } else {
+                        sum.accept((ExpressionNumber) values.value(index));
+                    }
+                    numbers++;
+                    break;
+                default:
+                    final ExpressionNumber number = number(
+                            values,
+                            index,
+                            kind
+                    );
+                    if (null != number) {
+                        sum.accept(number);
+                        numbers++;
+                    }
+                    break;
+            }
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Returns the number at the given index, converting text holding a number, or null if the value is not a number.
+     */
+    static ExpressionNumber number(final SpreadsheetServerColumn values,
+                                   final int index,
+                                   final ExpressionNumberKind kind) {
+        final ExpressionNumber number;
+
+        switch (values.tag(index)) {
+            case SpreadsheetServerColumn.LONG:
+            case SpreadsheetServerColumn.DOUBLE:
+            case SpreadsheetServerColumn.NUMBER:
+                number = (ExpressionNumber) values.value(index);
+                break;
+            case SpreadsheetServerColumn.OTHER:
+                final Object value = values.value(index);
+                number = value instanceof String ?
+                        SpreadsheetServerCriteria.number(
+                                (String) value,
+                                kind
+                        ) :
+                        null;
+                break;
+            default:
+                number = null;
+                break;
+        }
+
+        return number;
+    }
+
+    /**
+     * Counts the matching cells and collects the indices of the present values of the values range for those cells.
+     */
+    private final static class Matches {
+
+        private final static int[] NO_INDICES = new int[0];
+
+        Matches(final SpreadsheetServerSortedRange values) {
+            this.values = values;
+        }
+
+        void add(final long offset) {
+            this.count++;
+
+            final SpreadsheetServerSortedRange values = this.values;
+            if (null != values) {
+                final int index = values.indexOf(offset);
+                if (index >= 0) {
+                    final int size = this.size;
+                    if (size == this.indices.length) {
+                        this.indices = Arrays.copyOf(
+                                this.indices,
+                                Math.max(16, size * 2)
+                        );
+                    }
+                    this.indices[size] = values.valueIndex(index);
+                    this.size = size + 1;
+                }
+            }
+        }
+
+        private final SpreadsheetServerSortedRange values;
+
+        long count;
+
+        int[] indices = NO_INDICES;
+
+        int size;
+    }
+
+    /**
+     * A range and its compiled criteria.
+     */
+    private final static class Criterion {
+
+        Criterion(final SpreadsheetServerSortedRange range,
+                  final SpreadsheetServerCriteria criteria) {
+            this.range = range;
+            this.criteria = criteria;
+        }
+
+        boolean test(final long offset) {
+            return this.criteria.test(
+                    this.range.get(offset)
+            );
+        }
+
+        int selectivity() {
+            return this.criteria.selectivity();
+        }
+
+        final SpreadsheetServerSortedRange range;
+
+        final SpreadsheetServerCriteria criteria;
+
+        @Override
+        public String toString() {
+            return this.range + " " + this.criteria;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.SpreadsheetErrorKind;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+
+import java.util.List;
+
+/**
+ * Returns the value of the cell at the given row and column of a range, both starting at 1. A row or column of 0
+ * returns the reference of the whole column or row, and a single row or column range only needs one position.
+ * Only the selected cell is loaded.
+ */
+final class SpreadsheetServerExpressionFunctionIndex extends SpreadsheetServerExpressionFunctionLookup {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionIndex INSTANCE = new SpreadsheetServerExpressionFunctionIndex(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionIndex(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "index",
+                2,
+                3,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionIndex replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionIndex(recalculation);
+    }
+
+    @Override
+    Object applyLookup(final List<Object> parameters,
+                       final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetCellRangeReference range = range(
+                parameters,
+                0,
+                context
+        );
+        final int width = width(range);
+        final int height = height(range);
+
+        int row = integer(
+                parameters,
+                1,
+                0,
+                context
+        );
+        int column = integer(
+                parameters,
+                2,
+                width > 1 ? 0 : 1,
+                context
+        );
+        if (2 == parameters.size() && 1 == height && width > 1) {
+            column = row;
+            row = 1;
+        }
+
+        final Object result;
+        if (row < 0 || row > height || column < 0 || column > width) {
+            result = SpreadsheetErrorKind.REF.setMessage("Row " + row + " column " + column + " outside " + range);
+        } else {
+            if (0 == row) {
+                result = 0 == column ?
+                        range :
+                        column(
+                                range,
+                                column - 1
+                        );
+            } else {
+                result = 0 == column ?
+                        row(
+                                range,
+                                row - 1
+                        ) :
+                        result(
+                                cellValue(
+                                        range,
+                                        column - 1,
+                                        row - 1,
+                                        context
+                                ),
+                                context
+                        );
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps INDIRECT keeping a bounded least recently used cache of reference text to the parsed {@link SpreadsheetCellReference}.
+ * Only text that looks like a cell reference, eg <code>$B$12</code> is cached, label names are always given to the
+ * wrapped function, because label mappings may change at any time and there is no way to know when this happens.
+ */
+final class SpreadsheetServerExpressionFunctionIndirect extends SpreadsheetServerExpressionFunctionWrapper<SpreadsheetCellReference> {
+
+    /**
+     * The maximum number of reference texts that are cached.
+     */
+    final static int CACHE_MAX_SIZE = 4096;
+
+    static SpreadsheetServerExpressionFunctionIndirect with(final ExpressionFunction<SpreadsheetCellReference, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionIndirect(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionIndirect(final ExpressionFunction<SpreadsheetCellReference, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public SpreadsheetCellReference apply(final List<Object> parameters,
+                                          final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetCellReference reference;
+
+        final String text = cacheableText(parameters);
+        if (null != text) {
+            final Map<String, SpreadsheetCellReference> cache = this.cache;
+
+            SpreadsheetCellReference cached;
+            synchronized (cache) {
+                cached = cache.get(text);
+            }
+
+            if (null == cached) {
+                cached = this.function.apply(
+                        parameters,
+                        context
+                );
+                synchronized (cache) {
+                    cache.put(
+                            text,
+                            cached
+                    );
+                }
+            }
+            reference = cached;
+        } else {
+            reference = this.function.apply(
+                    parameters,
+                    context
+            );
+        }
+
+        return reference;
+    }
+
+    /**
+     * Returns the reference text if it is a cell reference in A1 form, otherwise returns null.
+     */
+    private static String cacheableText(final List<Object> parameters) {
+        String cacheable = null;
+
+        final int count = parameters.size();
+        if (1 == count || (2 == count && Boolean.TRUE.equals(parameters.get(1)))) {
+            final Object text = parameters.get(0);
+            if (text instanceof String && isCellReferenceText((String) text)) {
+                cacheable = (String) text;
+            }
+        }
+
+        return cacheable;
+    }
+
+    /**
+     * Tests if the text has the shape of a cell reference, an optional dollar sign, one to three column letters,
+     * an optional dollar sign followed by a row number. Labels can never have this shape, which means the result of
+     * parsing this text never depends on the labels within a spreadsheet.
+     */
+    static boolean isCellReferenceText(final String text) {
+        final int length = text.length();
+        int i = 0;
+
+        if (i < length && '$' == text.charAt(i)) {
+            i++;
+        }
+
+        final int columnStart = i;
+        while (i < length && isLetter(text.charAt(i))) {
+            i++;
+        }
+        final int columnLength = i - columnStart;
+
+        if (i < length && '$' == text.charAt(i)) {
+            i++;
+        }
+
+        final int rowStart = i;
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        final int rowLength = i - rowStart;
+
+        return i == length &&
+                columnLength >= 1 &&
+                columnLength <= 3 &&
+                rowLength >= 1 &&
+                rowLength <= 7 &&
+                '0' != text.charAt(rowStart);
+    }
+
+    private static boolean isLetter(final char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Cache of reference text to the parsed {@link SpreadsheetCellReference}, oldest entries are removed when the
+     * cache grows beyond {@link #CACHE_MAX_SIZE}.
+     */
+    private final Map<String, SpreadsheetCellReference> cache = new LinkedHashMap<String, SpreadsheetCellReference>(
+            16,
+            0.75f,
+            true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, SpreadsheetCellReference> eldest) {
+            return this.size() > CACHE_MAX_SIZE;
+        }
+
+        private static final long serialVersionUID = 1L;
+    };
+}
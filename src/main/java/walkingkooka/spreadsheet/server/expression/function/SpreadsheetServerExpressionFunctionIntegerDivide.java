@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+
+/**
+ * Wraps MOD or QUOTIENT, dividing whole numbers using long arithmetic. MOD only takes the fast path when the number is
+ * not negative and the divisor is positive, where every definition of the remainder agrees. Division by zero,
+ * fractions and all other parameters are given to the wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionIntegerDivide extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    /**
+     * Both numbers must be smaller than this.
+     */
+    private final static long LIMIT = 100_000_000_000_000_000L;
+
+    static SpreadsheetServerExpressionFunctionIntegerDivide mod(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionIntegerDivide(
+                function,
+                true
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionIntegerDivide quotient(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionIntegerDivide(
+                function,
+                false
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionIntegerDivide(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                             final boolean mod) {
+        super(function);
+        this.mod = mod;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        ExpressionNumber result = null;
+
+        if (2 == parameters.size()) {
+            final long number = whole(parameters.get(0));
+            final long divisor = whole(parameters.get(1));
+
+            if (SpreadsheetServerExpressionNumbers.NOT_LONG != number && SpreadsheetServerExpressionNumbers.NOT_LONG != divisor && 0 != divisor) {
+                if (this.mod) {
+                    if (number >= 0 && divisor > 0) {
+                        result = context.expressionNumberKind()
+                                .create(number % divisor);
+                    }
+                } else {
+                    result = context.expressionNumberKind()
+                            .create(number / divisor);
+                }
+            }
+        }
+
+        return null != result ?
+                result :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Returns the whole number or {@link SpreadsheetServerExpressionNumbers#NOT_LONG} if the value is not a whole
+     * number smaller than the limit.
+     */
+    private static long whole(final Object value) {
+        long whole = SpreadsheetServerExpressionNumbers.NOT_LONG;
+
+        if (value instanceof ExpressionNumber) {
+            final long exact = SpreadsheetServerExpressionNumbers.exactLong((ExpressionNumber) value);
+            if (SpreadsheetServerExpressionNumbers.NOT_LONG != exact && Math.abs(exact) < LIMIT) {
+                whole = exact;
+            }
+        }
+
+        return whole;
+    }
+
+    /**
+     * When true computes the remainder otherwise the quotient.
+     */
+    private final boolean mod;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the k-th largest number, where 1 is the largest.
+ */
+final class SpreadsheetServerExpressionFunctionLarge extends SpreadsheetServerExpressionFunctionOrderStatistic {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionLarge INSTANCE = new SpreadsheetServerExpressionFunctionLarge(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionLarge(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "large",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionLarge replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionLarge(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                     final ExpressionNumber parameter,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        return statistics.get(
+                statistics.size() - position(
+                        parameter,
+                        statistics
+                )
+        );
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.SpreadsheetError;
+import walkingkooka.spreadsheet.SpreadsheetErrorKind;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for lookup functions such as MATCH and VLOOKUP, which read the rows and columns they search from a
+ * {@link SpreadsheetServerLookupIndex} and the single cell of the result. Indices are only shared between calls when
+ * the function was given a {@link SpreadsheetServerRecalculation}, which drops them when a cell of the range changes;
+ * the singletons use {@link SpreadsheetServerRecalculation#NONE} and index the searched range on every call.
+ * References are never resolved by the engine, a reference given where a value is expected uses the value of its
+ * first cell.
+ */
+abstract class SpreadsheetServerExpressionFunctionLookup extends SpreadsheetServerExpressionFunction<Object> {
+
+    SpreadsheetServerExpressionFunctionLookup(final String name,
+                                              final int min,
+                                              final int max,
+                                              final SpreadsheetServerRecalculation recalculation) {
+        super(name);
+        this.min = min;
+        this.max = max;
+        this.recalculation = recalculation;
+    }
+
+    @Override
+    final SpreadsheetServerExpressionFunctionLookup setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                this.replace(recalculation);
+    }
+
+    abstract SpreadsheetServerExpressionFunctionLookup replace(final SpreadsheetServerRecalculation recalculation);
+
+    final SpreadsheetServerRecalculation recalculation;
+
+    private final int min;
+
+    private final int max;
+
+    @Override
+    public final List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> PARAMETER = ExpressionFunctionParameterName.with("parameters")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(PARAMETER);
+
+    @Override
+    public final Class<Object> returnType() {
+        return Object.class;
+    }
+
+    @Override
+    public final Object apply(final List<Object> parameters,
+                              final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        if (count < this.min || count > this.max) {
+            throw new IllegalArgumentException("Expected between " + this.min + " and " + this.max + " parameters but got " + count);
+        }
+
+        return this.applyLookup(
+                parameters,
+                context
+        );
+    }
+
+    abstract Object applyLookup(final List<Object> parameters,
+                                final SpreadsheetExpressionEvaluationContext context);
+
+    /**
+     * Returns the parameter at the given index, loading the value of the first cell when it is a reference.
+     */
+    static Object value(final List<Object> parameters,
+                        final int index,
+                        final SpreadsheetExpressionEvaluationContext context) {
+        final Object parameter = parameters.get(index);
+
+        return parameter instanceof SpreadsheetExpressionReference ?
+                SpreadsheetServerSparseRange.cellValue(
+                        (SpreadsheetExpressionReference) parameter,
+                        context
+                ) :
+                parameter;
+    }
+
+    /**
+     * Returns the range of the reference or label at the given index.
+     */
+    static SpreadsheetCellRangeReference range(final List<Object> parameters,
+                                               final int index,
+                                               final SpreadsheetExpressionEvaluationContext context) {
+        final Object parameter = parameters.get(index);
+        if (false == parameter instanceof SpreadsheetExpressionReference) {
+            throw new IllegalArgumentException("Expected range but got " + parameter);
+        }
+
+        return context.resolveIfLabel((SpreadsheetExpressionReference) parameter)
+                .toCellRange();
+    }
+
+    /**
+     * Returns the whole number at the given index, or the default when the parameter is absent.
+     */
+    static int integer(final List<Object> parameters,
+                       final int index,
+                       final int defaultValue,
+                       final SpreadsheetExpressionEvaluationContext context) {
+        int integer = defaultValue;
+
+        if (index < parameters.size()) {
+            final Object value = value(
+                    parameters,
+                    index,
+                    context
+            );
+            if (null != value) {
+                final long exact = SpreadsheetServerExpressionNumbers.exactLong(
+                        context.convertOrFail(
+                                value,
+                                ExpressionNumber.class
+                        )
+                );
+                if (exact < Integer.MIN_VALUE || exact > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Expected whole number but got " + value);
+                }
+                integer = (int) exact;
+            }
+        }
+
+        return integer;
+    }
+
+    /**
+     * Finds the first or last value equal to the given value, text with wildcards is matched like a criteria.
+     */
+    static int exactOrWildcard(final SpreadsheetServerLookupIndex index,
+                               final Object value,
+                               final boolean last,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return value instanceof String && SpreadsheetServerCriteria.isWildcard((String) value) ?
+                index.find(
+                        SpreadsheetServerCriteria.parse(
+                                "=" + value,
+                                context.expressionNumberKind()
+                        ),
+                        last
+                ) :
+                index.exact(
+                        value,
+                        last
+                );
+    }
+
+    /**
+     * Returns the range of the column at the given offset within the range.
+     */
+    static SpreadsheetCellRangeReference column(final SpreadsheetCellRangeReference range,
+                                                final int offset) {
+        final SpreadsheetCellReference top = range.begin()
+                .addColumn(offset);
+        return top.cellRange(
+                top.setRow(
+                        range.end()
+                                .row()
+                )
+        );
+    }
+
+    /**
+     * Returns the range of the row at the given offset within the range.
+     */
+    static SpreadsheetCellRangeReference row(final SpreadsheetCellRangeReference range,
+                                             final int offset) {
+        final SpreadsheetCellReference left = range.begin()
+                .addRow(offset);
+        return left.cellRange(
+                left.setColumn(
+                        range.end()
+                                .column()
+                )
+        );
+    }
+
+    /**
+     * Loads the value of the cell at the given column and row offsets within the range, returning null when it is blank.
+     */
+    static Object cellValue(final SpreadsheetCellRangeReference range,
+                            final int columnOffset,
+                            final int rowOffset,
+                            final SpreadsheetExpressionEvaluationContext context) {
+        return SpreadsheetServerSparseRange.cellValue(
+                range.begin()
+                        .addColumn(columnOffset)
+                        .addRow(rowOffset),
+                context
+        );
+    }
+
+    static int width(final SpreadsheetCellRangeReference range) {
+        return range.end().column().value() - range.begin().column().value() + 1;
+    }
+
+    static int height(final SpreadsheetCellRangeReference range) {
+        return range.end().row().value() - range.begin().row().value() + 1;
+    }
+
+    /**
+     * A blank cell is returned as zero.
+     */
+    static Object result(final Object value,
+                         final SpreadsheetExpressionEvaluationContext context) {
+        return null != value ?
+                value :
+                context.expressionNumberKind()
+                        .zero();
+    }
+
+    static SpreadsheetError notFound(final Object value) {
+        return SpreadsheetErrorKind.NA.setMessage(value + " not found");
+    }
+}
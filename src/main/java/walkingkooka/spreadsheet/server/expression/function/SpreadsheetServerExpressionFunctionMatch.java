@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+
+import java.util.List;
+
+/**
+ * Returns the position of a value within a row or column, starting at 1.
+ * <ul>
+ * <li>A match type of 0 finds the first equal value, text may contain wildcards</li>
+ * <li>A match type of 1, the default finds the largest value less than or equal to the value</li>
+ * <li>A match type of -1 finds the smallest value greater than or equal to the value</li>
+ * </ul>
+ * Approximate matches binary search the sorted values, which gives the same result as Excel for sorted values
+ * without depending on the order of the cells. When several values are equal the last position is returned.
+ */
+final class SpreadsheetServerExpressionFunctionMatch extends SpreadsheetServerExpressionFunctionLookup {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionMatch INSTANCE = new SpreadsheetServerExpressionFunctionMatch(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionMatch(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "match",
+                2,
+                3,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionMatch replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionMatch(recalculation);
+    }
+
+    @Override
+    Object applyLookup(final List<Object> parameters,
+                       final SpreadsheetExpressionEvaluationContext context) {
+        final Object value = value(
+                parameters,
+                0,
+                context
+        );
+        final SpreadsheetServerLookupIndex index = this.recalculation.lookupIndex(
+                range(
+                        parameters,
+                        1,
+                        context
+                ),
+                context
+        );
+        final int matchType = integer(
+                parameters,
+                2,
+                1,
+                context
+        );
+
+        final int position;
+        switch (matchType) {
+            case 0:
+                position = exactOrWildcard(
+                        index,
+                        value,
+                        false,
+                        context
+                );
+                break;
+            case 1:
+                position = index.lessOrEqual(
+                        value,
+                        true
+                );
+                break;
+            case -1:
+                position = index.greaterOrEqual(
+                        value,
+                        true
+                );
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid match type " + matchType);
+        }
+
+        return SpreadsheetServerLookupIndex.NOT_FOUND == position ?
+                notFound(value) :
+                context.expressionNumberKind()
+                        .create(position + 1);
+    }
+}
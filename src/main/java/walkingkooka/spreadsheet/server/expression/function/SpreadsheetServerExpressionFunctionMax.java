@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the largest of all values after converting each to an {@link ExpressionNumber}, or zero when there are none.
+ * Missing cells are ignored. The max is computed by a {@link SpreadsheetServerAggregateScan}.
+ */
+final class SpreadsheetServerExpressionFunctionMax extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionMax INSTANCE = new SpreadsheetServerExpressionFunctionMax(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionMax(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "max",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionMax replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionMax(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return scan.max();
+    }
+}
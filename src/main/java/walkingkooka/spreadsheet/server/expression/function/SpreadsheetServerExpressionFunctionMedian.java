@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the middle number, or the average of the two middle numbers when there is an even count.
+ */
+final class SpreadsheetServerExpressionFunctionMedian extends SpreadsheetServerExpressionFunctionOrderStatistic {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionMedian INSTANCE = new SpreadsheetServerExpressionFunctionMedian(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionMedian(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "median",
+                false,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionMedian replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionMedian(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                     final ExpressionNumber parameter,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        return statistics.median();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the smallest of all values after converting each to an {@link ExpressionNumber}, or zero when there are none.
+ * Missing cells are ignored. The min is computed by a {@link SpreadsheetServerAggregateScan}.
+ */
+final class SpreadsheetServerExpressionFunctionMin extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionMin INSTANCE = new SpreadsheetServerExpressionFunctionMin(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionMin(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "min",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionMin replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionMin(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return scan.min();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+/**
+ * Returns the smallest number of the min range where all criteria match, or zero when there are none.
+ * Values that are not numbers are ignored.
+ */
+final class SpreadsheetServerExpressionFunctionMinIfs extends SpreadsheetServerExpressionFunctionIfs {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionMinIfs INSTANCE = new SpreadsheetServerExpressionFunctionMinIfs(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionMinIfs(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "minIfs",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionMinIfs replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionMinIfs(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyMatches(final long matches,
+                                  final SpreadsheetServerColumn values,
+                                  final int[] indices,
+                                  final int count,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+        ExpressionNumber min = null;
+
+        for (int i = 0; i < count; i++) {
+            final ExpressionNumber number = number(
+                    values,
+                    indices[i],
+                    kind
+            );
+            if (null != number && (null == min || number.compareTo(min) < 0)) {
+                min = number;
+            }
+        }
+
+        return null != min ?
+                min :
+                kind.zero();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Base class for functions such as MEDIAN and LARGE that return an order statistic of the numbers within their
+ * values, where text, booleans and missing cells are ignored. Functions such as LARGE take a number as their last
+ * parameter, all other parameters are values. The numbers are selected using {@link SpreadsheetServerOrderStatistics}.
+ */
+abstract class SpreadsheetServerExpressionFunctionOrderStatistic extends SpreadsheetServerExpressionFunction<ExpressionNumber> {
+
+    /**
+     * When true the last parameter is a number such as the k of LARGE.
+     */
+    SpreadsheetServerExpressionFunctionOrderStatistic(final String name,
+                                                      final boolean parameter,
+                                                      final SpreadsheetServerRecalculation recalculation) {
+        super(name);
+        this.parameter = parameter;
+        this.recalculation = recalculation;
+    }
+
+    private final boolean parameter;
+
+    @Override
+    final SpreadsheetServerExpressionFunctionOrderStatistic setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                this.replace(recalculation);
+    }
+
+    abstract SpreadsheetServerExpressionFunctionOrderStatistic replace(final SpreadsheetServerRecalculation recalculation);
+
+    private final SpreadsheetServerRecalculation recalculation;
+
+    @Override
+    public final List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> VALUES = ExpressionFunctionParameterName.with("values")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(VALUES);
+
+    @Override
+    public final Class<ExpressionNumber> returnType() {
+        return ExpressionNumber.class;
+    }
+
+    @Override
+    public final ExpressionNumber apply(final List<Object> parameters,
+                                        final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        final boolean hasParameter = this.parameter;
+        if (count < (hasParameter ? 2 : 1)) {
+            throw new IllegalArgumentException("Expected values" + (hasParameter ? " and number" : "") + " but got " + count + " parameters");
+        }
+
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                hasParameter ?
+                        parameters.subList(0, count - 1) :
+                        parameters,
+                this.recalculation,
+                context
+        );
+        try {
+            final SpreadsheetServerOrderStatistics statistics = SpreadsheetServerOrderStatistics.with(
+                    range.values(),
+                    context
+            );
+            try {
+                return this.applyStatistics(
+                        statistics,
+                        hasParameter ?
+                                number(
+                                        parameters.get(count - 1),
+                                        context
+                                ) :
+                                null,
+                        context
+                );
+            } finally {
+                statistics.release();
+            }
+        } finally {
+            range.release();
+        }
+    }
+
+    private static ExpressionNumber number(final Object parameter,
+                                           final SpreadsheetExpressionEvaluationContext context) {
+        return context.convertOrFail(
+                parameter instanceof SpreadsheetExpressionReference ?
+                        SpreadsheetServerSparseRange.cellValue(
+                                (SpreadsheetExpressionReference) parameter,
+                                context
+                        ) :
+                        parameter,
+                ExpressionNumber.class
+        );
+    }
+
+    /**
+     * Returns the whole number between 1 and the number of numbers inclusive.
+     */
+    static int position(final ExpressionNumber k,
+                        final SpreadsheetServerOrderStatistics statistics) {
+        final int size = statistics.size();
+        final long position = SpreadsheetServerExpressionNumbers.exactLong(k);
+        if (position < 1 || position > size) {
+            throw new IllegalArgumentException("Invalid k " + k + " not between 1 and " + size);
+        }
+        return (int) position;
+    }
+
+    /**
+     * The parameter is null for functions without a number parameter.
+     */
+    abstract ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                              final ExpressionNumber parameter,
+                                              final SpreadsheetExpressionEvaluationContext context);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the inclusive percentile of the numbers, for a percentile between 0 and 1, interpolating between the two
+ * closest numbers.
+ */
+final class SpreadsheetServerExpressionFunctionPercentile extends SpreadsheetServerExpressionFunctionOrderStatistic {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionPercentile INSTANCE = new SpreadsheetServerExpressionFunctionPercentile(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionPercentile(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "percentile",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionPercentile replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionPercentile(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                     final ExpressionNumber parameter,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        return statistics.percentile(parameter);
+    }
+}
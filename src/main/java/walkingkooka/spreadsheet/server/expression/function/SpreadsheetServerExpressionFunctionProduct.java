@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+
+/**
+ * Wraps PRODUCT, multiplying the numbers with a {@link SpreadsheetServerExpressionNumberAccumulator} so whole numbers
+ * are multiplied as longs. No parameters or any parameter that is not a {@link ExpressionNumber} are given to the
+ * wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionProduct extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    static SpreadsheetServerExpressionFunctionProduct with(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionProduct(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionProduct(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        return isNumbers(parameters) ?
+                product(
+                        parameters,
+                        context
+                ) :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    private static boolean isNumbers(final List<Object> parameters) {
+        boolean numbers = false == parameters.isEmpty();
+
+        for (final Object parameter : parameters) {
+            numbers = parameter instanceof ExpressionNumber;
+            if (false == numbers) {
+                break;
+            }
+        }
+
+        return numbers;
+    }
+
+    private static ExpressionNumber product(final List<Object> parameters,
+                                            final SpreadsheetExpressionEvaluationContext context) {
+        final ExpressionNumberContext numberContext = SpreadsheetServerChunkedReduction.context(context);
+
+        return SpreadsheetServerChunkedReduction.reduce(
+                parameters,
+                SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD,
+                () -> SpreadsheetServerExpressionNumberAccumulator.product(numberContext),
+                (product, parameter) -> product.accept((ExpressionNumber) parameter),
+                SpreadsheetServerExpressionNumberAccumulator::merge
+        ).result();
+    }
+}
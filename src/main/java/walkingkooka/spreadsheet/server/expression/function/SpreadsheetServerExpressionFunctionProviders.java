@@ -22,168 +22,216 @@ import walkingkooka.collect.set.Sets;
 import walkingkooka.net.Url;
 import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
 import walkingkooka.tree.expression.function.provider.ExpressionFunctionProvider;
 import walkingkooka.tree.expression.function.provider.ExpressionFunctionProviders;
 
+import java.util.Objects;
+import java.util.Set;
+
 /**
  * Provider getter.
  */
 public final class SpreadsheetServerExpressionFunctionProviders implements PublicStaticHelper {
 
     /**
-     * An {@link ExpressionFunctionProvider} with all the functions in this project.
+     * An {@link ExpressionFunctionProvider} with all the functions in this project, which never share cached values.
      */
     public static ExpressionFunctionProvider expressionFunctionProvider(final CaseSensitivity nameCaseSensitivity) {
+        return expressionFunctionProvider(
+                nameCaseSensitivity,
+                SpreadsheetServerRecalculation.NONE
+        );
+    }
+
+    /**
+     * An {@link ExpressionFunctionProvider} with all the functions in this project, where functions such as SUM share
+     * the cached values of the given {@link SpreadsheetServerRecalculation}.
+     */
+    public static ExpressionFunctionProvider expressionFunctionProvider(final CaseSensitivity nameCaseSensitivity,
+                                                                        final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        final Set<ExpressionFunction<?, ?>> functions = Sets.ordered();
+        for (final ExpressionFunction<?, ?> function : FUNCTIONS) {
+            functions.add(
+                    function instanceof SpreadsheetServerExpressionFunction ?
+                            ((SpreadsheetServerExpressionFunction<?>) function).setRecalculation(recalculation) :
+                            function
+            );
+        }
+
         return ExpressionFunctionProviders.basic(
                 Url.parseAbsolute("https://github.com/mP1/walkingkooka-spreadsheet-server-expression-function/"),
                 nameCaseSensitivity,
-                Cast.to(
-                        Sets.of(
-                                SpreadsheetServerExpressionFunctions.abs(),
-                                SpreadsheetServerExpressionFunctions.acos(),
-                                SpreadsheetServerExpressionFunctions.address(),
-                                SpreadsheetServerExpressionFunctions.and(),
-                                SpreadsheetServerExpressionFunctions.asin(),
-                                SpreadsheetServerExpressionFunctions.atan(),
-                                SpreadsheetServerExpressionFunctions.average(),
-                                SpreadsheetServerExpressionFunctions.averageIf(),
-                                SpreadsheetServerExpressionFunctions.base(),
-                                SpreadsheetServerExpressionFunctions.bin2dec(),
-                                SpreadsheetServerExpressionFunctions.bin2hex(),
-                                SpreadsheetServerExpressionFunctions.bin2oct(),
-                                SpreadsheetServerExpressionFunctions.bitAnd(),
-                                SpreadsheetServerExpressionFunctions.bitOr(),
-                                SpreadsheetServerExpressionFunctions.bitXor(),
-                                SpreadsheetServerExpressionFunctions.ceil(),
-                                SpreadsheetServerExpressionFunctions.cell(),
-                                SpreadsheetServerExpressionFunctions.charFunction(),
-                                SpreadsheetServerExpressionFunctions.choose(),
-                                SpreadsheetServerExpressionFunctions.clean(),
-                                SpreadsheetServerExpressionFunctions.code(),
-                                SpreadsheetServerExpressionFunctions.column(),
-                                SpreadsheetServerExpressionFunctions.columns(),
-                                SpreadsheetServerExpressionFunctions.concat(),
-                                SpreadsheetServerExpressionFunctions.cos(),
-                                SpreadsheetServerExpressionFunctions.count(),
-                                SpreadsheetServerExpressionFunctions.countA(),
-                                SpreadsheetServerExpressionFunctions.countBlank(),
-                                SpreadsheetServerExpressionFunctions.countIf(),
-                                SpreadsheetServerExpressionFunctions.date(),
-                                SpreadsheetServerExpressionFunctions.day(),
-                                SpreadsheetServerExpressionFunctions.days(),
-                                SpreadsheetServerExpressionFunctions.decimal(),
-                                SpreadsheetServerExpressionFunctions.dec2bin(),
-                                SpreadsheetServerExpressionFunctions.dec2hex(),
-                                SpreadsheetServerExpressionFunctions.dec2oct(),
-                                SpreadsheetServerExpressionFunctions.degrees(),
-                                SpreadsheetServerExpressionFunctions.delta(),
-                                SpreadsheetServerExpressionFunctions.dollar(),
-                                SpreadsheetServerExpressionFunctions.e(),
-                                SpreadsheetServerExpressionFunctions.error(),
-                                SpreadsheetServerExpressionFunctions.even(),
-                                SpreadsheetServerExpressionFunctions.exact(),
-                                SpreadsheetServerExpressionFunctions.exp(),
-                                SpreadsheetServerExpressionFunctions.falseFunction(),
-                                SpreadsheetServerExpressionFunctions.find(),
-                                SpreadsheetServerExpressionFunctions.fixed(),
-                                SpreadsheetServerExpressionFunctions.floor(),
-                                SpreadsheetServerExpressionFunctions.formulaText(),
-                                SpreadsheetServerExpressionFunctions.hex2bin(),
-                                SpreadsheetServerExpressionFunctions.hex2dec(),
-                                SpreadsheetServerExpressionFunctions.hex2oct(),
-                                SpreadsheetServerExpressionFunctions.hour(),
-                                SpreadsheetServerExpressionFunctions.ifFunction(),
-                                SpreadsheetServerExpressionFunctions.ifs(),
-                                SpreadsheetServerExpressionFunctions.indirect(),
-                                SpreadsheetServerExpressionFunctions.intFunction(),
-                                SpreadsheetServerExpressionFunctions.isBlank(),
-                                SpreadsheetServerExpressionFunctions.isDate(),
-                                SpreadsheetServerExpressionFunctions.isErr(),
-                                SpreadsheetServerExpressionFunctions.isError(),
-                                SpreadsheetServerExpressionFunctions.isEven(),
-                                SpreadsheetServerExpressionFunctions.isFormula(),
-                                SpreadsheetServerExpressionFunctions.isLogical(),
-                                SpreadsheetServerExpressionFunctions.isNa(),
-                                SpreadsheetServerExpressionFunctions.isNonText(),
-                                SpreadsheetServerExpressionFunctions.isNumber(),
-                                SpreadsheetServerExpressionFunctions.isOdd(),
-                                SpreadsheetServerExpressionFunctions.isoWeekNum(),
-                                SpreadsheetServerExpressionFunctions.isText(),
-                                SpreadsheetServerExpressionFunctions.lambda(),
-                                SpreadsheetServerExpressionFunctions.left(),
-                                SpreadsheetServerExpressionFunctions.len(),
-                                SpreadsheetServerExpressionFunctions.let(),
-                                SpreadsheetServerExpressionFunctions.ln(),
-                                SpreadsheetServerExpressionFunctions.log(),
-                                SpreadsheetServerExpressionFunctions.log10(),
-                                SpreadsheetServerExpressionFunctions.lower(),
-                                SpreadsheetServerExpressionFunctions.max(),
-                                SpreadsheetServerExpressionFunctions.maxIf(),
-                                SpreadsheetServerExpressionFunctions.mid(),
-                                SpreadsheetServerExpressionFunctions.min(),
-                                SpreadsheetServerExpressionFunctions.minIf(),
-                                SpreadsheetServerExpressionFunctions.minute(),
-                                SpreadsheetServerExpressionFunctions.mod(),
-                                SpreadsheetServerExpressionFunctions.month(),
-                                SpreadsheetServerExpressionFunctions.not(),
-                                SpreadsheetServerExpressionFunctions.now(),
-                                SpreadsheetServerExpressionFunctions.numberValue(),
-                                SpreadsheetServerExpressionFunctions.oct2bin(),
-                                SpreadsheetServerExpressionFunctions.oct2dec(),
-                                SpreadsheetServerExpressionFunctions.oct2hex(),
-                                SpreadsheetServerExpressionFunctions.odd(),
-                                SpreadsheetServerExpressionFunctions.offset(),
-                                SpreadsheetServerExpressionFunctions.or(),
-                                SpreadsheetServerExpressionFunctions.pi(),
-                                SpreadsheetServerExpressionFunctions.product(),
-                                SpreadsheetServerExpressionFunctions.proper(),
-                                SpreadsheetServerExpressionFunctions.quotient(),
-                                SpreadsheetServerExpressionFunctions.radians(),
-                                SpreadsheetServerExpressionFunctions.rand(),
-                                SpreadsheetServerExpressionFunctions.randBetween(),
-                                SpreadsheetServerExpressionFunctions.replace(),
-                                SpreadsheetServerExpressionFunctions.rept(),
-                                SpreadsheetServerExpressionFunctions.right(),
-                                SpreadsheetServerExpressionFunctions.roman(),
-                                SpreadsheetServerExpressionFunctions.round(),
-                                SpreadsheetServerExpressionFunctions.roundDown(),
-                                SpreadsheetServerExpressionFunctions.roundUp(),
-                                SpreadsheetServerExpressionFunctions.row(),
-                                SpreadsheetServerExpressionFunctions.rows(),
-                                SpreadsheetServerExpressionFunctions.search(),
-                                SpreadsheetServerExpressionFunctions.second(),
-                                SpreadsheetServerExpressionFunctions.sign(),
-                                SpreadsheetServerExpressionFunctions.sin(),
-                                SpreadsheetServerExpressionFunctions.sinh(),
-                                SpreadsheetServerExpressionFunctions.sqrt(),
-                                SpreadsheetServerExpressionFunctions.substitute(),
-                                SpreadsheetServerExpressionFunctions.sum(),
-                                SpreadsheetServerExpressionFunctions.sumIf(),
-                                SpreadsheetServerExpressionFunctions.switchFunction(),
-                                SpreadsheetServerExpressionFunctions.t(),
-                                SpreadsheetServerExpressionFunctions.tan(),
-                                SpreadsheetServerExpressionFunctions.tanh(),
-                                SpreadsheetServerExpressionFunctions.text(),
-                                SpreadsheetServerExpressionFunctions.textJoin(),
-                                SpreadsheetServerExpressionFunctions.time(),
-                                SpreadsheetServerExpressionFunctions.today(),
-                                SpreadsheetServerExpressionFunctions.trim(),
-                                SpreadsheetServerExpressionFunctions.trueFunction(),
-                                SpreadsheetServerExpressionFunctions.trunc(),
-                                SpreadsheetServerExpressionFunctions.type(),
-                                SpreadsheetServerExpressionFunctions.unichar(),
-                                SpreadsheetServerExpressionFunctions.unicode(),
-                                SpreadsheetServerExpressionFunctions.upper(),
-                                SpreadsheetServerExpressionFunctions.value(),
-                                SpreadsheetServerExpressionFunctions.weekDay(),
-                                SpreadsheetServerExpressionFunctions.weekNum(),
-                                SpreadsheetServerExpressionFunctions.year(),
-                                SpreadsheetServerExpressionFunctions.xor()
-                        )
-                )
+                Cast.to(functions)
         );
     }
 
+    private final static Set<ExpressionFunction<?, ?>> FUNCTIONS = Cast.to(
+            Sets.of(
+                    SpreadsheetServerExpressionFunctions.abs(),
+                    SpreadsheetServerExpressionFunctions.acos(),
+                    SpreadsheetServerExpressionFunctions.address(),
+                    SpreadsheetServerExpressionFunctions.and(),
+                    SpreadsheetServerExpressionFunctions.asin(),
+                    SpreadsheetServerExpressionFunctions.atan(),
+                    SpreadsheetServerExpressionFunctions.average(),
+                    SpreadsheetServerExpressionFunctions.averageIf(),
+                    SpreadsheetServerExpressionFunctions.averageIfs(),
+                    SpreadsheetServerExpressionFunctions.base(),
+                    SpreadsheetServerExpressionFunctions.bin2dec(),
+                    SpreadsheetServerExpressionFunctions.bin2hex(),
+                    SpreadsheetServerExpressionFunctions.bin2oct(),
+                    SpreadsheetServerExpressionFunctions.bitAnd(),
+                    SpreadsheetServerExpressionFunctions.bitOr(),
+                    SpreadsheetServerExpressionFunctions.bitXor(),
+                    SpreadsheetServerExpressionFunctions.ceil(),
+                    SpreadsheetServerExpressionFunctions.cell(),
+                    SpreadsheetServerExpressionFunctions.charFunction(),
+                    SpreadsheetServerExpressionFunctions.choose(),
+                    SpreadsheetServerExpressionFunctions.clean(),
+                    SpreadsheetServerExpressionFunctions.code(),
+                    SpreadsheetServerExpressionFunctions.column(),
+                    SpreadsheetServerExpressionFunctions.columns(),
+                    SpreadsheetServerExpressionFunctions.concat(),
+                    SpreadsheetServerExpressionFunctions.cos(),
+                    SpreadsheetServerExpressionFunctions.count(),
+                    SpreadsheetServerExpressionFunctions.countA(),
+                    SpreadsheetServerExpressionFunctions.countBlank(),
+                    SpreadsheetServerExpressionFunctions.countIf(),
+                    SpreadsheetServerExpressionFunctions.countIfs(),
+                    SpreadsheetServerExpressionFunctions.date(),
+                    SpreadsheetServerExpressionFunctions.day(),
+                    SpreadsheetServerExpressionFunctions.days(),
+                    SpreadsheetServerExpressionFunctions.decimal(),
+                    SpreadsheetServerExpressionFunctions.dec2bin(),
+                    SpreadsheetServerExpressionFunctions.dec2hex(),
+                    SpreadsheetServerExpressionFunctions.dec2oct(),
+                    SpreadsheetServerExpressionFunctions.degrees(),
+                    SpreadsheetServerExpressionFunctions.delta(),
+                    SpreadsheetServerExpressionFunctions.dollar(),
+                    SpreadsheetServerExpressionFunctions.e(),
+                    SpreadsheetServerExpressionFunctions.error(),
+                    SpreadsheetServerExpressionFunctions.even(),
+                    SpreadsheetServerExpressionFunctions.exact(),
+                    SpreadsheetServerExpressionFunctions.exp(),
+                    SpreadsheetServerExpressionFunctions.falseFunction(),
+                    SpreadsheetServerExpressionFunctions.find(),
+                    SpreadsheetServerExpressionFunctions.fixed(),
+                    SpreadsheetServerExpressionFunctions.floor(),
+                    SpreadsheetServerExpressionFunctions.formulaText(),
+                    SpreadsheetServerExpressionFunctions.hex2bin(),
+                    SpreadsheetServerExpressionFunctions.hex2dec(),
+                    SpreadsheetServerExpressionFunctions.hex2oct(),
+                    SpreadsheetServerExpressionFunctions.hour(),
+                    SpreadsheetServerExpressionFunctions.ifFunction(),
+                    SpreadsheetServerExpressionFunctions.ifs(),
+                    SpreadsheetServerExpressionFunctions.index(),
+                    SpreadsheetServerExpressionFunctions.indirect(),
+                    SpreadsheetServerExpressionFunctions.intFunction(),
+                    SpreadsheetServerExpressionFunctions.isBlank(),
+                    SpreadsheetServerExpressionFunctions.isDate(),
+                    SpreadsheetServerExpressionFunctions.isErr(),
+                    SpreadsheetServerExpressionFunctions.isError(),
+                    SpreadsheetServerExpressionFunctions.isEven(),
+                    SpreadsheetServerExpressionFunctions.isFormula(),
+                    SpreadsheetServerExpressionFunctions.isLogical(),
+                    SpreadsheetServerExpressionFunctions.isNa(),
+                    SpreadsheetServerExpressionFunctions.isNonText(),
+                    SpreadsheetServerExpressionFunctions.isNumber(),
+                    SpreadsheetServerExpressionFunctions.isOdd(),
+                    SpreadsheetServerExpressionFunctions.isoWeekNum(),
+                    SpreadsheetServerExpressionFunctions.isText(),
+                    SpreadsheetServerExpressionFunctions.lambda(),
+                    SpreadsheetServerExpressionFunctions.large(),
+                    SpreadsheetServerExpressionFunctions.left(),
+                    SpreadsheetServerExpressionFunctions.len(),
+                    SpreadsheetServerExpressionFunctions.let(),
+                    SpreadsheetServerExpressionFunctions.ln(),
+                    SpreadsheetServerExpressionFunctions.log(),
+                    SpreadsheetServerExpressionFunctions.log10(),
+                    SpreadsheetServerExpressionFunctions.lower(),
+                    SpreadsheetServerExpressionFunctions.match(),
+                    SpreadsheetServerExpressionFunctions.max(),
+                    SpreadsheetServerExpressionFunctions.maxIf(),
+                    SpreadsheetServerExpressionFunctions.maxIfs(),
+                    SpreadsheetServerExpressionFunctions.median(),
+                    SpreadsheetServerExpressionFunctions.mid(),
+                    SpreadsheetServerExpressionFunctions.min(),
+                    SpreadsheetServerExpressionFunctions.minIf(),
+                    SpreadsheetServerExpressionFunctions.minIfs(),
+                    SpreadsheetServerExpressionFunctions.minute(),
+                    SpreadsheetServerExpressionFunctions.mod(),
+                    SpreadsheetServerExpressionFunctions.month(),
+                    SpreadsheetServerExpressionFunctions.not(),
+                    SpreadsheetServerExpressionFunctions.now(),
+                    SpreadsheetServerExpressionFunctions.numberValue(),
+                    SpreadsheetServerExpressionFunctions.oct2bin(),
+                    SpreadsheetServerExpressionFunctions.oct2dec(),
+                    SpreadsheetServerExpressionFunctions.oct2hex(),
+                    SpreadsheetServerExpressionFunctions.odd(),
+                    SpreadsheetServerExpressionFunctions.offset(),
+                    SpreadsheetServerExpressionFunctions.or(),
+                    SpreadsheetServerExpressionFunctions.percentile(),
+                    SpreadsheetServerExpressionFunctions.pi(),
+                    SpreadsheetServerExpressionFunctions.product(),
+                    SpreadsheetServerExpressionFunctions.proper(),
+                    SpreadsheetServerExpressionFunctions.quartile(),
+                    SpreadsheetServerExpressionFunctions.quotient(),
+                    SpreadsheetServerExpressionFunctions.radians(),
+                    SpreadsheetServerExpressionFunctions.rand(),
+                    SpreadsheetServerExpressionFunctions.randBetween(),
+                    SpreadsheetServerExpressionFunctions.replace(),
+                    SpreadsheetServerExpressionFunctions.rept(),
+                    SpreadsheetServerExpressionFunctions.right(),
+                    SpreadsheetServerExpressionFunctions.roman(),
+                    SpreadsheetServerExpressionFunctions.round(),
+                    SpreadsheetServerExpressionFunctions.roundDown(),
+                    SpreadsheetServerExpressionFunctions.roundUp(),
+                    SpreadsheetServerExpressionFunctions.row(),
+                    SpreadsheetServerExpressionFunctions.rows(),
+                    SpreadsheetServerExpressionFunctions.search(),
+                    SpreadsheetServerExpressionFunctions.second(),
+                    SpreadsheetServerExpressionFunctions.sign(),
+                    SpreadsheetServerExpressionFunctions.sin(),
+                    SpreadsheetServerExpressionFunctions.sinh(),
+                    SpreadsheetServerExpressionFunctions.small(),
+                    SpreadsheetServerExpressionFunctions.sqrt(),
+                    SpreadsheetServerExpressionFunctions.stdevP(),
+                    SpreadsheetServerExpressionFunctions.stdevS(),
+                    SpreadsheetServerExpressionFunctions.substitute(),
+                    SpreadsheetServerExpressionFunctions.sum(),
+                    SpreadsheetServerExpressionFunctions.sumIf(),
+                    SpreadsheetServerExpressionFunctions.sumIfs(),
+                    SpreadsheetServerExpressionFunctions.sumProduct(),
+                    SpreadsheetServerExpressionFunctions.switchFunction(),
+                    SpreadsheetServerExpressionFunctions.t(),
+                    SpreadsheetServerExpressionFunctions.tan(),
+                    SpreadsheetServerExpressionFunctions.tanh(),
+                    SpreadsheetServerExpressionFunctions.text(),
+                    SpreadsheetServerExpressionFunctions.textJoin(),
+                    SpreadsheetServerExpressionFunctions.time(),
+                    SpreadsheetServerExpressionFunctions.today(),
+                    SpreadsheetServerExpressionFunctions.trim(),
+                    SpreadsheetServerExpressionFunctions.trueFunction(),
+                    SpreadsheetServerExpressionFunctions.trunc(),
+                    SpreadsheetServerExpressionFunctions.type(),
+                    SpreadsheetServerExpressionFunctions.unichar(),
+                    SpreadsheetServerExpressionFunctions.unicode(),
+                    SpreadsheetServerExpressionFunctions.upper(),
+                    SpreadsheetServerExpressionFunctions.value(),
+                    SpreadsheetServerExpressionFunctions.varP(),
+                    SpreadsheetServerExpressionFunctions.varS(),
+                    SpreadsheetServerExpressionFunctions.vLookup(),
+                    SpreadsheetServerExpressionFunctions.weekDay(),
+                    SpreadsheetServerExpressionFunctions.weekNum(),
+                    SpreadsheetServerExpressionFunctions.xLookup(),
+                    SpreadsheetServerExpressionFunctions.year(),
+                    SpreadsheetServerExpressionFunctions.xor()
+            )
+    );
+
     /**
      * Stop creation
      */
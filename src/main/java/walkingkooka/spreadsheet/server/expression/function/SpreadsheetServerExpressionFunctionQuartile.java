@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the minimum, first quartile, median, third quartile or maximum number, for a quartile of 0 to 4, using the
+ * inclusive percentile.
+ */
+final class SpreadsheetServerExpressionFunctionQuartile extends SpreadsheetServerExpressionFunctionOrderStatistic {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionQuartile INSTANCE = new SpreadsheetServerExpressionFunctionQuartile(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionQuartile(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "quartile",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionQuartile replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionQuartile(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                     final ExpressionNumber parameter,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        final long quartile = SpreadsheetServerExpressionNumbers.exactLong(
+                parameter,
+                5
+        );
+        if (-1 == quartile) {
+            throw new IllegalArgumentException("Invalid quartile " + parameter + " not between 0 and 4");
+        }
+
+        return statistics.percentile(
+                context.expressionNumberKind()
+                        .create(quartile)
+                        .divide(
+                                context.expressionNumberKind()
+                                        .create(4),
+                                context
+                        )
+        );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.Cast;
+import walkingkooka.spreadsheet.SpreadsheetErrorKind;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Wraps one of the BIN2DEC family of functions, converting using the shared {@link SpreadsheetServerRadix} tables.
+ * Following Excel, text that is not a valid number of the radix, a value outside the 10 digit two's complement range
+ * of either radix, or an invalid or too small places returns a #NUM! error. Only values of other types, such as a
+ * number given to BIN2DEC, are given to the wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionRadix extends SpreadsheetServerExpressionFunctionWrapper<Object> {
+
+    static SpreadsheetServerExpressionFunctionRadix with(final ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> function,
+                                                         final SpreadsheetServerRadix from,
+                                                         final SpreadsheetServerRadix to) {
+        return new SpreadsheetServerExpressionFunctionRadix(
+                Cast.to(function),
+                Objects.requireNonNull(from, "from"),
+                Objects.requireNonNull(to, "to")
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionRadix(final ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> function,
+                                                     final SpreadsheetServerRadix from,
+                                                     final SpreadsheetServerRadix to) {
+        super(function);
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Object apply(final List<Object> parameters,
+                        final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        final Object value = 1 == count || 2 == count ?
+                parameters.get(0) :
+                null;
+        final Object places = 2 == count ?
+                parameters.get(1) :
+                null;
+
+        return this.from.canParse(value) && (null == places || places instanceof ExpressionNumber) ?
+                this.convert(
+                        value,
+                        (ExpressionNumber) places
+                ) :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Converts the value returning a #NUM! error if the value or places is invalid.
+     */
+    private Object convert(final Object value,
+                           final ExpressionNumber places) {
+        final Object converted;
+
+        final long parsed = this.from.parse(value);
+        if (SpreadsheetServerRadix.INVALID == parsed) {
+            converted = SpreadsheetErrorKind.NUM.setMessage("Invalid number " + value);
+        } else {
+            final String formatted = this.to.format(
+                    parsed,
+                    null == places ?
+                            SpreadsheetServerRadix.NO_PLACES :
+                            places(places)
+            );
+            converted = null != formatted ?
+                    formatted :
+                    SpreadsheetErrorKind.NUM.setMessage(
+                            this.to.isInRange(parsed) ?
+                                    "Invalid places " + places :
+                                    "Number " + parsed + " out of range"
+                    );
+        }
+
+        return converted;
+    }
+
+    /**
+     * Returns the places or -1 if it is not a whole number between 1 and 10.
+     */
+    private static int places(final ExpressionNumber places) {
+        final long value = SpreadsheetServerExpressionNumbers.exactLong(
+                places,
+                SpreadsheetServerRadix.MAX_DIGITS + 1
+        );
+
+        return value >= 1 ?
+                (int) value :
+                -1;
+    }
+
+    private final SpreadsheetServerRadix from;
+
+    private final SpreadsheetServerRadix to;
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+
+/**
+ * Wraps ROMAN, returning the classic form of whole numbers between 1 and 3999 from a lazily built table of shared
+ * {@link String strings}. The table holds 3999 short strings, roughly 200KB, and is only built on first use. Other
+ * numbers and the concise forms are given to the wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionRoman extends SpreadsheetServerExpressionFunctionWrapper<String> {
+
+    /**
+     * The largest number that may be converted.
+     */
+    final static int MAX = 3999;
+
+    static SpreadsheetServerExpressionFunctionRoman with(final ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRoman(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionRoman(final ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public String apply(final List<Object> parameters,
+                        final SpreadsheetExpressionEvaluationContext context) {
+        long number = -1;
+
+        final int count = parameters.size();
+        if (1 == count || (2 == count && isClassic(parameters.get(1)))) {
+            final Object value = parameters.get(0);
+            if (value instanceof ExpressionNumber) {
+                number = SpreadsheetServerExpressionNumbers.exactLong(
+                        (ExpressionNumber) value,
+                        MAX + 1
+                );
+            }
+        }
+
+        return number >= 1 ?
+                Table.CLASSIC[(int) number] :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * The classic form is selected by a form of zero or true.
+     */
+    private static boolean isClassic(final Object form) {
+        return Boolean.TRUE.equals(form) ||
+                (form instanceof ExpressionNumber && 0 == SpreadsheetServerExpressionNumbers.exactLong((ExpressionNumber) form));
+    }
+
+    /**
+     * Holder that defers building the table until the first number is converted.
+     */
+    private final static class Table {
+
+        /**
+         * The classic form of each number, the element at zero is unused.
+         */
+        final static String[] CLASSIC = new String[MAX + 1];
+
+        private final static int[] VALUES = {
+                1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1
+        };
+
+        private final static String[] SYMBOLS = {
+                "M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"
+        };
+
+        static {
+            final StringBuilder b = new StringBuilder();
+
+            for (int number = 1; number <= MAX; number++) {
+                b.setLength(0);
+
+                int remaining = number;
+                for (int i = 0; i < VALUES.length; i++) {
+                    final int value = VALUES[i];
+                    while (remaining >= value) {
+                        b.append(SYMBOLS[i]);
+                        remaining -= value;
+                    }
+                }
+
+                CLASSIC[number] = b.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Wraps one of ROUND, ROUNDUP, ROUNDDOWN, TRUNC, INT, FLOOR or CEIL with exact primitive fast paths, which give the
+ * same result as rounding the decimal value with the {@link RoundingMode}.
+ * <ul>
+ * <li>Whole numbers are rounded using long arithmetic, and are returned unchanged when digits is not negative.</li>
+ * <li>For {@link ExpressionNumberKind#DOUBLE} fractions, the number is scaled by a power of ten and rounded using
+ * double arithmetic only when the scaled value is clearly away from any rounding boundary, so the error of the
+ * scaling can never change the result. FLOOR and CEIL of a double are always exact.</li>
+ * </ul>
+ * All other parameters, including {@link ExpressionNumberKind#BIG_DECIMAL} fractions, are given to the wrapped function.
+ */
+final class SpreadsheetServerExpressionFunctionRound extends SpreadsheetServerExpressionFunctionWrapper<ExpressionNumber> {
+
+    /**
+     * Whole numbers must be smaller than this, so rounding to a power of ten never overflows.
+     */
+    private final static long LONG_LIMIT = 100_000_000_000_000_000L;
+
+    /**
+     * The largest number of negative digits for whole numbers.
+     */
+    private final static int LONG_MAX_DIGITS = 17;
+
+    /**
+     * The largest number of digits for double fractions.
+     */
+    private final static int DOUBLE_MAX_DIGITS = 9;
+
+    /**
+     * Scaled doubles must be smaller than this, which bounds the error of scaling.
+     */
+    private final static double DOUBLE_LIMIT = 1E9;
+
+    /**
+     * The scaled value must be at least this far from a rounding boundary, which is larger than the combined error of
+     * the double and the scaling.
+     */
+    private final static double DOUBLE_MARGIN = 1E-6;
+
+    private final static long[] LONG_POWERS_OF_TEN = new long[LONG_MAX_DIGITS + 1];
+
+    private final static double[] DOUBLE_POWERS_OF_TEN = new double[DOUBLE_MAX_DIGITS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= LONG_MAX_DIGITS; i++) {
+            LONG_POWERS_OF_TEN[i] = power;
+            if (i <= DOUBLE_MAX_DIGITS) {
+                DOUBLE_POWERS_OF_TEN[i] = power;
+            }
+            power = power * 10;
+        }
+    }
+
+    /**
+     * ROUND rounds half away from zero.
+     */
+    static SpreadsheetServerExpressionFunctionRound round(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.HALF_UP,
+                true
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionRound roundUp(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.UP,
+                true
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionRound roundDown(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.DOWN,
+                true
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionRound trunc(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.DOWN,
+                true
+        );
+    }
+
+    /**
+     * INT rounds down towards negative infinity.
+     */
+    static SpreadsheetServerExpressionFunctionRound intFunction(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.FLOOR,
+                false
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionRound floor(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.FLOOR,
+                false
+        );
+    }
+
+    static SpreadsheetServerExpressionFunctionRound ceil(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionRound(
+                function,
+                RoundingMode.CEILING,
+                false
+        );
+    }
+
+    private SpreadsheetServerExpressionFunctionRound(final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function,
+                                                     final RoundingMode mode,
+                                                     final boolean digits) {
+        super(function);
+        this.mode = mode;
+        this.digits = digits;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        ExpressionNumber result = null;
+
+        final int count = parameters.size();
+        final Object number = count > 0 ?
+                parameters.get(0) :
+                null;
+
+        if (number instanceof ExpressionNumber && (1 == count || (2 == count && this.digits))) {
+            final int digits = 1 == count ?
+                    0 :
+                    digits(parameters.get(1));
+
+            if (Integer.MIN_VALUE != digits) {
+                result = this.round(
+                        (ExpressionNumber) number,
+                        digits,
+                        context.expressionNumberKind()
+                );
+            }
+        }
+
+        return null != result ?
+                result :
+                this.function.apply(
+                        parameters,
+                        context
+                );
+    }
+
+    /**
+     * Returns the digits or {@link Integer#MIN_VALUE} if the digits is not a whole number between -17 and 17.
+     */
+    private static int digits(final Object digits) {
+        int value = Integer.MIN_VALUE;
+
+        if (digits instanceof ExpressionNumber) {
+            final long exact = SpreadsheetServerExpressionNumbers.exactLong((ExpressionNumber) digits);
+            if (exact >= -LONG_MAX_DIGITS && exact <= LONG_MAX_DIGITS) {
+                value = (int) exact;
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the rounded number or null if the fast paths cannot round the number.
+     */
+    private ExpressionNumber round(final ExpressionNumber number,
+                                   final int digits,
+                                   final ExpressionNumberKind kind) {
+        ExpressionNumber result = null;
+
+        final long whole = SpreadsheetServerExpressionNumbers.exactLong(number);
+        if (SpreadsheetServerExpressionNumbers.NOT_LONG != whole && Math.abs(whole) < LONG_LIMIT) {
+            result = kind.create(
+                    digits >= 0 ?
+                            whole :
+                            roundLong(
+                                    whole,
+                                    LONG_POWERS_OF_TEN[-digits],
+                                    this.mode
+                            )
+            );
+        } else {
+            if (ExpressionNumberKind.DOUBLE == kind && number.isDouble() && digits >= 0 && digits <= DOUBLE_MAX_DIGITS) {
+                final double rounded = roundDouble(
+                        number.doubleValue(),
+                        digits,
+                        this.mode
+                );
+                if (false == Double.isNaN(rounded)) {
+                    result = kind.create(rounded);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Rounds the whole number to a multiple of the power of ten.
+     */
+    static long roundLong(final long value,
+                          final long power,
+                          final RoundingMode mode) {
+        final long remainder = value % power;
+        final long truncated = value - remainder;
+        final long away = value < 0 ?
+                truncated - power :
+                truncated + power;
+
+        final long rounded;
+        switch (mode) {
+            case HALF_UP:
+                rounded = Math.abs(remainder) * 2 >= power ?
+                        away :
+                        truncated;
+                break;
+            case UP:
+                rounded = 0 != remainder ?
+                        away :
+                        truncated;
+                break;
+            case DOWN:
+                rounded = truncated;
+                break;
+            case FLOOR:
+                rounded = remainder < 0 ?
+                        away :
+                        truncated;
+                break;
+            case CEILING:
+                rounded = remainder > 0 ?
+                        away :
+                        truncated;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported mode " + mode);
+        }
+
+        return rounded;
+    }
+
+    /**
+     * Rounds the double to the digits, returning {@link Double#NaN} when the scaled value is too large or too close
+     * to a rounding boundary. FLOOR and CEILING without digits are always exact.
+     */
+    static double roundDouble(final double value,
+                              final int digits,
+                              final RoundingMode mode) {
+        double rounded = Double.NaN;
+
+        if (0 == digits && RoundingMode.FLOOR == mode) {
+            rounded = Math.floor(value);
+        } else {
+            if (0 == digits && RoundingMode.CEILING == mode) {
+                rounded = Math.ceil(value);
+            } else {
+                final double power = DOUBLE_POWERS_OF_TEN[digits];
+                final double scaled = value * power;
+
+                if (Math.abs(scaled) < DOUBLE_LIMIT) {
+                    final double floor = Math.floor(scaled);
+                    final double fraction = scaled - floor;
+
+                    if (fraction > DOUBLE_MARGIN && fraction < 1 - DOUBLE_MARGIN) {
+                        double whole = Double.NaN;
+
+                        switch (mode) {
+                            case HALF_UP:
+                                if (Math.abs(fraction - 0.5) > DOUBLE_MARGIN) {
+                                    whole = fraction > 0.5 ?
+                                            floor + 1 :
+                                            floor;
+                                }
+                                break;
+                            case UP:
+                                whole = scaled > 0 ?
+                                        floor + 1 :
+                                        floor;
+                                break;
+                            case DOWN:
+                                whole = scaled > 0 ?
+                                        floor :
+                                        floor + 1;
+                                break;
+                            case FLOOR:
+                                whole = floor;
+                                break;
+                            case CEILING:
+                                whole = floor + 1;
+                                break;
+                            default:
+                                throw new IllegalArgumentException("Unsupported mode " + mode);
+                        }
+
+                        // dividing a whole number by an exact power of ten gives the closest double to the decimal
+                        rounded = whole / power;
+                    }
+                }
+            }
+        }
+
+        // adding zero turns a negative zero such as CEIL(-0.5) into zero, matching the decimal result
+        return rounded + 0.0;
+    }
+
+    private final RoundingMode mode;
+
+    /**
+     * When true the function accepts an optional digits parameter.
+     */
+    private final boolean digits;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Returns the k-th smallest number, where 1 is the smallest.
+ */
+final class SpreadsheetServerExpressionFunctionSmall extends SpreadsheetServerExpressionFunctionOrderStatistic {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionSmall INSTANCE = new SpreadsheetServerExpressionFunctionSmall(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionSmall(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "small",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionSmall replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionSmall(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyStatistics(final SpreadsheetServerOrderStatistics statistics,
+                                     final ExpressionNumber parameter,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        return statistics.get(
+                position(
+                        parameter,
+                        statistics
+                ) - 1
+        );
+    }
+}
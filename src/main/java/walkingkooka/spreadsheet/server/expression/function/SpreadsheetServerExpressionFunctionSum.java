@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Sums all values after converting each to an {@link ExpressionNumber}. Missing cells are zero and are never visited.
+ * The sum is computed by a {@link SpreadsheetServerAggregateScan}.
+ */
+final class SpreadsheetServerExpressionFunctionSum extends SpreadsheetServerExpressionFunctionAggregate {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionSum INSTANCE = new SpreadsheetServerExpressionFunctionSum(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionSum(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "sum",
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionSum replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionSum(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyScan(final SpreadsheetServerAggregateScan scan,
+                               final SpreadsheetExpressionEvaluationContext context) {
+        return scan.sum();
+    }
+}
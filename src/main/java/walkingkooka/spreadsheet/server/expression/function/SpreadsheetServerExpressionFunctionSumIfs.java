@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * Sums the numbers of the sum range where all criteria match, values
+ * that are not numbers are ignored.
+ */
+final class SpreadsheetServerExpressionFunctionSumIfs extends SpreadsheetServerExpressionFunctionIfs {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionSumIfs INSTANCE = new SpreadsheetServerExpressionFunctionSumIfs(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionSumIfs(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "sumIfs",
+                true,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionSumIfs replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionSumIfs(recalculation);
+    }
+
+    @Override
+    ExpressionNumber applyMatches(final long matches,
+                                  final SpreadsheetServerColumn values,
+                                  final int[] indices,
+                                  final int count,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+
+        sum(
+                values,
+                indices,
+                count,
+                sum,
+                context.expressionNumberKind()
+        );
+
+        return sum.result();
+    }
+}
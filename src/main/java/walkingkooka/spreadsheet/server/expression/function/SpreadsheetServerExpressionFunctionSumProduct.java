@@ -0,0 +1,220 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Multiplies the numbers at the same position of each range and sums the products, cells that are missing or are not
+ * numbers are zero. All ranges are given as references and must have the same number of rows and columns.
+ * <br>
+ * Each range is loaded as a {@link SpreadsheetServerSortedRange} using the {@link SpreadsheetServerRecalculation} of
+ * the function, and only the cells where the range with the fewest values has a value are visited, so whole column
+ * ranges on a sparse sheet never allocate arrays the size of the range.
+ * <br>
+ * For {@link ExpressionNumberKind#DOUBLE} the numbers are read from the {@link SpreadsheetServerColumn} of each range
+ * as primitive doubles. Each product and sum is rounded exactly like {@link ExpressionNumber#multiply} and
+ * {@link ExpressionNumber#add}, a fused multiply add would round once and give different results, and is also
+ * unavailable when transpiled. Other kinds multiply {@link ExpressionNumber numbers}.
+ */
+final class SpreadsheetServerExpressionFunctionSumProduct extends SpreadsheetServerExpressionFunction<ExpressionNumber> {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionSumProduct INSTANCE = new SpreadsheetServerExpressionFunctionSumProduct(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionSumProduct(final SpreadsheetServerRecalculation recalculation) {
+        super("sumProduct");
+        this.recalculation = recalculation;
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionSumProduct setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                new SpreadsheetServerExpressionFunctionSumProduct(recalculation);
+    }
+
+    final SpreadsheetServerRecalculation recalculation;
+
+    @Override
+    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> RANGES = ExpressionFunctionParameterName.with("ranges")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(RANGES);
+
+    @Override
+    public Class<ExpressionNumber> returnType() {
+        return ExpressionNumber.class;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final int count = parameters.size();
+        if (0 == count) {
+            throw new IllegalArgumentException("Expected at least 1 range");
+        }
+
+        final SpreadsheetServerSortedRange[] ranges = new SpreadsheetServerSortedRange[count];
+        try {
+            int smallest = 0;
+
+            for (int i = 0; i < count; i++) {
+                final SpreadsheetServerSortedRange range = SpreadsheetServerSortedRange.load(
+                        parameters.get(i),
+                        this.recalculation,
+                        context
+                );
+                ranges[i] = range;
+
+                if (i > 0) {
+                    ranges[0].checkSameShape(range);
+                    if (range.offsets.length < ranges[smallest].offsets.length) {
+                        smallest = i;
+                    }
+                }
+            }
+
+            final ExpressionNumberKind kind = context.expressionNumberKind();
+            return ExpressionNumberKind.DOUBLE == kind ?
+                    kind.create(
+                            sumProductDouble(
+                                    ranges,
+                                    smallest
+                            )
+                    ) :
+                    sumProductNumber(
+                            ranges,
+                            smallest,
+                            context
+                    );
+        } finally {
+            for (final SpreadsheetServerSortedRange range : ranges) {
+                if (null != range) {
+                    range.release();
+                }
+            }
+        }
+    }
+
+    private static double sumProductDouble(final SpreadsheetServerSortedRange[] ranges,
+                                           final int smallest) {
+        final int count = ranges.length;
+        final SpreadsheetServerColumn[] columns = new SpreadsheetServerColumn[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = ranges[i].column();
+        }
+
+        // visit the cells in order so the sum is always rounded the same way
+        double sum = 0;
+        for (final long offset : ranges[smallest].offsets) {
+            double product = 1;
+            boolean present = true;
+
+            for (int j = 0; present && j < count; j++) {
+                final SpreadsheetServerSortedRange range = ranges[j];
+                final int index = range.indexOf(offset);
+                present = index >= 0;
+                if (present) {
+                    final SpreadsheetServerColumn column = columns[j];
+                    final int valueIndex = range.valueIndex(index);
+
+                    switch (column.tag(valueIndex)) {
+                        case SpreadsheetServerColumn.LONG:
+                            product *= column.longValue(valueIndex);
+                            break;
+                        case SpreadsheetServerColumn.DOUBLE:
+                            product *= column.doubleValue(valueIndex);
+                            break;
+                        case SpreadsheetServerColumn.NUMBER:
+                            product *= ((ExpressionNumber) column.value(valueIndex)).doubleValue();
+                            break;
+                        default:
+                            present = false;
+                            break;
+                    }
+                }
+            }
+
+            if (present) {
+                sum += product;
+            }
+        }
+        return sum;
+    }
+
+    private static ExpressionNumber sumProductNumber(final SpreadsheetServerSortedRange[] ranges,
+                                                     final int smallest,
+                                                     final SpreadsheetExpressionEvaluationContext context) {
+        final int count = ranges.length;
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+
+        // visit the cells in order so the sum is always rounded the same way
+        for (final long offset : ranges[smallest].offsets) {
+            ExpressionNumber product = number(ranges[0], offset);
+
+            for (int j = 1; null != product && j < count; j++) {
+                final ExpressionNumber number = number(ranges[j], offset);
+                product = null != number ?
+                        product.multiply(
+                                number,
+                                context
+                        ) :
+                        null;
+            }
+
+            if (null != product) {
+                sum.accept(product);
+            }
+        }
+
+        return sum.result();
+    }
+
+    /**
+     * Returns the number at the given offset, or null if the cell is missing or is not a number.
+     */
+    private static ExpressionNumber number(final SpreadsheetServerSortedRange range,
+                                           final long offset) {
+        final Object value = range.get(offset);
+        return value instanceof ExpressionNumber ?
+                (ExpressionNumber) value :
+                null;
+    }
+}
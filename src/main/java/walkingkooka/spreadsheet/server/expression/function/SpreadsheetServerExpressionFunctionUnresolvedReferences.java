@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wraps a function such as ROWS which only needs the bounds of its reference parameter, removing
+ * {@link ExpressionFunctionParameterKind#RESOLVE_REFERENCES} and {@link ExpressionFunctionParameterKind#FLATTEN}
+ * from all its parameters. This guarantees the function always receives the reference itself, and the values of
+ * the cells within a range such as <code>A1:A1000000</code> are never loaded or flattened.
+ */
+final class SpreadsheetServerExpressionFunctionUnresolvedReferences<T> extends SpreadsheetServerExpressionFunctionWrapper<T> {
+
+    static <T> SpreadsheetServerExpressionFunctionUnresolvedReferences<T> with(final ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> function) {
+        return new SpreadsheetServerExpressionFunctionUnresolvedReferences<>(function);
+    }
+
+    private SpreadsheetServerExpressionFunctionUnresolvedReferences(final ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> function) {
+        super(function);
+    }
+
+    @Override
+    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        final List<ExpressionFunctionParameter<?>> parameters = this.function.parameters(count);
+        final List<ExpressionFunctionParameter<?>> unresolved = Lists.array();
+
+        for (final ExpressionFunctionParameter<?> parameter : parameters) {
+            unresolved.add(
+                    unresolved(parameter)
+            );
+        }
+
+        return Lists.readOnly(unresolved);
+    }
+
+    private static ExpressionFunctionParameter<?> unresolved(final ExpressionFunctionParameter<?> parameter) {
+        ExpressionFunctionParameter<?> unresolved = parameter;
+
+        final Set<ExpressionFunctionParameterKind> kinds = parameter.kinds();
+        if (kinds.contains(ExpressionFunctionParameterKind.RESOLVE_REFERENCES) || kinds.contains(ExpressionFunctionParameterKind.FLATTEN)) {
+            final Set<ExpressionFunctionParameterKind> without = EnumSet.copyOf(kinds);
+            without.remove(ExpressionFunctionParameterKind.RESOLVE_REFERENCES);
+            without.remove(ExpressionFunctionParameterKind.FLATTEN);
+
+            unresolved = parameter.setKinds(without);
+        }
+
+        return unresolved;
+    }
+
+    @Override
+    public T apply(final List<Object> parameters,
+                   final SpreadsheetExpressionEvaluationContext context) {
+        return this.function.apply(
+                parameters,
+                context
+        );
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.SpreadsheetErrorKind;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+
+import java.util.List;
+
+/**
+ * Searches the first column of a table for a value, returning the value of the same row from the given column. The
+ * default approximate lookup finds the largest value less than or equal to the value, while an exact lookup finds
+ * the first equal value, where text may contain wildcards.
+ */
+final class SpreadsheetServerExpressionFunctionVLookup extends SpreadsheetServerExpressionFunctionLookup {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionVLookup INSTANCE = new SpreadsheetServerExpressionFunctionVLookup(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionVLookup(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "vLookup",
+                3,
+                4,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionVLookup replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionVLookup(recalculation);
+    }
+
+    @Override
+    Object applyLookup(final List<Object> parameters,
+                       final SpreadsheetExpressionEvaluationContext context) {
+        final Object value = value(
+                parameters,
+                0,
+                context
+        );
+        final SpreadsheetCellRangeReference table = range(
+                parameters,
+                1,
+                context
+        );
+        final int column = integer(
+                parameters,
+                2,
+                1,
+                context
+        );
+        final Object approximate = parameters.size() > 3 ?
+                value(
+                        parameters,
+                        3,
+                        context
+                ) :
+                null;
+
+        final Object result;
+        if (column < 1 || column > width(table)) {
+            result = SpreadsheetErrorKind.REF.setMessage("Column " + column + " outside " + table);
+        } else {
+            final SpreadsheetServerLookupIndex lookup = this.recalculation.lookupIndex(
+                    column(
+                            table,
+                            0
+                    ),
+                    context
+            );
+
+            final int position = null == approximate || context.convertOrFail(approximate, Boolean.class) ?
+                    lookup.lessOrEqual(
+                            value,
+                            true
+                    ) :
+                    exactOrWildcard(
+                            lookup,
+                            value,
+                            false,
+                            context
+                    );
+
+            result = SpreadsheetServerLookupIndex.NOT_FOUND == position ?
+                    notFound(value) :
+                    result(
+                            cellValue(
+                                    table,
+                                    column - 1,
+                                    position,
+                                    context
+                            ),
+                            context
+                    );
+        }
+
+        return result;
+    }
+}
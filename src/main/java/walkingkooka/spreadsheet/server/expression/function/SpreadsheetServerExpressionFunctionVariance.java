@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * STDEV.S, STDEV.P, VAR.S and VAR.P computed in a single pass over the numbers within their values using a
+ * {@link SpreadsheetServerVariance}, where text, booleans and missing cells are ignored.
+ */
+final class SpreadsheetServerExpressionFunctionVariance extends SpreadsheetServerExpressionFunction<ExpressionNumber> {
+
+    final static SpreadsheetServerExpressionFunctionVariance STDEV_S = new SpreadsheetServerExpressionFunctionVariance(
+            "stdev.s",
+            true,
+            true,
+            SpreadsheetServerRecalculation.NONE
+    );
+
+    final static SpreadsheetServerExpressionFunctionVariance STDEV_P = new SpreadsheetServerExpressionFunctionVariance(
+            "stdev.p",
+            false,
+            true,
+            SpreadsheetServerRecalculation.NONE
+    );
+
+    final static SpreadsheetServerExpressionFunctionVariance VAR_S = new SpreadsheetServerExpressionFunctionVariance(
+            "var.s",
+            true,
+            false,
+            SpreadsheetServerRecalculation.NONE
+    );
+
+    final static SpreadsheetServerExpressionFunctionVariance VAR_P = new SpreadsheetServerExpressionFunctionVariance(
+            "var.p",
+            false,
+            false,
+            SpreadsheetServerRecalculation.NONE
+    );
+
+    /**
+     * When sample is false the values are the entire population, when standardDeviation is true the square root of
+     * the variance is returned.
+     */
+    private SpreadsheetServerExpressionFunctionVariance(final String name,
+                                                        final boolean sample,
+                                                        final boolean standardDeviation,
+                                                        final SpreadsheetServerRecalculation recalculation) {
+        super(name);
+        this.sample = sample;
+        this.standardDeviation = standardDeviation;
+        this.recalculation = recalculation;
+    }
+
+    private final boolean sample;
+
+    private final boolean standardDeviation;
+
+    @Override
+    SpreadsheetServerExpressionFunctionVariance setRecalculation(final SpreadsheetServerRecalculation recalculation) {
+        Objects.requireNonNull(recalculation, "recalculation");
+
+        return this.recalculation == recalculation ?
+                this :
+                new SpreadsheetServerExpressionFunctionVariance(
+                        this.name()
+                                .get()
+                                .value(),
+                        this.sample,
+                        this.standardDeviation,
+                        recalculation
+                );
+    }
+
+    private final SpreadsheetServerRecalculation recalculation;
+
+    @Override
+    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return PARAMETERS;
+    }
+
+    private final static ExpressionFunctionParameter<Object> VALUES = ExpressionFunctionParameterName.with("values")
+            .variable(Object.class)
+            .setKinds(
+                    Sets.of(ExpressionFunctionParameterKind.EVALUATE)
+            );
+
+    private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(VALUES);
+
+    @Override
+    public Class<ExpressionNumber> returnType() {
+        return ExpressionNumber.class;
+    }
+
+    @Override
+    public ExpressionNumber apply(final List<Object> parameters,
+                                  final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                parameters,
+                this.recalculation,
+                context
+        );
+        try {
+            final SpreadsheetServerVariance variance = SpreadsheetServerVariance.with(
+                    range,
+                    this.recalculation.parallelThreshold(),
+                    context
+            );
+            return this.standardDeviation ?
+                    variance.standardDeviation(this.sample) :
+                    variance.variance(this.sample);
+        } finally {
+            range.release();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionFunctionName;
+import walkingkooka.tree.expression.ExpressionPurityContext;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Base class for a function that wraps another {@link ExpressionFunction}, sharing its name, parameters, return type
+ * and purity. Sub-classes provide a faster {@link #apply(List, SpreadsheetExpressionEvaluationContext)} and use the
+ * wrapped function for any parameters they cannot handle.
+ */
+abstract class SpreadsheetServerExpressionFunctionWrapper<T> implements ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> {
+
+    SpreadsheetServerExpressionFunctionWrapper(final ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> function) {
+        super();
+        this.function = Objects.requireNonNull(function, "function");
+    }
+
+    @Override
+    public final Optional<ExpressionFunctionName> name() {
+        return this.function.name();
+    }
+
+    @Override
+    public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+        return this.function.parameters(count);
+    }
+
+    @Override
+    public final Class<T> returnType() {
+        return this.function.returnType();
+    }
+
+    @Override
+    public boolean isPure(final ExpressionPurityContext context) {
+        return this.function.isPure(context);
+    }
+
+    /**
+     * The wrapped function, which is also used whenever the sub-class cannot handle the parameters.
+     */
+    final ExpressionFunction<T, SpreadsheetExpressionEvaluationContext> function;
+
+    @Override
+    public final String toString() {
+        return this.function.toString();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+
+import java.util.List;
+
+/**
+ * Searches a row or column for a value, returning the value at the same position of the return row or column.
+ * <ul>
+ * <li>A match mode of 0, the default finds an equal value</li>
+ * <li>A match mode of -1 finds an equal value or the next smaller value</li>
+ * <li>A match mode of 1 finds an equal value or the next larger value</li>
+ * <li>A match mode of 2 finds text matching wildcards</li>
+ * </ul>
+ * A search mode of 1 or 2 returns the first of several matching values, and -1 or -2 the last. Every search uses the
+ * index, so the binary search modes need not be sorted.
+ */
+final class SpreadsheetServerExpressionFunctionXLookup extends SpreadsheetServerExpressionFunctionLookup {
+
+    /**
+     * Singleton
+     */
+    final static SpreadsheetServerExpressionFunctionXLookup INSTANCE = new SpreadsheetServerExpressionFunctionXLookup(SpreadsheetServerRecalculation.NONE);
+
+    private SpreadsheetServerExpressionFunctionXLookup(final SpreadsheetServerRecalculation recalculation) {
+        super(
+                "xLookup",
+                3,
+                6,
+                recalculation
+        );
+    }
+
+    @Override
+    SpreadsheetServerExpressionFunctionXLookup replace(final SpreadsheetServerRecalculation recalculation) {
+        return new SpreadsheetServerExpressionFunctionXLookup(recalculation);
+    }
+
+    @Override
+    Object applyLookup(final List<Object> parameters,
+                       final SpreadsheetExpressionEvaluationContext context) {
+        final Object value = value(
+                parameters,
+                0,
+                context
+        );
+        final SpreadsheetServerLookupIndex lookup = this.recalculation.lookupIndex(
+                range(
+                        parameters,
+                        1,
+                        context
+                ),
+                context
+        );
+        final SpreadsheetCellRangeReference returns = range(
+                parameters,
+                2,
+                context
+        );
+        final int width = width(returns);
+        final int height = height(returns);
+        if (width > 1 && height > 1) {
+            throw new IllegalArgumentException("Expected row or column but got " + returns);
+        }
+        final int size = Math.max(
+                width,
+                height
+        );
+        if (lookup.size() != size) {
+            throw new IllegalArgumentException("Lookup and return ranges have different sizes " + lookup.size() + " and " + size);
+        }
+
+        final int matchMode = integer(
+                parameters,
+                4,
+                0,
+                context
+        );
+        final int searchMode = integer(
+                parameters,
+                5,
+                1,
+                context
+        );
+
+        final boolean last;
+        switch (searchMode) {
+            case 1:
+            case 2:
+                last = false;
+                break;
+            case -1:
+            case -2:
+                last = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid search mode " + searchMode);
+        }
+
+        final int position;
+        switch (matchMode) {
+            case 0:
+                position = lookup.exact(
+                        value,
+                        last
+                );
+                break;
+            case -1:
+                position = lookup.lessOrEqual(
+                        value,
+                        last
+                );
+                break;
+            case 1:
+                position = lookup.greaterOrEqual(
+                        value,
+                        last
+                );
+                break;
+            case 2:
+                position = exactOrWildcard(
+                        lookup,
+                        value,
+                        last,
+                        context
+                );
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid match mode " + matchMode);
+        }
+
+        final Object result;
+        if (SpreadsheetServerLookupIndex.NOT_FOUND == position) {
+            final Object ifNotFound = parameters.size() > 3 ?
+                    value(
+                            parameters,
+                            3,
+                            context
+                    ) :
+                    null;
+            result = null != ifNotFound ?
+                    ifNotFound :
+                    notFound(value);
+        } else {
+            result = result(
+                    cellValue(
+                            returns,
+                            1 == width ? 0 : position,
+                            1 == width ? position : 0,
+                            context
+                    ),
+                    context
+            );
+        }
+
+        return result;
+    }
+}
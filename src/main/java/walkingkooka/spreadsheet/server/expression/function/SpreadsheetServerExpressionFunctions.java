@@ -32,7 +32,6 @@ import walkingkooka.tree.expression.function.datetime.DateTimeExpressionFunction
 import walkingkooka.tree.expression.function.engineering.EngineeringExpressionFunctions;
 import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
 import walkingkooka.tree.expression.function.number.trigonometry.NumberTrigonomteryExpressionFunctions;
-import walkingkooka.tree.expression.function.stat.StatExpressionFunctions;
 import walkingkooka.tree.expression.function.string.StringExpressionFunctions;
 
 import java.time.LocalDate;
@@ -56,9 +55,14 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberTrigonomteryExpressionFunctions#acos}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> acos() {
-        return NumberTrigonomteryExpressionFunctions.acos();
+        return ACOS;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ACOS = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.acos(),
+            Math::acos
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#address}
      */
@@ -77,21 +81,31 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberTrigonomteryExpressionFunctions#asin}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> asin() {
-        return NumberTrigonomteryExpressionFunctions.asin();
+        return ASIN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ASIN = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.asin(),
+            Math::asin
+    );
+
     /**
      * {@see NumberTrigonomteryExpressionFunctions#atan}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> atan() {
-        return NumberTrigonomteryExpressionFunctions.atan();
+        return ATAN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ATAN = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.atan(),
+            Math::atan
+    );
+
     /**
-     * {@see StatExpressionFunctions#average}
+     * {@see SpreadsheetServerExpressionFunctionAverage}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> average() {
-        return StatExpressionFunctions.average();
+        return SpreadsheetServerExpressionFunctionAverage.INSTANCE;
     }
 
     /**
@@ -101,34 +115,65 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.averageIf();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionAverageIfs}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> averageIfs() {
+        return AVERAGE_IFS;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> AVERAGE_IFS = SpreadsheetServerExpressionFunctionAverageIfs.INSTANCE;
+
     /**
      * {@see NumberExpressionFunctions#base}
      */
     public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> base() {
-        return NumberExpressionFunctions.base();
+        return BASE;
     }
 
+    private final static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> BASE = SpreadsheetServerExpressionFunctionBase.with(
+            NumberExpressionFunctions.base()
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#bin2dec}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> bin2dec() {
-        return EngineeringExpressionFunctions.bin2dec();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> bin2dec() {
+        return BIN2DEC;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> BIN2DEC = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.bin2dec(),
+            SpreadsheetServerRadix.BINARY,
+            SpreadsheetServerRadix.DECIMAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#bin2hex}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> bin2hex() {
-        return EngineeringExpressionFunctions.bin2hex();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> bin2hex() {
+        return BIN2HEX;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> BIN2HEX = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.bin2hex(),
+            SpreadsheetServerRadix.BINARY,
+            SpreadsheetServerRadix.HEXADECIMAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#bin2oct}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> bin2oct() {
-        return EngineeringExpressionFunctions.bin2oct();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> bin2oct() {
+        return BIN2OCT;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> BIN2OCT = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.bin2oct(),
+            SpreadsheetServerRadix.BINARY,
+            SpreadsheetServerRadix.OCTAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#bitAnd}
      */
@@ -136,7 +181,9 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return BITAND;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BITAND = EngineeringExpressionFunctions.<SpreadsheetExpressionEvaluationContext>bitAnd();
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BITAND = SpreadsheetServerExpressionFunctionBitwise.and(
+            EngineeringExpressionFunctions.bitAnd()
+    );
 
     /**
      * {@see EngineeringExpressionFunctions#bitOr}
@@ -145,7 +192,9 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return BITOR;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BITOR = EngineeringExpressionFunctions.<SpreadsheetExpressionEvaluationContext>bitOr();
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BITOR = SpreadsheetServerExpressionFunctionBitwise.or(
+            EngineeringExpressionFunctions.bitOr()
+    );
 
     /**
      * {@see EngineeringExpressionFunctions#bitXor}
@@ -154,17 +203,25 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return BitXor;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BitXor = EngineeringExpressionFunctions.<SpreadsheetExpressionEvaluationContext>bitXor();
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> BitXor = SpreadsheetServerExpressionFunctionBitwise.xor(
+            EngineeringExpressionFunctions.bitXor()
+    );
 
     /**
      * {@see NumberExpressionFunctions#ceil}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ceil() {
-        return NumberExpressionFunctions.ceil();
+        return CEIL;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> CEIL = SpreadsheetServerExpressionFunctionRound.ceil(
+            NumberExpressionFunctions.ceil()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#cell}
+     * <br>
+     * Always impure, {@link ExpressionFunction#isPure} is not given the info type argument.
      */
     public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> cell() {
         return SpreadsheetExpressionFunctions.cell();
@@ -208,16 +265,24 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see SpreadsheetExpressionFunctions#column}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> column() {
-        return SpreadsheetExpressionFunctions.column();
+        return COLUMN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COLUMN = SpreadsheetServerExpressionFunctionUnresolvedReferences.with(
+            SpreadsheetExpressionFunctions.column()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#columns}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> columns() {
-        return SpreadsheetExpressionFunctions.columns();
+        return COLUMNS;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COLUMNS = SpreadsheetServerExpressionFunctionUnresolvedReferences.with(
+            SpreadsheetExpressionFunctions.columns()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#concat}
      */
@@ -229,9 +294,14 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberTrigonomteryExpressionFunctions#cos}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> cos() {
-        return NumberTrigonomteryExpressionFunctions.cos();
+        return COS;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COS = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.cos(),
+            Math::cos
+    );
+
     /**
      * Counts the {@link ExpressionNumber} present in the parameter values
      */
@@ -239,16 +309,7 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return COUNT;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNT = StatExpressionFunctions.<SpreadsheetExpressionEvaluationContext>count()
-            .filterParameterValues(SpreadsheetServerExpressionFunctions::filterNumbers);
-
-    private static boolean filterNumbers(final Object value,
-                                         final SpreadsheetExpressionEvaluationContext context) {
-        return value instanceof ExpressionNumber |
-                value instanceof LocalDate |
-                value instanceof LocalDateTime |
-                value instanceof LocalTime;
-    }
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNT = SpreadsheetServerExpressionFunctionCount.INSTANCE;
 
     /**
      * Counts the values present in the parameter values, skipping missing or null values.
@@ -257,15 +318,7 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return COUNTA;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNTA = StatExpressionFunctions.<SpreadsheetExpressionEvaluationContext>count()
-            .filterParameterValues(SpreadsheetServerExpressionFunctions::filterNonNullAndNotMissingCell)
-            .setName(functionName("countA"));
-
-    private static boolean filterNonNullAndNotMissingCell(final Object value,
-                                                          final SpreadsheetExpressionEvaluationContext context) {
-        return null != value &&
-                false == (value instanceof SpreadsheetError && ((SpreadsheetError) value).isMissingCell());
-    }
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNTA = SpreadsheetServerExpressionFunctionCountA.INSTANCE;
 
     /**
      * Counts the missing values or cells or null values
@@ -274,17 +327,7 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return COUNT_BLANK;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNT_BLANK = StatExpressionFunctions.<SpreadsheetExpressionEvaluationContext>count()
-            .filterParameterValues(SpreadsheetServerExpressionFunctions::filterNullAndNotMissingCell)
-            .setName(functionName("countBlank"));
-
-    private static boolean filterNullAndNotMissingCell(final Object value,
-                                                       final SpreadsheetExpressionEvaluationContext context) {
-        return null == value ||
-                (value instanceof SpreadsheetError &&
-                        ((SpreadsheetError) value).isMissingCell()
-                );
-    }
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNT_BLANK = SpreadsheetServerExpressionFunctionCountBlank.INSTANCE;
 
     /**
      * {@see SpreadsheetExpressionFunctions#countIf}
@@ -293,6 +336,15 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.countIf();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionCountIfs}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> countIfs() {
+        return COUNT_IFS;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> COUNT_IFS = SpreadsheetServerExpressionFunctionCountIfs.INSTANCE;
+
     /**
      * {@see DateTimeExpressionFunctions#date}
      */
@@ -317,38 +369,65 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     /**
      * {@see EngineeringExpressionFunctions#dec2bin}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> dec2bin() {
-        return EngineeringExpressionFunctions.dec2bin();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> dec2bin() {
+        return DEC2BIN;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> DEC2BIN = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.dec2bin(),
+            SpreadsheetServerRadix.DECIMAL,
+            SpreadsheetServerRadix.BINARY
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#dec2hex}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> dec2hex() {
-        return EngineeringExpressionFunctions.dec2hex();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> dec2hex() {
+        return DEC2HEX;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> DEC2HEX = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.dec2hex(),
+            SpreadsheetServerRadix.DECIMAL,
+            SpreadsheetServerRadix.HEXADECIMAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#dec2oct}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> dec2oct() {
-        return EngineeringExpressionFunctions.dec2oct();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> dec2oct() {
+        return DEC2OCT;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> DEC2OCT = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.dec2oct(),
+            SpreadsheetServerRadix.DECIMAL,
+            SpreadsheetServerRadix.OCTAL
+    );
+
     /**
      * {@see NumberExpressionFunctions#decimal}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> decimal() {
-        return NumberExpressionFunctions.decimal();
+        return DECIMAL;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> DECIMAL = SpreadsheetServerExpressionFunctionDecimal.with(
+            NumberExpressionFunctions.decimal()
+    );
+
     /**
      * {@see NumberTrigonomteryExpressionFunctions#degrees}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> degrees() {
-        return NumberTrigonomteryExpressionFunctions.degrees();
+        return DEGREES;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> DEGREES = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.degrees(),
+            Math::toDegrees
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#delta}
      */
@@ -367,9 +446,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#e}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> e() {
-        return NumberExpressionFunctions.e();
+        return E;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> E = SpreadsheetServerExpressionFunctionConstant.with(
+            NumberExpressionFunctions.e()
+    );
+
     /**
      * {@see walkingkooka.spreadsheet.expression.SpreadsheetExpressionFunctions#error}
      */
@@ -400,9 +483,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#exp}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> exp() {
-        return NumberExpressionFunctions.exp();
+        return EXP;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> EXP = SpreadsheetServerExpressionFunctionBigDecimal.exp(
+            NumberExpressionFunctions.exp()
+    );
+
     /**
      * {@see BooleanExpressionFunctions#falseFunction}
      */
@@ -428,9 +515,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#floor}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> floor() {
-        return NumberExpressionFunctions.floor();
+        return FLOOR;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> FLOOR = SpreadsheetServerExpressionFunctionRound.floor(
+            NumberExpressionFunctions.floor()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#formulaText}
      */
@@ -441,24 +532,42 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     /**
      * {@see EngineeringExpressionFunctions#hex2bin}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> hex2bin() {
-        return EngineeringExpressionFunctions.hex2bin();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> hex2bin() {
+        return HEX2BIN;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> HEX2BIN = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.hex2bin(),
+            SpreadsheetServerRadix.HEXADECIMAL,
+            SpreadsheetServerRadix.BINARY
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#hex2dec}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> hex2dec() {
-        return EngineeringExpressionFunctions.hex2dec();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> hex2dec() {
+        return HEX2DEC;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> HEX2DEC = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.hex2dec(),
+            SpreadsheetServerRadix.HEXADECIMAL,
+            SpreadsheetServerRadix.DECIMAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#hex2oct}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> hex2oct() {
-        return EngineeringExpressionFunctions.hex2oct();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> hex2oct() {
+        return HEX2OCT;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> HEX2OCT = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.hex2oct(),
+            SpreadsheetServerRadix.HEXADECIMAL,
+            SpreadsheetServerRadix.OCTAL
+    );
+
     /**
      * {@see DateTimeExpressionFunctions#hour}
      */
@@ -480,20 +589,37 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return BooleanExpressionFunctions.ifs();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionIndex}
+     */
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> index() {
+        return INDEX;
+    }
+
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> INDEX = SpreadsheetServerExpressionFunctionIndex.INSTANCE;
+
     /**
      * {@see SpreadsheetExpressionFunctions#indirect}
      */
     public static ExpressionFunction<SpreadsheetCellReference, SpreadsheetExpressionEvaluationContext> indirect() {
-        return SpreadsheetExpressionFunctions.indirect();
+        return INDIRECT;
     }
 
+    private final static ExpressionFunction<SpreadsheetCellReference, SpreadsheetExpressionEvaluationContext> INDIRECT = SpreadsheetServerExpressionFunctionIndirect.with(
+            SpreadsheetExpressionFunctions.indirect()
+    );
+
     /**
      * {@see NumberExpressionFunctions#intFunction}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> intFunction() {
-        return NumberExpressionFunctions.intFunction();
+        return INT;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> INT = SpreadsheetServerExpressionFunctionRound.intFunction(
+            NumberExpressionFunctions.intFunction()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#isBlank}
      */
@@ -597,6 +723,15 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.lambda();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionLarge}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> large() {
+        return LARGE;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> LARGE = SpreadsheetServerExpressionFunctionLarge.INSTANCE;
+
     /**
      * {@see StringExpressionFunctions#left}
      */
@@ -622,23 +757,35 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#ln}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ln() {
-        return NumberExpressionFunctions.ln();
+        return LN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> LN = SpreadsheetServerExpressionFunctionBigDecimal.ln(
+            NumberExpressionFunctions.ln()
+    );
+
     /**
      * {@see NumberExpressionFunctions#log}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> log() {
-        return NumberExpressionFunctions.log();
+        return LOG;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> LOG = SpreadsheetServerExpressionFunctionBigDecimal.log(
+            NumberExpressionFunctions.log()
+    );
+
     /**
      * {@see NumberExpressionFunctions#log10}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> log10() {
-        return NumberExpressionFunctions.log10();
+        return LOG10;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> LOG10 = SpreadsheetServerExpressionFunctionBigDecimal.log10(
+            NumberExpressionFunctions.log10()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#lower}
      */
@@ -647,10 +794,19 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     }
 
     /**
-     * {@see StatExpressionFunctions#max}
+     * {@see SpreadsheetServerExpressionFunctionMatch}
+     */
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> match() {
+        return MATCH;
+    }
+
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> MATCH = SpreadsheetServerExpressionFunctionMatch.INSTANCE;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionMax}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> max() {
-        return StatExpressionFunctions.max();
+        return SpreadsheetServerExpressionFunctionMax.INSTANCE;
     }
 
     /**
@@ -660,6 +816,24 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.maxIf();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionMaxIfs}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> maxIfs() {
+        return MAX_IFS;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> MAX_IFS = SpreadsheetServerExpressionFunctionMaxIfs.INSTANCE;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionMedian}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> median() {
+        return MEDIAN;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> MEDIAN = SpreadsheetServerExpressionFunctionMedian.INSTANCE;
+
     /**
      * {@see StringExpressionFunctions#mid}
      */
@@ -668,10 +842,10 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     }
 
     /**
-     * {@see StatExpressionFunctions#min}
+     * {@see SpreadsheetServerExpressionFunctionMin}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> min() {
-        return StatExpressionFunctions.min();
+        return SpreadsheetServerExpressionFunctionMin.INSTANCE;
     }
 
     /**
@@ -681,6 +855,15 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.minIf();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionMinIfs}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> minIfs() {
+        return MIN_IFS;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> MIN_IFS = SpreadsheetServerExpressionFunctionMinIfs.INSTANCE;
+
     /**
      * {@see DateTimeExpressionFunctions#minute}
      */
@@ -692,9 +875,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#mod}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> mod() {
-        return NumberExpressionFunctions.mod();
+        return MOD;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> MOD = SpreadsheetServerExpressionFunctionIntegerDivide.mod(
+            NumberExpressionFunctions.mod()
+    );
+
     /**
      * {@see DateTimeExpressionFunctions#month}
      */
@@ -726,24 +913,42 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     /**
      * {@see EngineeringExpressionFunctions#oct2bin}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> oct2bin() {
-        return EngineeringExpressionFunctions.oct2bin();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> oct2bin() {
+        return OCT2BIN;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> OCT2BIN = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.oct2bin(),
+            SpreadsheetServerRadix.OCTAL,
+            SpreadsheetServerRadix.BINARY
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#oct2dec}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> oct2dec() {
-        return EngineeringExpressionFunctions.oct2dec();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> oct2dec() {
+        return OCT2DEC;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> OCT2DEC = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.oct2dec(),
+            SpreadsheetServerRadix.OCTAL,
+            SpreadsheetServerRadix.DECIMAL
+    );
+
     /**
      * {@see EngineeringExpressionFunctions#oct2hex}
      */
-    public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> oct2hex() {
-        return EngineeringExpressionFunctions.oct2hex();
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> oct2hex() {
+        return OCT2HEX;
     }
 
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> OCT2HEX = SpreadsheetServerExpressionFunctionRadix.with(
+            EngineeringExpressionFunctions.oct2hex(),
+            SpreadsheetServerRadix.OCTAL,
+            SpreadsheetServerRadix.HEXADECIMAL
+    );
+
     /**
      * {@see NumberExpressionFunctions#odd}
      */
@@ -753,6 +958,8 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
 
     /**
      * {@see SpreadsheetExpressionFunctions#offset}
+     * <br>
+     * Always impure, even for constant offsets, because {@link ExpressionFunction#isPure} is not given the arguments.
      */
     public static ExpressionFunction<SpreadsheetExpressionReference, SpreadsheetExpressionEvaluationContext> offset() {
         return SpreadsheetExpressionFunctions.offset();
@@ -765,20 +972,37 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return BooleanExpressionFunctions.or();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionPercentile}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> percentile() {
+        return PERCENTILE;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> PERCENTILE = SpreadsheetServerExpressionFunctionPercentile.INSTANCE;
+
     /**
      * {@see NumberExpressionFunctions#pi}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> pi() {
-        return NumberExpressionFunctions.pi();
+        return PI;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> PI = SpreadsheetServerExpressionFunctionConstant.with(
+            NumberExpressionFunctions.pi()
+    );
+
     /**
      * {@see NumberExpressionFunctions#product}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> product() {
-        return NumberExpressionFunctions.product();
+        return PRODUCT;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> PRODUCT = SpreadsheetServerExpressionFunctionProduct.with(
+            NumberExpressionFunctions.product()
+    );
+
     /**
      * {@see StringExpressionFunctions#proper}
      */
@@ -786,20 +1010,38 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return StringExpressionFunctions.proper();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionQuartile}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> quartile() {
+        return QUARTILE;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> QUARTILE = SpreadsheetServerExpressionFunctionQuartile.INSTANCE;
+
     /**
      * {@see NumberExpressionFunctions#quotient}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> quotient() {
-        return NumberExpressionFunctions.quotient();
+        return QUOTIENT;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> QUOTIENT = SpreadsheetServerExpressionFunctionIntegerDivide.quotient(
+            NumberExpressionFunctions.quotient()
+    );
+
     /**
      * {@see NumberTrigonomteryExpressionFunctions#radians}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> radians() {
-        return NumberTrigonomteryExpressionFunctions.radians();
+        return RADIANS;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> RADIANS = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.radians(),
+            Math::toRadians
+    );
+
     /**
      * {@see NumberExpressionFunctions#random}
      */
@@ -848,9 +1090,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#roman}
      */
     public static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> roman() {
-        return NumberExpressionFunctions.roman();
+        return ROMAN;
     }
 
+    private final static ExpressionFunction<String, SpreadsheetExpressionEvaluationContext> ROMAN = SpreadsheetServerExpressionFunctionRoman.with(
+            NumberExpressionFunctions.roman()
+    );
+
     /**
      * {@see NumberExpressionFunctions#roundHalf}
      */
@@ -858,37 +1104,55 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return ROUND;
     }
 
-    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROUND = NumberExpressionFunctions.<SpreadsheetExpressionEvaluationContext>roundHalf()
-            .setName(functionName("round"));
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROUND = SpreadsheetServerExpressionFunctionRound.round(
+            NumberExpressionFunctions.<SpreadsheetExpressionEvaluationContext>roundHalf()
+                    .setName(functionName("round"))
+    );
 
     /**
      * {@see NumberExpressionFunctions#roundDown}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> roundDown() {
-        return NumberExpressionFunctions.roundDown();
+        return ROUND_DOWN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROUND_DOWN = SpreadsheetServerExpressionFunctionRound.roundDown(
+            NumberExpressionFunctions.roundDown()
+    );
+
     /**
      * {@see NumberExpressionFunctions#roundUp}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> roundUp() {
-        return NumberExpressionFunctions.roundUp();
+        return ROUND_UP;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROUND_UP = SpreadsheetServerExpressionFunctionRound.roundUp(
+            NumberExpressionFunctions.roundUp()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#row}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> row() {
-        return SpreadsheetExpressionFunctions.row();
+        return ROW;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROW = SpreadsheetServerExpressionFunctionUnresolvedReferences.with(
+            SpreadsheetExpressionFunctions.row()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#rows}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> rows() {
-        return SpreadsheetExpressionFunctions.rows();
+        return ROWS;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> ROWS = SpreadsheetServerExpressionFunctionUnresolvedReferences.with(
+            SpreadsheetExpressionFunctions.rows()
+    );
+
     /**
      * {@see StringExpressionFunctions#searchCaseInsensitive}
      */
@@ -917,23 +1181,64 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberTrigonomteryExpressionFunctions#sin}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sin() {
-        return NumberTrigonomteryExpressionFunctions.sin();
+        return SIN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SIN = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.sin(),
+            Math::sin
+    );
+
     /**
      * {@see NumberTrigonomteryExpressionFunctions#sinh}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sinh() {
-        return NumberTrigonomteryExpressionFunctions.sinh();
+        return SINH;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SINH = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.sinh(),
+            Math::sinh
+    );
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionSmall}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> small() {
+        return SMALL;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SMALL = SpreadsheetServerExpressionFunctionSmall.INSTANCE;
+
     /**
      * {@see NumberExpressionFunctions#sqrt}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sqrt() {
-        return NumberExpressionFunctions.sqrt();
+        return SQRT;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SQRT = SpreadsheetServerExpressionFunctionBigDecimal.sqrt(
+            NumberExpressionFunctions.sqrt()
+    );
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionVariance#STDEV_P}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> stdevP() {
+        return STDEV_P;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> STDEV_P = SpreadsheetServerExpressionFunctionVariance.STDEV_P;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionVariance#STDEV_S}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> stdevS() {
+        return STDEV_S;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> STDEV_S = SpreadsheetServerExpressionFunctionVariance.STDEV_S;
+
     /**
      * {@see StringExpressionFunctions#substitute}
      */
@@ -942,10 +1247,10 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     }
 
     /**
-     * {@see StatExpressionFunctions#sum}
+     * {@see SpreadsheetServerExpressionFunctionSum}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sum() {
-        return StatExpressionFunctions.sum();
+        return SpreadsheetServerExpressionFunctionSum.INSTANCE;
     }
 
     /**
@@ -955,6 +1260,24 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return SpreadsheetExpressionFunctions.sumIf();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionSumIfs}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sumIfs() {
+        return SUM_IFS;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SUM_IFS = SpreadsheetServerExpressionFunctionSumIfs.INSTANCE;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionSumProduct}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> sumProduct() {
+        return SUM_PRODUCT;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> SUM_PRODUCT = SpreadsheetServerExpressionFunctionSumProduct.INSTANCE;
+
     /**
      * {@see BooleanExpressionFunctions#switchFunction}
      */
@@ -973,16 +1296,26 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberTrigonomteryExpressionFunctions#tan}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> tan() {
-        return NumberTrigonomteryExpressionFunctions.tan();
+        return TAN;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> TAN = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.tan(),
+            Math::tan
+    );
+
     /**
      * {@see NumberTrigonomteryExpressionFunctions#tanh}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> tanh() {
-        return NumberTrigonomteryExpressionFunctions.tanh();
+        return TANH;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> TANH = SpreadsheetServerExpressionFunctionDoubleUnary.with(
+            NumberTrigonomteryExpressionFunctions.tanh(),
+            Math::tanh
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions.text}
      */
@@ -1034,9 +1367,13 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
      * {@see NumberExpressionFunctions#trunc}
      */
     public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> trunc() {
-        return NumberExpressionFunctions.trunc();
+        return TRUNC;
     }
 
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> TRUNC = SpreadsheetServerExpressionFunctionRound.trunc(
+            NumberExpressionFunctions.trunc()
+    );
+
     /**
      * {@see SpreadsheetExpressionFunctions#type}
      */
@@ -1081,6 +1418,33 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
     private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> VALUE = NumberExpressionFunctions.<SpreadsheetExpressionEvaluationContext>number()
             .setName(functionName("value"));
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionVariance#VAR_P}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> varP() {
+        return VAR_P;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> VAR_P = SpreadsheetServerExpressionFunctionVariance.VAR_P;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionVariance#VAR_S}
+     */
+    public static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> varS() {
+        return VAR_S;
+    }
+
+    private final static ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> VAR_S = SpreadsheetServerExpressionFunctionVariance.VAR_S;
+
+    /**
+     * {@see SpreadsheetServerExpressionFunctionVLookup}
+     */
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> vLookup() {
+        return VLOOKUP;
+    }
+
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> VLOOKUP = SpreadsheetServerExpressionFunctionVLookup.INSTANCE;
+
     /**
      * {@see DateTimeExpressionFunctions#weekDay}
      */
@@ -1095,6 +1459,15 @@ public final class SpreadsheetServerExpressionFunctions implements PublicStaticH
         return DateTimeExpressionFunctions.weekNum();
     }
 
+    /**
+     * {@see SpreadsheetServerExpressionFunctionXLookup}
+     */
+    public static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> xLookup() {
+        return XLOOKUP;
+    }
+
+    private final static ExpressionFunction<Object, SpreadsheetExpressionEvaluationContext> XLOOKUP = SpreadsheetServerExpressionFunctionXLookup.INSTANCE;
+
     /**
      * {@see DateTimeExpressionFunctions#year}
      */
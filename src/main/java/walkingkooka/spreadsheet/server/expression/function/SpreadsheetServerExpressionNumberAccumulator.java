@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+/**
+ * Adds or multiplies {@link ExpressionNumber numbers} using a primitive long while every number and every partial
+ * result is a whole number below a limit, creating a single {@link ExpressionNumber} for the result. The first
+ * fraction or a partial result reaching the limit switches to {@link ExpressionNumber} arithmetic, continuing from
+ * the partial result. For {@link ExpressionNumberKind#DOUBLE} this is primitive double arithmetic, which is exactly
+ * what the {@link ExpressionNumber} arithmetic does, without creating a number for each step.
+ * <br>
+ * The limit is chosen so the long arithmetic gives exactly the same partial results as the {@link ExpressionNumber}
+ * arithmetic. For {@link ExpressionNumberKind#DOUBLE} this is 2^53, the largest range where all whole doubles
+ * are exact. For {@link ExpressionNumberKind#BIG_DECIMAL} this is 10 to the power of the precision of the
+ * {@link java.math.MathContext}, because larger partial results would be rounded.
+ */
+final class SpreadsheetServerExpressionNumberAccumulator {
+
+    /**
+     * 2^53, all whole doubles with a smaller magnitude are exact.
+     */
+    private final static long DOUBLE_LIMIT = 1L << 53;
+
+    /**
+     * The largest limit, the sum of two longs smaller than this never overflows.
+     */
+    private final static long MAX_LIMIT = 1_000_000_000_000_000_000L;
+
+    private final static int MAX_LIMIT_DIGITS = 18;
+
+    static SpreadsheetServerExpressionNumberAccumulator sum(final ExpressionNumberContext context) {
+        return new SpreadsheetServerExpressionNumberAccumulator(
+                context,
+                false,
+                0
+        );
+    }
+
+    static SpreadsheetServerExpressionNumberAccumulator product(final ExpressionNumberContext context) {
+        return new SpreadsheetServerExpressionNumberAccumulator(
+                context,
+                true,
+                1
+        );
+    }
+
+    private SpreadsheetServerExpressionNumberAccumulator(final ExpressionNumberContext context,
+                                                         final boolean product,
+                                                         final long value) {
+        this.context = context;
+        this.product = product;
+        this.value = value;
+        this.doubleKind = ExpressionNumberKind.DOUBLE == context.expressionNumberKind();
+        this.limit = limit(context);
+    }
+
+    /**
+     * Returns the exclusive limit for the long arithmetic.
+     */
+    static long limit(final ExpressionNumberContext context) {
+        final long limit;
+
+        if (context.expressionNumberKind() == ExpressionNumberKind.DOUBLE) {
+            limit = DOUBLE_LIMIT;
+        } else {
+            final int precision = context.mathContext()
+                    .getPrecision();
+            if (0 == precision || precision >= MAX_LIMIT_DIGITS) {
+                limit = MAX_LIMIT;
+            } else {
+                long power = 1;
+                for (int i = 0; i < precision; i++) {
+                    power = power * 10;
+                }
+                limit = power;
+            }
+        }
+
+        return limit;
+    }
+
+    /**
+     * Adds or multiplies the given number.
+     */
+    void accept(final ExpressionNumber number) {
+        if (this.whole) {
+            final long whole = SpreadsheetServerExpressionNumbers.exactLong(number);
+            if (SpreadsheetServerExpressionNumbers.NOT_LONG != whole && this.acceptLong(whole)) {
+                return;
+            }
+        }
+
+        if (this.doubleKind) {
+            this.acceptDouble(number.doubleValue());
+        } else {
+            this.acceptNumber(number);
+        }
+    }
+
+    /**
+     * Adds or multiplies the given whole number, without creating a {@link ExpressionNumber} while the partial
+     * result is below the limit.
+     */
+    void accept(final long whole) {
+        if (false == this.whole || false == this.acceptLong(whole)) {
+            if (this.doubleKind) {
+                this.acceptDouble(whole);
+            } else {
+                this.acceptNumber(
+                        this.context.expressionNumberKind()
+                                .create(whole)
+                );
+            }
+        }
+    }
+
+    /**
+     * Adds or multiplies the given double, which must only be used with {@link ExpressionNumberKind#DOUBLE}, where
+     * {@link ExpressionNumber} arithmetic is plain double arithmetic.
+     */
+    void accept(final double value) {
+        if (false == this.whole ||
+                false == (value == Math.rint(value) && Math.abs(value) < this.limit && this.acceptLong((long) value))) {
+            this.acceptDouble(value);
+        }
+    }
+
+    private void acceptDouble(final double value) {
+        if (this.whole) {
+            this.whole = false;
+            this.doubleValue = this.value;
+        }
+
+        this.doubleValue = this.product ?
+                this.doubleValue * value :
+                this.doubleValue + value;
+    }
+
+    private void acceptNumber(final ExpressionNumber number) {
+        if (this.whole) {
+            this.whole = false;
+            this.number = this.context.expressionNumberKind()
+                    .create(this.value);
+        }
+
+        this.number = this.product ?
+                this.number.multiply(
+                        number,
+                        this.context
+                ) :
+                this.number.add(
+                        number,
+                        this.context
+                );
+    }
+
+    /**
+     * Tries to add or multiply the whole number, returning false if the number or the result reach the limit.
+     */
+    private boolean acceptLong(final long whole) {
+        final long limit = this.limit;
+        final long value = this.value;
+
+        boolean accepted = false;
+
+        if (Math.abs(whole) < limit) {
+            final long result;
+            if (this.product) {
+                // |value| * |whole| < limit, without overflowing
+                result = 0 == whole || Math.abs(value) <= (limit - 1) / Math.abs(whole) ?
+                        value * whole :
+                        limit;
+            } else {
+                result = value + whole;
+            }
+
+            if (Math.abs(result) < limit) {
+                this.value = result;
+                accepted = true;
+            }
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Adds or multiplies the result of another accumulator, which is used to merge partial results.
+     */
+    void merge(final SpreadsheetServerExpressionNumberAccumulator other) {
+        if (other.whole) {
+            this.accept(other.value);
+        } else {
+            this.accept(other.result());
+        }
+    }
+
+    /**
+     * Returns the sum or product of all the numbers.
+     */
+    ExpressionNumber result() {
+        final ExpressionNumberKind kind = this.context.expressionNumberKind();
+
+        return this.whole ?
+                kind.create(this.value) :
+                this.doubleKind ?
+                        kind.create(this.doubleValue) :
+                        this.number;
+    }
+
+    private final ExpressionNumberContext context;
+
+    /**
+     * When true numbers are multiplied otherwise added.
+     */
+    private final boolean product;
+
+    /**
+     * When true the kind is {@link ExpressionNumberKind#DOUBLE} and the partial result after leaving the long
+     * arithmetic is a primitive double.
+     */
+    private final boolean doubleKind;
+
+    private final long limit;
+
+    /**
+     * True while all numbers and partial results have been whole numbers below the limit.
+     */
+    private boolean whole = true;
+
+    /**
+     * The partial result while all numbers have been whole.
+     */
+    private long value;
+
+    /**
+     * The partial result after leaving the long arithmetic for {@link ExpressionNumberKind#DOUBLE}.
+     */
+    private double doubleValue;
+
+    /**
+     * The partial result after switching to {@link ExpressionNumber} arithmetic for other kinds.
+     */
+    private ExpressionNumber number;
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.result());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+
+import java.math.BigDecimal;
+
+/**
+ * Helpers that read an {@link ExpressionNumber} as a primitive, without creating any {@link java.math.BigInteger}
+ * or throwing exceptions, so functions may take a primitive fast path and fall back to the {@link ExpressionNumber}
+ * path for anything else.
+ */
+final class SpreadsheetServerExpressionNumbers {
+
+    /**
+     * Returned by {@link #exactLong(ExpressionNumber)} when the number is not an exact long.
+     */
+    final static long NOT_LONG = Long.MIN_VALUE;
+
+    /**
+     * 2^63 as a double, the first double that is too large to be a long.
+     */
+    private final static double TWO_POW_63 = 9.223372036854775808E18;
+
+    /**
+     * The number of decimal digits that always fit within a long.
+     */
+    private final static int LONG_DIGITS = 18;
+
+    /**
+     * Returns the value of the given number if it is an integer between {@link Long#MIN_VALUE} exclusive and
+     * {@link Long#MAX_VALUE}, otherwise returns {@link #NOT_LONG}. Big decimals with more than 18 integer digits
+     * also return {@link #NOT_LONG}.
+     */
+    static long exactLong(final ExpressionNumber number) {
+        return number.isDouble() ?
+                exactLong(number.doubleValue()) :
+                exactLong(number.bigDecimal());
+    }
+
+    private static long exactLong(final double value) {
+        // NaN and infinities fail the range tests
+        return value > -TWO_POW_63 && value < TWO_POW_63 && value == Math.rint(value) ?
+                (long) value :
+                NOT_LONG;
+    }
+
+    private static long exactLong(final BigDecimal value) {
+        long exact = NOT_LONG;
+
+        if (0 == value.signum()) {
+            exact = 0;
+        } else {
+            BigDecimal integer = value;
+            if (integer.scale() > 0) {
+                integer = integer.stripTrailingZeros();
+            }
+            if (integer.scale() <= 0 && integer.precision() - integer.scale() <= LONG_DIGITS) {
+                exact = integer.longValue();
+            }
+        }
+
+        return exact;
+    }
+
+    /**
+     * Returns the value of the given number if it is an integer between 0 inclusive and the given limit exclusive,
+     * otherwise returns -1.
+     */
+    static long exactLong(final ExpressionNumber number,
+                          final long limit) {
+        final long value = exactLong(number);
+        return value >= 0 && value < limit ?
+                value :
+                -1;
+    }
+
+    /**
+     * Stop creation
+     */
+    private SpreadsheetServerExpressionNumbers() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.tree.expression.ExpressionNumber;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the values of a single row or column, used by lookup functions such as MATCH and XLOOKUP. Only present
+ * cells are kept, each with its position within the row or column. Exact lookups use a hash of the values, and
+ * approximate lookups binary search the values sorted with numbers before text and text before booleans. Both are
+ * only built on first use.
+ * <br>
+ * Text ignores case and numbers of any scale are equal, so <code>1</code> and <code>1.0</code> are the same value.
+ */
+final class SpreadsheetServerLookupIndex {
+
+    /**
+     * Returned by the lookup methods when no value was found.
+     */
+    final static int NOT_FOUND = -1;
+
+    /**
+     * Loads the present cells of the given range, which must be a single row or column.
+     */
+    static SpreadsheetServerLookupIndex load(final SpreadsheetCellRangeReference range,
+                                             final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetCellReference begin = range.begin();
+        final SpreadsheetCellReference end = range.end();
+
+        final int beginColumn = begin.column().value();
+        final int beginRow = begin.row().value();
+        final int width = end.column().value() - beginColumn + 1;
+        final int height = end.row().value() - beginRow + 1;
+        if (width > 1 && height > 1) {
+            throw new IllegalArgumentException("Expected row or column but got " + range);
+        }
+        final boolean column = 1 == width;
+
+        final Object[] values = new Object[column ? height : width];
+        int count = 0;
+
+        for (final SpreadsheetCell cell : context.loadCellRange(range)) {
+            final Object value = cell.formula()
+                    .value()
+                    .orElse(null);
+            if (false == SpreadsheetServerSparseRange.isMissing(value)) {
+                final SpreadsheetCellReference reference = cell.reference();
+                values[column ?
+                        reference.row().value() - beginRow :
+                        reference.column().value() - beginColumn] = value;
+                count++;
+            }
+        }
+
+        return with(
+                values,
+                count
+        );
+    }
+
+    /**
+     * Creates an index of the given values, where null is a blank cell.
+     */
+    static SpreadsheetServerLookupIndex with(final List<Object> values) {
+        final Object[] array = new Object[values.size()];
+        int count = 0;
+
+        int i = 0;
+        for (final Object value : values) {
+            if (false == SpreadsheetServerSparseRange.isMissing(value)) {
+                array[i] = value;
+                count++;
+            }
+            i++;
+        }
+
+        return with(
+                array,
+                count
+        );
+    }
+
+    private static SpreadsheetServerLookupIndex with(final Object[] values,
+                                                     final int count) {
+        final int[] positions = new int[count];
+        final Object[] present = new Object[count];
+
+        int j = 0;
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (null != value) {
+                positions[j] = i;
+                present[j] = value;
+                j++;
+            }
+        }
+
+        return new SpreadsheetServerLookupIndex(
+                values.length,
+                positions,
+                present
+        );
+    }
+
+    private SpreadsheetServerLookupIndex(final int size,
+                                         final int[] positions,
+                                         final Object[] values) {
+        this.size = size;
+        this.positions = positions;
+        this.values = values;
+
+        final int count = values.length;
+        final Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(values[i]);
+        }
+        this.keys = keys;
+    }
+
+    /**
+     * The number of cells in the row or column, including blank cells.
+     */
+    int size() {
+        return this.size;
+    }
+
+    private final int size;
+
+    /**
+     * Returns the value at the given position, or null when the cell is blank.
+     */
+    Object value(final int position) {
+        final int i = Arrays.binarySearch(
+                this.positions,
+                position
+        );
+        return i >= 0 ?
+                this.values[i] :
+                null;
+    }
+
+    /**
+     * The positions of the present cells in ascending order.
+     */
+    private final int[] positions;
+
+    /**
+     * The values of the present cells, in the same order as {@link #positions}.
+     */
+    private final Object[] values;
+
+    /**
+     * The values with text in lower case and numbers as a {@link BigDecimal} without trailing zeros.
+     */
+    private final Object[] keys;
+
+    /**
+     * Returns the first or last position of a value equal to the given value, or {@link #NOT_FOUND}.
+     */
+    int exact(final Object value,
+              final boolean last) {
+        final int[] firstAndLast = this.hash()
+                .get(key(value));
+        return null != firstAndLast ?
+                this.positions[firstAndLast[last ? 1 : 0]] :
+                NOT_FOUND;
+    }
+
+    private Map<Object, int[]> hash() {
+        Map<Object, int[]> hash = this.hash;
+        if (null == hash) {
+            final Object[] keys = this.keys;
+            final int count = keys.length;
+
+            hash = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                final int[] firstAndLast = hash.get(keys[i]);
+                if (null == firstAndLast) {
+                    hash.put(
+                            keys[i],
+                            new int[]{i, i}
+                    );
+                } else {
+                    firstAndLast[1] = i;
+                }
+            }
+
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Each key and the first and last index of its value.
+     */
+    private volatile Map<Object, int[]> hash;
+
+    /**
+     * Returns the position of the largest value less than or equal to the given value of the same type, or
+     * {@link #NOT_FOUND}. When several values are equal the first or last position is returned.
+     */
+    int lessOrEqual(final Object value,
+                    final boolean last) {
+        final Object key = key(value);
+        final int[] sorted = this.sorted();
+
+        int found = NOT_FOUND;
+
+        final int upper = this.upperBound(key);
+        if (upper > 0) {
+            final Object match = this.keys[sorted[upper - 1]];
+            if (rank(match) == rank(key)) {
+                found = this.positions[sorted[last ? upper - 1 : this.lowerBound(match)]];
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns the position of the smallest value greater than or equal to the given value of the same type, or
+     * {@link #NOT_FOUND}. When several values are equal the first or last position is returned.
+     */
+    int greaterOrEqual(final Object value,
+                       final boolean last) {
+        final Object key = key(value);
+        final int[] sorted = this.sorted();
+
+        int found = NOT_FOUND;
+
+        final int lower = this.lowerBound(key);
+        if (lower < sorted.length) {
+            final Object match = this.keys[sorted[lower]];
+            if (rank(match) == rank(key)) {
+                found = this.positions[sorted[last ? this.upperBound(match) - 1 : lower]];
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns the first index into {@link #sorted()} of a key greater than or equal to the given key.
+     */
+    private int lowerBound(final Object key) {
+        final int[] sorted = this.sorted();
+        final Object[] keys = this.keys;
+
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compare(keys[sorted[middle]], key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first index into {@link #sorted()} of a key greater than the given key.
+     */
+    private int upperBound(final Object key) {
+        final int[] sorted = this.sorted();
+        final Object[] keys = this.keys;
+
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compare(keys[sorted[middle]], key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int[] sorted() {
+        int[] sorted = this.sorted;
+        if (null == sorted) {
+            final Object[] keys = this.keys;
+            final int count = keys.length;
+
+            // values that cannot be compared such as errors are left out
+            final Integer[] indices = new Integer[count];
+            int comparable = 0;
+            for (int i = 0; i < count; i++) {
+                if (rank(keys[i]) != OTHER) {
+                    indices[comparable] = i;
+                    comparable++;
+                }
+            }
+
+            // stable, so equal keys remain in position order
+            Arrays.sort(
+                    indices,
+                    0,
+                    comparable,
+                    (l, r) -> compare(keys[l], keys[r])
+            );
+
+            sorted = new int[comparable];
+            for (int i = 0; i < comparable; i++) {
+                sorted[i] = indices[i];
+            }
+
+            this.sorted = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * The indices of all comparable values sorted by their key.
+     */
+    private volatile int[] sorted;
+
+    /**
+     * Returns the first or last position of a text value matching the given criteria, or {@link #NOT_FOUND}.
+     */
+    int find(final SpreadsheetServerCriteria criteria,
+             final boolean last) {
+        final Object[] values = this.values;
+        final int count = values.length;
+
+        int found = NOT_FOUND;
+
+        for (int i = 0; i < count; i++) {
+            final int j = last ? count - 1 - i : i;
+            final Object value = values[j];
+            if (value instanceof String && criteria.test(value)) {
+                found = this.positions[j];
+                break;
+            }
+        }
+
+        return found;
+    }
+
+    private static Object key(final Object value) {
+        final Object key;
+
+        if (value instanceof ExpressionNumber) {
+            key = ((ExpressionNumber) value).bigDecimal()
+                    .stripTrailingZeros();
+        } else if (value instanceof String) {
+            key = ((String) value).toLowerCase();
+        } else {
+            key = value;
+        }
+
+        return key;
+    }
+
+    private final static int NUMBER = 0;
+    private final static int TEXT = 1;
+    private final static int BOOLEAN = 2;
+    private final static int COMPARABLE = 3;
+    private final static int OTHER = 4;
+
+    private static int rank(final Object key) {
+        final int rank;
+
+        if (key instanceof BigDecimal) {
+            rank = NUMBER;
+        } else if (key instanceof String) {
+            rank = TEXT;
+        } else if (key instanceof Boolean) {
+            rank = BOOLEAN;
+        } else if (key instanceof Comparable) {
+            rank = COMPARABLE;
+        } else {
+            rank = OTHER;
+        }
+
+        return rank;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(final Object left,
+                               final Object right) {
+        int compare = Integer.compare(
+                rank(left),
+                rank(right)
+        );
+
+        if (0 == compare) {
+            final Class<?> leftClass = left.getClass();
+            final Class<?> rightClass = right.getClass();
+
+            compare = leftClass == rightClass ?
+                    ((Comparable) left).compareTo(right) :
+                    leftClass.getName().compareTo(rightClass.getName());
+        }
+
+        return compare;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.values) + " size: " + this.size;
+    }
+}
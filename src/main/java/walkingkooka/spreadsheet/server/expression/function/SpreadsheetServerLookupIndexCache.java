@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@link SpreadsheetServerLookupIndex} of each row or column used by lookup functions, so many lookups such
+ * as <code>=VLOOKUP(A1, Table!A:B, 2, FALSE)</code> filled down a column load and index the range once.
+ * <br>
+ * Each {@link SpreadsheetServerRecalculation} owns a cache, which is cleared when it is closed. Indices of a row or
+ * column containing a saved or deleted cell are removed by {@link #cellChanged(SpreadsheetCellReference)}, and an
+ * index that was loading while a cell changed or the cache was cleared is returned but never kept. The
+ * {@link SpreadsheetExpressionEvaluationContext} is only used to load cells and is never kept. At most
+ * {@link #MAX_INDICES} are kept with the least recently used removed first.
+ */
+final class SpreadsheetServerLookupIndexCache {
+
+    /**
+     * The maximum number of indices kept.
+     */
+    final static int MAX_INDICES = 64;
+
+    SpreadsheetServerLookupIndexCache() {
+        super();
+    }
+
+    SpreadsheetServerLookupIndex get(final SpreadsheetCellRangeReference range,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        SpreadsheetServerLookupIndex index;
+        final long changes;
+        synchronized (this) {
+            index = this.indices.get(range);
+            changes = this.changes;
+        }
+
+        if (null == index) {
+            index = SpreadsheetServerLookupIndex.load(
+                    range,
+                    context
+            );
+
+            synchronized (this) {
+                if (changes == this.changes) {
+                    this.indices.put(
+                            range,
+                            index
+                    );
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Removes all indices.
+     */
+    synchronized void clear() {
+        this.indices.clear();
+        this.changes++;
+    }
+
+    /**
+     * Removes the indices of the rows and columns containing the given cell, which was saved or deleted.
+     */
+    synchronized void cellChanged(final SpreadsheetCellReference cell) {
+        final Iterator<SpreadsheetCellRangeReference> ranges = this.indices.keySet()
+                .iterator();
+        while (ranges.hasNext()) {
+            if (ranges.next().testCell(cell)) {
+                ranges.remove();
+            }
+        }
+        this.changes++;
+    }
+
+    private final Map<SpreadsheetCellRangeReference, SpreadsheetServerLookupIndex> indices = new LinkedHashMap<SpreadsheetCellRangeReference, SpreadsheetServerLookupIndex>(
+            16,
+            0.75f,
+            true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<SpreadsheetCellRangeReference, SpreadsheetServerLookupIndex> eldest) {
+            return this.size() > MAX_INDICES;
+        }
+
+        private static final long serialVersionUID = 1L;
+    };
+
+    /**
+     * Incremented whenever a cell changes or the cache is cleared, so indices loaded before are not kept.
+     */
+    private long changes;
+
+    @Override
+    public synchronized String toString() {
+        return this.indices.keySet()
+                .toString();
+    }
+}
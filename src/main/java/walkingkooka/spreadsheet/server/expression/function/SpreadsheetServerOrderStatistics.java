@@ -0,0 +1,441 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds order statistics such as the median or the k-th smallest number using introselect, which partially orders the
+ * numbers around each selected position in linear time rather than sorting all of them, falling back to sorting the
+ * remaining part when partitioning stops making progress.
+ * <br>
+ * For {@link ExpressionNumberKind#DOUBLE} the numbers are copied into a <code>double[]</code> taken from
+ * {@link SpreadsheetServerColumnBuffers}, which must be given back using {@link #release()}. Other kinds select the
+ * {@link ExpressionNumber numbers} themselves so no precision is lost.
+ */
+final class SpreadsheetServerOrderStatistics {
+
+    /**
+     * Copies the {@link ExpressionNumber numbers} within the given values, all other values are ignored.
+     */
+    static SpreadsheetServerOrderStatistics with(final List<Object> values,
+                                                 final ExpressionNumberContext context) {
+        int count = 0;
+        for (final Object value : values) {
+            if (value instanceof ExpressionNumber) {
+                count++;
+            }
+        }
+
+        double[] doubles = null;
+        ExpressionNumber[] numbers = null;
+
+        if (ExpressionNumberKind.DOUBLE == context.expressionNumberKind()) {
+            doubles = SpreadsheetServerColumnBuffers.doubles(count);
+        } else {
+            numbers = new ExpressionNumber[count];
+        }
+
+        int i = 0;
+        for (final Object value : values) {
+            if (value instanceof ExpressionNumber) {
+                if (null != doubles) {
+                    doubles[i] = ((ExpressionNumber) value).doubleValue();
+                } else {
+                    numbers[i] = (ExpressionNumber) value;
+                }
+                i++;
+            }
+        }
+
+        return new SpreadsheetServerOrderStatistics(
+                count,
+                doubles,
+                numbers,
+                context
+        );
+    }
+
+    private SpreadsheetServerOrderStatistics(final int size,
+                                             final double[] doubles,
+                                             final ExpressionNumber[] numbers,
+                                             final ExpressionNumberContext context) {
+        this.size = size;
+        this.doubles = doubles;
+        this.numbers = numbers;
+        this.context = context;
+    }
+
+    /**
+     * The number of numbers.
+     */
+    int size() {
+        return this.size;
+    }
+
+    private final int size;
+
+    /**
+     * Returns the k-th smallest number, starting at 0.
+     */
+    ExpressionNumber get(final int k) {
+        this.checkIndex(k);
+
+        final ExpressionNumber number;
+
+        if (null != this.doubles) {
+            select(
+                    this.doubles,
+                    0,
+                    this.size - 1,
+                    k
+            );
+            number = this.context.expressionNumberKind()
+                    .create(this.doubles[k]);
+        } else {
+            select(
+                    this.numbers,
+                    0,
+                    this.size - 1,
+                    k
+            );
+            number = this.numbers[k];
+        }
+
+        return number;
+    }
+
+    /**
+     * The middle number, or the average of the two middle numbers for an even count.
+     */
+    ExpressionNumber median() {
+        final int size = this.size;
+        this.checkIndex(0);
+
+        final int k = size / 2;
+        final ExpressionNumber median;
+
+        if (null != this.doubles) {
+            final double[] doubles = this.doubles;
+            select(
+                    doubles,
+                    0,
+                    size - 1,
+                    k
+            );
+
+            double value = doubles[k];
+            if (0 == size % 2) {
+                // all numbers before k are smaller or equal, the largest is the other middle
+                double lower = doubles[0];
+                for (int i = 1; i < k; i++) {
+                    lower = Math.max(lower, doubles[i]);
+                }
+                value = (lower + value) / 2;
+            }
+            median = this.context.expressionNumberKind()
+                    .create(value);
+        } else {
+            final ExpressionNumber[] numbers = this.numbers;
+            select(
+                    numbers,
+                    0,
+                    size - 1,
+                    k
+            );
+
+            ExpressionNumber value = numbers[k];
+            if (0 == size % 2) {
+                ExpressionNumber lower = numbers[0];
+                for (int i = 1; i < k; i++) {
+                    if (numbers[i].compareTo(lower) > 0) {
+                        lower = numbers[i];
+                    }
+                }
+
+                final ExpressionNumberContext context = this.context;
+                value = lower.add(
+                        value,
+                        context
+                ).divide(
+                        context.expressionNumberKind()
+                                .create(2),
+                        context
+                );
+            }
+            median = value;
+        }
+
+        return median;
+    }
+
+    /**
+     * Returns the inclusive percentile, interpolating between the two closest ranks. The percentile must be between
+     * 0 and 1 inclusive.
+     */
+    ExpressionNumber percentile(final ExpressionNumber percentile) {
+        final ExpressionNumberContext context = this.context;
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+
+        if (percentile.compareTo(kind.zero()) < 0 || percentile.compareTo(kind.one()) > 0) {
+            throw new IllegalArgumentException("Invalid percentile " + percentile + " not between 0 and 1");
+        }
+        this.checkIndex(0);
+
+        final int last = this.size - 1;
+        final ExpressionNumber value;
+
+        if (null != this.doubles) {
+            final double rank = percentile.doubleValue() * last;
+            final int lower = (int) Math.floor(rank);
+            final double fraction = rank - lower;
+
+            final double[] doubles = this.doubles;
+            select(
+                    doubles,
+                    0,
+                    last,
+                    lower
+            );
+
+            double result = doubles[lower];
+            if (0 != fraction && lower < last) {
+                // all numbers after lower are larger or equal, the smallest is the next rank
+                double upper = doubles[lower + 1];
+                for (int i = lower + 2; i <= last; i++) {
+                    upper = Math.min(upper, doubles[i]);
+                }
+                result = result + fraction * (upper - result);
+            }
+            value = kind.create(result);
+        } else {
+            final BigDecimal rank = percentile.bigDecimal()
+                    .multiply(BigDecimal.valueOf(last));
+            final BigDecimal lowerRank = rank.setScale(0, RoundingMode.FLOOR);
+            final int lower = lowerRank.intValue();
+            final BigDecimal fraction = rank.subtract(lowerRank);
+
+            final ExpressionNumber[] numbers = this.numbers;
+            select(
+                    numbers,
+                    0,
+                    last,
+                    lower
+            );
+
+            ExpressionNumber result = numbers[lower];
+            if (0 != fraction.signum() && lower < last) {
+                ExpressionNumber upper = numbers[lower + 1];
+                for (int i = lower + 2; i <= last; i++) {
+                    if (numbers[i].compareTo(upper) < 0) {
+                        upper = numbers[i];
+                    }
+                }
+                result = result.add(
+                        upper.subtract(
+                                result,
+                                context
+                        ).multiply(
+                                kind.create(fraction),
+                                context
+                        ),
+                        context
+                );
+            }
+            value = result;
+        }
+
+        return value;
+    }
+
+    private void checkIndex(final int k) {
+        if (0 == this.size) {
+            throw new IllegalArgumentException("No numbers");
+        }
+        if (k < 0 || k >= this.size) {
+            throw new IllegalArgumentException("Invalid position " + (k + 1) + " not between 1 and " + this.size);
+        }
+    }
+
+    private final ExpressionNumberContext context;
+
+    /**
+     * Gives the <code>double[]</code> back to {@link SpreadsheetServerColumnBuffers}, after which this must not be
+     * used.
+     */
+    void release() {
+        final double[] doubles = this.doubles;
+        if (null != doubles) {
+            this.doubles = null;
+            SpreadsheetServerColumnBuffers.release(doubles);
+        }
+    }
+
+    private double[] doubles;
+
+    private final ExpressionNumber[] numbers;
+
+    /**
+     * Moves the k-th smallest number between left and right inclusive to position k, with smaller or equal numbers
+     * before and larger or equal numbers after it.
+     */
+    static void select(final double[] values,
+                       final int left,
+                       final int right,
+                       final int k) {
+        int from = left;
+        int to = right;
+        int depth = depth(to - from + 1);
+
+        while (to > from) {
+            if (0 == depth) {
+                Arrays.sort(values, from, to + 1);
+                break;
+            }
+            depth--;
+
+            // median of three, which also leaves sentinels at both ends
+            final int middle = (from + to) >>> 1;
+            if (values[middle] < values[from]) {
+                swap(values, middle, from);
+            }
+            if (values[to] < values[from]) {
+                swap(values, to, from);
+            }
+            if (values[to] < values[middle]) {
+                swap(values, to, middle);
+            }
+            final double pivot = values[middle];
+
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                break; // between j and i all numbers equal the pivot
+            }
+        }
+    }
+
+    private static void swap(final double[] values,
+                             final int i,
+                             final int j) {
+        final double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+
+    /**
+     * {@see #select(double[], int, int, int)}
+     */
+    static void select(final ExpressionNumber[] values,
+                       final int left,
+                       final int right,
+                       final int k) {
+        int from = left;
+        int to = right;
+        int depth = depth(to - from + 1);
+
+        while (to > from) {
+            if (0 == depth) {
+                Arrays.sort(values, from, to + 1);
+                break;
+            }
+            depth--;
+
+            final int middle = (from + to) >>> 1;
+            if (values[middle].compareTo(values[from]) < 0) {
+                swap(values, middle, from);
+            }
+            if (values[to].compareTo(values[from]) < 0) {
+                swap(values, to, from);
+            }
+            if (values[to].compareTo(values[middle]) < 0) {
+                swap(values, to, middle);
+            }
+            final ExpressionNumber pivot = values[middle];
+
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i].compareTo(pivot) < 0) {
+                    i++;
+                }
+                while (values[j].compareTo(pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static void swap(final ExpressionNumber[] values,
+                             final int i,
+                             final int j) {
+        final ExpressionNumber temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+
+    /**
+     * The number of partitions allowed before sorting, twice the log of the count.
+     */
+    private static int depth(final int count) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(count));
+    }
+
+    @Override
+    public String toString() {
+        return this.size + " numbers";
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+
+/**
+ * A table driven engine that parses and formats the binary, octal, decimal and hexadecimal text used by the BIN2DEC
+ * family of functions. Values are held as a long, which means conversions between binary, octal and hexadecimal
+ * are performed on groups of bits without any decimal intermediate. Following Excel, binary, octal and hexadecimal
+ * text with 10 digits whose highest bit is set is a negative two's complement number, and negative values are always
+ * formatted as 10 digits two's complement ignoring any places.
+ */
+final class SpreadsheetServerRadix {
+
+    /**
+     * Returned by {@link #parse(Object)} when the value is invalid.
+     */
+    final static long INVALID = Long.MIN_VALUE;
+
+    /**
+     * Used by {@link #format(long, int)} when no places was given.
+     */
+    final static int NO_PLACES = 0;
+
+    /**
+     * The maximum number of digits for binary, octal and hexadecimal text.
+     */
+    final static int MAX_DIGITS = 10;
+
+    /**
+     * Lower case digits for all radixes up to 36, which match the text produced by the wrapped functions.
+     */
+    private final static char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * The largest radix with a digit in {@link #DIGITS}.
+     */
+    final static int MAX_RADIX = 36;
+
+    /**
+     * Maps ascii characters to their digit value or -1 for characters that are not digits.
+     */
+    private final static byte[] VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = -1;
+        }
+        for (int i = 0; i < DIGITS.length; i++) {
+            final char c = DIGITS[i];
+            VALUES[c] = (byte) i;
+            VALUES[Character.toUpperCase(c)] = (byte) i;
+        }
+    }
+
+    final static SpreadsheetServerRadix BINARY = new SpreadsheetServerRadix(2, 1);
+
+    final static SpreadsheetServerRadix OCTAL = new SpreadsheetServerRadix(8, 3);
+
+    /**
+     * Decimal values are limited to the range of 10 hexadecimal digits, the largest range of any conversion.
+     */
+    final static SpreadsheetServerRadix DECIMAL = new SpreadsheetServerRadix(10, 0);
+
+    final static SpreadsheetServerRadix HEXADECIMAL = new SpreadsheetServerRadix(16, 4);
+
+    private SpreadsheetServerRadix(final int radix,
+                                   final int bits) {
+        this.radix = radix;
+        this.bits = bits;
+
+        final long modulus = 1L << (MAX_DIGITS * (0 == bits ? HEXADECIMAL_BITS : bits));
+        this.modulus = modulus;
+        this.min = -(modulus >> 1);
+        this.max = (modulus >> 1) - 1;
+    }
+
+    private final static int HEXADECIMAL_BITS = 4;
+
+    /**
+     * Returns true if the value has a type this radix parses, text or for decimal a {@link ExpressionNumber}.
+     */
+    boolean canParse(final Object value) {
+        return value instanceof String ||
+                (value instanceof ExpressionNumber && this.isDecimal());
+    }
+
+    /**
+     * Parses the given text or for decimal a {@link ExpressionNumber}, returning {@link #INVALID} if the value
+     * contains an invalid digit, too many digits or is out of range.
+     */
+    long parse(final Object value) {
+        long parsed = INVALID;
+
+        if (value instanceof String) {
+            parsed = this.isDecimal() ?
+                    this.parseDecimal((String) value) :
+                    this.parsePowerOfTwo((String) value);
+        } else {
+            if (value instanceof ExpressionNumber && this.isDecimal()) {
+                final long number = SpreadsheetServerExpressionNumbers.exactLong((ExpressionNumber) value);
+                if (SpreadsheetServerExpressionNumbers.NOT_LONG != number && this.isInRange(number)) {
+                    parsed = number;
+                }
+            }
+        }
+
+        return parsed;
+    }
+
+    private long parseDecimal(final String text) {
+        final int length = text.length();
+        final boolean negative = length > 0 && '-' == text.charAt(0);
+        final int start = negative ? 1 : 0;
+
+        long parsed = INVALID;
+
+        // 13 digits are more than enough for the largest decimal
+        if (length > start && length - start <= 13) {
+            long value = 0;
+            int i = start;
+
+            while (i < length) {
+                final int digit = digit(text.charAt(i));
+                if (digit < 0 || digit >= 10) {
+                    break;
+                }
+                value = value * 10 + digit;
+                i++;
+            }
+
+            if (length == i) {
+                if (negative) {
+                    value = -value;
+                }
+                if (this.isInRange(value)) {
+                    parsed = value;
+                }
+            }
+        }
+
+        return parsed;
+    }
+
+    private long parsePowerOfTwo(final String text) {
+        final int length = text.length();
+
+        long parsed = INVALID;
+
+        if (length > 0 && length <= MAX_DIGITS) {
+            final int radix = this.radix;
+            final int bits = this.bits;
+
+            long value = 0;
+            int i = 0;
+
+            while (i < length) {
+                final int digit = digit(text.charAt(i));
+                if (digit < 0 || digit >= radix) {
+                    break;
+                }
+                value = (value << bits) | digit;
+                i++;
+            }
+
+            if (length == i) {
+                // the highest bit of 10 digits is the sign
+                parsed = value > this.max ?
+                        value - this.modulus :
+                        value;
+            }
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Returns the value of the given digit ignoring case, or -1 if the character is not a digit.
+     */
+    static int digit(final char c) {
+        return c < VALUES.length ?
+                VALUES[c] :
+                -1;
+    }
+
+    /**
+     * Returns the lower case character for the given digit value.
+     */
+    static char digitCharacter(final int digit) {
+        return DIGITS[digit];
+    }
+
+    /**
+     * Formats the value, returning null if the value is out of range or the places is less than the number of digits
+     * or greater than {@link #MAX_DIGITS}. The places is ignored for negative values and is invalid for decimal.
+     */
+    String format(final long value,
+                  final int places) {
+        String formatted = null;
+
+        if (this.isInRange(value) && places >= 0 && places <= MAX_DIGITS) {
+            if (this.isDecimal()) {
+                if (NO_PLACES == places) {
+                    formatted = String.valueOf(value);
+                }
+            } else {
+                formatted = this.formatPowerOfTwo(
+                        value,
+                        places
+                );
+            }
+        }
+
+        return formatted;
+    }
+
+    private String formatPowerOfTwo(final long value,
+                                    final int places) {
+        final int bits = this.bits;
+        final boolean negative = value < 0;
+
+        String formatted = null;
+
+        // negative values become 10 digit two's complement
+        long unsigned = negative ?
+                value & (this.modulus - 1) :
+                value;
+        final int digits = Math.max(
+                1,
+                (Long.SIZE - Long.numberOfLeadingZeros(unsigned) + bits - 1) / bits
+        );
+
+        if (negative || NO_PLACES == places || places >= digits) {
+            final int width = negative ?
+                    MAX_DIGITS :
+                    Math.max(
+                            digits,
+                            places
+                    );
+            final char[] chars = new char[width];
+            final int mask = this.radix - 1;
+
+            for (int i = width - 1; i >= 0; i--) {
+                chars[i] = DIGITS[(int) (unsigned & mask)];
+                unsigned >>>= bits;
+            }
+
+            formatted = new String(chars);
+        }
+
+        return formatted;
+    }
+
+    private boolean isDecimal() {
+        return 0 == this.bits;
+    }
+
+    /**
+     * Returns true if the value fits within 10 digits of this radix, or the decimal range of 10 hexadecimal digits.
+     */
+    boolean isInRange(final long value) {
+        return value >= this.min && value <= this.max;
+    }
+
+    private final int radix;
+
+    /**
+     * The number of bits in a single digit, or 0 for decimal.
+     */
+    private final int bits;
+
+    /**
+     * 2 raised to the number of bits in 10 digits.
+     */
+    private final long modulus;
+
+    private final long min;
+
+    private final long max;
+
+    @Override
+    public String toString() {
+        return "radix " + this.radix;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the values of ranges loaded by {@link SpreadsheetServerSparseRange}, so formulas and functions referencing the
+ * same range such as <code>B2:B50000</code> load it from the store once during a {@link SpreadsheetServerRecalculation}. The cache is limited by the number of ranges
+ * and the total number of values kept, removing the least recently used range first. A range with more values than
+ * the limit is never kept.
+ * <br>
+ * Each {@link SpreadsheetServerRecalculation} owns a cache, which is cleared when it is closed. Ranges containing a
+ * saved or deleted cell are removed by {@link #cellChanged(SpreadsheetCellReference)}, and a range that was loading
+ * while a cell changed or the cache was cleared is returned but never kept, because it may hold old values. The
+ * {@link SpreadsheetExpressionEvaluationContext} is only used to load cells and is never kept.
+ */
+final class SpreadsheetServerRangeCache {
+
+    /**
+     * The maximum number of ranges kept.
+     */
+    final static int MAX_RANGES = 256;
+
+    /**
+     * The maximum total number of values kept for all ranges.
+     */
+    final static long MAX_VALUES = 1024 * 1024;
+
+    SpreadsheetServerRangeCache(final int maxRanges,
+                                final long maxValues) {
+        super();
+        this.maxRanges = maxRanges;
+        this.maxValues = maxValues;
+    }
+
+    SpreadsheetServerSparseRange get(final SpreadsheetCellRangeReference range,
+                                     final SpreadsheetExpressionEvaluationContext context) {
+        SpreadsheetServerSparseRange loaded;
+        final long changes;
+        synchronized (this) {
+            loaded = this.ranges.get(range);
+            changes = this.changes;
+        }
+
+        if (null == loaded) {
+            loaded = SpreadsheetServerSparseRange.load(
+                    range,
+                    context
+            );
+
+            final int count = loaded.values()
+                    .size();
+            if (count <= this.maxValues) {
+                synchronized (this) {
+                    if (changes == this.changes) {
+                        loaded.share();
+                        this.put(
+                                range,
+                                loaded,
+                                count
+                        );
+                    }
+                }
+            }
+        }
+
+        return loaded;
+    }
+
+    private void put(final SpreadsheetCellRangeReference range,
+                     final SpreadsheetServerSparseRange loaded,
+                     final int count) {
+        final SpreadsheetServerSparseRange previous = this.ranges.put(
+                range,
+                loaded
+        );
+        if (null != previous) {
+            this.values -= previous.values()
+                    .size();
+        }
+        this.values += count;
+
+        final Iterator<SpreadsheetServerSparseRange> eldest = this.ranges.values()
+                .iterator();
+        while (this.ranges.size() > this.maxRanges || this.values > this.maxValues) {
+            this.values -= eldest.next()
+                    .values()
+                    .size();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Removes all ranges and releases their columns, which must only happen once no function uses the ranges. Ranges
+     * removed to stay within the limits are not released, because a function may still be using them.
+     */
+    synchronized void clear() {
+        for (final SpreadsheetServerSparseRange range : this.ranges.values()) {
+            range.releaseColumn();
+        }
+        this.ranges.clear();
+        this.values = 0;
+        this.changes++;
+    }
+
+    /**
+     * Removes the ranges containing the given cell, which was saved or deleted. Like ranges removed to stay within the
+     * limits, they are not released.
+     */
+    synchronized void cellChanged(final SpreadsheetCellReference cell) {
+        final Iterator<Map.Entry<SpreadsheetCellRangeReference, SpreadsheetServerSparseRange>> entries = this.ranges.entrySet()
+                .iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<SpreadsheetCellRangeReference, SpreadsheetServerSparseRange> entry = entries.next();
+            if (entry.getKey().testCell(cell)) {
+                this.values -= entry.getValue()
+                        .values()
+                        .size();
+                entries.remove();
+            }
+        }
+        this.changes++;
+    }
+
+    private final int maxRanges;
+
+    private final long maxValues;
+
+    /**
+     * The ranges in least recently used order.
+     */
+    private final Map<SpreadsheetCellRangeReference, SpreadsheetServerSparseRange> ranges = new LinkedHashMap<>(
+            16,
+            0.75f,
+            true
+    );
+
+    /**
+     * The total number of values of all ranges.
+     */
+    private long values;
+
+    /**
+     * Incremented whenever a cell changes or the cache is cleared, so ranges loaded before are not kept.
+     */
+    private long changes;
+
+    @Override
+    public synchronized String toString() {
+        return this.ranges.keySet() + " values: " + this.values;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.spreadsheet.store.SpreadsheetCellStore;
+import walkingkooka.text.CaseSensitivity;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The caches shared by the functions evaluated during a single recalculation or batch, such as the scan shared by
+ * <code>=SUM(A:A)/COUNT(A:A)</code>, the ranges loaded by many formulas referencing <code>B2:B50000</code> and the
+ * indices of lookups such as <code>=VLOOKUP(A1, Table!A:B, 2, FALSE)</code> filled down a column. The caller creates a recalculation, gets its functions from
+ * {@link SpreadsheetServerExpressionFunctionProviders#expressionFunctionProvider(CaseSensitivity, SpreadsheetServerRecalculation)},
+ * evaluates the batch and then closes the recalculation.
+ * <br>
+ * Cached values are dropped when the cells they read are saved or deleted, which the caller reports using
+ * {@link #cellChanged(SpreadsheetCellReference)} or by watching the cell store with {@link #watch(SpreadsheetCellStore)}.
+ * A recalculation belongs to the spreadsheet of its cell store, and must be closed before it is used with another.
+ * A recalculation never keeps a {@link SpreadsheetExpressionEvaluationContext}, which is only given to load cells.
+ */
+public final class SpreadsheetServerRecalculation implements AutoCloseable {
+
+    /**
+     * Creates a new recalculation without any cached values, reducing ranges with at least
+     * {@link SpreadsheetServerChunkedReduction#PARALLEL_THRESHOLD} values in parallel chunks.
+     */
+    public static SpreadsheetServerRecalculation empty() {
+        return withParallelThreshold(SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a new recalculation without any cached values, reducing ranges with at least the given number of values
+     * in parallel chunks. {@link Integer#MAX_VALUE} always reduces on the calling thread.
+     */
+    public static SpreadsheetServerRecalculation withParallelThreshold(final int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Invalid parallel threshold " + parallelThreshold + " <= 0");
+        }
+
+        return new SpreadsheetServerRecalculation(
+                true,
+                parallelThreshold
+        );
+    }
+
+    /**
+     * A recalculation that never caches, used by functions that were not given a recalculation.
+     */
+    final static SpreadsheetServerRecalculation NONE = new SpreadsheetServerRecalculation(
+            false,
+            SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD
+    );
+
+    private SpreadsheetServerRecalculation(final boolean caching,
+                                           final int parallelThreshold) {
+        super();
+        this.caching = caching;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Ranges with fewer values than this are reduced sequentially by {@link SpreadsheetServerChunkedReduction}.
+     */
+    int parallelThreshold() {
+        return this.parallelThreshold;
+    }
+
+    private final int parallelThreshold;
+
+    /**
+     * Returns the {@link SpreadsheetServerAggregateScan} for the given parameters, sharing scans of the same references.
+     */
+    SpreadsheetServerAggregateScan scan(final List<Object> parameters,
+                                        final SpreadsheetExpressionEvaluationContext context) {
+        return this.caching ?
+                this.fusion.get(
+                        parameters,
+                        this,
+                        context
+                ) :
+                SpreadsheetServerAggregateFusion.scan(
+                        parameters,
+                        this,
+                        context
+                );
+    }
+
+    /**
+     * Loads the values of the given range, sharing ranges that were already loaded. Shared ranges ignore
+     * {@link SpreadsheetServerSparseRange#release()}.
+     */
+    SpreadsheetServerSparseRange range(final SpreadsheetCellRangeReference range,
+                                       final SpreadsheetExpressionEvaluationContext context) {
+        return this.caching ?
+                this.ranges.get(
+                        range,
+                        context
+                ) :
+                SpreadsheetServerSparseRange.load(
+                        range,
+                        context
+                );
+    }
+
+    /**
+     * Returns the {@link SpreadsheetServerLookupIndex} of the given row or column, sharing indices that were already
+     * loaded.
+     */
+    SpreadsheetServerLookupIndex lookupIndex(final SpreadsheetCellRangeReference range,
+                                             final SpreadsheetExpressionEvaluationContext context) {
+        return this.caching ?
+                this.indices.get(
+                        range,
+                        context
+                ) :
+                SpreadsheetServerLookupIndex.load(
+                        range,
+                        context
+                );
+    }
+
+    /**
+     * Drops every cached value that read the given cell, which was saved or deleted while this recalculation is open,
+     * for example by the engine saving each cell it evaluates.
+     */
+    public void cellChanged(final SpreadsheetCellReference cell) {
+        Objects.requireNonNull(cell, "cell");
+
+        if (this.caching) {
+            this.fusion.cellChanged(cell);
+            this.ranges.cellChanged(cell);
+            this.indices.cellChanged(cell);
+        }
+    }
+
+    /**
+     * Adds watchers to the given store, which call {@link #cellChanged(SpreadsheetCellReference)} for every saved or
+     * deleted cell. The returned {@link Runnable} removes both watchers.
+     */
+    public Runnable watch(final SpreadsheetCellStore store) {
+        Objects.requireNonNull(store, "store");
+
+        final Runnable saved = store.addSaveWatcher(
+                (cell) -> this.cellChanged(cell.reference())
+        );
+        final Runnable deleted = store.addDeleteWatcher(this::cellChanged);
+
+        return () -> {
+            saved.run();
+            deleted.run();
+        };
+    }
+
+    private final boolean caching;
+
+    private final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+
+    private final SpreadsheetServerRangeCache ranges = new SpreadsheetServerRangeCache(
+            SpreadsheetServerRangeCache.MAX_RANGES,
+            SpreadsheetServerRangeCache.MAX_VALUES
+    );
+
+    private final SpreadsheetServerLookupIndexCache indices = new SpreadsheetServerLookupIndexCache();
+
+    /**
+     * Clears all cached values and returns the columns of cached ranges to {@link SpreadsheetServerColumnBuffers}, so
+     * it must only be called once no function of this recalculation is evaluating. The recalculation may be used again
+     * after closing.
+     */
+    @Override
+    public void close() {
+        this.fusion.clear();
+        this.ranges.clear();
+        this.indices.clear();
+    }
+
+    @Override
+    public String toString() {
+        return this.caching ?
+                "scans: " + this.fusion + " ranges: " + this.ranges + " indices: " + this.indices :
+                "none";
+    }
+}
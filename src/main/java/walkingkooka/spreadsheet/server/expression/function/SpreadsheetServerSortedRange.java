@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The present values of a range loaded by {@link SpreadsheetServerSparseRange}, with the offsets of their cells from
+ * the top left counting across each row sorted in order, so functions such as SUMIFS and SUMPRODUCT that combine
+ * ranges of the same shape find the value of a cell with a binary search. The values and their
+ * {@link SpreadsheetServerColumn} are never copied, {@link #valueIndex(int)} maps the index of a sorted offset to its
+ * value, which only differs for stores that do not load cells in order.
+ */
+final class SpreadsheetServerSortedRange {
+
+    /**
+     * Loads the given reference using the {@link SpreadsheetServerRecalculation}, so ranges are shared with other
+     * functions of the same recalculation.
+     */
+    static SpreadsheetServerSortedRange load(final Object reference,
+                                             final SpreadsheetServerRecalculation recalculation,
+                                             final SpreadsheetExpressionEvaluationContext context) {
+        if (false == reference instanceof SpreadsheetExpressionReference) {
+            throw new IllegalArgumentException("Expected range but got " + reference);
+        }
+
+        return recalculation.range(
+                context.resolveIfLabel((SpreadsheetExpressionReference) reference)
+                        .toCellRange(),
+                context
+        ).sorted();
+    }
+
+    /**
+     * Creates a {@link SpreadsheetServerSortedRange} given the offsets of each value of the sparse range in load
+     * order.
+     */
+    static SpreadsheetServerSortedRange with(final SpreadsheetCellRangeReference range,
+                                             final long[] offsets,
+                                             final SpreadsheetServerSparseRange values) {
+        final int count = offsets.length;
+
+        boolean sorted = true;
+        for (int i = 1; sorted && i < count; i++) {
+            sorted = offsets[i - 1] < offsets[i];
+        }
+
+        return sorted ?
+                new SpreadsheetServerSortedRange(
+                        range,
+                        offsets,
+                        null,
+                        values
+                ) :
+                sort(
+                        range,
+                        offsets,
+                        values
+                );
+    }
+
+    /**
+     * Sorts a copy of the offsets, keeping the index of the value of each.
+     */
+    private static SpreadsheetServerSortedRange sort(final SpreadsheetCellRangeReference range,
+                                                     final long[] offsets,
+                                                     final SpreadsheetServerSparseRange values) {
+        final int count = offsets.length;
+
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(
+                order,
+                Comparator.comparingLong(i -> offsets[i])
+        );
+
+        final long[] sortedOffsets = new long[count];
+        final int[] valueIndices = new int[count];
+        for (int i = 0; i < count; i++) {
+            final int index = order[i];
+            sortedOffsets[i] = offsets[index];
+            valueIndices[i] = index;
+        }
+
+        return new SpreadsheetServerSortedRange(
+                range,
+                sortedOffsets,
+                valueIndices,
+                values
+        );
+    }
+
+    private SpreadsheetServerSortedRange(final SpreadsheetCellRangeReference range,
+                                         final long[] offsets,
+                                         final int[] valueIndices,
+                                         final SpreadsheetServerSparseRange values) {
+        this.range = range;
+        this.width = range.end().column().value() - range.begin().column().value() + 1;
+        this.area = SpreadsheetServerSparseRange.area(range);
+        this.offsets = offsets;
+        this.valueIndices = valueIndices;
+        this.values = values;
+    }
+
+    /**
+     * Returns the index of the given offset, or a negative value if the cell is missing.
+     */
+    int indexOf(final long offset) {
+        return Arrays.binarySearch(
+                this.offsets,
+                offset
+        );
+    }
+
+    /**
+     * Returns the index within {@link SpreadsheetServerSparseRange#values()} and {@link #column()} of the value at
+     * the given index of {@link #offsets}.
+     */
+    int valueIndex(final int index) {
+        final int[] valueIndices = this.valueIndices;
+        return null == valueIndices ?
+                index :
+                valueIndices[index];
+    }
+
+    /**
+     * Returns the value of the cell at the given offset, or null if it is missing.
+     */
+    Object get(final long offset) {
+        final int index = this.indexOf(offset);
+        return index >= 0 ?
+                this.values.values()
+                        .get(this.valueIndex(index)) :
+                null;
+    }
+
+    /**
+     * The {@link SpreadsheetServerColumn} of the values.
+     */
+    SpreadsheetServerColumn column() {
+        return this.values.column();
+    }
+
+    void checkSameShape(final SpreadsheetServerSortedRange other) {
+        if (this.width != other.width || this.area != other.area) {
+            throw new IllegalArgumentException("Range " + other.range + " is not the same size as " + this.range);
+        }
+    }
+
+    /**
+     * Releases the column of the values unless they are shared by a {@link SpreadsheetServerRecalculation}.
+     */
+    void release() {
+        this.values.release();
+    }
+
+    final SpreadsheetCellRangeReference range;
+
+    private final int width;
+
+    /**
+     * The number of cells of the range, including missing cells.
+     */
+    final long area;
+
+    /**
+     * The offsets of the present cells in order.
+     */
+    final long[] offsets;
+
+    /**
+     * The index of the value of each offset, null when the values were loaded in order.
+     */
+    private final int[] valueIndices;
+
+    private final SpreadsheetServerSparseRange values;
+
+    @Override
+    public String toString() {
+        return this.range.toString();
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.SpreadsheetError;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetExpressionReference;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The values of all the parameters given to a function, where references are loaded directly from the store.
+ * Only the values of present cells are kept, along with a count of the missing cells, which means a whole column
+ * reference on a sparse sheet never creates a missing cell {@link SpreadsheetError} for each empty cell.
+ * Null values and missing cell errors given as scalar parameters are also counted as missing.
+ */
+final class SpreadsheetServerSparseRange {
+
+    /**
+     * Creates a {@link SpreadsheetServerSparseRange} from the given function parameters. References and labels are
+     * loaded, lists are flattened and all other values are kept as they are.
+     */
+    static SpreadsheetServerSparseRange parameters(final List<Object> parameters,
+                                                   final SpreadsheetExpressionEvaluationContext context) {
+        return parameters(
+                parameters,
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+    }
+
+    /**
+     * Creates a {@link SpreadsheetServerSparseRange} from the given function parameters, where references are loaded
+     * using the given {@link SpreadsheetServerRecalculation}.
+     */
+    static SpreadsheetServerSparseRange parameters(final List<Object> parameters,
+                                                   final SpreadsheetServerRecalculation recalculation,
+                                                   final SpreadsheetExpressionEvaluationContext context) {
+        Objects.requireNonNull(parameters, "parameters");
+        Objects.requireNonNull(recalculation, "recalculation");
+        Objects.requireNonNull(context, "context");
+
+        final SpreadsheetServerSparseRange range;
+
+        // a single reference shares the loaded range, along with its column
+        if (1 == parameters.size() && parameters.get(0) instanceof SpreadsheetExpressionReference) {
+            range = recalculation.range(
+                    context.resolveIfLabel((SpreadsheetExpressionReference) parameters.get(0))
+                            .toCellRange(),
+                    context
+            );
+        } else {
+            range = new SpreadsheetServerSparseRange(
+                    Lists.array(),
+                    0
+            );
+            range.addAll(
+                    parameters,
+                    recalculation,
+                    context
+            );
+        }
+
+        return range;
+    }
+
+    static SpreadsheetServerSparseRange with(final List<Object> values,
+                                             final long missing) {
+        Objects.requireNonNull(values, "values");
+        if (missing < 0) {
+            throw new IllegalArgumentException("Invalid missing " + missing + " < 0");
+        }
+
+        return new SpreadsheetServerSparseRange(
+                values,
+                missing
+        );
+    }
+
+    private SpreadsheetServerSparseRange(final List<Object> values,
+                                         final long missing) {
+        this.values = values;
+        this.missing = missing;
+    }
+
+    private void addAll(final List<?> parameters,
+                        final SpreadsheetServerRecalculation recalculation,
+                        final SpreadsheetExpressionEvaluationContext context) {
+        for (final Object parameter : parameters) {
+            if (parameter instanceof SpreadsheetExpressionReference) {
+                this.addReference(
+                        (SpreadsheetExpressionReference) parameter,
+                        recalculation,
+                        context
+                );
+            } else {
+                if (parameter instanceof List) {
+                    this.addAll(
+                            (List<?>) parameter,
+                            recalculation,
+                            context
+                    );
+                } else {
+                    this.add(parameter);
+                }
+            }
+        }
+    }
+
+    private void addReference(final SpreadsheetExpressionReference reference,
+                              final SpreadsheetServerRecalculation recalculation,
+                              final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerSparseRange loaded = recalculation.range(
+                context.resolveIfLabel(reference)
+                        .toCellRange(),
+                context
+        );
+
+        this.values.addAll(loaded.values);
+        this.missing += loaded.missing;
+    }
+
+    /**
+     * Loads the values of the cells within the given range from the store, counting the cells without a value as
+     * missing. The offset of the cell of each value is also kept for {@link #sorted()}.
+     */
+    static SpreadsheetServerSparseRange load(final SpreadsheetCellRangeReference range,
+                                             final SpreadsheetExpressionEvaluationContext context) {
+        final SpreadsheetServerSparseRange loaded = new SpreadsheetServerSparseRange(
+                Lists.array(),
+                0
+        );
+
+        final SpreadsheetCellReference begin = range.begin();
+        final int column = begin.column().value();
+        final int row = begin.row().value();
+        final int width = range.end().column().value() - column + 1;
+
+        final Set<SpreadsheetCell> cells = context.loadCellRange(range);
+        long[] offsets = new long[cells.size()];
+        int count = 0;
+
+        long present = 0;
+        for (final SpreadsheetCell cell : cells) {
+            final Object value = cell.formula()
+                    .value()
+                    .orElse(null);
+            if (false == isMissing(value)) {
+                final SpreadsheetCellReference reference = cell.reference();
+                offsets[count] = (long) (reference.row().value() - row) * width + (reference.column().value() - column);
+                count++;
+            }
+            loaded.add(value);
+            present++;
+        }
+
+        loaded.missing += area(range) - present;
+        loaded.range = range;
+        loaded.offsets = count < offsets.length ?
+                Arrays.copyOf(offsets, count) :
+                offsets;
+        return loaded;
+    }
+
+    /**
+     * Loads the value of the first cell of the given reference, returning null when the cell is missing or has no
+     * value.
+     */
+    static Object cellValue(final SpreadsheetExpressionReference reference,
+                            final SpreadsheetExpressionEvaluationContext context) {
+        Object value = null;
+
+        for (final SpreadsheetCell cell : context.loadCellRange(
+                context.resolveIfLabel(reference)
+                        .toCellRange()
+                        .begin()
+                        .toCellRange()
+        )) {
+            value = cell.formula()
+                    .value()
+                    .orElse(null);
+        }
+
+        return isMissing(value) ?
+                null :
+                value;
+    }
+
+    private void add(final Object value) {
+        if (isMissing(value)) {
+            this.missing++;
+        } else {
+            this.values.add(value);
+        }
+    }
+
+    /**
+     * Returns true if the value is null or a missing cell {@link SpreadsheetError}.
+     */
+    static boolean isMissing(final Object value) {
+        return null == value ||
+                (value instanceof SpreadsheetError && ((SpreadsheetError) value).isMissingCell());
+    }
+
+    /**
+     * Returns the number of cells in the given range.
+     */
+    static long area(final SpreadsheetCellRangeReference range) {
+        final SpreadsheetCellReference begin = range.begin();
+        final SpreadsheetCellReference end = range.end();
+
+        return (long) (end.column().value() - begin.column().value() + 1) *
+                (end.row().value() - begin.row().value() + 1);
+    }
+
+    /**
+     * The values of present cells and scalar parameters, never null or a missing cell {@link SpreadsheetError}.
+     */
+    List<Object> values() {
+        return this.values;
+    }
+
+    private final List<Object> values;
+
+    /**
+     * The number of missing cells, null values or missing cell {@link SpreadsheetError}.
+     */
+    long missing() {
+        return this.missing;
+    }
+
+    private long missing;
+
+    /**
+     * Returns a {@link SpreadsheetServerColumn} of the values, which is created once.
+     */
+    SpreadsheetServerColumn column() {
+        SpreadsheetServerColumn column = this.column;
+        if (null == column) {
+            column = SpreadsheetServerColumn.with(this.values);
+            this.column = column;
+        }
+        return column;
+    }
+
+    private volatile SpreadsheetServerColumn column;
+
+    /**
+     * Returns a {@link SpreadsheetServerSortedRange} of the values of a range loaded from the store, which is created
+     * once.
+     */
+    SpreadsheetServerSortedRange sorted() {
+        SpreadsheetServerSortedRange sorted = this.sorted;
+        if (null == sorted) {
+            final long[] offsets = this.offsets;
+            if (null == offsets) {
+                throw new IllegalStateException("Values were not loaded from a range");
+            }
+            sorted = SpreadsheetServerSortedRange.with(
+                    this.range,
+                    offsets,
+                    this
+            );
+            this.sorted = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * The range that was loaded, null for parameters.
+     */
+    private SpreadsheetCellRangeReference range;
+
+    /**
+     * The offset of the cell of each value from the top left of {@link #range}, null for parameters.
+     */
+    private long[] offsets;
+
+    private volatile SpreadsheetServerSortedRange sorted;
+
+    /**
+     * Marks this range as shared by {@link SpreadsheetServerRangeCache}, after which {@link #release()} does nothing.
+     */
+    void share() {
+        this.shared = true;
+    }
+
+    private volatile boolean shared;
+
+    /**
+     * Releases the arrays of the column of a range that is not shared, which must be called once the range and its
+     * column are no longer used.
+     */
+    void release() {
+        if (false == this.shared) {
+            this.releaseColumn();
+        }
+    }
+
+    /**
+     * Releases the arrays of the column even when this range is shared, which must only be called by the
+     * {@link SpreadsheetServerRangeCache} once no function uses the range.
+     */
+    void releaseColumn() {
+        final SpreadsheetServerColumn column = this.column;
+        if (null != column) {
+            this.column = null;
+            column.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.values + " missing: " + this.missing;
+    }
+}
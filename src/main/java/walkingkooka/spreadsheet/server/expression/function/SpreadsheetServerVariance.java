@@ -0,0 +1,299 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.BigDecimal;
+
+/**
+ * The count, mean and sum of squared differences from the mean of some numbers, updated one number at a time using
+ * Welford's algorithm, which unlike summing the squares never subtracts two large nearly equal sums. The state of
+ * two chunks of numbers is merged using the pairwise update of Chan et al, so large ranges may be reduced by
+ * {@link SpreadsheetServerChunkedReduction}.
+ * <br>
+ * For {@link ExpressionNumberKind#DOUBLE} the state is kept in primitive doubles, which is exactly what the
+ * {@link ExpressionNumber} arithmetic does, other kinds use {@link ExpressionNumber} arithmetic.
+ */
+final class SpreadsheetServerVariance {
+
+    /**
+     * Computes the state of all the numbers within the {@link SpreadsheetServerColumn} of the given range, text,
+     * booleans, dates and times are ignored.
+     */
+    static SpreadsheetServerVariance with(final SpreadsheetServerSparseRange range,
+                                          final int parallelThreshold,
+                                          final ExpressionNumberContext context) {
+        final SpreadsheetServerColumn column = range.column();
+        final ExpressionNumberContext numberContext = SpreadsheetServerChunkedReduction.context(context);
+
+        return SpreadsheetServerChunkedReduction.reduce(
+                column.size(),
+                parallelThreshold,
+                () -> empty(numberContext),
+                (variance, index) -> variance.accept(
+                        column,
+                        index
+                ),
+                SpreadsheetServerVariance::merge
+        );
+    }
+
+    /**
+     * Creates a state without any numbers.
+     */
+    static SpreadsheetServerVariance empty(final ExpressionNumberContext context) {
+        return new SpreadsheetServerVariance(context);
+    }
+
+    private SpreadsheetServerVariance(final ExpressionNumberContext context) {
+        this.context = context;
+
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+        this.doubleKind = ExpressionNumberKind.DOUBLE == kind;
+        this.mean = kind.zero();
+        this.m2 = kind.zero();
+    }
+
+    private void accept(final SpreadsheetServerColumn column,
+                        final int index) {
+        switch (column.tag(index)) {
+            case SpreadsheetServerColumn.LONG:
+                if (this.doubleKind) {
+                    this.accept((double) column.longValue(index));
+                } else {
+                    this.accept((ExpressionNumber) column.value(index));
+                }
+                break;
+            case SpreadsheetServerColumn.DOUBLE:
+                if (this.doubleKind) {
+                    this.accept(column.doubleValue(index));
+                } else {
+                    this.accept((ExpressionNumber) column.value(index));
+                }
+                break;
+            case SpreadsheetServerColumn.NUMBER:
+                this.accept((ExpressionNumber) column.value(index));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Adds the given number.
+     */
+    void accept(final ExpressionNumber number) {
+        if (this.doubleKind) {
+            this.accept(number.doubleValue());
+        } else {
+            final ExpressionNumberContext context = this.context;
+
+            this.count++;
+
+            final ExpressionNumber delta = number.subtract(
+                    this.mean,
+                    context
+            );
+            this.mean = this.mean.add(
+                    delta.divide(
+                            context.expressionNumberKind()
+                                    .create(this.count),
+                            context
+                    ),
+                    context
+            );
+            this.m2 = this.m2.add(
+                    delta.multiply(
+                            number.subtract(
+                                    this.mean,
+                                    context
+                            ),
+                            context
+                    ),
+                    context
+            );
+        }
+    }
+
+    /**
+     * Adds the given double, which must only be used with {@link ExpressionNumberKind#DOUBLE}.
+     */
+    void accept(final double value) {
+        this.count++;
+
+        final double delta = value - this.doubleMean;
+        this.doubleMean += delta / this.count;
+        this.doubleM2 += delta * (value - this.doubleMean);
+    }
+
+    /**
+     * Merges the state of another chunk of numbers into this state. States should be merged in chunk order so rounding
+     * always happens in the same order.
+     */
+    void merge(final SpreadsheetServerVariance other) {
+        final long count = this.count;
+        final long otherCount = other.count;
+
+        if (0 == count) {
+            this.count = otherCount;
+            this.doubleMean = other.doubleMean;
+            this.doubleM2 = other.doubleM2;
+            this.mean = other.mean;
+            this.m2 = other.m2;
+        } else if (0 != otherCount) {
+            final long total = count + otherCount;
+
+            if (this.doubleKind) {
+                final double delta = other.doubleMean - this.doubleMean;
+                this.doubleMean += delta * otherCount / total;
+                this.doubleM2 += other.doubleM2 + delta * delta * ((double) count * otherCount / total);
+            } else {
+                final ExpressionNumberContext context = this.context;
+                final ExpressionNumberKind kind = context.expressionNumberKind();
+
+                final ExpressionNumber delta = other.mean.subtract(
+                        this.mean,
+                        context
+                );
+                final ExpressionNumber totalNumber = kind.create(total);
+
+                this.mean = this.mean.add(
+                        delta.multiply(
+                                kind.create(otherCount),
+                                context
+                        ).divide(
+                                totalNumber,
+                                context
+                        ),
+                        context
+                );
+                this.m2 = this.m2.add(
+                        other.m2,
+                        context
+                ).add(
+                        delta.multiply(
+                                delta,
+                                context
+                        ).multiply(
+                                kind.create(
+                                        BigDecimal.valueOf(count)
+                                                .multiply(BigDecimal.valueOf(otherCount))
+                                ),
+                                context
+                        ).divide(
+                                totalNumber,
+                                context
+                        ),
+                        context
+                );
+            }
+
+            this.count = total;
+        }
+    }
+
+    /**
+     * The number of numbers.
+     */
+    long count() {
+        return this.count;
+    }
+
+    /**
+     * The result of VAR.S when sample is true otherwise VAR.P. The sample variance requires at least two numbers and
+     * the population variance at least one.
+     */
+    ExpressionNumber variance(final boolean sample) {
+        final long count = this.count;
+        final long divisor = sample ?
+                count - 1 :
+                count;
+        if (divisor < 1) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        final ExpressionNumberContext context = this.context;
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+
+        return this.doubleKind ?
+                kind.create(this.doubleM2 / divisor) :
+                this.m2.divide(
+                        kind.create(divisor),
+                        context
+                );
+    }
+
+    /**
+     * The result of STDEV.S when sample is true otherwise STDEV.P, the square root of the {@link #variance(boolean)}.
+     */
+    ExpressionNumber standardDeviation(final boolean sample) {
+        final ExpressionNumber variance = this.variance(sample);
+
+        final ExpressionNumberContext context = this.context;
+        final ExpressionNumberKind kind = context.expressionNumberKind();
+
+        BigDecimal root = null;
+        if (ExpressionNumberKind.BIG_DECIMAL == kind) {
+            root = SpreadsheetServerBigDecimalMath.sqrt(
+                    variance.bigDecimal(),
+                    context.mathContext()
+            );
+        }
+
+        return null != root ?
+                kind.create(root) :
+                kind.create(
+                        Math.sqrt(
+                                variance.doubleValue()
+                        )
+                );
+    }
+
+    private final ExpressionNumberContext context;
+
+    /**
+     * When true the state is kept in {@link #doubleMean} and {@link #doubleM2}.
+     */
+    private final boolean doubleKind;
+
+    private long count;
+
+    private double doubleMean;
+
+    /**
+     * The sum of the squared differences from the mean.
+     */
+    private double doubleM2;
+
+    private ExpressionNumber mean;
+
+    /**
+     * The sum of the squared differences from the mean.
+     */
+    private ExpressionNumber m2;
+
+    @Override
+    public String toString() {
+        return "count: " + this.count +
+                " mean: " + (this.doubleKind ? this.doubleMean : this.mean) +
+                " m2: " + (this.doubleKind ? this.doubleM2 : this.m2);
+    }
+}
@@ -58,6 +58,11 @@ public abstract class ExpressionFunctionTestCase<F extends ExpressionFunction<T,
         return JavaVisibility.PACKAGE_PRIVATE;
     }
 
+    @Override
+    public final String typeNamePrefix() {
+        return "SpreadsheetServerExpressionFunction";
+    }
+
     @Override
     public final String typeNameSuffix() {
         return "";
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetLabelName;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.spreadsheet.store.SpreadsheetCellStore;
+import walkingkooka.spreadsheet.store.SpreadsheetCellStores;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerAggregateFusionTest implements ClassTesting2<SpreadsheetServerAggregateFusion> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    @Test
+    public void testSameContextSameReferenceScannedOnce() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        final SpreadsheetServerAggregateScan scan = fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        assertSame(
+                scan,
+                fusion.get(
+                        parameters("A1:A10"),
+                        SpreadsheetServerRecalculation.NONE,
+                        context
+                )
+        );
+        this.checkEquals(1, context.loads, "loads");
+        this.checkEquals(KIND.create(3), scan.sum(), "sum");
+        this.checkEquals(8L, scan.missing(), "missing");
+    }
+
+    @Test
+    public void testSameContextDifferentReferences() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        assertNotSame(
+                fusion.get(
+                        parameters("A1:A10"),
+                        SpreadsheetServerRecalculation.NONE,
+                        context
+                ),
+                fusion.get(
+                        parameters("A1:A20"),
+                        SpreadsheetServerRecalculation.NONE,
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testDifferentContextShared() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+        final SpreadsheetServerTestContext context2 = context();
+
+        fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context2
+        );
+
+        this.checkEquals(1, context.loads, "loads");
+        this.checkEquals(0, context2.loads, "loads2");
+    }
+
+    @Test
+    public void testClearScannedAgain() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        fusion.clear();
+        fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+
+        this.checkEquals(2, context.loads, "loads");
+        this.checkEquals(
+                "[[A1:A10]]",
+                fusion.toString()
+        );
+    }
+
+    @Test
+    public void testCellChangedScannedAgain() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        fusion.get(
+                parameters("A1:A10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        fusion.get(
+                parameters("B1:B10"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        fusion.cellChanged(SpreadsheetSelection.parseCell("A5"));
+
+        this.checkEquals(
+                "[[B1:B10]]",
+                fusion.toString()
+        );
+    }
+
+    @Test
+    public void testCellChangedLabelRemoved() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(KIND, CELLS) {
+            @Override
+            public SpreadsheetSelection resolveIfLabel(final SpreadsheetSelection selection) {
+                return selection instanceof SpreadsheetLabelName ?
+                        SpreadsheetSelection.parseCellRange("A1:A10") :
+                        selection;
+            }
+        };
+
+        fusion.get(
+                Lists.of(
+                        SpreadsheetSelection.labelName("Label123")
+                ),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        fusion.cellChanged(SpreadsheetSelection.parseCell("Z99"));
+
+        this.checkEquals(
+                "[]",
+                fusion.toString()
+        );
+    }
+
+    @Test
+    public void testWatchCellSavedDuringRecalculationSumAgain() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetCellStore store = SpreadsheetCellStores.treeMap();
+        for (final SpreadsheetCell cell : CELLS) {
+            store.save(cell);
+        }
+        recalculation.watch(store);
+
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(KIND, CELLS) {
+            @Override
+            public Set<SpreadsheetCell> loadCellRange(final SpreadsheetCellRangeReference range) {
+                this.loads++;
+                return store.loadCellRange(range);
+            }
+        };
+        final SpreadsheetServerExpressionFunctionAggregate sum = SpreadsheetServerExpressionFunctionSum.INSTANCE.setRecalculation(recalculation);
+
+        this.checkEquals(
+                KIND.create(3),
+                sum.apply(
+                        parameters("A1:A10"),
+                        context
+                ),
+                "sum"
+        );
+
+        store.save(
+                cell("A3", KIND.create(4))
+        );
+
+        this.checkEquals(
+                KIND.create(7),
+                sum.apply(
+                        parameters("A1:A10"),
+                        context
+                ),
+                "sum after save"
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testWithoutReferencesNotKept() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        final List<Object> parameters = Lists.of(
+                KIND.create(1),
+                KIND.create(2)
+        );
+
+        assertNotSame(
+                fusion.get(
+                        parameters,
+                        SpreadsheetServerRecalculation.NONE,
+                        context
+                ),
+                fusion.get(
+                        parameters,
+                        SpreadsheetServerRecalculation.NONE,
+                        context
+                )
+        );
+        this.checkEquals(
+                "[]",
+                fusion.toString()
+        );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRemoved() {
+        final SpreadsheetServerAggregateFusion fusion = new SpreadsheetServerAggregateFusion();
+        final SpreadsheetServerTestContext context = context();
+
+        for (int i = 1; i <= SpreadsheetServerAggregateFusion.MAX_SCANS + 1; i++) {
+            fusion.get(
+                    parameters("A1:A" + i),
+                    SpreadsheetServerRecalculation.NONE,
+                    context
+            );
+        }
+        this.checkEquals(SpreadsheetServerAggregateFusion.MAX_SCANS + 1, context.loads, "loads");
+
+        fusion.get(
+                parameters("A1:A" + (SpreadsheetServerAggregateFusion.MAX_SCANS + 1)),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        this.checkEquals(SpreadsheetServerAggregateFusion.MAX_SCANS + 1, context.loads, "loads");
+
+        fusion.get(
+                parameters("A1:A1"),
+                SpreadsheetServerRecalculation.NONE,
+                context
+        );
+        this.checkEquals(SpreadsheetServerAggregateFusion.MAX_SCANS + 2, context.loads, "loads");
+    }
+
+    @Test
+    public void testFunctionsShareScan() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = context();
+
+        this.checkEquals(
+                KIND.create(3),
+                SpreadsheetServerExpressionFunctionSum.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                parameters("B1:B100"),
+                                context
+                        ),
+                "sum"
+        );
+        this.checkEquals(
+                KIND.create(2),
+                SpreadsheetServerExpressionFunctionCount.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                parameters("B1:B100"),
+                                context
+                        ),
+                "count"
+        );
+        this.checkEquals(
+                KIND.create(98),
+                SpreadsheetServerExpressionFunctionCountBlank.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                parameters("B1:B100"),
+                                context
+                        ),
+                "countBlank"
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testFunctionsWithoutRecalculationScanEach() {
+        final SpreadsheetServerTestContext context = context();
+
+        SpreadsheetServerExpressionFunctionSum.INSTANCE.apply(
+                parameters("B1:B100"),
+                context
+        );
+        SpreadsheetServerExpressionFunctionCount.INSTANCE.apply(
+                parameters("B1:B100"),
+                context
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    private static List<Object> parameters(final String range) {
+        return Lists.of(
+                SpreadsheetSelection.parseCellRange(range)
+        );
+    }
+
+    static SpreadsheetServerTestContext context() {
+        return new SpreadsheetServerTestContext(
+                KIND,
+                CELLS
+        );
+    }
+
+    private final static List<SpreadsheetCell> CELLS = Lists.of(
+            cell("A1", KIND.create(1)),
+            cell("A2", KIND.create(2)),
+            cell("B1", KIND.create(1)),
+            cell("B2", KIND.create(2))
+    );
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerAggregateFusion> type() {
+        return SpreadsheetServerAggregateFusion.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CharSequences;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerAggregateScanTest implements ClassTesting2<SpreadsheetServerAggregateScan> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    @Test
+    public void testEmpty() {
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                Lists.empty(),
+                0
+        );
+
+        this.checkEquals(0L, scan.count(), "count");
+        this.checkEquals(0L, scan.countA(), "countA");
+        this.checkEquals(0L, scan.missing(), "missing");
+        this.checkEquals(KIND.zero(), scan.sum(), "sum");
+        this.checkEquals(KIND.zero(), scan.max(), "max");
+        this.checkEquals(KIND.zero(), scan.min(), "min");
+    }
+
+    @Test
+    public void testNumbers() {
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                Lists.of(
+                        KIND.create(1),
+                        KIND.create(20),
+                        KIND.create(0.5)
+                ),
+                5
+        );
+
+        this.checkEquals(3L, scan.count(), "count");
+        this.checkEquals(3L, scan.countA(), "countA");
+        this.checkEquals(5L, scan.missing(), "missing");
+        this.checkEquals(KIND.create(21.5), scan.sum(), "sum");
+        this.checkEquals(KIND.create(20), scan.max(), "max");
+        this.checkEquals(KIND.create(0.5), scan.min(), "min");
+    }
+
+    @Test
+    public void testTextCountedAndConverted() {
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                Lists.of(
+                        KIND.create(1),
+                        "20"
+                ),
+                0
+        );
+
+        this.checkEquals(1L, scan.count(), "count");
+        this.checkEquals(2L, scan.countA(), "countA");
+        this.checkEquals(KIND.create(21), scan.sum(), "sum");
+        this.checkEquals(KIND.create(20), scan.max(), "max");
+        this.checkEquals(KIND.create(1), scan.min(), "min");
+    }
+
+    @Test
+    public void testMaxMinNegativeWholeNumbersAndFractions() {
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                Lists.of(
+                        KIND.create(-3),
+                        KIND.create(-0.5),
+                        KIND.create(-7),
+                        KIND.create(-2.5)
+                ),
+                0
+        );
+
+        this.checkEquals(KIND.create(-0.5), scan.max(), "max");
+        this.checkEquals(KIND.create(-7), scan.min(), "min");
+    }
+
+    @Test
+    public void testConvertFailureOnlyFailsSum() {
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                Lists.of(
+                        KIND.create(1),
+                        "abc",
+                        LocalDate.of(2000, 1, 1)
+                ),
+                2
+        );
+
+        this.checkEquals(2L, scan.count(), "count");
+        this.checkEquals(3L, scan.countA(), "countA");
+        this.checkEquals(2L, scan.missing(), "missing");
+
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                scan::sum
+        );
+        this.checkEquals(
+                "Cannot convert \"abc\"",
+                thrown.getMessage()
+        );
+
+        assertThrows(
+                IllegalArgumentException.class,
+                scan::max
+        );
+    }
+
+    @Test
+    public void testChunked() {
+        final int count = SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD + 1;
+
+        final List<Object> values = Lists.array();
+        for (int i = 0; i < count; i++) {
+            values.add(KIND.create(i));
+        }
+
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                values,
+                0
+        );
+
+        this.checkEquals((long) count, scan.count(), "count");
+        this.checkEquals(KIND.create((long) count * (count - 1) / 2), scan.sum(), "sum");
+        this.checkEquals(KIND.create(count - 1), scan.max(), "max");
+        this.checkEquals(KIND.create(0), scan.min(), "min");
+    }
+
+    @Test
+    public void testChunkedParallelThreshold() {
+        final int count = SpreadsheetServerChunkedReduction.CHUNK_SIZE * 2 + 1;
+
+        final List<Object> values = Lists.array();
+        for (int i = 0; i < count; i++) {
+            values.add(KIND.create(i));
+        }
+
+        final SpreadsheetServerAggregateScan scan = this.scan(
+                values,
+                0,
+                1
+        );
+
+        this.checkEquals((long) count, scan.count(), "count");
+        this.checkEquals(KIND.create((long) count * (count - 1) / 2), scan.sum(), "sum");
+        this.checkEquals(KIND.create(count - 1), scan.max(), "max");
+        this.checkEquals(KIND.create(0), scan.min(), "min");
+    }
+
+    private SpreadsheetServerAggregateScan scan(final List<Object> values,
+                                                final long missing) {
+        return this.scan(
+                values,
+                missing,
+                SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD
+        );
+    }
+
+    private SpreadsheetServerAggregateScan scan(final List<Object> values,
+                                                final long missing,
+                                                final int parallelThreshold) {
+        return SpreadsheetServerAggregateScan.with(
+                SpreadsheetServerSparseRange.with(
+                        values,
+                        missing
+                ),
+                parallelThreshold,
+                new FakeSpreadsheetExpressionEvaluationContext() {
+                    @Override
+                    public ExpressionNumberKind expressionNumberKind() {
+                        return KIND;
+                    }
+
+                    @Override
+                    public MathContext mathContext() {
+                        return MathContext.DECIMAL64;
+                    }
+
+                    @Override
+                    public <T> T convertOrFail(final Object value,
+                                               final Class<T> target) {
+                        if (value instanceof ExpressionNumber) {
+                            return target.cast(value);
+                        }
+                        if (value instanceof LocalDate) {
+                            return target.cast(KIND.create(((LocalDate) value).toEpochDay()));
+                        }
+                        try {
+                            return target.cast(KIND.create(Long.parseLong((String) value)));
+                        } catch (final NumberFormatException cause) {
+                            throw new IllegalArgumentException("Cannot convert " + CharSequences.quoteAndEscape((String) value));
+                        }
+                    }
+                }
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerAggregateScan> type() {
+        return SpreadsheetServerAggregateScan.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
+import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
+
+import java.math.MathContext;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerAggregateStateTest implements ClassTesting2<SpreadsheetServerAggregateState> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static SpreadsheetExpressionEvaluationContext CONTEXT = new FakeSpreadsheetExpressionEvaluationContext() {
+        @Override
+        public ExpressionNumberKind expressionNumberKind() {
+            return KIND;
+        }
+
+        @Override
+        public MathContext mathContext() {
+            return MathContext.DECIMAL64;
+        }
+
+        @Override
+        public <T> T convertOrFail(final Object value,
+                                   final Class<T> target) {
+            return target.cast(value);
+        }
+    };
+
+    @Test
+    public void testEmpty() {
+        final SpreadsheetServerAggregateState empty = SpreadsheetServerAggregateState.empty(KIND);
+
+        this.checkEquals(KIND.zero(), empty.sum(), "sum");
+        this.checkEquals(KIND.zero(), empty.count(), "count");
+        this.checkEquals(KIND.zero(), empty.countA(), "countA");
+        this.checkEquals(KIND.zero(), empty.countBlank(), "countBlank");
+        this.checkEquals(KIND.zero(), empty.product(), "product");
+        this.checkEquals(KIND.zero(), empty.min(), "min");
+        this.checkEquals(KIND.zero(), empty.max(), "max");
+    }
+
+    @Test
+    public void testMergeEmpty() {
+        final SpreadsheetServerAggregateState state = this.state(
+                Lists.of(
+                        KIND.create(1),
+                        KIND.create(2)
+                ),
+                3
+        );
+
+        this.checkEquals(
+                state,
+                state.merge(
+                        SpreadsheetServerAggregateState.empty(KIND),
+                        CONTEXT
+                )
+        );
+    }
+
+    @Test
+    public void testMergeDifferentKindFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerAggregateState.empty(KIND)
+                        .merge(
+                                SpreadsheetServerAggregateState.empty(ExpressionNumberKind.DOUBLE),
+                                CONTEXT
+                        )
+        );
+    }
+
+    @Test
+    public void testValueNotNumberKeepsCounts() {
+        final SpreadsheetServerAggregateState state = this.state(
+                Lists.of(
+                        KIND.create(1),
+                        "text",
+                        KIND.create(2)
+                ),
+                1
+        );
+
+        this.checkEquals(KIND.create(2), state.count(), "count");
+        this.checkEquals(KIND.create(3), state.countA(), "countA");
+        this.checkEquals(KIND.create(1), state.countBlank(), "countBlank");
+
+        assertThrows(IllegalArgumentException.class, state::sum);
+        assertThrows(IllegalArgumentException.class, state::product);
+        assertThrows(IllegalArgumentException.class, state::min);
+        assertThrows(IllegalArgumentException.class, state::max);
+        assertThrows(IllegalArgumentException.class, () -> state.average(CONTEXT));
+    }
+
+    @Test
+    public void testMergeKeepsFailure() {
+        final SpreadsheetServerAggregateState state = SpreadsheetServerAggregateState.empty(KIND)
+                .merge(
+                        this.state(
+                                Lists.of(
+                                        KIND.create(1),
+                                        "text"
+                                ),
+                                0
+                        ),
+                        CONTEXT
+                ).merge(
+                        this.state(
+                                Lists.of(
+                                        KIND.create(2)
+                                ),
+                                0
+                        ),
+                        CONTEXT
+                );
+
+        this.checkEquals(KIND.create(3), state.countA(), "countA");
+        assertThrows(IllegalArgumentException.class, state::sum);
+    }
+
+    @Test
+    public void testComputeIf() {
+        final SpreadsheetServerAggregateState state = SpreadsheetServerAggregateState.computeIf(
+                Lists.of(
+                        KIND.create(1),
+                        KIND.create(5),
+                        "text",
+                        KIND.create(10)
+                ),
+                ">4",
+                CONTEXT
+        );
+
+        this.checkEquals(KIND.create(15), state.sum(), "sum");
+        this.checkEquals(KIND.create(2), state.count(), "count");
+        this.checkEquals(KIND.create(5), state.min(), "min");
+        this.checkEquals(KIND.create(10), state.max(), "max");
+    }
+
+    @Test
+    public void testMarshallRoundtripWithFailure() {
+        this.marshallRoundtripAndCheck(
+                this.state(
+                        Lists.of(
+                                KIND.create(1),
+                                "text"
+                        ),
+                        0
+                )
+        );
+    }
+
+    @Test
+    public void testMarshallRoundtrip() {
+        this.marshallRoundtripAndCheck(
+                this.state(
+                        Lists.of(
+                                KIND.create(1.5),
+                                KIND.create(-2),
+                                KIND.create(123456789)
+                        ),
+                        4
+                )
+        );
+    }
+
+    @Test
+    public void testMarshallRoundtripEmpty() {
+        this.marshallRoundtripAndCheck(
+                SpreadsheetServerAggregateState.empty(KIND)
+        );
+    }
+
+    private void marshallRoundtripAndCheck(final SpreadsheetServerAggregateState state) {
+        this.checkEquals(
+                state,
+                transport(state)
+        );
+    }
+
+    // shards...........................................................................................................
+
+    @Test
+    public void testOneShard() {
+        this.shardAndCheck(
+                values(100),
+                10,
+                1
+        );
+    }
+
+    @Test
+    public void testTwoShards() {
+        this.shardAndCheck(
+                values(100),
+                10,
+                2
+        );
+    }
+
+    @Test
+    public void testManyShards() {
+        this.shardAndCheck(
+                values(1000),
+                12345,
+                7
+        );
+    }
+
+    @Test
+    public void testMoreShardsThanValues() {
+        this.shardAndCheck(
+                values(3),
+                1,
+                5
+        );
+    }
+
+    private static List<Object> values(final int count) {
+        final List<Object> values = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            values.add(
+                    0 == i % 3 ?
+                            KIND.create(i + 0.5) :
+                            KIND.create(i % 2 == 0 ? -i : i)
+            );
+        }
+
+        return values;
+    }
+
+    /**
+     * Splits the values and missing cells into shards, computes a state for each shard, marshalls and unmarshalls
+     * each state as if it was sent to a coordinator, merges the states in shard order and then checks every result
+     * matches evaluating all the values on one node.
+     */
+    private void shardAndCheck(final List<Object> values,
+                               final long missing,
+                               final int shards) {
+        final SpreadsheetServerSparseRange all = SpreadsheetServerSparseRange.with(
+                values,
+                missing
+        );
+
+        SpreadsheetServerAggregateState merged = SpreadsheetServerAggregateState.empty(KIND);
+
+        final int count = values.size();
+        for (int i = 0; i < shards; i++) {
+            final long shardMissing = i < shards - 1 ?
+                    missing / shards :
+                    missing - missing / shards * (shards - 1);
+
+            merged = merged.merge(
+                    transport(
+                            SpreadsheetServerAggregateState.with(
+                                    SpreadsheetServerSparseRange.with(
+                                            Lists.of(
+                                                    values.subList(
+                                                            i * count / shards,
+                                                            (i + 1) * count / shards
+                                                    ).toArray()
+                                            ),
+                                            shardMissing
+                                    ),
+                                    CONTEXT
+                            )
+                    ),
+                    CONTEXT
+            );
+        }
+
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionSum.INSTANCE.applySparseRange(all, CONTEXT),
+                merged.sum(),
+                "sum"
+        );
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionCount.INSTANCE.applySparseRange(all, CONTEXT),
+                merged.count(),
+                "count"
+        );
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionCountA.INSTANCE.applySparseRange(all, CONTEXT),
+                merged.countA(),
+                "countA"
+        );
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionCountBlank.INSTANCE.applySparseRange(all, CONTEXT),
+                merged.countBlank(),
+                "countBlank"
+        );
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionAverage.INSTANCE.applySparseRange(all, CONTEXT),
+                merged.average(CONTEXT),
+                "average"
+        );
+
+        ExpressionNumber min = null;
+        ExpressionNumber max = null;
+        for (final Object value : values) {
+            final ExpressionNumber number = (ExpressionNumber) value;
+            if (null == min || number.compareTo(min) < 0) {
+                min = number;
+            }
+            if (null == max || number.compareTo(max) > 0) {
+                max = number;
+            }
+        }
+        this.checkEquals(min, merged.min(), "min");
+        this.checkEquals(max, merged.max(), "max");
+    }
+
+    private static SpreadsheetServerAggregateState transport(final SpreadsheetServerAggregateState state) {
+        final JsonNode json = state.marshall(JsonNodeMarshallContexts.fake());
+
+        return SpreadsheetServerAggregateState.unmarshall(
+                JsonNode.parse(json.toString()),
+                JsonNodeUnmarshallContexts.fake()
+        );
+    }
+
+    private SpreadsheetServerAggregateState state(final List<Object> values,
+                                                  final long missing) {
+        return SpreadsheetServerAggregateState.with(
+                SpreadsheetServerSparseRange.with(
+                        values,
+                        missing
+                ),
+                CONTEXT
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerAggregateState> type() {
+        return SpreadsheetServerAggregateState.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
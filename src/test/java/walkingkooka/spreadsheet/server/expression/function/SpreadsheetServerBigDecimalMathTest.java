@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+public final class SpreadsheetServerBigDecimalMathTest implements ClassTesting2<SpreadsheetServerBigDecimalMath> {
+
+    private final static MathContext DECIMAL32 = MathContext.DECIMAL32;
+
+    private final static MathContext PRECISION40 = new MathContext(40);
+
+    // exp..............................................................................................................
+
+    @Test
+    public void testExpZero() {
+        this.checkEquals(
+                BigDecimal.ONE,
+                SpreadsheetServerBigDecimalMath.exp(BigDecimal.ZERO, DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testExpOne() {
+        this.checkEquals(
+                new BigDecimal("2.718281828459045235360287471352662497757"),
+                SpreadsheetServerBigDecimalMath.exp(BigDecimal.ONE, PRECISION40)
+        );
+    }
+
+    @Test
+    public void testExpNegative() {
+        this.checkEquals(
+                new BigDecimal("0.3678794"),
+                SpreadsheetServerBigDecimalMath.exp(BigDecimal.ONE.negate(), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testExpLarge() {
+        this.checkEquals(
+                new BigDecimal("1.014232E+304"),
+                SpreadsheetServerBigDecimalMath.exp(BigDecimal.valueOf(700), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testExpTooLarge() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.exp(SpreadsheetServerBigDecimalMath.EXP_MAX.add(BigDecimal.ONE), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testExpUnlimited() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.exp(BigDecimal.ONE, MathContext.UNLIMITED)
+        );
+    }
+
+    // ln...............................................................................................................
+
+    @Test
+    public void testLnOne() {
+        this.checkEquals(
+                BigDecimal.ZERO,
+                SpreadsheetServerBigDecimalMath.ln(BigDecimal.ONE, DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLnTwo() {
+        this.checkEquals(
+                new BigDecimal("0.6931471805599453094172321214581765680755"),
+                SpreadsheetServerBigDecimalMath.ln(BigDecimal.valueOf(2), PRECISION40)
+        );
+    }
+
+    @Test
+    public void testLnNearOne() {
+        this.checkEquals(
+                new BigDecimal("-1E-7"),
+                SpreadsheetServerBigDecimalMath.ln(new BigDecimal("0.9999999"), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLnLarge() {
+        this.checkEquals(
+                new BigDecimal("9.421061"),
+                SpreadsheetServerBigDecimalMath.ln(new BigDecimal("12345.678"), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLnZero() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.ln(BigDecimal.ZERO, DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLnNegative() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.ln(BigDecimal.ONE.negate(), DECIMAL32)
+        );
+    }
+
+    // log..............................................................................................................
+
+    @Test
+    public void testLogCorrectlyRounded() {
+        // log2(3) = 1.5849625007...
+        this.checkEquals(
+                new BigDecimal("1.584963"),
+                SpreadsheetServerBigDecimalMath.log(BigDecimal.valueOf(3), BigDecimal.valueOf(2), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLogBaseOne() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.log(BigDecimal.valueOf(3), BigDecimal.ONE, DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLog10PowerOfTen() {
+        this.checkEquals(
+                BigDecimal.valueOf(2),
+                SpreadsheetServerBigDecimalMath.log10(new BigDecimal("100.00"), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLog10NegativePowerOfTen() {
+        this.checkEquals(
+                BigDecimal.valueOf(-3),
+                SpreadsheetServerBigDecimalMath.log10(new BigDecimal("0.001"), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testLog10() {
+        this.checkEquals(
+                new BigDecimal("0.30103"),
+                SpreadsheetServerBigDecimalMath.log10(BigDecimal.valueOf(2), DECIMAL32)
+        );
+    }
+
+    // sqrt.............................................................................................................
+
+    @Test
+    public void testSqrtExact() {
+        this.checkEquals(
+                BigDecimal.valueOf(12),
+                SpreadsheetServerBigDecimalMath.sqrt(BigDecimal.valueOf(144), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testSqrtTwo() {
+        this.checkEquals(
+                new BigDecimal("1.41421356237309504880168872420969807857"),
+                SpreadsheetServerBigDecimalMath.sqrt(BigDecimal.valueOf(2), PRECISION40)
+        );
+    }
+
+    @Test
+    public void testSqrtBeyondDouble() {
+        this.checkEquals(
+                new BigDecimal("1E-200"),
+                SpreadsheetServerBigDecimalMath.sqrt(new BigDecimal("1E-400"), DECIMAL32)
+        );
+    }
+
+    @Test
+    public void testSqrtNegative() {
+        this.checkEquals(
+                null,
+                SpreadsheetServerBigDecimalMath.sqrt(BigDecimal.ONE.negate(), DECIMAL32)
+        );
+    }
+
+    // rounding.........................................................................................................
+
+    @Test
+    public void testExpMatchesHigherPrecision() {
+        this.matchesHigherPrecisionAndCheck(SpreadsheetServerBigDecimalMath::exp);
+    }
+
+    @Test
+    public void testLnMatchesHigherPrecision() {
+        this.matchesHigherPrecisionAndCheck(SpreadsheetServerBigDecimalMath::ln);
+    }
+
+    @Test
+    public void testSqrtMatchesHigherPrecision() {
+        this.matchesHigherPrecisionAndCheck(SpreadsheetServerBigDecimalMath::sqrt);
+    }
+
+    /**
+     * Verifies that results computed to DECIMAL32 match the same function computed to 40 digits and then rounded.
+     */
+    private void matchesHigherPrecisionAndCheck(final BiFunction<BigDecimal, MathContext, BigDecimal> function) {
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 1000; i++) {
+            final BigDecimal x = new BigDecimal(
+                    random.nextDouble() * 100,
+                    new MathContext(8)
+            ).add(new BigDecimal("0.0001"));
+
+            final BigDecimal expected = function.apply(x, PRECISION40)
+                    .round(DECIMAL32);
+            this.checkEquals(
+                    0,
+                    expected.compareTo(
+                            function.apply(x, DECIMAL32)
+                    ),
+                    () -> x + " expected " + expected
+            );
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerBigDecimalMath> type() {
+        return SpreadsheetServerBigDecimalMath.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
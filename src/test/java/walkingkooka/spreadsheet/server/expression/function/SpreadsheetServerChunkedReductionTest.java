@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+import java.util.List;
+
+public final class SpreadsheetServerChunkedReductionTest implements ClassTesting2<SpreadsheetServerChunkedReduction> {
+
+    private final static int COUNT = SpreadsheetServerChunkedReduction.CHUNK_SIZE * 5 + 123;
+
+    @Test
+    public void testReduceEmpty() {
+        this.reduceAndCheck(
+                Lists.empty(),
+                1
+        );
+    }
+
+    @Test
+    public void testReduceBelowThreshold() {
+        this.reduceAndCheck(
+                values(),
+                COUNT + 1
+        );
+    }
+
+    @Test
+    public void testReduceChunksMergedInOrder() {
+        this.reduceAndCheck(
+                values(),
+                1
+        );
+    }
+
+    private void reduceAndCheck(final List<Object> values,
+                                final int threshold) {
+        final StringBuilder expected = new StringBuilder();
+        for (final Object value : values) {
+            expected.append(value);
+        }
+
+        this.checkEquals(
+                expected.toString(),
+                SpreadsheetServerChunkedReduction.reduce(
+                        values,
+                        threshold,
+                        StringBuilder::new,
+                        StringBuilder::append,
+                        StringBuilder::append
+                ).toString()
+        );
+    }
+
+    @Test
+    public void testContext() {
+        final ExpressionNumberContext context = SpreadsheetServerChunkedReduction.context(
+                ExpressionNumberContexts.basic(
+                        ExpressionNumberKind.DOUBLE,
+                        MathContext.DECIMAL32
+                )
+        );
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE,
+                context.expressionNumberKind(),
+                "expressionNumberKind"
+        );
+        this.checkEquals(
+                MathContext.DECIMAL32,
+                context.mathContext(),
+                "mathContext"
+        );
+    }
+
+    private static List<Object> values() {
+        final List<Object> values = Lists.array();
+        for (int i = 0; i < COUNT; i++) {
+            values.add(String.valueOf(i % 10));
+        }
+        return values;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerChunkedReduction> type() {
+        return SpreadsheetServerChunkedReduction.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
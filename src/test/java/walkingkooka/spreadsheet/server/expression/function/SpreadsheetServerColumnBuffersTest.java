@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class SpreadsheetServerColumnBuffersTest implements ClassTesting2<SpreadsheetServerColumnBuffers> {
+
+    @Test
+    public void testIndexTooShort() {
+        this.indexAndCheck(SpreadsheetServerColumnBuffers.MIN_LENGTH - 1, -1);
+    }
+
+    @Test
+    public void testIndexMinLength() {
+        this.indexAndCheck(SpreadsheetServerColumnBuffers.MIN_LENGTH, 0);
+    }
+
+    @Test
+    public void testIndexRoundedUp() {
+        this.indexAndCheck(SpreadsheetServerColumnBuffers.MIN_LENGTH + 1, 1);
+    }
+
+    @Test
+    public void testIndexLongest() {
+        this.indexAndCheck(1 << 20, 8);
+    }
+
+    @Test
+    public void testIndexTooLong() {
+        this.indexAndCheck((1 << 20) + 1, -1);
+    }
+
+    private void indexAndCheck(final int length,
+                               final int expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerColumnBuffers.index(length),
+                () -> "index " + length
+        );
+    }
+
+    @Test
+    public void testShortArrayExactLength() {
+        this.checkEquals(
+                10,
+                SpreadsheetServerColumnBuffers.longs(10).length
+        );
+    }
+
+    @Test
+    public void testLengthRoundedUp() {
+        this.checkEquals(
+                8192,
+                SpreadsheetServerColumnBuffers.doubles(5000).length
+        );
+    }
+
+    @Test
+    public void testReleasedReused() {
+        final long[] array = SpreadsheetServerColumnBuffers.longs(100_000);
+        SpreadsheetServerColumnBuffers.release(array);
+
+        assertSame(
+                array,
+                SpreadsheetServerColumnBuffers.longs(70_000)
+        );
+    }
+
+    @Test
+    public void testReleasedShortNotReused() {
+        final byte[] array = SpreadsheetServerColumnBuffers.bytes(100);
+        SpreadsheetServerColumnBuffers.release(array);
+
+        assertNotSame(
+                array,
+                SpreadsheetServerColumnBuffers.bytes(100)
+        );
+    }
+
+    @Test
+    public void testReleasedOtherLengthNotKept() {
+        final double[] array = new double[10_000];
+        SpreadsheetServerColumnBuffers.release(array);
+
+        assertNotSame(
+                array,
+                SpreadsheetServerColumnBuffers.doubles(10_000)
+        );
+    }
+
+    @Test
+    public void testPooledBytesLimited() {
+        final int count = SpreadsheetServerColumnBuffers.MAX_PER_LENGTH;
+        final double[][] doubles = new double[3 * count][];
+        final long[][] longs = new long[3 * count][];
+
+        // without the byte limit the pools of these lengths would hold 112MB
+        for (int i = 0; i < doubles.length; i++) {
+            final int length = 1 << (18 + i / count);
+            doubles[i] = SpreadsheetServerColumnBuffers.doubles(length);
+            longs[i] = SpreadsheetServerColumnBuffers.longs(length);
+        }
+        for (int i = 0; i < doubles.length; i++) {
+            SpreadsheetServerColumnBuffers.release(doubles[i]);
+            SpreadsheetServerColumnBuffers.release(longs[i]);
+        }
+
+        final long pooledBytes = SpreadsheetServerColumnBuffers.pooledBytes();
+        this.checkEquals(
+                true,
+                pooledBytes <= SpreadsheetServerColumnBuffers.MAX_POOLED_BYTES,
+                () -> "pooledBytes " + pooledBytes
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerColumnBuffers> type() {
+        return SpreadsheetServerColumnBuffers.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
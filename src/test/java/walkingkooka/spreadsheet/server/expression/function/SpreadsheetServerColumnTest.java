@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerColumnTest implements ClassTesting2<SpreadsheetServerColumn> {
+
+    @Test
+    public void testEmpty() {
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(Lists.empty());
+
+        this.checkEquals(0, column.size(), "size");
+        this.checkEquals(0, column.count(), "count");
+    }
+
+    @Test
+    public void testWholeDouble() {
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(
+                Lists.of(
+                        ExpressionNumberKind.DOUBLE.create(-12)
+                )
+        );
+
+        this.checkEquals(SpreadsheetServerColumn.LONG, column.tag(0), "tag");
+        this.checkEquals(-12L, column.longValue(0), "longValue");
+    }
+
+    @Test
+    public void testWholeBigDecimal() {
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(
+                Lists.of(
+                        ExpressionNumberKind.BIG_DECIMAL.create(1.0)
+                )
+        );
+
+        this.checkEquals(SpreadsheetServerColumn.LONG, column.tag(0), "tag");
+        this.checkEquals(1L, column.longValue(0), "longValue");
+    }
+
+    @Test
+    public void testDoubleFraction() {
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(
+                Lists.of(
+                        ExpressionNumberKind.DOUBLE.create(1.25)
+                )
+        );
+
+        this.checkEquals(SpreadsheetServerColumn.DOUBLE, column.tag(0), "tag");
+        this.checkEquals(1.25, column.doubleValue(0), "doubleValue");
+    }
+
+    @Test
+    public void testBigDecimalFraction() {
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(
+                Lists.of(
+                        ExpressionNumberKind.BIG_DECIMAL.create(1.25)
+                )
+        );
+
+        this.checkEquals(SpreadsheetServerColumn.NUMBER, column.tag(0), "tag");
+    }
+
+    @Test
+    public void testMixed() {
+        final List<Object> values = Lists.of(
+                ExpressionNumberKind.DOUBLE.create(1),
+                "text",
+                ExpressionNumberKind.DOUBLE.create(2.5),
+                LocalDate.of(2000, 1, 1),
+                LocalTime.of(12, 0),
+                true
+        );
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(values);
+
+        this.checkEquals(6, column.size(), "size");
+        this.checkEquals(4, column.count(), "count");
+        this.checkEquals(1, column.count(SpreadsheetServerColumn.LONG), "LONG");
+        this.checkEquals(1, column.count(SpreadsheetServerColumn.DOUBLE), "DOUBLE");
+        this.checkEquals(0, column.count(SpreadsheetServerColumn.NUMBER), "NUMBER");
+        this.checkEquals(2, column.count(SpreadsheetServerColumn.DATE_TIME), "DATE_TIME");
+        this.checkEquals(2, column.count(SpreadsheetServerColumn.OTHER), "OTHER");
+
+        for (int i = 0; i < values.size(); i++) {
+            assertSame(
+                    values.get(i),
+                    column.value(i),
+                    "value " + i
+            );
+        }
+    }
+
+    @Test
+    public void testSparseRangeColumnCreatedOnce() {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.with(
+                Lists.of(
+                        ExpressionNumberKind.DOUBLE.create(1)
+                ),
+                0
+        );
+
+        assertSame(
+                range.column(),
+                range.column()
+        );
+    }
+
+    @Test
+    public void testLargeColumnRelease() {
+        final List<Object> values = Lists.array();
+        for (int i = 0; i < SpreadsheetServerColumnBuffers.MIN_LENGTH * 2; i++) {
+            values.add(ExpressionNumberKind.DOUBLE.create(i));
+        }
+
+        final SpreadsheetServerColumn column = SpreadsheetServerColumn.with(values);
+        this.checkEquals(values.size(), column.size(), "size");
+        this.checkEquals(values.size(), column.count(), "count");
+        this.checkEquals(123L, column.longValue(123), "longValue");
+
+        column.release();
+        column.release();
+
+        assertThrows(
+                NullPointerException.class,
+                () -> column.tag(0)
+        );
+    }
+
+    @Test
+    public void testSparseRangeSharedNotReleased() {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.with(
+                Lists.of(
+                        ExpressionNumberKind.DOUBLE.create(1)
+                ),
+                0
+        );
+        final SpreadsheetServerColumn column = range.column();
+
+        range.share();
+        range.release();
+
+        assertSame(
+                column,
+                range.column()
+        );
+    }
+
+    @Test
+    public void testSparseRangeReleased() {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.with(
+                Lists.of(
+                        ExpressionNumberKind.DOUBLE.create(1)
+                ),
+                0
+        );
+        final SpreadsheetServerColumn column = range.column();
+
+        range.release();
+
+        assertNotSame(
+                column,
+                range.column()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerColumn> type() {
+        return SpreadsheetServerColumn.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
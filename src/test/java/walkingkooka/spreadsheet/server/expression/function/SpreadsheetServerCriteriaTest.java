@@ -0,0 +1,284 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetError;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.time.LocalDate;
+
+public final class SpreadsheetServerCriteriaTest implements ClassTesting2<SpreadsheetServerCriteria> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    @Test
+    public void testNumberEquals() {
+        this.testAndCheck(KIND.create(10), KIND.create(10), true);
+    }
+
+    @Test
+    public void testNumberNotEquals() {
+        this.testAndCheck(KIND.create(10), KIND.create(11), false);
+    }
+
+    @Test
+    public void testNumberText() {
+        this.testAndCheck(KIND.create(10), "10", true);
+    }
+
+    @Test
+    public void testNumberTextNotNumber() {
+        this.testAndCheck(KIND.create(10), "abc", false);
+    }
+
+    @Test
+    public void testTextNumber() {
+        this.testAndCheck("10", KIND.create(10.0), true);
+    }
+
+    @Test
+    public void testGreaterThan() {
+        this.testAndCheck(">10", KIND.create(11), true);
+    }
+
+    @Test
+    public void testGreaterThan2() {
+        this.testAndCheck(">10", KIND.create(10), false);
+    }
+
+    @Test
+    public void testGreaterThanEquals() {
+        this.testAndCheck(">=10", KIND.create(10), true);
+    }
+
+    @Test
+    public void testLessThan() {
+        this.testAndCheck("<10", KIND.create(-1.5), true);
+    }
+
+    @Test
+    public void testLessThanEquals() {
+        this.testAndCheck("<=10", KIND.create(10.5), false);
+    }
+
+    @Test
+    public void testLessThanText() {
+        this.testAndCheck("<10", "1", true);
+    }
+
+    @Test
+    public void testNotEqualsNumber() {
+        this.testAndCheck("<>10", KIND.create(10), false);
+    }
+
+    @Test
+    public void testNotEqualsText() {
+        this.testAndCheck("<>10", "abc", true);
+    }
+
+    @Test
+    public void testNotEqualsBlank() {
+        this.testAndCheck("<>10", null, true);
+    }
+
+    @Test
+    public void testTextIgnoresCase() {
+        this.testAndCheck("Apple", "aPPLE", true);
+    }
+
+    @Test
+    public void testTextEqualsOperator() {
+        this.testAndCheck("=apple", "APPLE", true);
+    }
+
+    @Test
+    public void testTextGreaterThan() {
+        this.testAndCheck(">b", "Carrot", true);
+    }
+
+    @Test
+    public void testTextNumberNeverMatches() {
+        this.testAndCheck("apple", KIND.one(), false);
+    }
+
+    @Test
+    public void testBoolean() {
+        this.testAndCheck("TRUE", true, true);
+    }
+
+    @Test
+    public void testBooleanText() {
+        this.testAndCheck("true", "true", false);
+    }
+
+    @Test
+    public void testDate() {
+        this.testAndCheck(LocalDate.of(1999, 12, 31), LocalDate.of(1999, 12, 31), true);
+    }
+
+    @Test
+    public void testWildcardStar() {
+        this.testAndCheck("a*e", "apple", true);
+    }
+
+    @Test
+    public void testWildcardStar2() {
+        this.testAndCheck("a*e", "apples", false);
+    }
+
+    @Test
+    public void testWildcardQuestion() {
+        this.testAndCheck("?pple", "Apple", true);
+    }
+
+    @Test
+    public void testWildcardQuestionTooShort() {
+        this.testAndCheck("??pple", "apple", false);
+    }
+
+    @Test
+    public void testWildcardEscaped() {
+        this.testAndCheck("a~*", "a*", true);
+    }
+
+    @Test
+    public void testWildcardEscaped2() {
+        this.testAndCheck("a~*", "ab", false);
+    }
+
+    @Test
+    public void testWildcardNotEquals() {
+        this.testAndCheck("<>*pple", "apple", false);
+    }
+
+    @Test
+    public void testWildcardNotEquals2() {
+        this.testAndCheck("<>*pple", "banana", true);
+    }
+
+    @Test
+    public void testWildcardGreaterThanIsLiteral() {
+        this.testAndCheck(">a*", "b", true);
+    }
+
+    @Test
+    public void testEmptyTextMatchesBlank() {
+        this.testAndCheck("", null, true);
+    }
+
+    @Test
+    public void testEmptyTextMatchesEmptyText() {
+        this.testAndCheck("", "", true);
+    }
+
+    @Test
+    public void testEmptyTextMatchesMissingCell() {
+        this.testAndCheck(
+                "",
+                SpreadsheetError.selectionNotFound(
+                        SpreadsheetSelection.parseCell("Z99")
+                ),
+                true
+        );
+    }
+
+    @Test
+    public void testEmptyTextNotBlank() {
+        this.testAndCheck("", "abc", false);
+    }
+
+    @Test
+    public void testNotEqualsEmpty() {
+        this.testAndCheck("<>", "abc", true);
+    }
+
+    @Test
+    public void testNotEqualsEmptyBlank() {
+        this.testAndCheck("<>", null, false);
+    }
+
+    @Test
+    public void testMatchesBlank() {
+        this.matchesBlankAndCheck("", true);
+        this.matchesBlankAndCheck("<>", false);
+        this.matchesBlankAndCheck("<>10", true);
+        this.matchesBlankAndCheck(">10", false);
+        this.matchesBlankAndCheck("a*", false);
+        this.matchesBlankAndCheck(null, true);
+    }
+
+    @Test
+    public void testSelectivity() {
+        this.checkEquals(0, this.parse("10").selectivity(), "10");
+        this.checkEquals(1, this.parse("a*").selectivity(), "a*");
+        this.checkEquals(2, this.parse(">10").selectivity(), ">10");
+        this.checkEquals(3, this.parse("<>10").selectivity(), "<>10");
+    }
+
+    @Test
+    public void testEqualsDifferentCase() {
+        this.checkEquals(this.parse("APPLE"), this.parse("apple"));
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals("<=10", this.parse("<=10").toString());
+    }
+
+    private void testAndCheck(final Object criteria,
+                              final Object value,
+                              final boolean expected) {
+        this.checkEquals(
+                expected,
+                this.parse(criteria).test(value),
+                () -> criteria + " test " + value
+        );
+    }
+
+    private void matchesBlankAndCheck(final Object criteria,
+                                      final boolean expected) {
+        this.checkEquals(
+                expected,
+                this.parse(criteria).matchesBlank(),
+                () -> criteria + " matchesBlank"
+        );
+    }
+
+    private SpreadsheetServerCriteria parse(final Object criteria) {
+        return SpreadsheetServerCriteria.parse(
+                criteria,
+                KIND
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerCriteria> type() {
+        return SpreadsheetServerCriteria.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionBaseTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionBase, String> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static String DELEGATED = "delegated";
+
+    @Test
+    public void testBinary() {
+        this.applyAndCheck3(13, 2, "1101");
+    }
+
+    @Test
+    public void testZero() {
+        this.applyAndCheck3(0, 16, "0");
+    }
+
+    @Test
+    public void testRadix36() {
+        this.applyAndCheck3(1295, 36, "zz");
+    }
+
+    @Test
+    public void testMinLength() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(7),
+                        KIND.create(2),
+                        KIND.create(8)
+                ),
+                "00000111"
+        );
+    }
+
+    @Test
+    public void testMinLengthLessThanDigits() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(255),
+                        KIND.create(16),
+                        KIND.create(1)
+                ),
+                "ff"
+        );
+    }
+
+    @Test
+    public void testMinLengthMaximum() {
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0; i < SpreadsheetServerExpressionFunctionBase.MAX_MIN_LENGTH - 1; i++) {
+            b.append('0');
+        }
+        b.append('1');
+
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.one(),
+                        KIND.create(10),
+                        KIND.create(SpreadsheetServerExpressionFunctionBase.MAX_MIN_LENGTH)
+                ),
+                b.toString()
+        );
+    }
+
+    @Test
+    public void testLargest() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBase.MAX_NUMBER - 1,
+                2,
+                "11111111111111111111111111111111111111111111111111111"
+        );
+    }
+
+    @Test
+    public void testTooLargeDelegated() {
+        this.applyAndCheck3(SpreadsheetServerExpressionFunctionBase.MAX_NUMBER, 2, DELEGATED);
+    }
+
+    @Test
+    public void testNegativeDelegated() {
+        this.applyAndCheck3(-1, 2, DELEGATED);
+    }
+
+    @Test
+    public void testRadixOneDelegated() {
+        this.applyAndCheck3(1, 1, DELEGATED);
+    }
+
+    @Test
+    public void testRadix37Delegated() {
+        this.applyAndCheck3(1, 37, DELEGATED);
+    }
+
+    @Test
+    public void testMinLengthTooLargeDelegated() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.one(),
+                        KIND.create(10),
+                        KIND.create(SpreadsheetServerExpressionFunctionBase.MAX_MIN_LENGTH + 1)
+                ),
+                DELEGATED
+        );
+    }
+
+    private void applyAndCheck3(final long number,
+                                final int radix,
+                                final String expected) {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(number),
+                        KIND.create(radix)
+                ),
+                expected
+        );
+    }
+
+    private void applyAndCheck3(final List<Object> parameters,
+                                final String expected) {
+        this.applyAndCheck2(
+                SpreadsheetServerExpressionFunctionBase.with(
+                        new FakeExpressionFunction<String, SpreadsheetExpressionEvaluationContext>() {
+                            @Override
+                            public String apply(final List<Object> parameters,
+                                                final SpreadsheetExpressionEvaluationContext context) {
+                                return DELEGATED;
+                            }
+                        }
+                ),
+                parameters,
+                expected
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionBase createBiFunction() {
+        return SpreadsheetServerExpressionFunctionBase.with(
+                NumberExpressionFunctions.base()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 2;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return SpreadsheetExpressionEvaluationContexts.fake();
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionBase> type() {
+        return SpreadsheetServerExpressionFunctionBase.class;
+    }
+}
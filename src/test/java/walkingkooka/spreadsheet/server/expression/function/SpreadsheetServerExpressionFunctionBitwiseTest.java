@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.engineering.EngineeringExpressionFunctions;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionBitwiseTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionBitwise, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static ExpressionNumber DELEGATED = KIND.create(-999);
+
+    @Test
+    public void testAnd() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.and(new Delegate()),
+                KIND.create(0b1100),
+                KIND.create(0b1010),
+                KIND.create(0b1000)
+        );
+    }
+
+    @Test
+    public void testOr() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.or(new Delegate()),
+                KIND.create(0b1100),
+                KIND.create(0b1010),
+                KIND.create(0b1110)
+        );
+    }
+
+    @Test
+    public void testXor() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.xor(new Delegate()),
+                KIND.create(0b1100),
+                KIND.create(0b1010),
+                KIND.create(0b0110)
+        );
+    }
+
+    @Test
+    public void testAndDouble() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.and(new Delegate()),
+                ExpressionNumberKind.DOUBLE.create(0b1100),
+                ExpressionNumberKind.DOUBLE.create(0b1010),
+                KIND.create(0b1000)
+        );
+    }
+
+    @Test
+    public void testOrMaximum48Bits() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.or(new Delegate()),
+                KIND.create(SpreadsheetServerExpressionFunctionBitwise.LIMIT - 1),
+                KIND.zero(),
+                KIND.create(SpreadsheetServerExpressionFunctionBitwise.LIMIT - 1)
+        );
+    }
+
+    @Test
+    public void testOrTooLargeDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.or(new Delegate()),
+                KIND.create(SpreadsheetServerExpressionFunctionBitwise.LIMIT),
+                KIND.zero(),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testAndNegativeDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.and(new Delegate()),
+                KIND.create(-1),
+                KIND.one(),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testAndFractionDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionBitwise.and(new Delegate()),
+                KIND.one(),
+                KIND.create(1.5),
+                DELEGATED
+        );
+    }
+
+    private void applyAndCheck3(final SpreadsheetServerExpressionFunctionBitwise function,
+                                final ExpressionNumber left,
+                                final ExpressionNumber right,
+                                final ExpressionNumber expected) {
+        this.applyAndCheck2(
+                function,
+                Lists.of(
+                        left,
+                        right
+                ),
+                expected
+        );
+    }
+
+    static class Delegate extends FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> {
+
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final SpreadsheetExpressionEvaluationContext context) {
+            return DELEGATED;
+        }
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionBitwise createBiFunction() {
+        return SpreadsheetServerExpressionFunctionBitwise.and(
+                EngineeringExpressionFunctions.bitAnd()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 2;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return KIND;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionBitwise> type() {
+        return SpreadsheetServerExpressionFunctionBitwise.class;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.math.MathContext;
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionConstantTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionConstant, ExpressionNumber> {
+
+    @Test
+    public void testApplyCached() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionConstant function = SpreadsheetServerExpressionFunctionConstant.with(counter);
+
+        final SpreadsheetExpressionEvaluationContext context = this.createContext(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32
+        );
+        final ExpressionNumber first = function.apply(
+                Lists.empty(),
+                context
+        );
+        final ExpressionNumber second = function.apply(
+                Lists.empty(),
+                context
+        );
+
+        this.checkEquals(
+                true,
+                first == second,
+                "same constant"
+        );
+        this.checkEquals(
+                1,
+                counter.count,
+                "wrapped function should only be called once"
+        );
+    }
+
+    @Test
+    public void testApplyDifferentMathContext() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionConstant function = SpreadsheetServerExpressionFunctionConstant.with(counter);
+
+        this.applyAndCheck2(
+                function,
+                Lists.empty(),
+                ExpressionNumberKind.BIG_DECIMAL.create(7)
+        );
+
+        this.checkEquals(
+                ExpressionNumberKind.BIG_DECIMAL.create(16),
+                function.apply(
+                        Lists.empty(),
+                        this.createContext(
+                                ExpressionNumberKind.BIG_DECIMAL,
+                                MathContext.DECIMAL64
+                        )
+                )
+        );
+        this.checkEquals(
+                2,
+                counter.count,
+                "wrapped function should be called for each MathContext"
+        );
+    }
+
+    @Test
+    public void testApplyDifferentKind() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionConstant function = SpreadsheetServerExpressionFunctionConstant.with(counter);
+
+        this.applyAndCheck2(
+                function,
+                Lists.empty(),
+                ExpressionNumberKind.BIG_DECIMAL.create(7)
+        );
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(7),
+                function.apply(
+                        Lists.empty(),
+                        this.createContext(
+                                ExpressionNumberKind.DOUBLE,
+                                MathContext.DECIMAL32
+                        )
+                )
+        );
+        this.checkEquals(
+                2,
+                counter.count,
+                "wrapped function should be called for each kind"
+        );
+    }
+
+    @Test
+    public void testApplyAlternatingKindsAndMathContexts() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionConstant function = SpreadsheetServerExpressionFunctionConstant.with(counter);
+
+        final SpreadsheetExpressionEvaluationContext bigDecimal32 = this.createContext(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32
+        );
+        final SpreadsheetExpressionEvaluationContext bigDecimal64 = this.createContext(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL64
+        );
+        final SpreadsheetExpressionEvaluationContext double32 = this.createContext(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL32
+        );
+
+        for (int i = 0; i < 3; i++) {
+            function.apply(Lists.empty(), bigDecimal32);
+            function.apply(Lists.empty(), bigDecimal64);
+            function.apply(Lists.empty(), double32);
+        }
+
+        this.checkEquals(
+                3,
+                counter.count,
+                "wrapped function should be called once for each kind and MathContext"
+        );
+    }
+
+    @Test
+    public void testApplyEqualMathContextCached() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionConstant function = SpreadsheetServerExpressionFunctionConstant.with(counter);
+
+        final ExpressionNumber first = function.apply(
+                Lists.empty(),
+                this.createContext(
+                        ExpressionNumberKind.BIG_DECIMAL,
+                        MathContext.DECIMAL32
+                )
+        );
+        final ExpressionNumber second = function.apply(
+                Lists.empty(),
+                this.createContext(
+                        ExpressionNumberKind.BIG_DECIMAL,
+                        new MathContext(
+                                MathContext.DECIMAL32.getPrecision(),
+                                MathContext.DECIMAL32.getRoundingMode()
+                        )
+                )
+        );
+
+        this.checkEquals(
+                true,
+                first == second,
+                "same constant"
+        );
+        this.checkEquals(
+                1,
+                counter.count,
+                "wrapped function should only be called once"
+        );
+    }
+
+    /**
+     * Returns the precision of the {@link MathContext} as a number of the context kind.
+     */
+    static class Counter extends FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> {
+
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final SpreadsheetExpressionEvaluationContext context) {
+            this.count++;
+            return context.expressionNumberKind()
+                    .create(
+                            context.mathContext()
+                                    .getPrecision()
+                    );
+        }
+
+        int count;
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionConstant createBiFunction() {
+        return SpreadsheetServerExpressionFunctionConstant.with(
+                NumberExpressionFunctions.pi()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return this.createContext(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32
+        );
+    }
+
+    private SpreadsheetExpressionEvaluationContext createContext(final ExpressionNumberKind kind,
+                                                                 final MathContext mathContext) {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return kind;
+            }
+
+            @Override
+            public MathContext mathContext() {
+                return mathContext;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionConstant> type() {
+        return SpreadsheetServerExpressionFunctionConstant.class;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.SpreadsheetError;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerExpressionFunctionCountBlankTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionCountBlank, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    @Test
+    public void testApplyNull() {
+        this.applyAndCheck2(
+                Lists.of((Object) null),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testApplyMissingCell() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetError.selectionNotFound(
+                                SpreadsheetSelection.parseCell("Z99")
+                        )
+                ),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testApplyEmptyString() {
+        this.applyAndCheck2(
+                Lists.of(""),
+                KIND.zero()
+        );
+    }
+
+    @Test
+    public void testApplyRangeWithoutCells() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("X1:Z10")
+                ),
+                KIND.create(3 * 10)
+        );
+    }
+
+    @Test
+    public void testApplyRangeWithCells() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("A1:B100000")
+                ),
+                KIND.create(2 * 100000 - 2)
+        );
+    }
+
+    @Test
+    public void testApplyRangeAndValues() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("A1:B3"),
+                        null,
+                        "not-blank"
+                ),
+                KIND.create(2 * 3 - 2 + 1)
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionCountBlank createBiFunction() {
+        return SpreadsheetServerExpressionFunctionCountBlank.INSTANCE;
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new SpreadsheetServerTestContext(
+                KIND,
+                Lists.of(
+                        cell("A1", 1),
+                        cell("B2", "abc")
+                )
+        );
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionCountBlank> type() {
+        return SpreadsheetServerExpressionFunctionCountBlank.class;
+    }
+}
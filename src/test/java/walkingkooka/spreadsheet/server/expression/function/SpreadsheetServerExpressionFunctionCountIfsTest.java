@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerExpressionFunctionCountIfsTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionCountIfs, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static List<SpreadsheetCell> CELLS = Lists.of(
+            cell("A1", "apple"),
+            cell("B1", KIND.create(10)),
+            cell("C1", KIND.one()),
+            cell("A2", "banana"),
+            cell("B2", KIND.create(20)),
+            cell("C2", KIND.create(2)),
+            cell("A3", "Apple"),
+            cell("B3", KIND.create(30)),
+            cell("A4", "apricot"),
+            cell("B4", "x"),
+            cell("C4", KIND.create(4))
+    );
+
+    @Test
+    public void testText() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("A1:A5"),
+                        "apple"
+                ),
+                KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testWildcard() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("A1:A5"),
+                        "ap*"
+                ),
+                KIND.create(3)
+        );
+    }
+
+    @Test
+    public void testSeveralCriteria() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("A1:A5"),
+                        "ap*",
+                        range("B1:B5"),
+                        ">=20"
+                ),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testCriteriaReference() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("A1:A5"),
+                        SpreadsheetSelection.parseCell("A2")
+                ),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testBlank() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("C1:C5"),
+                        ""
+                ),
+                KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testBlankAndText() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("C1:C5"),
+                        "",
+                        range("A1:A5"),
+                        "apple"
+                ),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testNotEquals() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("B1:B5"),
+                        "<>20"
+                ),
+                KIND.create(4)
+        );
+    }
+
+    @Test
+    public void testDifferentShapeFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        range("A1:A5"),
+                                        "apple",
+                                        range("B1:B4"),
+                                        ">1"
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    @Test
+    public void testMissingCriteriaFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        range("A1:A5"),
+                                        "apple",
+                                        range("B1:B5")
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    private static SpreadsheetCellRangeReference range(final String range) {
+        return SpreadsheetSelection.parseCellRange(range);
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionCountIfs createBiFunction() {
+        return SpreadsheetServerExpressionFunctionCountIfs.INSTANCE;
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 2;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new SpreadsheetServerTestContext(
+                KIND,
+                CELLS
+        );
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionCountIfs> type() {
+        return SpreadsheetServerExpressionFunctionCountIfs.class;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionDecimalTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionDecimal, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static ExpressionNumber DELEGATED = KIND.create(-999);
+
+    @Test
+    public void testBinary() {
+        this.applyAndCheck3("1101", 2, KIND.create(13));
+    }
+
+    @Test
+    public void testRadix36UpperCase() {
+        this.applyAndCheck3("ZZ", 36, KIND.create(1295));
+    }
+
+    @Test
+    public void testRadix36LowerCase() {
+        this.applyAndCheck3("zz", 36, KIND.create(1295));
+    }
+
+    @Test
+    public void testLargest() {
+        this.applyAndCheck3("7fffffffffffffff", 16, KIND.create(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testTooLargeDelegated() {
+        this.applyAndCheck3("8000000000000000", 16, DELEGATED);
+    }
+
+    @Test
+    public void testEmptyDelegated() {
+        this.applyAndCheck3("", 2, DELEGATED);
+    }
+
+    @Test
+    public void testInvalidDigitDelegated() {
+        this.applyAndCheck3("12", 2, DELEGATED);
+    }
+
+    @Test
+    public void testRadixOneDelegated() {
+        this.applyAndCheck3("0", 1, DELEGATED);
+    }
+
+    @Test
+    public void testRadix37Delegated() {
+        this.applyAndCheck3("0", 37, DELEGATED);
+    }
+
+    private void applyAndCheck3(final String text,
+                                final int radix,
+                                final ExpressionNumber expected) {
+        this.applyAndCheck2(
+                SpreadsheetServerExpressionFunctionDecimal.with(
+                        new FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext>() {
+                            @Override
+                            public ExpressionNumber apply(final List<Object> parameters,
+                                                          final SpreadsheetExpressionEvaluationContext context) {
+                                return DELEGATED;
+                            }
+                        }
+                ),
+                Lists.of(
+                        text,
+                        KIND.create(radix)
+                ),
+                expected
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionDecimal createBiFunction() {
+        return SpreadsheetServerExpressionFunctionDecimal.with(
+                NumberExpressionFunctions.decimal()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 2;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return KIND;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionDecimal> type() {
+        return SpreadsheetServerExpressionFunctionDecimal.class;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.trigonometry.NumberTrigonomteryExpressionFunctions;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+public final class SpreadsheetServerExpressionFunctionDoubleUnaryTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionDoubleUnary, ExpressionNumber> {
+
+    private final static ExpressionNumber DELEGATED = ExpressionNumberKind.DOUBLE.create(-999);
+
+    @Test
+    public void testCos() {
+        this.applyAndCheck3(
+                Math::cos,
+                ExpressionNumberKind.DOUBLE,
+                0,
+                ExpressionNumberKind.DOUBLE.one()
+        );
+    }
+
+    @Test
+    public void testDegrees() {
+        this.applyAndCheck3(
+                Math::toDegrees,
+                ExpressionNumberKind.DOUBLE,
+                Math.PI,
+                ExpressionNumberKind.DOUBLE.create(180)
+        );
+    }
+
+    @Test
+    public void testSinh() {
+        this.applyAndCheck3(
+                Math::sinh,
+                ExpressionNumberKind.DOUBLE,
+                1,
+                ExpressionNumberKind.DOUBLE.create(Math.sinh(1))
+        );
+    }
+
+    @Test
+    public void testAcosNaNDelegated() {
+        this.applyAndCheck3(
+                Math::acos,
+                ExpressionNumberKind.DOUBLE,
+                2,
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testBigDecimalDelegated() {
+        this.applyAndCheck3(
+                Math::cos,
+                ExpressionNumberKind.BIG_DECIMAL,
+                0,
+                DELEGATED
+        );
+    }
+
+    private void applyAndCheck3(final DoubleUnaryOperator operator,
+                                final ExpressionNumberKind kind,
+                                final double value,
+                                final ExpressionNumber expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionFunctionDoubleUnary.with(
+                        new FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext>() {
+                            @Override
+                            public ExpressionNumber apply(final List<Object> parameters,
+                                                          final SpreadsheetExpressionEvaluationContext context) {
+                                return DELEGATED;
+                            }
+                        },
+                        operator
+                ).apply(
+                        Lists.of(
+                                kind.create(value)
+                        ),
+                        this.createContext(kind)
+                ),
+                () -> kind + " " + value
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionDoubleUnary createBiFunction() {
+        return SpreadsheetServerExpressionFunctionDoubleUnary.with(
+                NumberTrigonomteryExpressionFunctions.cos(),
+                Math::cos
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 1;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return this.createContext(ExpressionNumberKind.DOUBLE);
+    }
+
+    private SpreadsheetExpressionEvaluationContext createContext(final ExpressionNumberKind kind) {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return kind;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionDoubleUnary> type() {
+        return SpreadsheetServerExpressionFunctionDoubleUnary.class;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContexts;
+import walkingkooka.spreadsheet.expression.function.SpreadsheetExpressionFunctions;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionIndirectTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionIndirect, SpreadsheetCellReference> {
+
+    @Test
+    public void testApplyCellReferenceCached() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionIndirect function = SpreadsheetServerExpressionFunctionIndirect.with(counter);
+
+        this.applyAndCheck2(
+                function,
+                Lists.of("B2"),
+                SpreadsheetSelection.parseCell("B2")
+        );
+        this.applyAndCheck2(
+                function,
+                Lists.of("B2"),
+                SpreadsheetSelection.parseCell("B2")
+        );
+
+        this.checkEquals(
+                1,
+                counter.count,
+                "wrapped function should only be called once"
+        );
+    }
+
+    @Test
+    public void testApplyCellReferenceA1TrueCached() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionIndirect function = SpreadsheetServerExpressionFunctionIndirect.with(counter);
+
+        this.applyAndCheck2(
+                function,
+                Lists.of("$C$3", true),
+                SpreadsheetSelection.parseCell("$C$3")
+        );
+        this.applyAndCheck2(
+                function,
+                Lists.of("$C$3", true),
+                SpreadsheetSelection.parseCell("$C$3")
+        );
+
+        this.checkEquals(
+                1,
+                counter.count,
+                "wrapped function should only be called once"
+        );
+    }
+
+    @Test
+    public void testApplyLabelNeverCached() {
+        final Counter counter = new Counter();
+        final SpreadsheetServerExpressionFunctionIndirect function = SpreadsheetServerExpressionFunctionIndirect.with(counter);
+
+        this.applyAndCheck2(
+                function,
+                Lists.of("Label123"),
+                Counter.LABEL_TARGET
+        );
+        this.applyAndCheck2(
+                function,
+                Lists.of("Label123"),
+                Counter.LABEL_TARGET
+        );
+
+        this.checkEquals(
+                2,
+                counter.count,
+                "labels should always be resolved by the wrapped function"
+        );
+    }
+
+    static class Counter extends FakeExpressionFunction<SpreadsheetCellReference, SpreadsheetExpressionEvaluationContext> {
+
+        final static SpreadsheetCellReference LABEL_TARGET = SpreadsheetSelection.parseCell("Z99");
+
+        @Override
+        public SpreadsheetCellReference apply(final List<Object> parameters,
+                                              final SpreadsheetExpressionEvaluationContext context) {
+            this.count++;
+
+            final String text = (String) parameters.get(0);
+            return text.startsWith("Label") ?
+                    LABEL_TARGET :
+                    SpreadsheetSelection.parseCell(text);
+        }
+
+        int count;
+    }
+
+    // isCellReferenceText..............................................................................................
+
+    @Test
+    public void testIsCellReferenceTextCell() {
+        this.isCellReferenceTextAndCheck("A1", true);
+    }
+
+    @Test
+    public void testIsCellReferenceTextLowerCase() {
+        this.isCellReferenceTextAndCheck("b2", true);
+    }
+
+    @Test
+    public void testIsCellReferenceTextAbsolute() {
+        this.isCellReferenceTextAndCheck("$XFD$1048576", true);
+    }
+
+    @Test
+    public void testIsCellReferenceTextAbsoluteColumn() {
+        this.isCellReferenceTextAndCheck("$B2", true);
+    }
+
+    @Test
+    public void testIsCellReferenceTextEmpty() {
+        this.isCellReferenceTextAndCheck("", false);
+    }
+
+    @Test
+    public void testIsCellReferenceTextColumnOnly() {
+        this.isCellReferenceTextAndCheck("AB", false);
+    }
+
+    @Test
+    public void testIsCellReferenceTextRowZero() {
+        this.isCellReferenceTextAndCheck("A0", false);
+    }
+
+    @Test
+    public void testIsCellReferenceTextTooManyColumnLetters() {
+        this.isCellReferenceTextAndCheck("ABCD1", false);
+    }
+
+    @Test
+    public void testIsCellReferenceTextLabel() {
+        this.isCellReferenceTextAndCheck("Label123", false);
+    }
+
+    @Test
+    public void testIsCellReferenceTextRange() {
+        this.isCellReferenceTextAndCheck("A1:B2", false);
+    }
+
+    private void isCellReferenceTextAndCheck(final String text,
+                                             final boolean expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionFunctionIndirect.isCellReferenceText(text),
+                () -> "isCellReferenceText " + text
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionIndirect createBiFunction() {
+        return SpreadsheetServerExpressionFunctionIndirect.with(
+                SpreadsheetExpressionFunctions.indirect()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 1;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return SpreadsheetExpressionEvaluationContexts.fake();
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionIndirect> type() {
+        return SpreadsheetServerExpressionFunctionIndirect.class;
+    }
+}
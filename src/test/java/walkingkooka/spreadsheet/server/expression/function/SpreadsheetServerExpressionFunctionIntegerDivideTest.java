@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionIntegerDivideTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionIntegerDivide, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static ExpressionNumber DELEGATED = KIND.create(-999);
+
+    @Test
+    public void testMod() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.mod(new Delegate()),
+                KIND.create(5),
+                KIND.create(3),
+                KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testModNegativeNumberDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.mod(new Delegate()),
+                KIND.create(-5),
+                KIND.create(3),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testModNegativeDivisorDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.mod(new Delegate()),
+                KIND.create(5),
+                KIND.create(-3),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testModZeroDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.mod(new Delegate()),
+                KIND.create(5),
+                KIND.zero(),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testModFractionDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.mod(new Delegate()),
+                KIND.create(5.5),
+                KIND.create(3),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testQuotient() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.quotient(new Delegate()),
+                KIND.create(12),
+                KIND.create(5),
+                KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testQuotientNegative() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.quotient(new Delegate()),
+                KIND.create(-12),
+                KIND.create(5),
+                KIND.create(-2)
+        );
+    }
+
+    @Test
+    public void testQuotientZeroDelegated() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionIntegerDivide.quotient(new Delegate()),
+                KIND.create(12),
+                KIND.zero(),
+                DELEGATED
+        );
+    }
+
+    private void applyAndCheck3(final SpreadsheetServerExpressionFunctionIntegerDivide function,
+                                final ExpressionNumber number,
+                                final ExpressionNumber divisor,
+                                final ExpressionNumber expected) {
+        this.applyAndCheck2(
+                function,
+                Lists.of(
+                        number,
+                        divisor
+                ),
+                expected
+        );
+    }
+
+    static class Delegate extends FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> {
+
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final SpreadsheetExpressionEvaluationContext context) {
+            return DELEGATED;
+        }
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionIntegerDivide createBiFunction() {
+        return SpreadsheetServerExpressionFunctionIntegerDivide.mod(
+                NumberExpressionFunctions.mod()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 2;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return KIND;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionIntegerDivide> type() {
+        return SpreadsheetServerExpressionFunctionIntegerDivide.class;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.math.MathContext;
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionProductTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionProduct, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static ExpressionNumber DELEGATED = KIND.create(-999);
+
+    @Test
+    public void testWhole() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(2),
+                        KIND.create(3),
+                        KIND.create(-4)
+                ),
+                KIND.create(-24)
+        );
+    }
+
+    @Test
+    public void testFraction() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(2),
+                        KIND.create(1.5)
+                ),
+                KIND.create(3.0)
+        );
+    }
+
+    @Test
+    public void testEmptyDelegated() {
+        this.applyAndCheck3(
+                Lists.empty(),
+                DELEGATED
+        );
+    }
+
+    @Test
+    public void testNotNumberDelegated() {
+        this.applyAndCheck3(
+                Lists.of(
+                        KIND.create(2),
+                        "3"
+                ),
+                DELEGATED
+        );
+    }
+
+    private void applyAndCheck3(final List<Object> parameters,
+                                final ExpressionNumber expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionFunctionProduct.with(
+                        new FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext>() {
+                            @Override
+                            public ExpressionNumber apply(final List<Object> parameters,
+                                                          final SpreadsheetExpressionEvaluationContext context) {
+                                return DELEGATED;
+                            }
+                        }
+                ).apply(
+                        parameters,
+                        this.createContext()
+                ),
+                () -> "product " + parameters
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionProduct createBiFunction() {
+        return SpreadsheetServerExpressionFunctionProduct.with(
+                NumberExpressionFunctions.product()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return KIND;
+            }
+
+            @Override
+            public MathContext mathContext() {
+                return MathContext.DECIMAL64;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionProduct> type() {
+        return SpreadsheetServerExpressionFunctionProduct.class;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.util.List;
+
+public final class SpreadsheetServerExpressionFunctionRomanTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionRoman, String> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    private final static String DELEGATED = "delegated";
+
+    @Test
+    public void testOne() {
+        this.applyAndCheck3(Lists.of(KIND.one()), "I");
+    }
+
+    @Test
+    public void testFour() {
+        this.applyAndCheck3(Lists.of(KIND.create(4)), "IV");
+    }
+
+    @Test
+    public void testNineteenNinetyNine() {
+        this.applyAndCheck3(Lists.of(KIND.create(1999)), "MCMXCIX");
+    }
+
+    @Test
+    public void testMaximum() {
+        this.applyAndCheck3(Lists.of(KIND.create(3999)), "MMMCMXCIX");
+    }
+
+    @Test
+    public void testSharedString() {
+        final SpreadsheetServerExpressionFunctionRoman function = this.createBiFunction();
+        final String first = function.apply(
+                Lists.of(KIND.create(123)),
+                this.createContext()
+        );
+        final String second = function.apply(
+                Lists.of(KIND.create(123)),
+                this.createContext()
+        );
+        this.checkEquals(
+                "CXXIII",
+                first
+        );
+        this.checkEquals(
+                true,
+                first == second,
+                "same string"
+        );
+    }
+
+    @Test
+    public void testFormZero() {
+        this.applyAndCheck3(Lists.of(KIND.create(499), KIND.zero()), "CDXCIX");
+    }
+
+    @Test
+    public void testFormTrue() {
+        this.applyAndCheck3(Lists.of(KIND.create(499), true), "CDXCIX");
+    }
+
+    @Test
+    public void testFormConciseDelegated() {
+        this.applyAndCheck3(Lists.of(KIND.create(499), KIND.one()), DELEGATED);
+    }
+
+    @Test
+    public void testFormFalseDelegated() {
+        this.applyAndCheck3(Lists.of(KIND.create(499), false), DELEGATED);
+    }
+
+    @Test
+    public void testZeroDelegated() {
+        this.applyAndCheck3(Lists.of(KIND.zero()), DELEGATED);
+    }
+
+    @Test
+    public void testTooLargeDelegated() {
+        this.applyAndCheck3(Lists.of(KIND.create(4000)), DELEGATED);
+    }
+
+    @Test
+    public void testFractionDelegated() {
+        this.applyAndCheck3(Lists.of(KIND.create(1.5)), DELEGATED);
+    }
+
+    private void applyAndCheck3(final List<Object> parameters,
+                                final String expected) {
+        this.applyAndCheck2(
+                SpreadsheetServerExpressionFunctionRoman.with(
+                        new FakeExpressionFunction<String, SpreadsheetExpressionEvaluationContext>() {
+                            @Override
+                            public String apply(final List<Object> parameters,
+                                                final SpreadsheetExpressionEvaluationContext context) {
+                                return DELEGATED;
+                            }
+                        }
+                ),
+                parameters,
+                expected
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionRoman createBiFunction() {
+        return SpreadsheetServerExpressionFunctionRoman.with(
+                NumberExpressionFunctions.roman()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 1;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return SpreadsheetExpressionEvaluationContexts.fake();
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionRoman> type() {
+        return SpreadsheetServerExpressionFunctionRoman.class;
+    }
+}
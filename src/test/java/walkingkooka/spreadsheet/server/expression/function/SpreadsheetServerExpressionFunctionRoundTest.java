@@ -0,0 +1,350 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.number.NumberExpressionFunctions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+public final class SpreadsheetServerExpressionFunctionRoundTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionRound, ExpressionNumber> {
+
+    @Test
+    public void testRoundWholeNumber() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::round,
+                ExpressionNumberKind.BIG_DECIMAL,
+                123,
+                2,
+                123
+        );
+    }
+
+    @Test
+    public void testRoundWholeNumberNegativeDigits() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::round,
+                ExpressionNumberKind.BIG_DECIMAL,
+                1250,
+                -2,
+                1300
+        );
+    }
+
+    @Test
+    public void testRoundNegativeWholeNumberNegativeDigits() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::round,
+                ExpressionNumberKind.BIG_DECIMAL,
+                -1250,
+                -2,
+                -1300
+        );
+    }
+
+    @Test
+    public void testRoundDownWholeNumberNegativeDigits() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::roundDown,
+                ExpressionNumberKind.BIG_DECIMAL,
+                -1299,
+                -2,
+                -1200
+        );
+    }
+
+    @Test
+    public void testRoundUpWholeNumberNegativeDigits() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::roundUp,
+                ExpressionNumberKind.BIG_DECIMAL,
+                1201,
+                -2,
+                1300
+        );
+    }
+
+    @Test
+    public void testRoundDoubleFraction() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::round,
+                ExpressionNumberKind.DOUBLE,
+                5.7845,
+                1,
+                5.8
+        );
+    }
+
+    @Test
+    public void testRoundDownDoubleFraction() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::roundDown,
+                ExpressionNumberKind.DOUBLE,
+                -1.25,
+                1,
+                -1.2
+        );
+    }
+
+    @Test
+    public void testCeilNegativeDoubleFraction() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::ceil,
+                ExpressionNumberKind.DOUBLE,
+                -0.5,
+                0
+        );
+    }
+
+    @Test
+    public void testIntNegativeDoubleFraction() {
+        this.applyAndCheck3(
+                SpreadsheetServerExpressionFunctionRound::intFunction,
+                ExpressionNumberKind.DOUBLE,
+                -1.5,
+                -2
+        );
+    }
+
+    /**
+     * Rounds using {@link BigDecimal} from one of many numbers with a {@link ExpressionNumberKind#DOUBLE} and verifies
+     * the wrapper, whether it takes a fast path or calls the wrapped reference, always returns the same number.
+     */
+    @Test
+    public void testFastPathsMatchBigDecimal() {
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 100000; i++) {
+            final double value;
+            switch (i % 3) {
+                case 0:
+                    value = (random.nextDouble() - 0.5) * 1000;
+                    break;
+                case 1:
+                    // prices with exactly three decimal places, many of which are ties
+                    value = Math.round((random.nextDouble() - 0.5) * 1E6) / 1000.0;
+                    break;
+                default:
+                    value = random.nextInt(200000) - 100000;
+                    break;
+            }
+            final int digits = random.nextInt(12) - 2;
+
+            for (final RoundingMode mode : new RoundingMode[]{RoundingMode.HALF_UP, RoundingMode.UP, RoundingMode.DOWN}) {
+                this.applyAndCheck4(
+                        mode,
+                        ExpressionNumberKind.DOUBLE,
+                        value,
+                        digits
+                );
+            }
+
+            this.applyAndCheck4(
+                    RoundingMode.FLOOR,
+                    ExpressionNumberKind.DOUBLE,
+                    value,
+                    0
+            );
+            this.applyAndCheck4(
+                    RoundingMode.CEILING,
+                    ExpressionNumberKind.DOUBLE,
+                    value,
+                    0
+            );
+            this.applyAndCheck4(
+                    RoundingMode.HALF_UP,
+                    ExpressionNumberKind.BIG_DECIMAL,
+                    Math.rint(value),
+                    digits
+            );
+        }
+    }
+
+    private void applyAndCheck4(final RoundingMode mode,
+                                final ExpressionNumberKind kind,
+                                final double value,
+                                final int digits) {
+        final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> reference = new Reference(mode);
+
+        final SpreadsheetServerExpressionFunctionRound function;
+        final List<Object> parameters;
+
+        switch (mode) {
+            case HALF_UP:
+                function = SpreadsheetServerExpressionFunctionRound.round(reference);
+                break;
+            case UP:
+                function = SpreadsheetServerExpressionFunctionRound.roundUp(reference);
+                break;
+            case DOWN:
+                function = SpreadsheetServerExpressionFunctionRound.roundDown(reference);
+                break;
+            case FLOOR:
+                function = SpreadsheetServerExpressionFunctionRound.floor(reference);
+                break;
+            case CEILING:
+                function = SpreadsheetServerExpressionFunctionRound.ceil(reference);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported mode " + mode);
+        }
+
+        if (RoundingMode.FLOOR == mode || RoundingMode.CEILING == mode) {
+            parameters = Lists.of(
+                    kind.create(value)
+            );
+        } else {
+            parameters = Lists.of(
+                    kind.create(value),
+                    kind.create(digits)
+            );
+        }
+
+        final SpreadsheetExpressionEvaluationContext context = this.createContext(kind);
+        this.checkEquals(
+                reference.apply(
+                        parameters,
+                        context
+                ),
+                function.apply(
+                        parameters,
+                        context
+                ),
+                () -> mode + " " + value + " digits " + digits
+        );
+    }
+
+    /**
+     * Rounds the decimal value of the number using {@link BigDecimal#setScale(int, RoundingMode)}.
+     */
+    private static class Reference extends FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> {
+
+        Reference(final RoundingMode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final SpreadsheetExpressionEvaluationContext context) {
+            final ExpressionNumber number = (ExpressionNumber) parameters.get(0);
+            final int digits = 2 == parameters.size() ?
+                    ((ExpressionNumber) parameters.get(1)).intValue() :
+                    0;
+
+            final BigDecimal rounded = (number.isDouble() ?
+                    BigDecimal.valueOf(number.doubleValue()) :
+                    number.bigDecimal()
+            ).setScale(digits, this.mode);
+
+            return number.isDouble() ?
+                    ExpressionNumberKind.DOUBLE.create(rounded.doubleValue() + 0.0) :
+                    ExpressionNumberKind.BIG_DECIMAL.create(rounded.longValueExact());
+        }
+
+        private final RoundingMode mode;
+    }
+
+    private void applyAndCheck3(final Function<ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext>, SpreadsheetServerExpressionFunctionRound> factory,
+                                final ExpressionNumberKind kind,
+                                final double value,
+                                final double expected) {
+        this.checkEquals(
+                kind.create(expected),
+                factory.apply(new Delegated())
+                        .apply(
+                                Lists.of(
+                                        kind.create(value)
+                                ),
+                                this.createContext(kind)
+                        ),
+                () -> value + ""
+        );
+    }
+
+    private void applyAndCheck3(final Function<ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext>, SpreadsheetServerExpressionFunctionRound> factory,
+                                final ExpressionNumberKind kind,
+                                final double value,
+                                final int digits,
+                                final double expected) {
+        this.checkEquals(
+                kind.create(expected),
+                factory.apply(new Delegated())
+                        .apply(
+                                Lists.of(
+                                        kind.create(value),
+                                        kind.create(digits)
+                                ),
+                                this.createContext(kind)
+                        ),
+                () -> value + " digits " + digits
+        );
+    }
+
+    /**
+     * Fails if called, proving the fast path was taken.
+     */
+    private static class Delegated extends FakeExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> {
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final SpreadsheetExpressionEvaluationContext context) {
+            throw new UnsupportedOperationException("fast path expected " + parameters);
+        }
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionRound createBiFunction() {
+        return SpreadsheetServerExpressionFunctionRound.roundUp(
+                NumberExpressionFunctions.roundUp()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 1;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return this.createContext(ExpressionNumberKind.DOUBLE);
+    }
+
+    private SpreadsheetExpressionEvaluationContext createContext(final ExpressionNumberKind kind) {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return kind;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionRound> type() {
+        return SpreadsheetServerExpressionFunctionRound.class;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerExpressionFunctionSumProductTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionSumProduct, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    @Test
+    public void testOneRange() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("B1:B4")
+                ),
+                KIND.create(2 + 3 + 5)
+        );
+    }
+
+    @Test
+    public void testTwoRanges() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("B1:B4"),
+                        range("C1:C4")
+                ),
+                KIND.create(2 * 10 + 3 * 1.5)
+        );
+    }
+
+    @Test
+    public void testThreeRanges() {
+        this.applyAndCheck2(
+                Lists.of(
+                        range("B1:B4"),
+                        range("C1:C4"),
+                        range("D1:D4")
+                ),
+                KIND.create(2 * 10 * 2 + 3 * 1.5 * 2)
+        );
+    }
+
+    @Test
+    public void testTwoRangesDouble() {
+        this.sumProductAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                Lists.of(
+                        range("B1:B4"),
+                        range("C1:C4")
+                ),
+                2 * 10 + 3 * 1.5
+        );
+    }
+
+    @Test
+    public void testThreeRangesDouble() {
+        this.sumProductAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                Lists.of(
+                        range("B1:B4"),
+                        range("C1:C4"),
+                        range("D1:D4")
+                ),
+                2 * 10 * 2 + 3 * 1.5 * 2
+        );
+    }
+
+    @Test
+    public void testRowsDouble() {
+        this.sumProductAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                Lists.of(
+                        range("B1:C2"),
+                        range("C1:D2")
+                ),
+                2 * 10 + 10 * 2 + 3 * 1.5 + 1.5 * 2
+        );
+    }
+
+    @Test
+    public void testWholeColumnsDouble() {
+        this.sumProductAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                Lists.of(
+                        range("B1:B1048576"),
+                        range("C1:C1048576")
+                ),
+                2 * 10 + 3 * 1.5
+        );
+    }
+
+    @Test
+    public void testRowsBigDecimal() {
+        this.sumProductAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                Lists.of(
+                        range("B1:C2"),
+                        range("C1:D2")
+                ),
+                2 * 10 + 10 * 2 + 3 * 1.5 + 1.5 * 2
+        );
+    }
+
+    @Test
+    public void testDifferentShapeFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        range("B1:B4"),
+                                        range("C1:D2")
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    @Test
+    public void testNotRangeFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        KIND.one()
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    private void sumProductAndCheck(final ExpressionNumberKind kind,
+                                    final List<Object> parameters,
+                                    final double expected) {
+        this.checkEquals(
+                kind.create(expected),
+                this.createBiFunction()
+                        .apply(
+                                parameters,
+                                this.createContext(kind)
+                        ),
+                () -> "sumProduct " + parameters
+        );
+    }
+
+    private static SpreadsheetCellRangeReference range(final String range) {
+        return SpreadsheetSelection.parseCellRange(range);
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionSumProduct createBiFunction() {
+        return SpreadsheetServerExpressionFunctionSumProduct.INSTANCE;
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 1;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return this.createContext(KIND);
+    }
+
+    private SpreadsheetExpressionEvaluationContext createContext(final ExpressionNumberKind kind) {
+        final List<SpreadsheetCell> cells = Lists.of(
+                cell("B1", kind.create(2)),
+                cell("B2", kind.create(3)),
+                cell("B3", "x"),
+                cell("B4", kind.create(5)),
+                cell("C1", kind.create(10)),
+                cell("C2", kind.create(1.5)),
+                cell("C3", kind.create(7)),
+                cell("D1", kind.create(2)),
+                cell("D2", kind.create(2))
+        );
+
+        return new SpreadsheetServerTestContext(
+                kind,
+                cells
+        );
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionSumProduct> type() {
+        return SpreadsheetServerExpressionFunctionSumProduct.class;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.expression.function.SpreadsheetExpressionFunctions;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+
+public final class SpreadsheetServerExpressionFunctionUnresolvedReferencesTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionUnresolvedReferences<ExpressionNumber>, ExpressionNumber> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    @Test
+    public void testParametersWithoutResolveReferencesOrFlatten() {
+        for (final ExpressionFunction<ExpressionNumber, SpreadsheetExpressionEvaluationContext> function : Lists.of(
+                SpreadsheetServerExpressionFunctions.column(),
+                SpreadsheetServerExpressionFunctions.columns(),
+                SpreadsheetServerExpressionFunctions.row(),
+                SpreadsheetServerExpressionFunctions.rows()
+        )) {
+            for (final ExpressionFunctionParameter<?> parameter : function.parameters(1)) {
+                this.checkEquals(
+                        false,
+                        parameter.kinds().contains(ExpressionFunctionParameterKind.RESOLVE_REFERENCES),
+                        () -> function + " " + parameter + " kinds includes RESOLVE_REFERENCES"
+                );
+                this.checkEquals(
+                        false,
+                        parameter.kinds().contains(ExpressionFunctionParameterKind.FLATTEN),
+                        () -> function + " " + parameter + " kinds includes FLATTEN"
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testApplyCell() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCell("Z99")
+                ),
+                KIND.one()
+        );
+    }
+
+    @Test
+    public void testApplyRange() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("B3:D6")
+                ),
+                KIND.create(4)
+        );
+    }
+
+    @Test
+    public void testApplyHugeRange() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("A1:A1000000")
+                ),
+                KIND.create(1000000)
+        );
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionUnresolvedReferences<ExpressionNumber> createBiFunction() {
+        return SpreadsheetServerExpressionFunctionUnresolvedReferences.with(
+                SpreadsheetExpressionFunctions.rows()
+        );
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new FakeSpreadsheetExpressionEvaluationContext() {
+            @Override
+            public ExpressionNumberKind expressionNumberKind() {
+                return KIND;
+            }
+        };
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionUnresolvedReferences<ExpressionNumber>> type() {
+        return Cast.to(SpreadsheetServerExpressionFunctionUnresolvedReferences.class);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.SpreadsheetErrorKind;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerExpressionFunctionXLookupTest extends ExpressionFunctionTestCase<SpreadsheetServerExpressionFunctionXLookup, Object> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static List<SpreadsheetCell> CELLS = Lists.of(
+            cell("A1", "apple"),
+            cell("B1", KIND.create(10)),
+            cell("A2", "banana"),
+            cell("B2", KIND.create(20)),
+            cell("A3", "cherry"),
+            cell("A4", "banana"),
+            cell("B4", KIND.create(40)),
+            cell("A5", KIND.create(5)),
+            cell("B5", KIND.create(50)),
+            cell("C1", "Banana")
+    );
+
+    @Test
+    public void testExact() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "BANANA",
+                        range("A1:A5"),
+                        range("B1:B5")
+                ),
+                KIND.create(20)
+        );
+    }
+
+    @Test
+    public void testExactLast() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "banana",
+                        range("A1:A5"),
+                        range("B1:B5"),
+                        null,
+                        KIND.zero(),
+                        KIND.create(-1)
+                ),
+                KIND.create(40)
+        );
+    }
+
+    @Test
+    public void testValueReference() {
+        this.applyAndCheck2(
+                Lists.of(
+                        SpreadsheetSelection.parseCell("C1"),
+                        range("A1:A5"),
+                        range("B1:B5")
+                ),
+                KIND.create(20)
+        );
+    }
+
+    @Test
+    public void testBlankReturnsZero() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "cherry",
+                        range("A1:A5"),
+                        range("B1:B5")
+                ),
+                KIND.zero()
+        );
+    }
+
+    @Test
+    public void testNextSmaller() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "blueberry",
+                        range("A1:A5"),
+                        range("B1:B5"),
+                        null,
+                        KIND.create(-1)
+                ),
+                KIND.create(20)
+        );
+    }
+
+    @Test
+    public void testNextLarger() {
+        this.applyAndCheck2(
+                Lists.of(
+                        KIND.create(4),
+                        range("A1:A5"),
+                        range("B1:B5"),
+                        null,
+                        KIND.one()
+                ),
+                KIND.create(50)
+        );
+    }
+
+    @Test
+    public void testWildcard() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "ch*",
+                        range("A1:A5"),
+                        range("C1:C5"),
+                        null,
+                        KIND.create(2)
+                ),
+                KIND.zero()
+        );
+    }
+
+    @Test
+    public void testNotFound() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "durian",
+                        range("A1:A5"),
+                        range("B1:B5")
+                ),
+                SpreadsheetErrorKind.NA.setMessage("durian not found")
+        );
+    }
+
+    @Test
+    public void testNotFoundDefault() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "durian",
+                        range("A1:A5"),
+                        range("B1:B5"),
+                        "none"
+                ),
+                "none"
+        );
+    }
+
+    @Test
+    public void testReturnRow() {
+        this.applyAndCheck2(
+                Lists.of(
+                        "banana",
+                        range("A1:A2"),
+                        range("B1:C1")
+                ),
+                "Banana"
+        );
+    }
+
+    @Test
+    public void testReturnNotRowOrColumnFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        "apple",
+                                        range("A1:A5"),
+                                        range("B1:C5")
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    @Test
+    public void testDifferentSizesFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.createBiFunction()
+                        .apply(
+                                Lists.of(
+                                        "apple",
+                                        range("A1:A5"),
+                                        range("B1:B4")
+                                ),
+                                this.createContext()
+                        )
+        );
+    }
+
+    private static SpreadsheetCellRangeReference range(final String range) {
+        return SpreadsheetSelection.parseCellRange(range);
+    }
+
+    @Override
+    public SpreadsheetServerExpressionFunctionXLookup createBiFunction() {
+        return SpreadsheetServerExpressionFunctionXLookup.INSTANCE;
+    }
+
+    @Override
+    public int minimumParameterCount() {
+        return 3;
+    }
+
+    @Override
+    public SpreadsheetExpressionEvaluationContext createContext() {
+        return new SpreadsheetServerTestContext(
+                KIND,
+                CELLS
+        );
+    }
+
+    @Override
+    public Class<SpreadsheetServerExpressionFunctionXLookup> type() {
+        return SpreadsheetServerExpressionFunctionXLookup.class;
+    }
+}
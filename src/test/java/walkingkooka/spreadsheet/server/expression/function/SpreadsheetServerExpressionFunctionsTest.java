@@ -122,10 +122,18 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
                                             return "int";
                                         case "isoWeekNum":
                                             return "isoweeknum";
+                                        case "stdevP":
+                                            return "stdev.p";
+                                        case "stdevS":
+                                            return "stdev.s";
                                         case "switchFunction":
                                             return "switch";
                                         case "trueFunction":
                                             return "true";
+                                        case "varP":
+                                            return "var.p";
+                                        case "varS":
+                                            return "var.s";
                                         case "weekDay":
                                             return "weekday";
                                         case "weekNum":
@@ -329,6 +337,18 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testAverageMissingCellRange() {
+        this.evaluateAndValueCheck(
+                "=average(B1:B4)",
+                Maps.of(
+                        "B1", "1000",
+                        "B3", "3000"
+                ),
+                EXPRESSION_NUMBER_KIND.create(4000 / 4)
+        );
+    }
+
     @Test
     public void testAverageIfSomeValuesFiltered() {
         this.evaluateAndValueCheck(
@@ -342,6 +362,37 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testAverageIfs() {
+        this.evaluateAndValueCheck(
+                "=averageIfs(B2:B5, A2:A5, \"a*\", B2:B5, \">1\")",
+                Maps.of(
+                        "A2", "=\"apple\"",
+                        "A3", "=\"banana\"",
+                        "A4", "=\"apricot\"",
+                        "A5", "=\"avocado\"",
+                        "B2", "1",
+                        "B3", "20",
+                        "B4", "30",
+                        "B5", "60"
+                ),
+                EXPRESSION_NUMBER_KIND.create((30 + 60) / 2)
+        );
+    }
+
+    @Test
+    public void testAverageIfsTextNumbers() {
+        this.evaluateAndValueCheck(
+                "=averageIfs(A2:A4, A2:A4, \">100\")",
+                Maps.of(
+                        "A2", "=1", //
+                        "A3", "=200", //
+                        "A4", "=\"400\"" // string with number converted, like AVERAGEIF
+                ),
+                EXPRESSION_NUMBER_KIND.create(600 / 2)
+        );
+    }
+
     @Test
     public void testBase() {
         this.evaluateAndValueCheck(
@@ -350,6 +401,22 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testBaseRadix36() {
+        this.evaluateAndValueCheck(
+                "=base(1295, 36)",
+                "zz"
+        );
+    }
+
+    @Test
+    public void testBaseMinLength() {
+        this.evaluateAndValueCheck(
+                "=base(7, 2, 8)",
+                "00000111"
+        );
+    }
+
     @Test
     public void testBin2Dec() {
         this.evaluateAndValueCheck(
@@ -358,6 +425,38 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testBin2DecTenDigitsNegative() {
+        this.evaluateAndValueCheck(
+                "=bin2dec(\"1111111111\")",
+                "-1"
+        );
+    }
+
+    @Test
+    public void testBin2DecTenDigitsMostNegative() {
+        this.evaluateAndValueCheck(
+                "=bin2dec(\"1000000000\")",
+                "-512"
+        );
+    }
+
+    @Test
+    public void testBin2DecElevenDigits() {
+        this.evaluateAndValueCheck(
+                "=bin2dec(\"11111111111\")",
+                SpreadsheetErrorKind.NUM.setMessage("Invalid number 11111111111")
+        );
+    }
+
+    @Test
+    public void testBin2DecInvalidDigit() {
+        this.evaluateAndValueCheck(
+                "=bin2dec(\"102\")",
+                SpreadsheetErrorKind.NUM.setMessage("Invalid number 102")
+        );
+    }
+
     @Test
     public void testBin2Hex() {
         this.evaluateAndValueCheck(
@@ -487,6 +586,17 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testColumnsWithHugeRange() {
+        this.evaluateAndValueCheck(
+                "=columns(A2:XFD2)",
+                Maps.of(
+                        "B2", "=1"
+                ),
+                EXPRESSION_NUMBER_KIND.create(16384)
+        );
+    }
+
     @Test
     public void testConcatNumber() {
         this.evaluateAndValueCheck(
@@ -669,6 +779,32 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testCountWithSparseColumn() {
+        this.evaluateAndValueCheck(
+                "=count(B1:B1048576)",
+                Maps.of(
+                        "B2", "=1",
+                        "B1000", "=\"abc\"",
+                        "B1000000", "=300"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testCountASparseColumn() {
+        this.evaluateAndValueCheck(
+                "=countA(B1:B1048576)",
+                Maps.of(
+                        "B2", "=1",
+                        "B1000", "=\"abc\"",
+                        "B1000000", "=300"
+                ),
+                EXPRESSION_NUMBER_KIND.create(3)
+        );
+    }
+
     @Test
     public void testCountAEmptyString() {
         this.evaluateAndValueCheck(
@@ -741,6 +877,30 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testCountBlankSparseRange() {
+        this.evaluateAndValueCheck(
+                "=countBlank(B1:Z100000)",
+                Maps.of(
+                        "B2", "=1",
+                        "C99", "=\"abc\"",
+                        "Z100000", "=\"\""
+                ),
+                EXPRESSION_NUMBER_KIND.create(25 * 100000 - 3)
+        );
+    }
+
+    @Test
+    public void testCountBlankRangeAndMissingCell() {
+        this.evaluateAndValueCheck(
+                "=countBlank(B2:B4, Z99, 123)",
+                Maps.of(
+                        "B3", "=1"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2 + 1)
+        );
+    }
+
     @Test
     public void testCountIfOne() {
         this.evaluateAndValueCheck(
@@ -771,6 +931,36 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testCountIfs() {
+        this.evaluateAndValueCheck(
+                "=countIfs(A2:A5, \"apple\", B2:B5, \">=10\")",
+                Maps.of(
+                        "A2", "=\"apple\"",
+                        "A3", "=\"banana\"",
+                        "A4", "=\"Apple\"",
+                        "A5", "=\"apple\"",
+                        "B2", "10",
+                        "B3", "20",
+                        "B4", "30",
+                        "B5", "5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testCountIfsBlank() {
+        this.evaluateAndValueCheck(
+                "=countIfs(A2:A5, \"\")",
+                Maps.of(
+                        "A2", "1",
+                        "A4", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
     @Test
     public void testDate() {
         this.evaluateAndValueCheck(
@@ -811,6 +1001,46 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testDec2BinNegative() {
+        this.evaluateAndValueCheck(
+                "=dec2bin(-2)",
+                "1111111110"
+        );
+    }
+
+    @Test
+    public void testDec2BinMax() {
+        this.evaluateAndValueCheck(
+                "=dec2bin(511)",
+                "111111111"
+        );
+    }
+
+    @Test
+    public void testDec2BinMaxPlusOne() {
+        this.evaluateAndValueCheck(
+                "=dec2bin(512)",
+                SpreadsheetErrorKind.NUM.setMessage("Number 512 out of range")
+        );
+    }
+
+    @Test
+    public void testDec2BinMin() {
+        this.evaluateAndValueCheck(
+                "=dec2bin(-512)",
+                "1000000000"
+        );
+    }
+
+    @Test
+    public void testDec2BinMinMinusOne() {
+        this.evaluateAndValueCheck(
+                "=dec2bin(-513)",
+                SpreadsheetErrorKind.NUM.setMessage("Number -513 out of range")
+        );
+    }
+
     @Test
     public void testDec2Hex() {
         this.evaluateAndValueCheck(
@@ -843,6 +1073,14 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testDecimalRadix36() {
+        this.evaluateAndValueCheck(
+                "=decimal(\"ZZ\", 36)",
+                EXPRESSION_NUMBER_KIND.create(1295)
+        );
+    }
+
     @Test
     public void testDeltaNumbersEquals() {
         this.evaluateAndValueCheck(
@@ -1004,6 +1242,14 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testHex2BinUpperCase() {
+        this.evaluateAndValueCheck(
+                "=hex2bin(\"1F\")",
+                "11111"
+        );
+    }
+
     @Test
     public void testHex2Dec() {
         this.evaluateAndValueCheck(
@@ -1084,6 +1330,32 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testIndex() {
+        this.evaluateAndValueCheck(
+                "=index(B2:C4, 2, 2)",
+                Maps.of(
+                        "B3", "2",
+                        "C2", "10",
+                        "C3", "20",
+                        "C4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(20)
+        );
+    }
+
+    @Test
+    public void testIndexRow() {
+        this.evaluateAndValueCheck(
+                "=index(B2:D2, 3)",
+                Maps.of(
+                        "B2", "10",
+                        "D2", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(30)
+        );
+    }
+
     @Test
     public void testIndirect() {
         this.evaluateAndValueCheck(
@@ -1092,6 +1364,14 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testIndirectConcatenatedText() {
+        this.evaluateAndValueCheck(
+                "=indirect(\"B\"&\"2\")",
+                SpreadsheetSelection.parseCell("B2")
+        );
+    }
+
     @Test
     public void testInt() {
         this.evaluateAndValueCheck(
@@ -1417,6 +1697,22 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testLarge() {
+        this.evaluateAndValueCheck(
+                "=large(B2:B7, 2)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(4)
+        );
+    }
+
     @Test
     public void testLeftMissingCellReference() {
         this.evaluateAndValueCheck(
@@ -1497,7 +1793,15 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
     public void testLog() {
         this.evaluateAndValueCheck(
                 "=log(3, 2)",
-                EXPRESSION_NUMBER_KIND.create(1.584962)
+                EXPRESSION_NUMBER_KIND.create(1.584963)
+        );
+    }
+
+    @Test
+    public void testLogCorrectlyRounded() {
+        this.evaluateAndValueCheck(
+                "=log(8, 2)",
+                EXPRESSION_NUMBER_KIND.create(3)
         );
     }
 
@@ -1527,6 +1831,32 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testMatchExact() {
+        this.evaluateAndValueCheck(
+                "=match(\"b*\", B2:B4, 0)",
+                Maps.of(
+                        "B2", "=\"apple\"",
+                        "B3", "=\"banana\"",
+                        "B4", "=\"cherry\""
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testMatchApproximate() {
+        this.evaluateAndValueCheck(
+                "=match(25, B2:B4)",
+                Maps.of(
+                        "B2", "10",
+                        "B3", "20",
+                        "B4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
     @Test
     public void testMax() {
         this.evaluateAndValueCheck(
@@ -1540,6 +1870,17 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testMaxMissingCellsIgnored() {
+        this.evaluateAndValueCheck(
+                "=max(B1:D1)",
+                Maps.of(
+                        "C1", "-5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(-5)
+        );
+    }
+
     @Test
     public void testMaxIf() {
         this.evaluateAndValueCheck(
@@ -1553,6 +1894,54 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testMaxIfs() {
+        this.evaluateAndValueCheck(
+                "=maxIfs(B2:B4, A2:A4, \"<>banana\")",
+                Maps.of(
+                        "A2", "=\"apple\"",
+                        "A3", "=\"banana\"",
+                        "A4", "=\"cherry\"",
+                        "B2", "10",
+                        "B3", "200",
+                        "B4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(30)
+        );
+    }
+
+    @Test
+    public void testMedian() {
+        this.evaluateAndValueCheck(
+                "=median(B2:B7)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(3)
+        );
+    }
+
+    @Test
+    public void testMedianEven() {
+        this.evaluateAndValueCheck(
+                "=median(B2:B7, 6)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(3.5)
+        );
+    }
+
     @Test
     public void testMid() {
         this.evaluateAndValueCheck(
@@ -1574,6 +1963,26 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testMinMissingCellsIgnored() {
+        this.evaluateAndValueCheck(
+                "=min(B1:D1)",
+                Maps.of(
+                        "C1", "5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(5)
+        );
+    }
+
+    @Test
+    public void testMinEmptyRange() {
+        this.evaluateAndValueCheck(
+                "=min(B1:D1)",
+                Maps.empty(),
+                EXPRESSION_NUMBER_KIND.zero()
+        );
+    }
+
     @Test
     public void testMinIf() {
         this.evaluateAndValueCheck(
@@ -1587,6 +1996,22 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testMinIfs() {
+        this.evaluateAndValueCheck(
+                "=minIfs(B2:B4, A2:A4, \"<>banana\")",
+                Maps.of(
+                        "A2", "=\"apple\"",
+                        "A3", "=\"banana\"",
+                        "A4", "=\"cherry\"",
+                        "B2", "10",
+                        "B3", "-200",
+                        "B4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(10)
+        );
+    }
+
     @Test
     public void testMinute() {
         this.evaluateAndValueCheck(
@@ -1716,6 +2141,22 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testPercentile() {
+        this.evaluateAndValueCheck(
+                "=percentile(B2:B7, 0.3)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2.2)
+        );
+    }
+
     @Test
     public void testPi() {
         this.evaluateAndValueCheck(
@@ -1732,6 +2173,19 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testProductRange() {
+        this.evaluateAndValueCheck(
+                "=product(B1:B3, 2.5)",
+                Maps.of(
+                        "B1", "2",
+                        "B2", "3",
+                        "B3", "4"
+                ),
+                EXPRESSION_NUMBER_KIND.create(60)
+        );
+    }
+
     @Test
     public void testProper() {
         this.evaluateAndValueCheck(
@@ -1748,6 +2202,22 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testQuartile() {
+        this.evaluateAndValueCheck(
+                "=quartile(B2:B7, 1)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
     @Test
     public void testQuotient() {
         this.evaluateAndValueCheck(
@@ -1820,6 +2290,14 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testRomanMaximum() {
+        this.evaluateAndValueCheck(
+                "=roman(3999)",
+                "MMMCMXCIX"
+        );
+    }
+
     @Test
     public void testRound() {
         this.evaluateAndValueCheck(
@@ -1876,6 +2354,18 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testRowsWithHugeRange() {
+        this.evaluateAndValueCheck(
+                "=rows(B1:B1000000)",
+                Maps.of(
+                        "B5", "=1",
+                        "B999", "=\"abc\""
+                ),
+                EXPRESSION_NUMBER_KIND.create(1000000)
+        );
+    }
+
     @Test
     public void testSearchCaseWithInsensitiveFound() {
         this.evaluateAndValueCheck(
@@ -1972,6 +2462,30 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testSmall() {
+        this.evaluateAndValueCheck(
+                "=small(B2:B7, 2)",
+                Maps.of(
+                        "B2", "5",
+                        "B3", "1",
+                        "B4", "=\"x\"",
+                        "B5", "4",
+                        "B6", "2",
+                        "B7", "3"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testSqrtExact() {
+        this.evaluateAndValueCheck(
+                "=sqrt(144)",
+                EXPRESSION_NUMBER_KIND.create(12)
+        );
+    }
+
     @Test
     public void testSqrtWithNegativeNumber() {
         this.evaluateAndValueCheck(
@@ -1988,6 +2502,38 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testStdevP() {
+        this.evaluateAndValueCheck(
+                "=stdev.p(B2:B9)",
+                Maps.of(
+                        "B2", "2",
+                        "B3", "4",
+                        "B4", "4",
+                        "B5", "4",
+                        "B6", "5",
+                        "B7", "5",
+                        "B8", "7",
+                        "B9", "9"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
+    @Test
+    public void testStdevS() {
+        this.evaluateAndValueCheck(
+                "=stdev.s(B2:B5)",
+                Maps.of(
+                        "B2", "1",
+                        "B3", "=\"x\"",
+                        "B4", "3",
+                        "B5", "5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(2)
+        );
+    }
+
     @Test
     public void testSubstitute() {
         this.evaluateAndValueCheck(
@@ -2052,6 +2598,32 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testSumSparseColumn() {
+        this.evaluateAndValueCheck(
+                "=sum(B1:B1048576)",
+                Maps.of(
+                        "B2", "1000",
+                        "B1000000", "=\"20\""
+                ),
+                EXPRESSION_NUMBER_KIND.create(1000 + 20)
+        );
+    }
+
+    @Test
+    public void testSumWholeAndFractions() {
+        this.evaluateAndValueCheck(
+                "=sum(B1:B4)",
+                Maps.of(
+                        "B1", "1000",
+                        "B2", "0.5",
+                        "B3", "20",
+                        "B4", "0.25"
+                ),
+                EXPRESSION_NUMBER_KIND.create(1020.75)
+        );
+    }
+
     @Test
     public void testSumIfOne() {
         this.evaluateAndValueCheck(
@@ -2081,6 +2653,57 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testSumIfs() {
+        this.evaluateAndValueCheck(
+                "=sumIfs(C2:C5, A2:A5, \"apple\", B2:B5, \"<3\")",
+                Maps.of(
+                        "A2", "=\"apple\"",
+                        "A3", "=\"apple\"",
+                        "A4", "=\"banana\"",
+                        "A5", "=\"apple\"",
+                        "B2", "1",
+                        "B3", "2",
+                        "B4", "1",
+                        "B5", "3",
+                        "C2", "100",
+                        "C3", "20.5",
+                        "C4", "3000",
+                        "C5", "40000"
+                ),
+                EXPRESSION_NUMBER_KIND.create(120.5)
+        );
+    }
+
+    @Test
+    public void testSumIfsTextNumbers() {
+        this.evaluateAndValueCheck(
+                "=sumIfs(A2:A4, A2:A4, \">100\")",
+                Maps.of(
+                        "A2", "=1", //
+                        "A3", "=200", //
+                        "A4", "=\"400\"" // string with number converted, like SUMIF
+                ),
+                EXPRESSION_NUMBER_KIND.create(600)
+        );
+    }
+
+    @Test
+    public void testSumProduct() {
+        this.evaluateAndValueCheck(
+                "=sumProduct(B2:B4, C2:C4)",
+                Maps.of(
+                        "B2", "2",
+                        "B3", "3",
+                        "B4", "4",
+                        "C2", "10",
+                        "C3", "=\"x\"",
+                        "C4", "0.5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(22)
+        );
+    }
+
     @Test
     public void testSwitchFirst() {
         this.evaluateAndValueCheck(
@@ -2334,6 +2957,78 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testVarP() {
+        this.evaluateAndValueCheck(
+                "=var.p(B2:B9)",
+                Maps.of(
+                        "B2", "2",
+                        "B3", "4",
+                        "B4", "4",
+                        "B5", "4",
+                        "B6", "5",
+                        "B7", "5",
+                        "B8", "7",
+                        "B9", "9"
+                ),
+                EXPRESSION_NUMBER_KIND.create(4)
+        );
+    }
+
+    @Test
+    public void testVarS() {
+        this.evaluateAndValueCheck(
+                "=var.s(B2:B5)",
+                Maps.of(
+                        "B2", "1",
+                        "B3", "=\"x\"",
+                        "B4", "3",
+                        "B5", "5"
+                ),
+                EXPRESSION_NUMBER_KIND.create(4)
+        );
+    }
+
+    @Test
+    public void testVarSWithValues() {
+        this.evaluateAndValueCheck(
+                "=var.s(1, 3, 5)",
+                EXPRESSION_NUMBER_KIND.create(4)
+        );
+    }
+
+    @Test
+    public void testVLookupExact() {
+        this.evaluateAndValueCheck(
+                "=vLookup(\"banana\", B2:C4, 2, false())",
+                Maps.of(
+                        "B2", "=\"apple\"",
+                        "B3", "=\"banana\"",
+                        "B4", "=\"cherry\"",
+                        "C2", "10",
+                        "C3", "20",
+                        "C4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(20)
+        );
+    }
+
+    @Test
+    public void testVLookupApproximate() {
+        this.evaluateAndValueCheck(
+                "=vLookup(25, B2:C4, 2)",
+                Maps.of(
+                        "B2", "10",
+                        "B3", "20",
+                        "B4", "30",
+                        "C2", "=\"ten\"",
+                        "C3", "=\"twenty\"",
+                        "C4", "=\"thirty\""
+                ),
+                "twenty"
+        );
+    }
+
     @Test
     public void testWeekday() {
         this.evaluateAndValueCheck(
@@ -2358,6 +3053,34 @@ public final class SpreadsheetServerExpressionFunctionsTest implements PublicSta
         );
     }
 
+    @Test
+    public void testXLookup() {
+        this.evaluateAndValueCheck(
+                "=xLookup(\"cherry\", B2:B4, C2:C4)",
+                Maps.of(
+                        "B2", "=\"apple\"",
+                        "B3", "=\"banana\"",
+                        "B4", "=\"cherry\"",
+                        "C2", "10",
+                        "C3", "20",
+                        "C4", "30"
+                ),
+                EXPRESSION_NUMBER_KIND.create(30)
+        );
+    }
+
+    @Test
+    public void testXLookupIfNotFound() {
+        this.evaluateAndValueCheck(
+                "=xLookup(\"durian\", B2:B4, C2:C4, \"none\")",
+                Maps.of(
+                        "B2", "=\"apple\"",
+                        "C2", "10"
+                ),
+                "none"
+        );
+    }
+
     @Test
     public void testXorTrueTrueTrue() {
         this.evaluateAndValueCheck(
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContext;
+import walkingkooka.tree.expression.ExpressionNumberContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+
+public final class SpreadsheetServerExpressionNumberAccumulatorTest implements ClassTesting2<SpreadsheetServerExpressionNumberAccumulator> {
+
+    @Test
+    public void testLimitDouble() {
+        this.limitAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL32,
+                1L << 53
+        );
+    }
+
+    @Test
+    public void testLimitBigDecimalDecimal32() {
+        this.limitAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32,
+                10_000_000L
+        );
+    }
+
+    @Test
+    public void testLimitBigDecimalUnlimited() {
+        this.limitAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.UNLIMITED,
+                1_000_000_000_000_000_000L
+        );
+    }
+
+    private void limitAndCheck(final ExpressionNumberKind kind,
+                               final MathContext mathContext,
+                               final long expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionNumberAccumulator.limit(
+                        ExpressionNumberContexts.basic(
+                                kind,
+                                mathContext
+                        )
+                ),
+                () -> "limit " + kind + " " + mathContext
+        );
+    }
+
+    @Test
+    public void testSumEmpty() {
+        this.sumAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.zero()
+        );
+    }
+
+    @Test
+    public void testSumWhole() {
+        this.sumAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.BIG_DECIMAL.create(6),
+                1,
+                2,
+                3
+        );
+    }
+
+    @Test
+    public void testSumNegative() {
+        this.sumAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(-4),
+                1,
+                -2,
+                -3
+        );
+    }
+
+    @Test
+    public void testSumFraction() {
+        this.sumAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(6.5),
+                1,
+                2.5,
+                3
+        );
+    }
+
+    @Test
+    public void testSumBigDecimalPrecisionRounded() {
+        // 9999999 + 2 is rounded to 7 digits, matching ExpressionNumber#add
+        final ExpressionNumberContext context = ExpressionNumberContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32
+        );
+
+        this.sumAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32,
+                ExpressionNumberKind.BIG_DECIMAL.create(9_999_999)
+                        .add(
+                                ExpressionNumberKind.BIG_DECIMAL.create(2),
+                                context
+                        ),
+                9_999_999,
+                2
+        );
+    }
+
+    @Test
+    public void testSumDoubleBeyondLimit() {
+        final double large = 1L << 53;
+
+        this.sumAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(large + 1 + 1),
+                large,
+                1,
+                1
+        );
+    }
+
+    private void sumAndCheck(final ExpressionNumberKind kind,
+                             final MathContext mathContext,
+                             final ExpressionNumber expected,
+                             final Number... numbers) {
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(
+                ExpressionNumberContexts.basic(
+                        kind,
+                        mathContext
+                )
+        );
+        for (final Number number : numbers) {
+            sum.accept(kind.create(number));
+        }
+
+        this.checkEquals(
+                expected,
+                sum.result(),
+                () -> "sum " + sum
+        );
+    }
+
+    @Test
+    public void testProductEmpty() {
+        this.productAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.BIG_DECIMAL.one()
+        );
+    }
+
+    @Test
+    public void testProductWhole() {
+        this.productAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.BIG_DECIMAL.create(-24),
+                2,
+                -3,
+                4
+        );
+    }
+
+    @Test
+    public void testProductZero() {
+        this.productAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.zero(),
+                2,
+                0,
+                4
+        );
+    }
+
+    @Test
+    public void testProductFraction() {
+        this.productAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(3.0),
+                2,
+                0.5,
+                3
+        );
+    }
+
+    @Test
+    public void testProductOverflow() {
+        this.productAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(1.0E18 * 1.0E18 * 10),
+                1_000_000_000_000_000_000L,
+                1_000_000_000_000_000_000L,
+                10
+        );
+    }
+
+    @Test
+    public void testProductBeyondLimit() {
+        this.productAndCheck(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64,
+                ExpressionNumberKind.DOUBLE.create(4294967296.0 * 4294967296.0 * 3),
+                4294967296L,
+                4294967296L,
+                3
+        );
+    }
+
+    private void productAndCheck(final ExpressionNumberKind kind,
+                                 final MathContext mathContext,
+                                 final ExpressionNumber expected,
+                                 final Number... numbers) {
+        final SpreadsheetServerExpressionNumberAccumulator product = SpreadsheetServerExpressionNumberAccumulator.product(
+                ExpressionNumberContexts.basic(
+                        kind,
+                        mathContext
+                )
+        );
+        for (final Number number : numbers) {
+            product.accept(kind.create(number));
+        }
+
+        this.checkEquals(
+                expected,
+                product.result(),
+                () -> "product " + product
+        );
+    }
+
+    @Test
+    public void testAcceptLongAndDouble() {
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(
+                ExpressionNumberContexts.basic(
+                        ExpressionNumberKind.DOUBLE,
+                        MathContext.DECIMAL64
+                )
+        );
+        sum.accept(10L);
+        sum.accept(2.0);
+        sum.accept(0.25);
+        sum.accept(1L << 60);
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(10 + 2.0 + 0.25 + (1L << 60)),
+                sum.result()
+        );
+    }
+
+    @Test
+    public void testAcceptLongBigDecimalBeyondLimit() {
+        final ExpressionNumberContext context = ExpressionNumberContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL32
+        );
+
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        sum.accept(9_999_999L);
+        sum.accept(2L);
+
+        this.checkEquals(
+                ExpressionNumberKind.BIG_DECIMAL.create(9_999_999)
+                        .add(
+                                ExpressionNumberKind.BIG_DECIMAL.create(2),
+                                context
+                        ),
+                sum.result()
+        );
+    }
+
+    @Test
+    public void testMergeSum() {
+        final ExpressionNumberContext context = ExpressionNumberContexts.basic(
+                ExpressionNumberKind.BIG_DECIMAL,
+                MathContext.DECIMAL64
+        );
+
+        final SpreadsheetServerExpressionNumberAccumulator sum = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        sum.accept(ExpressionNumberKind.BIG_DECIMAL.create(10));
+
+        final SpreadsheetServerExpressionNumberAccumulator other = SpreadsheetServerExpressionNumberAccumulator.sum(context);
+        other.accept(ExpressionNumberKind.BIG_DECIMAL.create(20));
+        other.accept(ExpressionNumberKind.BIG_DECIMAL.create(0.5));
+
+        sum.merge(other);
+
+        this.checkEquals(
+                ExpressionNumberKind.BIG_DECIMAL.create(30.5),
+                sum.result()
+        );
+    }
+
+    @Test
+    public void testMergeProduct() {
+        final ExpressionNumberContext context = ExpressionNumberContexts.basic(
+                ExpressionNumberKind.DOUBLE,
+                MathContext.DECIMAL64
+        );
+
+        final SpreadsheetServerExpressionNumberAccumulator product = SpreadsheetServerExpressionNumberAccumulator.product(context);
+        product.accept(ExpressionNumberKind.DOUBLE.create(3));
+
+        final SpreadsheetServerExpressionNumberAccumulator other = SpreadsheetServerExpressionNumberAccumulator.product(context);
+        other.accept(ExpressionNumberKind.DOUBLE.create(-4));
+
+        product.merge(other);
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(-12),
+                product.result()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerExpressionNumberAccumulator> type() {
+        return SpreadsheetServerExpressionNumberAccumulator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.BigDecimal;
+
+public final class SpreadsheetServerExpressionNumbersTest implements ClassTesting2<SpreadsheetServerExpressionNumbers> {
+
+    private final static long NOT = SpreadsheetServerExpressionNumbers.NOT_LONG;
+
+    @Test
+    public void testExactLongDoubleZero() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.zero(), 0);
+    }
+
+    @Test
+    public void testExactLongDoubleNegative() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.create(-123), -123);
+    }
+
+    @Test
+    public void testExactLongDoubleFraction() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.create(1.5), NOT);
+    }
+
+    @Test
+    public void testExactLongDoubleNaN() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.create(Double.NaN), NOT);
+    }
+
+    @Test
+    public void testExactLongDoubleInfinity() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.create(Double.POSITIVE_INFINITY), NOT);
+    }
+
+    @Test
+    public void testExactLongDoubleTooLarge() {
+        this.exactLongAndCheck(ExpressionNumberKind.DOUBLE.create(1E19), NOT);
+    }
+
+    @Test
+    public void testExactLongBigDecimalZero() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("0.000")), 0);
+    }
+
+    @Test
+    public void testExactLongBigDecimalTrailingZeros() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("123.000")), 123);
+    }
+
+    @Test
+    public void testExactLongBigDecimalNegativeScale() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("-1E+3")), -1000);
+    }
+
+    @Test
+    public void testExactLongBigDecimalFraction() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("1.25")), NOT);
+    }
+
+    @Test
+    public void testExactLongBigDecimal18Digits() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("999999999999999999")), 999999999999999999L);
+    }
+
+    @Test
+    public void testExactLongBigDecimal19Digits() {
+        this.exactLongAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("1000000000000000000")), NOT);
+    }
+
+    private void exactLongAndCheck(final ExpressionNumber number,
+                                   final long expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionNumbers.exactLong(number),
+                () -> "exactLong " + number
+        );
+    }
+
+    @Test
+    public void testExactLongLimit() {
+        this.exactLongLimitAndCheck(ExpressionNumberKind.DOUBLE.create(255), 256, 255);
+    }
+
+    @Test
+    public void testExactLongLimitTooLarge() {
+        this.exactLongLimitAndCheck(ExpressionNumberKind.DOUBLE.create(256), 256, -1);
+    }
+
+    @Test
+    public void testExactLongLimitNegative() {
+        this.exactLongLimitAndCheck(ExpressionNumberKind.BIG_DECIMAL.create(-1), 256, -1);
+    }
+
+    private void exactLongLimitAndCheck(final ExpressionNumber number,
+                                        final long limit,
+                                        final long expected) {
+        this.checkEquals(
+                expected,
+                SpreadsheetServerExpressionNumbers.exactLong(number, limit),
+                () -> "exactLong " + number + " limit " + limit
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerExpressionNumbers> type() {
+        return SpreadsheetServerExpressionNumbers.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class SpreadsheetServerLookupIndexCacheTest implements ClassTesting2<SpreadsheetServerLookupIndexCache> {
+
+    @Test
+    public void testSameContextLoadedOnce() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        assertSame(
+                cache.get(range("A1:A10"), context),
+                cache.get(range("A1:A10"), context)
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testDifferentRangesLoaded() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        assertNotSame(
+                cache.get(range("A1:A10"), context),
+                cache.get(range("B1:B10"), context)
+        );
+        this.checkEquals(2, context.loads, "loads");
+        this.checkEquals("[A1:A10, B1:B10]", cache.toString());
+    }
+
+    @Test
+    public void testDifferentContextShared() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+        final SpreadsheetServerTestContext context2 = new SpreadsheetServerTestContext(Lists.empty());
+
+        assertSame(
+                cache.get(range("A1:A10"), context),
+                cache.get(range("A1:A10"), context2)
+        );
+
+        this.checkEquals(1, context.loads, "loads");
+        this.checkEquals(0, context2.loads, "loads2");
+    }
+
+    @Test
+    public void testClearLoadedAgain() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        cache.get(range("A1:A10"), context);
+        cache.clear();
+        this.checkEquals("[]", cache.toString());
+
+        cache.get(range("A1:A10"), context);
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testCellChangedLoadedAgain() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        final SpreadsheetServerLookupIndex index = cache.get(range("A1:A10"), context);
+        cache.cellChanged(SpreadsheetSelection.parseCell("$A$2"));
+
+        assertNotSame(
+                index,
+                cache.get(range("A1:A10"), context)
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testCellChangedOutsideKept() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("B1:B10"), context);
+        cache.cellChanged(SpreadsheetSelection.parseCell("B2"));
+
+        this.checkEquals("[A1:A10]", cache.toString());
+    }
+
+    @Test
+    public void testCellChangedWhileLoadingNotKept() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty()) {
+            @Override
+            public Set<SpreadsheetCell> loadCellRange(final SpreadsheetCellRangeReference range) {
+                cache.cellChanged(SpreadsheetSelection.parseCell("Z99"));
+                return super.loadCellRange(range);
+            }
+        };
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("A1:A10"), context);
+
+        this.checkEquals(2, context.loads, "loads");
+        this.checkEquals("[]", cache.toString());
+    }
+
+    @Test
+    public void testMaxIndicesRemovesLeastRecentlyUsed() {
+        final SpreadsheetServerLookupIndexCache cache = new SpreadsheetServerLookupIndexCache();
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(Lists.empty());
+
+        for (int i = 1; i <= SpreadsheetServerLookupIndexCache.MAX_INDICES + 1; i++) {
+            cache.get(range("A" + i + ":A" + (i + 1)), context);
+        }
+        cache.get(range("A1:A2"), context);
+
+        this.checkEquals(SpreadsheetServerLookupIndexCache.MAX_INDICES + 2, context.loads, "loads");
+    }
+
+    private static SpreadsheetCellRangeReference range(final String range) {
+        return SpreadsheetSelection.parseCellRange(range);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerLookupIndexCache> type() {
+        return SpreadsheetServerLookupIndexCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerLookupIndexTest implements ClassTesting2<SpreadsheetServerLookupIndex> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static int NOT_FOUND = SpreadsheetServerLookupIndex.NOT_FOUND;
+
+    @Test
+    public void testSize() {
+        this.checkEquals(8, this.index().size());
+    }
+
+    @Test
+    public void testValue() {
+        final SpreadsheetServerLookupIndex index = this.index();
+
+        this.checkEquals("b", index.value(1), "1");
+        this.checkEquals(null, index.value(2), "2");
+        this.checkEquals(KIND.create(5), index.value(7), "7");
+    }
+
+    @Test
+    public void testExactNumber() {
+        this.checkEquals(0, this.index().exact(KIND.create(3), false));
+    }
+
+    @Test
+    public void testExactNumberLast() {
+        this.checkEquals(5, this.index().exact(KIND.create(3), true));
+    }
+
+    @Test
+    public void testExactNumberDifferentScale() {
+        this.checkEquals(0, this.index().exact(KIND.create(3.0), false));
+    }
+
+    @Test
+    public void testExactTextIgnoresCase() {
+        this.checkEquals(1, this.index().exact("B", false));
+        this.checkEquals(4, this.index().exact("a", false));
+    }
+
+    @Test
+    public void testExactBoolean() {
+        this.checkEquals(6, this.index().exact(true, false));
+    }
+
+    @Test
+    public void testExactNotFound() {
+        this.checkEquals(NOT_FOUND, this.index().exact(KIND.create(2), false));
+    }
+
+    @Test
+    public void testExactBlankNotFound() {
+        this.checkEquals(NOT_FOUND, this.index().exact(null, false));
+    }
+
+    @Test
+    public void testLessOrEqual() {
+        this.checkEquals(0, this.index().lessOrEqual(KIND.create(4), false));
+    }
+
+    @Test
+    public void testLessOrEqualLast() {
+        this.checkEquals(5, this.index().lessOrEqual(KIND.create(4), true));
+    }
+
+    @Test
+    public void testLessOrEqualLargest() {
+        this.checkEquals(7, this.index().lessOrEqual(KIND.create(100), true));
+    }
+
+    @Test
+    public void testLessOrEqualTooSmall() {
+        this.checkEquals(NOT_FOUND, this.index().lessOrEqual(KIND.zero(), true));
+    }
+
+    @Test
+    public void testLessOrEqualText() {
+        this.checkEquals(1, this.index().lessOrEqual("c", true));
+        this.checkEquals(4, this.index().lessOrEqual("AZ", true));
+    }
+
+    @Test
+    public void testLessOrEqualTextNeverNumber() {
+        this.checkEquals(NOT_FOUND, this.index().lessOrEqual("0", true));
+    }
+
+    @Test
+    public void testGreaterOrEqual() {
+        this.checkEquals(0, this.index().greaterOrEqual(KIND.create(2), false));
+    }
+
+    @Test
+    public void testGreaterOrEqualLast() {
+        this.checkEquals(5, this.index().greaterOrEqual(KIND.create(2), true));
+    }
+
+    @Test
+    public void testGreaterOrEqualNeverText() {
+        this.checkEquals(NOT_FOUND, this.index().greaterOrEqual(KIND.create(6), false));
+    }
+
+    @Test
+    public void testFind() {
+        this.checkEquals(
+                4,
+                this.index().find(
+                        SpreadsheetServerCriteria.parse("=a*", KIND),
+                        false
+                )
+        );
+    }
+
+    @Test
+    public void testFindFirstAndLast() {
+        final SpreadsheetServerCriteria criteria = SpreadsheetServerCriteria.parse("=?", KIND);
+
+        this.checkEquals(1, this.index().find(criteria, false), "first");
+        this.checkEquals(4, this.index().find(criteria, true), "last");
+    }
+
+    private SpreadsheetServerLookupIndex index() {
+        return SpreadsheetServerLookupIndex.with(
+                Lists.of(
+                        KIND.create(3),
+                        "b",
+                        null,
+                        KIND.one(),
+                        "A",
+                        KIND.create(3),
+                        true,
+                        KIND.create(5)
+                )
+        );
+    }
+
+    @Test
+    public void testLoadColumn() {
+        final SpreadsheetServerLookupIndex index = SpreadsheetServerLookupIndex.load(
+                SpreadsheetSelection.parseCellRange("B2:B5"),
+                new SpreadsheetServerTestContext(
+                        Lists.of(
+                                cell("B3", "x"),
+                                cell("B5", "y")
+                        )
+                )
+        );
+
+        this.checkEquals(4, index.size(), "size");
+        this.checkEquals(1, index.exact("x", false), "x");
+        this.checkEquals(3, index.exact("y", false), "y");
+    }
+
+    @Test
+    public void testLoadRow() {
+        final SpreadsheetServerLookupIndex index = SpreadsheetServerLookupIndex.load(
+                SpreadsheetSelection.parseCellRange("B2:D2"),
+                new SpreadsheetServerTestContext(
+                        Lists.of(
+                                cell("D2", "z")
+                        )
+                )
+        );
+
+        this.checkEquals(3, index.size(), "size");
+        this.checkEquals("z", index.value(2), "value");
+    }
+
+    @Test
+    public void testLoadTableFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerLookupIndex.load(
+                        SpreadsheetSelection.parseCellRange("B2:C3"),
+                        new FakeSpreadsheetExpressionEvaluationContext()
+                )
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerLookupIndex> type() {
+        return SpreadsheetServerLookupIndex.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
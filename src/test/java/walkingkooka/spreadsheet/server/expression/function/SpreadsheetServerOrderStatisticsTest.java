@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.ExpressionNumberContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerOrderStatisticsTest implements ClassTesting2<SpreadsheetServerOrderStatistics> {
+
+    @Test
+    public void testSizeIgnoresNotNumbers() {
+        this.checkEquals(
+                6,
+                this.statistics(ExpressionNumberKind.BIG_DECIMAL)
+                        .size()
+        );
+    }
+
+    @Test
+    public void testGetBigDecimal() {
+        this.getAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    @Test
+    public void testGetDouble() {
+        this.getAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    private void getAndCheck(final ExpressionNumberKind kind) {
+        for (int k = 0; k < 6; k++) {
+            this.checkEquals(
+                    kind.create(k + 1),
+                    this.statistics(kind)
+                            .get(k),
+                    "get " + k
+            );
+        }
+    }
+
+    @Test
+    public void testGetInvalidFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.statistics(ExpressionNumberKind.BIG_DECIMAL)
+                        .get(6)
+        );
+    }
+
+    @Test
+    public void testMedianEvenBigDecimal() {
+        this.checkEquals(
+                ExpressionNumberKind.BIG_DECIMAL.create(3.5),
+                this.statistics(ExpressionNumberKind.BIG_DECIMAL)
+                        .median()
+        );
+    }
+
+    @Test
+    public void testMedianEvenDouble() {
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(3.5),
+                this.statistics(ExpressionNumberKind.DOUBLE)
+                        .median()
+        );
+    }
+
+    @Test
+    public void testMedianOdd() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+
+        this.checkEquals(
+                kind.create(2),
+                SpreadsheetServerOrderStatistics.with(
+                        Lists.of(
+                                kind.create(3),
+                                kind.create(1),
+                                kind.create(2)
+                        ),
+                        ExpressionNumberContexts.basic(
+                                kind,
+                                MathContext.DECIMAL64
+                        )
+                ).median()
+        );
+    }
+
+    @Test
+    public void testMedianEmptyFails() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerOrderStatistics.with(
+                        Lists.of("x"),
+                        ExpressionNumberContexts.basic(
+                                kind,
+                                MathContext.DECIMAL64
+                        )
+                ).median()
+        );
+    }
+
+    @Test
+    public void testPercentileBigDecimal() {
+        this.percentileAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    @Test
+    public void testPercentileDouble() {
+        this.percentileAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    private void percentileAndCheck(final ExpressionNumberKind kind) {
+        this.checkEquals(kind.create(1), this.statistics(kind).percentile(kind.zero()), "0");
+        this.checkEquals(kind.create(2.25), this.statistics(kind).percentile(kind.create(0.25)), "0.25");
+        this.checkEquals(kind.create(6), this.statistics(kind).percentile(kind.one()), "1");
+    }
+
+    @Test
+    public void testPercentileInvalidFails() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.BIG_DECIMAL;
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.statistics(kind)
+                        .percentile(kind.create(1.5))
+        );
+    }
+
+    private SpreadsheetServerOrderStatistics statistics(final ExpressionNumberKind kind) {
+        return SpreadsheetServerOrderStatistics.with(
+                Lists.of(
+                        kind.create(5),
+                        kind.one(),
+                        kind.create(4),
+                        "x",
+                        kind.create(2),
+                        true,
+                        kind.create(3),
+                        kind.create(6)
+                ),
+                ExpressionNumberContexts.basic(
+                        kind,
+                        MathContext.DECIMAL64
+                )
+        );
+    }
+
+    @Test
+    public void testSelectDoubles() {
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 1000; i++) {
+            final int count = 1 + random.nextInt(100);
+            final double[] values = new double[count];
+            for (int j = 0; j < count; j++) {
+                values[j] = 0 == i % 2 ?
+                        random.nextInt(5) :
+                        random.nextDouble();
+            }
+
+            final double[] sorted = values.clone();
+            Arrays.sort(sorted);
+
+            final int k = random.nextInt(count);
+            SpreadsheetServerOrderStatistics.select(
+                    values,
+                    0,
+                    count - 1,
+                    k
+            );
+
+            this.checkEquals(sorted[k], values[k], "select " + k);
+        }
+    }
+
+    @Test
+    public void testSelectNumbers() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.BIG_DECIMAL;
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            final int count = 1 + random.nextInt(100);
+            final ExpressionNumber[] values = new ExpressionNumber[count];
+            for (int j = 0; j < count; j++) {
+                values[j] = kind.create(random.nextInt(50));
+            }
+
+            final ExpressionNumber[] sorted = values.clone();
+            Arrays.sort(sorted);
+
+            final int k = random.nextInt(count);
+            SpreadsheetServerOrderStatistics.select(
+                    values,
+                    0,
+                    count - 1,
+                    k
+            );
+
+            this.checkEquals(sorted[k], values[k], "select " + k);
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerOrderStatistics> type() {
+        return SpreadsheetServerOrderStatistics.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
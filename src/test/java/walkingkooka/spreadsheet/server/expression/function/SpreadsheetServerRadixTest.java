@@ -0,0 +1,334 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+public final class SpreadsheetServerRadixTest implements ClassTesting2<SpreadsheetServerRadix> {
+
+    private final static long INVALID = SpreadsheetServerRadix.INVALID;
+
+    private final static int NO_PLACES = SpreadsheetServerRadix.NO_PLACES;
+
+    // parse............................................................................................................
+
+    @Test
+    public void testParseBinary() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "1101", 13);
+    }
+
+    @Test
+    public void testParseBinaryInvalidDigit() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "102", INVALID);
+    }
+
+    @Test
+    public void testParseBinaryTenDigitsNegative() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "1111111111", -1);
+    }
+
+    @Test
+    public void testParseBinaryTenDigitsMinimum() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "1000000000", -512);
+    }
+
+    @Test
+    public void testParseBinaryTooManyDigits() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "10000000000", INVALID);
+    }
+
+    @Test
+    public void testParseBinaryEmpty() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, "", INVALID);
+    }
+
+    @Test
+    public void testParseOctal() {
+        this.parseAndCheck(SpreadsheetServerRadix.OCTAL, "377", 255);
+    }
+
+    @Test
+    public void testParseOctalInvalidDigit() {
+        this.parseAndCheck(SpreadsheetServerRadix.OCTAL, "8", INVALID);
+    }
+
+    @Test
+    public void testParseOctalTenDigitsNegative() {
+        this.parseAndCheck(SpreadsheetServerRadix.OCTAL, "7777777777", -1);
+    }
+
+    @Test
+    public void testParseHexadecimalLowerCase() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "ff", 255);
+    }
+
+    @Test
+    public void testParseHexadecimalUpperCase() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "FF", 255);
+    }
+
+    @Test
+    public void testParseHexadecimalInvalidDigit() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "fg", INVALID);
+    }
+
+    @Test
+    public void testParseHexadecimalNonAscii() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "fé", INVALID);
+    }
+
+    @Test
+    public void testParseHexadecimalTenDigitsNegative() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "FFFFFFFFFE", -2);
+    }
+
+    @Test
+    public void testParseHexadecimalTenDigitsPositive() {
+        this.parseAndCheck(SpreadsheetServerRadix.HEXADECIMAL, "7FFFFFFFFF", 549755813887L);
+    }
+
+    @Test
+    public void testParseDecimal() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, "255", 255);
+    }
+
+    @Test
+    public void testParseDecimalNegative() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, "-255", -255);
+    }
+
+    @Test
+    public void testParseDecimalMinusOnly() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, "-", INVALID);
+    }
+
+    @Test
+    public void testParseDecimalHexDigit() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, "1a", INVALID);
+    }
+
+    @Test
+    public void testParseDecimalOutOfRange() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, "549755813888", INVALID);
+    }
+
+    @Test
+    public void testParseDecimalExpressionNumber() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, ExpressionNumberKind.BIG_DECIMAL.create(14), 14);
+    }
+
+    @Test
+    public void testParseDecimalExpressionNumberFraction() {
+        this.parseAndCheck(SpreadsheetServerRadix.DECIMAL, ExpressionNumberKind.DOUBLE.create(1.5), INVALID);
+    }
+
+    @Test
+    public void testParseBinaryExpressionNumber() {
+        this.parseAndCheck(SpreadsheetServerRadix.BINARY, ExpressionNumberKind.DOUBLE.create(1), INVALID);
+    }
+
+    private void parseAndCheck(final SpreadsheetServerRadix radix,
+                               final Object value,
+                               final long expected) {
+        this.checkEquals(
+                expected,
+                radix.parse(value),
+                () -> radix + " parse " + value
+        );
+    }
+
+    // format...........................................................................................................
+
+    @Test
+    public void testFormatBinary() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 14, NO_PLACES, "1110");
+    }
+
+    @Test
+    public void testFormatBinaryZero() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 0, NO_PLACES, "0");
+    }
+
+    @Test
+    public void testFormatBinaryPlaces() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 14, 8, "00001110");
+    }
+
+    @Test
+    public void testFormatBinaryPlacesTooFew() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 14, 3, null);
+    }
+
+    @Test
+    public void testFormatBinaryPlacesTooMany() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 14, 11, null);
+    }
+
+    @Test
+    public void testFormatBinaryNegative() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, -1, NO_PLACES, "1111111111");
+    }
+
+    @Test
+    public void testFormatBinaryNegativePlacesIgnored() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, -512, 4, "1000000000");
+    }
+
+    @Test
+    public void testFormatBinaryTooLarge() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, 512, NO_PLACES, null);
+    }
+
+    @Test
+    public void testFormatBinaryTooSmall() {
+        this.formatAndCheck(SpreadsheetServerRadix.BINARY, -513, NO_PLACES, null);
+    }
+
+    @Test
+    public void testFormatOctal() {
+        this.formatAndCheck(SpreadsheetServerRadix.OCTAL, 255, NO_PLACES, "377");
+    }
+
+    @Test
+    public void testFormatOctalNegative() {
+        this.formatAndCheck(SpreadsheetServerRadix.OCTAL, -1, NO_PLACES, "7777777777");
+    }
+
+    @Test
+    public void testFormatHexadecimal() {
+        this.formatAndCheck(SpreadsheetServerRadix.HEXADECIMAL, 255, NO_PLACES, "ff");
+    }
+
+    @Test
+    public void testFormatHexadecimalPlaces() {
+        this.formatAndCheck(SpreadsheetServerRadix.HEXADECIMAL, 255, 4, "00ff");
+    }
+
+    @Test
+    public void testFormatHexadecimalNegative() {
+        this.formatAndCheck(SpreadsheetServerRadix.HEXADECIMAL, -2, NO_PLACES, "fffffffffe");
+    }
+
+    @Test
+    public void testFormatDecimal() {
+        this.formatAndCheck(SpreadsheetServerRadix.DECIMAL, 255, NO_PLACES, "255");
+    }
+
+    @Test
+    public void testFormatDecimalNegative() {
+        this.formatAndCheck(SpreadsheetServerRadix.DECIMAL, -512, NO_PLACES, "-512");
+    }
+
+    @Test
+    public void testFormatDecimalPlaces() {
+        this.formatAndCheck(SpreadsheetServerRadix.DECIMAL, 255, 4, null);
+    }
+
+    private void formatAndCheck(final SpreadsheetServerRadix radix,
+                                final long value,
+                                final int places,
+                                final String expected) {
+        this.checkEquals(
+                expected,
+                radix.format(
+                        value,
+                        places
+                ),
+                () -> radix + " format " + value + " places " + places
+        );
+    }
+
+    // canParse.........................................................................................................
+
+    @Test
+    public void testCanParseBinaryString() {
+        this.canParseAndCheck(SpreadsheetServerRadix.BINARY, "1101", true);
+    }
+
+    @Test
+    public void testCanParseBinaryNumber() {
+        this.canParseAndCheck(SpreadsheetServerRadix.BINARY, ExpressionNumberKind.DOUBLE.create(1), false);
+    }
+
+    @Test
+    public void testCanParseDecimalNumber() {
+        this.canParseAndCheck(SpreadsheetServerRadix.DECIMAL, ExpressionNumberKind.DOUBLE.create(1), true);
+    }
+
+    @Test
+    public void testCanParseDecimalBoolean() {
+        this.canParseAndCheck(SpreadsheetServerRadix.DECIMAL, true, false);
+    }
+
+    private void canParseAndCheck(final SpreadsheetServerRadix radix,
+                                  final Object value,
+                                  final boolean expected) {
+        this.checkEquals(
+                expected,
+                radix.canParse(value),
+                () -> radix + " canParse " + value
+        );
+    }
+
+    // isInRange........................................................................................................
+
+    @Test
+    public void testIsInRangeBinaryMax() {
+        this.isInRangeAndCheck(SpreadsheetServerRadix.BINARY, 511, true);
+    }
+
+    @Test
+    public void testIsInRangeBinaryMaxPlusOne() {
+        this.isInRangeAndCheck(SpreadsheetServerRadix.BINARY, 512, false);
+    }
+
+    @Test
+    public void testIsInRangeBinaryMin() {
+        this.isInRangeAndCheck(SpreadsheetServerRadix.BINARY, -512, true);
+    }
+
+    @Test
+    public void testIsInRangeBinaryMinMinusOne() {
+        this.isInRangeAndCheck(SpreadsheetServerRadix.BINARY, -513, false);
+    }
+
+    private void isInRangeAndCheck(final SpreadsheetServerRadix radix,
+                                   final long value,
+                                   final boolean expected) {
+        this.checkEquals(
+                expected,
+                radix.isInRange(value),
+                () -> radix + " isInRange " + value
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerRadix> type() {
+        return SpreadsheetServerRadix.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
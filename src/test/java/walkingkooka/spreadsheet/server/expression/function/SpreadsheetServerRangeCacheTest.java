@@ -0,0 +1,288 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerRangeCacheTest implements ClassTesting2<SpreadsheetServerRangeCache> {
+
+    @Test
+    public void testLoad() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        final SpreadsheetServerSparseRange loaded = cache.get(
+                range("A1:A10"),
+                context
+        );
+        this.checkEquals(
+                Lists.of("A1", "A2", "A3"),
+                loaded.values(),
+                "values"
+        );
+        this.checkEquals(
+                7L,
+                loaded.missing(),
+                "missing"
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testSameContextLoadedOnce() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        assertSame(
+                cache.get(range("A1:A10"), context),
+                cache.get(range("A1:A10"), context)
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testDifferentContextShared() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+        final SpreadsheetServerTestContext context2 = new SpreadsheetServerTestContext(CELLS);
+
+        assertSame(
+                cache.get(range("A1:A10"), context),
+                cache.get(range("A1:A10"), context2)
+        );
+
+        this.checkEquals(1, context.loads, "loads");
+        this.checkEquals(0, context2.loads, "loads2");
+    }
+
+    @Test
+    public void testClearLoadedAgain() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        cache.get(range("A1:A10"), context);
+        cache.clear();
+
+        this.toStringAndCheck2(
+                cache,
+                "[] values: 0"
+        );
+
+        cache.get(range("A1:A10"), context);
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testClearReleasesColumn() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        final SpreadsheetServerSparseRange loaded = cache.get(range("A1:A10"), context);
+        final SpreadsheetServerColumn column = loaded.column();
+
+        loaded.release();
+        assertSame(
+                column,
+                loaded.column(),
+                "shared column released"
+        );
+
+        cache.clear();
+        assertNotSame(
+                column,
+                loaded.column(),
+                "column not released"
+        );
+    }
+
+    @Test
+    public void testMaxRangesRemovesLeastRecentlyUsed() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                2,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("B1:B10"), context);
+        cache.get(range("A1:A10"), context);
+        cache.get(range("C1:C10"), context);
+
+        this.toStringAndCheck2(
+                cache,
+                "[A1:A10, C1:C10] values: 5"
+        );
+        this.checkEquals(3, context.loads, "loads");
+    }
+
+    @Test
+    public void testMaxValuesRemovesLeastRecentlyUsed() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                5
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("B1:B10"), context);
+        cache.get(range("C1:C10"), context);
+
+        this.toStringAndCheck2(
+                cache,
+                "[B1:B10, C1:C10] values: 3"
+        );
+    }
+
+    @Test
+    public void testCellChangedLoadedAgain() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        final SpreadsheetServerSparseRange loaded = cache.get(range("A1:A10"), context);
+        cache.cellChanged(SpreadsheetSelection.parseCell("$A$2"));
+
+        assertNotSame(
+                loaded,
+                cache.get(range("A1:A10"), context)
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testCellChangedOutsideKept() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("B1:B10"), context);
+        cache.cellChanged(SpreadsheetSelection.parseCell("B2"));
+
+        this.toStringAndCheck2(
+                cache,
+                "[A1:A10] values: 3"
+        );
+    }
+
+    @Test
+    public void testCellChangedWhileLoadingNotKept() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                100
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS) {
+            @Override
+            public Set<SpreadsheetCell> loadCellRange(final SpreadsheetCellRangeReference range) {
+                cache.cellChanged(SpreadsheetSelection.parseCell("Z99"));
+                return super.loadCellRange(range);
+            }
+        };
+
+        cache.get(range("A1:A10"), context);
+        cache.get(range("A1:A10"), context);
+
+        this.checkEquals(2, context.loads, "loads");
+        this.toStringAndCheck2(
+                cache,
+                "[] values: 0"
+        );
+    }
+
+    @Test
+    public void testTooManyValuesNotKept() {
+        final SpreadsheetServerRangeCache cache = new SpreadsheetServerRangeCache(
+                10,
+                2
+        );
+        final SpreadsheetServerTestContext context = new SpreadsheetServerTestContext(CELLS);
+
+        cache.get(range("B1:B10"), context);
+        cache.get(range("A1:A10"), context);
+
+        this.toStringAndCheck2(
+                cache,
+                "[B1:B10] values: 1"
+        );
+    }
+
+    private void toStringAndCheck2(final SpreadsheetServerRangeCache cache,
+                                   final String expected) {
+        this.checkEquals(
+                expected,
+                cache.toString()
+        );
+    }
+
+    private static SpreadsheetCellRangeReference range(final String range) {
+        return SpreadsheetSelection.parseCellRange(range);
+    }
+
+    private final static List<SpreadsheetCell> CELLS = Lists.of(
+            cell("A1", "A1"),
+            cell("A2", "A2"),
+            cell("A3", "A3"),
+            cell("B1", "B1"),
+            cell("C1", "C1"),
+            cell("C2", "C2")
+    );
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerRangeCache> type() {
+        return SpreadsheetServerRangeCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetFormula;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.spreadsheet.store.SpreadsheetCellStore;
+import walkingkooka.spreadsheet.store.SpreadsheetCellStores;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerRecalculationTest implements ClassTesting2<SpreadsheetServerRecalculation> {
+
+    @Test
+    public void testWithParallelThresholdZeroFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerRecalculation.withParallelThreshold(0)
+        );
+        this.checkEquals(
+                "Invalid parallel threshold 0 <= 0",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithParallelThreshold() {
+        this.checkEquals(
+                123,
+                SpreadsheetServerRecalculation.withParallelThreshold(123)
+                        .parallelThreshold()
+        );
+    }
+
+    @Test
+    public void testEmptyParallelThreshold() {
+        this.checkEquals(
+                SpreadsheetServerChunkedReduction.PARALLEL_THRESHOLD,
+                SpreadsheetServerRecalculation.empty()
+                        .parallelThreshold()
+        );
+    }
+
+    @Test
+    public void testScanParallelThresholdSameSum() {
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        this.checkEquals(
+                SpreadsheetServerRecalculation.empty()
+                        .scan(
+                                parameters(),
+                                context
+                        ).sum(),
+                SpreadsheetServerRecalculation.withParallelThreshold(1)
+                        .scan(
+                                parameters(),
+                                context
+                        ).sum()
+        );
+    }
+
+    @Test
+    public void testScanShared() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertSame(
+                recalculation.scan(
+                        parameters(),
+                        context
+                ),
+                recalculation.scan(
+                        parameters(),
+                        context
+                )
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testScanNoneNotShared() {
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertNotSame(
+                SpreadsheetServerRecalculation.NONE.scan(
+                        parameters(),
+                        context
+                ),
+                SpreadsheetServerRecalculation.NONE.scan(
+                        parameters(),
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testCloseScannedAgain() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        recalculation.scan(
+                parameters(),
+                context
+        );
+        recalculation.close();
+        recalculation.scan(
+                parameters(),
+                context
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testDifferentRecalculationsNotShared() {
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        SpreadsheetServerRecalculation.empty()
+                .scan(
+                        parameters(),
+                        context
+                );
+        SpreadsheetServerRecalculation.empty()
+                .scan(
+                        parameters(),
+                        context
+                );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testRangeShared() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertSame(
+                recalculation.range(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                ),
+                recalculation.range(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testRangeNoneNotShared() {
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertNotSame(
+                SpreadsheetServerRecalculation.NONE.range(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                ),
+                SpreadsheetServerRecalculation.NONE.range(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testFunctionsShareRange() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        SpreadsheetServerExpressionFunctionMedian.INSTANCE.setRecalculation(recalculation)
+                .apply(
+                        parameters(),
+                        context
+                );
+        SpreadsheetServerExpressionFunctionVariance.VAR_P.setRecalculation(recalculation)
+                .apply(
+                        parameters(),
+                        context
+                );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testLookupIndexShared() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertSame(
+                recalculation.lookupIndex(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                ),
+                recalculation.lookupIndex(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(1, context.loads, "loads");
+
+        recalculation.close();
+        recalculation.lookupIndex(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testLookupIndexNoneNotShared() {
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        assertNotSame(
+                SpreadsheetServerRecalculation.NONE.lookupIndex(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                ),
+                SpreadsheetServerRecalculation.NONE.lookupIndex(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testIfsShareRange() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        final List<Object> parameters = Lists.of(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                ">0"
+        );
+
+        this.checkEquals(
+                SpreadsheetServerExpressionFunctionCountIfs.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                parameters,
+                                context
+                        ),
+                SpreadsheetServerExpressionFunctionCountIfs.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                parameters,
+                                context
+                        )
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testSumProductSharesRange() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(1 * 1 + 2 * 2),
+                SpreadsheetServerExpressionFunctionSumProduct.INSTANCE.setRecalculation(recalculation)
+                        .apply(
+                                Lists.of(
+                                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                                        SpreadsheetSelection.parseCellRange("A1:A10")
+                                ),
+                                context
+                        )
+        );
+        this.checkEquals(1, context.loads, "loads");
+    }
+
+    @Test
+    public void testCellChangedRangeLoadedAgain() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        final SpreadsheetServerSparseRange range = recalculation.range(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        recalculation.cellChanged(SpreadsheetSelection.parseCell("A5"));
+
+        assertNotSame(
+                range,
+                recalculation.range(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testCellChangedLookupIndexLoadedAgain() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+
+        final SpreadsheetServerLookupIndex index = recalculation.lookupIndex(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        recalculation.cellChanged(SpreadsheetSelection.parseCell("A5"));
+
+        assertNotSame(
+                index,
+                recalculation.lookupIndex(
+                        SpreadsheetSelection.parseCellRange("A1:A10"),
+                        context
+                )
+        );
+        this.checkEquals(2, context.loads, "loads");
+    }
+
+    @Test
+    public void testWatchSavedCellRangeLoadedAgain() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerTestContext context = SpreadsheetServerAggregateFusionTest.context();
+        final SpreadsheetCellStore store = SpreadsheetCellStores.treeMap();
+
+        final Runnable unwatch = recalculation.watch(store);
+
+        recalculation.range(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        store.save(
+                SpreadsheetSelection.parseCell("A5")
+                        .setFormula(SpreadsheetFormula.EMPTY)
+        );
+        recalculation.range(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        this.checkEquals(2, context.loads, "loads");
+
+        unwatch.run();
+        store.save(
+                SpreadsheetSelection.parseCell("A6")
+                        .setFormula(SpreadsheetFormula.EMPTY)
+        );
+        recalculation.range(
+                SpreadsheetSelection.parseCellRange("A1:A10"),
+                context
+        );
+        this.checkEquals(2, context.loads, "loads after unwatch");
+    }
+
+    @Test
+    public void testSetRecalculationSame() {
+        final SpreadsheetServerRecalculation recalculation = SpreadsheetServerRecalculation.empty();
+        final SpreadsheetServerExpressionFunctionAggregate function = SpreadsheetServerExpressionFunctionSum.INSTANCE.setRecalculation(recalculation);
+
+        assertSame(
+                function,
+                function.setRecalculation(recalculation)
+        );
+        assertSame(
+                SpreadsheetServerExpressionFunctionSum.INSTANCE,
+                SpreadsheetServerExpressionFunctionSum.INSTANCE.setRecalculation(SpreadsheetServerRecalculation.NONE)
+        );
+    }
+
+    @Test
+    public void testToStringNone() {
+        this.checkEquals(
+                "none",
+                SpreadsheetServerRecalculation.NONE.toString()
+        );
+    }
+
+    private static List<Object> parameters() {
+        return Lists.of(
+                SpreadsheetSelection.parseCellRange("A1:A10")
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerRecalculation> type() {
+        return SpreadsheetServerRecalculation.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.SpreadsheetFormula;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerSortedRangeTest implements ClassTesting2<SpreadsheetServerSortedRange> {
+
+    @Test
+    public void testLoadNotReferenceFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerSortedRange.load(
+                        "A1",
+                        SpreadsheetServerRecalculation.NONE,
+                        new SpreadsheetServerTestContext(Lists.empty())
+                )
+        );
+        this.checkEquals(
+                "Expected range but got A1",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSorted() {
+        final SpreadsheetServerSortedRange range = load(
+                "A1:B3",
+                cell("A1", "a1"),
+                cell("B1", "b1"),
+                cell("A3", "a3")
+        );
+
+        this.checkEquals(
+                Lists.of(0L, 1L, 4L),
+                offsets(range)
+        );
+        this.checkEquals("a1", range.get(0));
+        this.checkEquals("b1", range.get(1));
+        this.checkEquals(null, range.get(2));
+        this.checkEquals("a3", range.get(4));
+        this.checkEquals(6L, range.area, "area");
+    }
+
+    @Test
+    public void testUnsortedStore() {
+        final SpreadsheetServerSortedRange range = load(
+                "A1:B3",
+                cell("B2", "b2"),
+                cell("A1", "a1"),
+                cell("A3", "a3")
+        );
+
+        this.checkEquals(
+                Lists.of(0L, 3L, 4L),
+                offsets(range)
+        );
+        this.checkEquals("a1", range.get(0));
+        this.checkEquals("b2", range.get(3));
+        this.checkEquals("a3", range.get(4));
+        this.checkEquals(1, range.valueIndex(0), "valueIndex");
+    }
+
+    @Test
+    public void testMissingValuesSkipped() {
+        final SpreadsheetServerSortedRange range = load(
+                "A1:A3",
+                cell("A1", "a1"),
+                SpreadsheetSelection.parseCell("A2")
+                        .setFormula(SpreadsheetFormula.EMPTY),
+                cell("A3", "a3")
+        );
+
+        this.checkEquals(
+                Lists.of(0L, 2L),
+                offsets(range)
+        );
+        this.checkEquals("a3", range.get(2));
+    }
+
+    @Test
+    public void testSortedOnce() {
+        final SpreadsheetServerSparseRange loaded = SpreadsheetServerSparseRange.load(
+                SpreadsheetSelection.parseCellRange("A1:A3"),
+                new SpreadsheetServerTestContext(
+                        Lists.of(
+                                cell("A1", "a1")
+                        )
+                )
+        );
+
+        assertSame(
+                loaded.sorted(),
+                loaded.sorted()
+        );
+    }
+
+    @Test
+    public void testParametersSortedFails() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> SpreadsheetServerSparseRange.with(
+                        Lists.of("a1"),
+                        0
+                ).sorted()
+        );
+    }
+
+    @Test
+    public void testCheckSameShapeFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> load("A1:B2").checkSameShape(load("A1:A4"))
+        );
+        this.checkEquals(
+                "Range A1:A4 is not the same size as A1:B2",
+                thrown.getMessage()
+        );
+    }
+
+    private static SpreadsheetServerSortedRange load(final String range,
+                                                     final SpreadsheetCell... cells) {
+        return SpreadsheetServerSortedRange.load(
+                SpreadsheetSelection.parseCellRange(range),
+                SpreadsheetServerRecalculation.NONE,
+                new SpreadsheetServerTestContext(
+                        Lists.of(cells)
+                )
+        );
+    }
+
+    private static List<Long> offsets(final SpreadsheetServerSortedRange range) {
+        final List<Long> offsets = Lists.array();
+        for (final long offset : range.offsets) {
+            offsets.add(offset);
+        }
+        return offsets;
+    }
+
+    /**
+     * Loads the cells in the given order, like a store that does not load cells in order.
+     */
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerSortedRange> type() {
+        return SpreadsheetServerSortedRange.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
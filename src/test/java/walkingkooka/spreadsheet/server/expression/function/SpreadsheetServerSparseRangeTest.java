@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.SpreadsheetError;
+import walkingkooka.spreadsheet.expression.SpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static walkingkooka.spreadsheet.server.expression.function.SpreadsheetServerTestContext.cell;
+
+public final class SpreadsheetServerSparseRangeTest implements ClassTesting2<SpreadsheetServerSparseRange> {
+
+    @Test
+    public void testWithNullValuesFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpreadsheetServerSparseRange.with(
+                        null,
+                        0
+                )
+        );
+    }
+
+    @Test
+    public void testWithNegativeMissingFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SpreadsheetServerSparseRange.with(
+                        Lists.empty(),
+                        -1
+                )
+        );
+    }
+
+    @Test
+    public void testParametersNullParametersFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpreadsheetServerSparseRange.parameters(
+                        null,
+                        this.context()
+                )
+        );
+    }
+
+    @Test
+    public void testParametersNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpreadsheetServerSparseRange.parameters(
+                        Lists.empty(),
+                        null
+                )
+        );
+    }
+
+    @Test
+    public void testParametersValues() {
+        this.parametersAndCheck(
+                Lists.of(
+                        1,
+                        "abc",
+                        null,
+                        SpreadsheetError.selectionNotFound(
+                                SpreadsheetSelection.parseCell("Z99")
+                        )
+                ),
+                Lists.of(
+                        1,
+                        "abc"
+                ),
+                2
+        );
+    }
+
+    @Test
+    public void testParametersList() {
+        this.parametersAndCheck(
+                Lists.of(
+                        Lists.of(
+                                1,
+                                null
+                        ),
+                        2
+                ),
+                Lists.of(
+                        1,
+                        2
+                ),
+                1
+        );
+    }
+
+    @Test
+    public void testParametersCellWithoutValue() {
+        this.parametersAndCheck(
+                Lists.of(
+                        SpreadsheetSelection.parseCell("Z99")
+                ),
+                Lists.empty(),
+                1
+        );
+    }
+
+    @Test
+    public void testParametersColumnRange() {
+        this.parametersAndCheck(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("A1:A1048576")
+                ),
+                Lists.of(
+                        1,
+                        "abc"
+                ),
+                1048576 - 2
+        );
+    }
+
+    @Test
+    public void testParametersRangeAndValues() {
+        this.parametersAndCheck(
+                Lists.of(
+                        SpreadsheetSelection.parseCellRange("A1:B2"),
+                        3
+                ),
+                Lists.of(
+                        1,
+                        "abc",
+                        3
+                ),
+                4 - 2
+        );
+    }
+
+    private void parametersAndCheck(final List<Object> parameters,
+                                    final List<Object> values,
+                                    final long missing) {
+        final SpreadsheetServerSparseRange range = SpreadsheetServerSparseRange.parameters(
+                parameters,
+                this.context()
+        );
+        this.checkEquals(
+                values,
+                range.values(),
+                () -> "values " + parameters
+        );
+        this.checkEquals(
+                missing,
+                range.missing(),
+                () -> "missing " + parameters
+        );
+    }
+
+    /**
+     * A context where column A holds A1=1, A2=abc and A3 without a value.
+     */
+    private SpreadsheetExpressionEvaluationContext context() {
+        return new SpreadsheetServerTestContext(CELLS);
+    }
+
+    private final static List<SpreadsheetCell> CELLS = Lists.of(
+            cell("A1", 1),
+            cell("A2", "abc"),
+            cell("A3", null)
+    );
+
+    @Test
+    public void testToString() {
+        this.checkEquals(
+                "[1, abc] missing: 2",
+                SpreadsheetServerSparseRange.with(
+                        Lists.of(
+                                1,
+                                "abc"
+                        ),
+                        2
+                ).toString()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerSparseRange> type() {
+        return SpreadsheetServerSparseRange.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import walkingkooka.collect.set.Sets;
+import walkingkooka.spreadsheet.SpreadsheetCell;
+import walkingkooka.spreadsheet.SpreadsheetFormula;
+import walkingkooka.spreadsheet.expression.FakeSpreadsheetExpressionEvaluationContext;
+import walkingkooka.spreadsheet.reference.SpreadsheetCellRangeReference;
+import walkingkooka.spreadsheet.reference.SpreadsheetSelection;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A context for tests which loads the cells of a range from a list of cells and counts the loads. Labels are never
+ * resolved and values are converted by casting.
+ */
+class SpreadsheetServerTestContext extends FakeSpreadsheetExpressionEvaluationContext {
+
+    /**
+     * Creates a cell with the given value, where null is a cell without a value.
+     */
+    static SpreadsheetCell cell(final String reference,
+                                final Object value) {
+        return SpreadsheetSelection.parseCell(reference)
+                .setFormula(
+                        SpreadsheetFormula.EMPTY.setValue(
+                                Optional.ofNullable(value)
+                        )
+                );
+    }
+
+    SpreadsheetServerTestContext(final List<SpreadsheetCell> cells) {
+        this(
+                ExpressionNumberKind.BIG_DECIMAL,
+                cells
+        );
+    }
+
+    SpreadsheetServerTestContext(final ExpressionNumberKind kind,
+                                 final List<SpreadsheetCell> cells) {
+        super();
+        this.kind = kind;
+        this.cells = cells;
+    }
+
+    @Override
+    public ExpressionNumberKind expressionNumberKind() {
+        return this.kind;
+    }
+
+    private final ExpressionNumberKind kind;
+
+    @Override
+    public MathContext mathContext() {
+        return MathContext.DECIMAL64;
+    }
+
+    @Override
+    public <T> T convertOrFail(final Object value,
+                               final Class<T> target) {
+        return target.cast(value);
+    }
+
+    @Override
+    public SpreadsheetSelection resolveIfLabel(final SpreadsheetSelection selection) {
+        return selection;
+    }
+
+    @Override
+    public Set<SpreadsheetCell> loadCellRange(final SpreadsheetCellRangeReference range) {
+        this.loads++;
+
+        final Set<SpreadsheetCell> loaded = Sets.ordered();
+        for (final SpreadsheetCell cell : this.cells) {
+            if (range.testCell(cell.reference())) {
+                loaded.add(cell);
+            }
+        }
+        return loaded;
+    }
+
+    private final List<SpreadsheetCell> cells;
+
+    /**
+     * The number of calls to {@link #loadCellRange(SpreadsheetCellRangeReference)}.
+     */
+    int loads;
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.spreadsheet.server.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.ExpressionNumberContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SpreadsheetServerVarianceTest implements ClassTesting2<SpreadsheetServerVariance> {
+
+    @Test
+    public void testVarianceBigDecimal() {
+        this.varianceAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    @Test
+    public void testVarianceDouble() {
+        this.varianceAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    private void varianceAndCheck(final ExpressionNumberKind kind) {
+        final SpreadsheetServerVariance variance = this.variance(
+                kind,
+                2, 4, 4, 4, 5, 5, 7, 9
+        );
+
+        this.checkEquals(8L, variance.count(), "count");
+        this.checkEquals(kind.create(4), variance.variance(false), "population variance");
+        this.checkEquals(kind.create(2), variance.standardDeviation(false), "population standard deviation");
+    }
+
+    @Test
+    public void testSampleBigDecimal() {
+        this.sampleAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    @Test
+    public void testSampleDouble() {
+        this.sampleAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    private void sampleAndCheck(final ExpressionNumberKind kind) {
+        final SpreadsheetServerVariance variance = this.variance(
+                kind,
+                1, 3, 5
+        );
+
+        this.checkEquals(kind.create(4), variance.variance(true), "sample variance");
+        this.checkEquals(kind.create(2), variance.standardDeviation(true), "sample standard deviation");
+    }
+
+    @Test
+    public void testSampleLargeOffsetDouble() {
+        final long offset = 1_000_000_000L;
+        final SpreadsheetServerVariance variance = this.variance(
+                ExpressionNumberKind.DOUBLE,
+                offset + 4, offset + 7, offset + 13, offset + 16
+        );
+
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(30),
+                variance.variance(true)
+        );
+    }
+
+    @Test
+    public void testMergeBigDecimal() {
+        this.mergeAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    @Test
+    public void testMergeDouble() {
+        this.mergeAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    private void mergeAndCheck(final ExpressionNumberKind kind) {
+        final SpreadsheetServerVariance variance = this.variance(
+                kind,
+                2, 4, 4, 4, 5, 5
+        );
+        variance.merge(
+                this.variance(
+                        kind,
+                        7, 9
+                )
+        );
+
+        this.checkEquals(8L, variance.count(), "count");
+        this.checkEquals(kind.create(4), variance.variance(false), "population variance");
+    }
+
+    @Test
+    public void testMergeEmpty() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.BIG_DECIMAL;
+
+        final SpreadsheetServerVariance variance = this.variance(kind);
+        variance.merge(
+                this.variance(
+                        kind,
+                        1, 3, 5
+                )
+        );
+        variance.merge(
+                this.variance(kind)
+        );
+
+        this.checkEquals(3L, variance.count(), "count");
+        this.checkEquals(kind.create(4), variance.variance(true), "sample variance");
+    }
+
+    @Test
+    public void testMergeChunksSameAsSinglePass() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+        final Random random = new Random(1);
+
+        final double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1E6 + random.nextDouble();
+        }
+
+        final SpreadsheetServerVariance single = this.variance(kind);
+        for (final double value : values) {
+            single.accept(value);
+        }
+
+        final SpreadsheetServerVariance merged = this.variance(kind);
+        for (int i = 0; i < values.length; i += 64) {
+            final SpreadsheetServerVariance chunk = this.variance(kind);
+            for (int j = i; j < Math.min(values.length, i + 64); j++) {
+                chunk.accept(values[j]);
+            }
+            merged.merge(chunk);
+        }
+
+        assertEquals(
+                single.variance(true).doubleValue(),
+                merged.variance(true).doubleValue(),
+                1E-9
+        );
+    }
+
+    @Test
+    public void testSampleVarianceOneNumberFails() {
+        assertThrows(
+                ArithmeticException.class,
+                () -> this.variance(ExpressionNumberKind.BIG_DECIMAL, 1)
+                        .variance(true)
+        );
+    }
+
+    @Test
+    public void testPopulationVarianceEmptyFails() {
+        assertThrows(
+                ArithmeticException.class,
+                () -> this.variance(ExpressionNumberKind.BIG_DECIMAL)
+                        .variance(false)
+        );
+    }
+
+    private SpreadsheetServerVariance variance(final ExpressionNumberKind kind,
+                                               final long... values) {
+        final SpreadsheetServerVariance variance = SpreadsheetServerVariance.empty(
+                ExpressionNumberContexts.basic(
+                        kind,
+                        MathContext.DECIMAL64
+                )
+        );
+        for (final long value : values) {
+            variance.accept(kind.create(value));
+        }
+        return variance;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<SpreadsheetServerVariance> type() {
+        return SpreadsheetServerVariance.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}